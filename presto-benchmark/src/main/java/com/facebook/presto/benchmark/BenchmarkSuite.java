@@ -72,6 +72,11 @@ public class BenchmarkSuite
                 new SqlTpchQuery1(localQueryRunner),
                 new SqlTpchQuery6(localQueryRunner),
                 new SqlLikeBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmark.SqlLikePrefixBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmark.SqlLikeSuffixBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmark.SqlLikeContainsBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmark.SqlLikeSingleCharacterWildcardBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmark.SqlLikeRegexBenchmark(localQueryRunner),
                 new SqlInBenchmark(localQueryRunner),
                 new SqlSemiJoinInPredicateBenchmark(localQueryRunner),
                 new SqlRegexpLikeBenchmark(localQueryRunner),
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.benchmark;
+
+import com.facebook.presto.testing.LocalQueryRunner;
+
+import static com.facebook.presto.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+
+public abstract class SqlLikePatternBenchmark
+{
+    public static void main(String... args)
+    {
+        LocalQueryRunner localQueryRunner = createLocalQueryRunner();
+        new SqlLikePrefixBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlLikeSuffixBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlLikeContainsBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlLikeSingleCharacterWildcardBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlLikeRegexBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+    }
+
+    public static class SqlLikePrefixBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlLikePrefixBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_prefix", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE 'fur%'");
+        }
+    }
+
+    public static class SqlLikeSuffixBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlLikeSuffixBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_suffix", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE '%ly'");
+        }
+    }
+
+    public static class SqlLikeContainsBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlLikeContainsBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_contains", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE '%ideas%'");
+        }
+    }
+
+    public static class SqlLikeSingleCharacterWildcardBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlLikeSingleCharacterWildcardBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_single_character_wildcard", 4, 5, "SELECT orderkey FROM orders WHERE orderpriority LIKE '_-URGENT'");
+        }
+    }
+
+    public static class SqlLikeRegexBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlLikeRegexBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_regex", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE '%ly_%ly%'");
+        }
+    }
+}
@@ -105,7 +105,7 @@ public class BackgroundHiveSplitLoader
     private final NamenodeStats namenodeStats;
     private final DirectoryLister directoryLister;
     private final DataSize maxSplitSize;
-    private final int maxPartitionBatchSize;
+    private final int loaderConcurrency;
     private final DataSize maxInitialSplitSize;
     private final boolean recursiveDirWalkerEnabled;
     private final Executor executor;
@@ -141,7 +141,7 @@ public class BackgroundHiveSplitLoader
             NamenodeStats namenodeStats,
             DirectoryLister directoryLister,
             Executor executor,
-            int maxPartitionBatchSize,
+            int loaderConcurrency,
             int maxInitialSplits,
             boolean recursiveDirWalkerEnabled)
     {
@@ -150,7 +150,7 @@ public class BackgroundHiveSplitLoader
         this.bucketHandle = bucketHandle;
         this.buckets = buckets;
         this.maxSplitSize = getMaxSplitSize(session);
-        this.maxPartitionBatchSize = maxPartitionBatchSize;
+        this.loaderConcurrency = loaderConcurrency;
         this.session = session;
         this.hdfsEnvironment = hdfsEnvironment;
         this.namenodeStats = namenodeStats;
@@ -167,7 +167,7 @@ public class BackgroundHiveSplitLoader
     public void start(HiveSplitSource splitSource)
     {
         this.hiveSplitSource = splitSource;
-        for (int i = 0; i < maxPartitionBatchSize; i++) {
+        for (int i = 0; i < loaderConcurrency; i++) {
             ResumableTasks.submit(executor, new HiveSplitLoaderTask());
         }
     }
@@ -246,6 +246,7 @@ public class BackgroundHiveSplitLoader
                 if (recursiveDirWalkerEnabled) {
                     HiveFileIterator fileIterator = new HiveFileIterator(
                             file.getPath(),
+                            files.getTable(),
                             files.getFileSystem(),
                             files.getDirectoryLister(),
                             files.getNamenodeStats(),
@@ -268,6 +269,7 @@ public class BackgroundHiveSplitLoader
                         0,
                         file.getLen(),
                         file.getLen(),
+                        file.getModificationTime(),
                         files.getSchema(),
                         files.getPartitionKeys(),
                         splittable,
@@ -337,7 +339,7 @@ public class BackgroundHiveSplitLoader
         }
 
         // If only one bucket could match: load that one file
-        HiveFileIterator iterator = new HiveFileIterator(path, fs, directoryLister, namenodeStats, partitionName, inputFormat, schema, partitionKeys, effectivePredicate, partition.getColumnCoercions());
+        HiveFileIterator iterator = new HiveFileIterator(path, table, fs, directoryLister, namenodeStats, partitionName, inputFormat, schema, partitionKeys, effectivePredicate, partition.getColumnCoercions());
         if (!buckets.isEmpty()) {
             int bucketCount = buckets.get(0).getBucketCount();
             List<LocatedFileStatus> list = listAndSortBucketFiles(iterator, bucketCount);
@@ -355,6 +357,7 @@ public class BackgroundHiveSplitLoader
                         0,
                         file.getLen(),
                         file.getLen(),
+                        file.getModificationTime(),
                         iterator.getSchema(),
                         iterator.getPartitionKeys(),
                         splittable,
@@ -387,6 +390,7 @@ public class BackgroundHiveSplitLoader
                         0,
                         file.getLen(),
                         file.getLen(),
+                        file.getModificationTime(),
                         iterator.getSchema(),
                         iterator.getPartitionKeys(),
                         splittable,
@@ -425,6 +429,7 @@ public class BackgroundHiveSplitLoader
                     split.getStart(),
                     split.getLength(),
                     file.getLen(),
+                    file.getModificationTime(),
                     schema,
                     partitionKeys,
                     false,
@@ -514,6 +519,7 @@ public class BackgroundHiveSplitLoader
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HivePartitionKey> partitionKeys,
             boolean splittable,
@@ -575,6 +581,7 @@ public class BackgroundHiveSplitLoader
                             blockLocation.getOffset() + chunkOffset,
                             chunkLength,
                             fileSize,
+                            fileModifiedTime,
                             schema,
                             partitionKeys,
                             addresses,
@@ -611,6 +618,7 @@ public class BackgroundHiveSplitLoader
                     start,
                     length,
                     fileSize,
+                    fileModifiedTime,
                     schema,
                     partitionKeys,
                     addresses,
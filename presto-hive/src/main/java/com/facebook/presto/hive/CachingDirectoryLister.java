@@ -0,0 +1,280 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.metastore.Table;
+import com.facebook.presto.spi.SchemaTableName;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.Duration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Caches directory listings of the configured tables. This is only safe for tables whose
+ * partitions are not modified outside of Presto, since only writes committed through this
+ * connector invalidate the cached listings.
+ */
+public class CachingDirectoryLister
+        implements DirectoryLister, TableInvalidationCallback
+{
+    private static final String ALL_TABLES = "*";
+
+    private final DirectoryLister delegate;
+    private final Cache<CacheKey, List<LocatedFileStatus>> cache;
+    private final Set<SchemaTableName> tableNames;
+    private final boolean cacheAllTables;
+    // incremented on every invalidation, so listings that were in flight during it are not added afterwards
+    @GuardedBy("this")
+    private long generation;
+
+    @Inject
+    public CachingDirectoryLister(HiveClientConfig hiveClientConfig)
+    {
+        this(new HadoopDirectoryLister(), hiveClientConfig.getFileStatusCacheExpireAfterWrite(), hiveClientConfig.getFileStatusCacheMaxSize(), hiveClientConfig.getFileStatusCacheTables());
+    }
+
+    public CachingDirectoryLister(DirectoryLister delegate, Duration expireAfterWrite, long maxSize, List<String> tables)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((Weigher<CacheKey, List<LocatedFileStatus>>) (key, value) -> value.size())
+                .expireAfterWrite(expireAfterWrite.toMillis(), MILLISECONDS)
+                .recordStats()
+                .build();
+        requireNonNull(tables, "tables is null");
+        this.cacheAllTables = tables.contains(ALL_TABLES);
+        this.tableNames = tables.stream()
+                .filter(table -> !table.equals(ALL_TABLES))
+                .map(CachingDirectoryLister::parseTableName)
+                .collect(toImmutableSet());
+    }
+
+    private static SchemaTableName parseTableName(String tableName)
+    {
+        String[] parts = tableName.split("\\.");
+        checkArgument(parts.length == 2, "Invalid schemaTableName: %s", tableName);
+        return new SchemaTableName(parts[0], parts[1]);
+    }
+
+    @Override
+    public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
+            throws IOException
+    {
+        SchemaTableName tableName = new SchemaTableName(table.getDatabaseName(), table.getTableName());
+        if (!isCached(tableName)) {
+            return delegate.list(fs, table, path);
+        }
+
+        CacheKey key = new CacheKey(tableName, path);
+        List<LocatedFileStatus> files = cache.getIfPresent(key);
+        if (files != null) {
+            return simpleRemoteIterator(files);
+        }
+        long listingGeneration = getGeneration();
+        return cachingRemoteIterator(delegate.list(fs, table, path), key, listingGeneration);
+    }
+
+    @Override
+    public synchronized void invalidate(SchemaTableName table)
+    {
+        if (isCached(table)) {
+            generation++;
+            cache.asMap().keySet().removeIf(key -> key.getTable().equals(table));
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll()
+    {
+        generation++;
+        cache.invalidateAll();
+    }
+
+    private synchronized long getGeneration()
+    {
+        return generation;
+    }
+
+    private synchronized void putListing(CacheKey key, List<LocatedFileStatus> files, long listingGeneration)
+    {
+        // the listing may have started before the files were changed
+        if (listingGeneration == generation) {
+            cache.put(key, files);
+        }
+    }
+
+    private boolean isCached(SchemaTableName table)
+    {
+        return cacheAllTables || tableNames.contains(table);
+    }
+
+    private RemoteIterator<LocatedFileStatus> cachingRemoteIterator(RemoteIterator<LocatedFileStatus> iterator, CacheKey key, long listingGeneration)
+    {
+        return new RemoteIterator<LocatedFileStatus>()
+        {
+            private final List<LocatedFileStatus> files = new ArrayList<>();
+
+            @Override
+            public boolean hasNext()
+                    throws IOException
+            {
+                boolean hasNext = iterator.hasNext();
+                if (!hasNext) {
+                    putListing(key, ImmutableList.copyOf(files), listingGeneration);
+                }
+                return hasNext;
+            }
+
+            @Override
+            public LocatedFileStatus next()
+                    throws IOException
+            {
+                LocatedFileStatus status = iterator.next();
+                files.add(status);
+                return status;
+            }
+        };
+    }
+
+    private static RemoteIterator<LocatedFileStatus> simpleRemoteIterator(List<LocatedFileStatus> files)
+    {
+        return new RemoteIterator<LocatedFileStatus>()
+        {
+            private final Iterator<LocatedFileStatus> iterator = files.iterator();
+
+            @Override
+            public boolean hasNext()
+            {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public LocatedFileStatus next()
+            {
+                return iterator.next();
+            }
+        };
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        invalidateAll();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Managed
+    public double getMissRate()
+    {
+        return cache.stats().missRate();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    private static class CacheKey
+    {
+        private final SchemaTableName table;
+        private final Path path;
+
+        public CacheKey(SchemaTableName table, Path path)
+        {
+            this.table = requireNonNull(table, "table is null");
+            this.path = requireNonNull(path, "path is null");
+        }
+
+        public SchemaTableName getTable()
+        {
+            return table;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return Objects.equals(table, other.table) &&
+                    Objects.equals(path, other.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(table, path);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("table", table)
+                    .add("path", path)
+                    .toString();
+        }
+    }
+}
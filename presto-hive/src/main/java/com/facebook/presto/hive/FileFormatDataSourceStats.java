@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive;
 
+import io.airlift.stats.CounterStat;
 import io.airlift.stats.DistributionStat;
 import io.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
@@ -29,6 +30,10 @@ public class FileFormatDataSourceStats
     private final TimeStat time100KBto1MB = new TimeStat(MILLISECONDS);
     private final TimeStat time1MBto10MB = new TimeStat(MILLISECONDS);
     private final TimeStat time10MBPlus = new TimeStat(MILLISECONDS);
+    private final CounterStat rowGroupsSkippedByStatistics = new CounterStat();
+    private final CounterStat rowGroupsSkippedByDictionary = new CounterStat();
+    private final CounterStat rowGroupsSkippedByPageStatistics = new CounterStat();
+    private final CounterStat pagesSkippedByPageStatistics = new CounterStat();
 
     @Managed
     @Nested
@@ -72,6 +77,34 @@ public class FileFormatDataSourceStats
         return time10MBPlus;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getRowGroupsSkippedByStatistics()
+    {
+        return rowGroupsSkippedByStatistics;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getRowGroupsSkippedByDictionary()
+    {
+        return rowGroupsSkippedByDictionary;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getRowGroupsSkippedByPageStatistics()
+    {
+        return rowGroupsSkippedByPageStatistics;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getPagesSkippedByPageStatistics()
+    {
+        return pagesSkippedByPageStatistics;
+    }
+
     public void readDataBytesPerSecond(long bytes, long nanos)
     {
         readBytes.add(bytes);
@@ -93,4 +126,20 @@ public class FileFormatDataSourceStats
     {
         maxCombinedBytesPerRow.add(bytes);
     }
+
+    public void rowGroupSkippedByStatistics()
+    {
+        rowGroupsSkippedByStatistics.update(1);
+    }
+
+    public void rowGroupSkippedByDictionary()
+    {
+        rowGroupsSkippedByDictionary.update(1);
+    }
+
+    public void rowGroupSkippedByPageStatistics(int pageCount)
+    {
+        rowGroupsSkippedByPageStatistics.update(1);
+        pagesSkippedByPageStatistics.update(pageCount);
+    }
 }
@@ -48,6 +48,7 @@ public class HiveClientConfig
     private int maxPartitionsPerScan = 100_000;
     private int maxOutstandingSplits = 1_000;
     private int maxSplitIteratorThreads = 1_000;
+    private int splitLoaderConcurrency = 100;
     private int minPartitionBatchSize = 10;
     private int maxPartitionBatchSize = 100;
     private int maxInitialSplits = 200;
@@ -62,6 +63,8 @@ public class HiveClientConfig
 
     private Duration metastoreCacheTtl = new Duration(0, TimeUnit.SECONDS);
     private Duration metastoreRefreshInterval = new Duration(0, TimeUnit.SECONDS);
+    private Duration metastoreCacheMaxStaleness = new Duration(0, TimeUnit.SECONDS);
+    private int metastorePartitionPrefetchSize = 1000;
     private long metastoreCacheMaximumSize = 10000;
     private long perTransactionMetastoreCacheMaximumSize = 1000;
     private int maxMetastoreRefreshThreads = 100;
@@ -114,6 +117,10 @@ public class HiveClientConfig
 
     private int fileSystemMaxCacheSize = 1000;
 
+    private List<String> fileStatusCacheTables = ImmutableList.of();
+    private long fileStatusCacheMaxSize = 1_000_000;
+    private Duration fileStatusCacheExpireAfterWrite = new Duration(1, TimeUnit.MINUTES);
+
     private boolean writesToNonManagedTablesEnabled;
     private boolean tableStatisticsEnabled = true;
 
@@ -266,6 +273,20 @@ public class HiveClientConfig
         return this;
     }
 
+    @Min(1)
+    public int getSplitLoaderConcurrency()
+    {
+        return splitLoaderConcurrency;
+    }
+
+    @Config("hive.split-loader-concurrency")
+    @ConfigDescription("Number of partitions listed concurrently for a single query")
+    public HiveClientConfig setSplitLoaderConcurrency(int splitLoaderConcurrency)
+    {
+        this.splitLoaderConcurrency = splitLoaderConcurrency;
+        return this;
+    }
+
     @Deprecated
     public boolean getAllowCorruptWritesForTesting()
     {
@@ -309,6 +330,35 @@ public class HiveClientConfig
         return this;
     }
 
+    @NotNull
+    public Duration getMetastoreCacheMaxStaleness()
+    {
+        return metastoreCacheMaxStaleness;
+    }
+
+    @MinDuration("0ms")
+    @Config("hive.metastore-cache-max-staleness")
+    @ConfigDescription("How long a cached metastore entry may be used past its TTL while it is reloaded in the background")
+    public HiveClientConfig setMetastoreCacheMaxStaleness(Duration metastoreCacheMaxStaleness)
+    {
+        this.metastoreCacheMaxStaleness = metastoreCacheMaxStaleness;
+        return this;
+    }
+
+    public int getMetastorePartitionPrefetchSize()
+    {
+        return metastorePartitionPrefetchSize;
+    }
+
+    @Min(0)
+    @Config("hive.metastore-partition-prefetch-size")
+    @ConfigDescription("Number of partitions to load into the metastore cache ahead of the partitions requested by a query")
+    public HiveClientConfig setMetastorePartitionPrefetchSize(int metastorePartitionPrefetchSize)
+    {
+        this.metastorePartitionPrefetchSize = metastorePartitionPrefetchSize;
+        return this;
+    }
+
     public long getMetastoreCacheMaximumSize()
     {
         return metastoreCacheMaximumSize;
@@ -879,6 +929,48 @@ public class HiveClientConfig
         return this;
     }
 
+    @NotNull
+    public List<String> getFileStatusCacheTables()
+    {
+        return fileStatusCacheTables;
+    }
+
+    @Config("hive.file-status-cache-tables")
+    @ConfigDescription("Comma separated list of tables (schema.table or *) whose directory listings are cached")
+    public HiveClientConfig setFileStatusCacheTables(String fileStatusCacheTables)
+    {
+        this.fileStatusCacheTables = SPLITTER.splitToList(fileStatusCacheTables);
+        return this;
+    }
+
+    @Min(0)
+    public long getFileStatusCacheMaxSize()
+    {
+        return fileStatusCacheMaxSize;
+    }
+
+    @Config("hive.file-status-cache-size")
+    @ConfigDescription("Maximum number of file statuses kept in the directory listing cache")
+    public HiveClientConfig setFileStatusCacheMaxSize(long fileStatusCacheMaxSize)
+    {
+        this.fileStatusCacheMaxSize = fileStatusCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    public Duration getFileStatusCacheExpireAfterWrite()
+    {
+        return fileStatusCacheExpireAfterWrite;
+    }
+
+    @Config("hive.file-status-cache-expire-time")
+    @ConfigDescription("Time after which a cached directory listing is discarded")
+    public HiveClientConfig setFileStatusCacheExpireAfterWrite(Duration fileStatusCacheExpireAfterWrite)
+    {
+        this.fileStatusCacheExpireAfterWrite = fileStatusCacheExpireAfterWrite;
+        return this;
+    }
+
     @Config("hive.non-managed-table-writes-enabled")
     @ConfigDescription("Enable writes to non-managed (external) tables")
     public HiveClientConfig setWritesToNonManagedTablesEnabled(boolean writesToNonManagedTablesEnabled)
@@ -16,6 +16,8 @@ package com.facebook.presto.hive;
 import com.facebook.presto.hive.HdfsEnvironment.HdfsContext;
 import com.facebook.presto.hive.metastore.Column;
 import com.facebook.presto.hive.metastore.Database;
+import com.facebook.presto.hive.metastore.HiveColumnDistribution;
+import com.facebook.presto.hive.metastore.HiveComputedColumnStatistics;
 import com.facebook.presto.hive.metastore.HivePrivilegeInfo;
 import com.facebook.presto.hive.metastore.HivePrivilegeInfo.HivePrivilege;
 import com.facebook.presto.hive.metastore.Partition;
@@ -40,11 +42,13 @@ import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.ConnectorViewDefinition;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.DiscretePredicates;
+import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
 import com.facebook.presto.spi.TableNotFoundException;
 import com.facebook.presto.spi.ViewNotFoundException;
+import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
 import com.facebook.presto.spi.connector.ConnectorOutputMetadata;
 import com.facebook.presto.spi.predicate.Domain;
@@ -53,7 +57,10 @@ import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.GrantInfo;
 import com.facebook.presto.spi.security.Privilege;
 import com.facebook.presto.spi.security.PrivilegeInfo;
+import com.facebook.presto.spi.statistics.ComputedColumnStatistics;
+import com.facebook.presto.spi.statistics.ComputedStatistics;
 import com.facebook.presto.spi.statistics.TableStatistics;
+import com.facebook.presto.spi.statistics.TableStatisticsMetadata;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.annotations.VisibleForTesting;
@@ -82,6 +89,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
 import java.util.Properties;
 import java.util.Set;
@@ -129,6 +137,7 @@ import static com.facebook.presto.hive.HiveUtil.hiveColumnHandles;
 import static com.facebook.presto.hive.HiveUtil.schemaTableName;
 import static com.facebook.presto.hive.HiveUtil.toPartitionValues;
 import static com.facebook.presto.hive.HiveWriteUtils.checkTableIsWritable;
+import static com.facebook.presto.hive.HiveWriteUtils.createPartitionValues;
 import static com.facebook.presto.hive.HiveWriteUtils.initializeSerializer;
 import static com.facebook.presto.hive.HiveWriteUtils.isWritableType;
 import static com.facebook.presto.hive.metastore.HivePrivilegeInfo.toHivePrivilege;
@@ -147,13 +156,24 @@ import static com.facebook.presto.spi.StandardErrorCode.INVALID_TABLE_PROPERTY;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
 import static com.facebook.presto.spi.StandardErrorCode.SCHEMA_NOT_EMPTY;
 import static com.facebook.presto.spi.predicate.TupleDomain.withColumnDomains;
+import static com.facebook.presto.spi.predicate.Utils.nativeValueToBlock;
 import static com.facebook.presto.spi.statistics.TableStatistics.EMPTY_STATISTICS;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.concat;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
@@ -405,6 +425,108 @@ public class HiveMetadata
         return hiveStatisticsProvider.getTableStatistics(session, tableHandle, hivePartitions, tableColumns);
     }
 
+    @Override
+    public TableStatisticsMetadata getStatisticsCollectionMetadata(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        SchemaTableName tableName = schemaTableName(tableHandle);
+        Table table = metastore.getTable(tableName.getSchemaName(), tableName.getTableName())
+                .orElseThrow(() -> new TableNotFoundException(tableName));
+        // statistics are stored per partition
+        return new TableStatisticsMetadata(
+                table.getDataColumns().stream()
+                        .map(Column::getName)
+                        .collect(toImmutableSet()),
+                table.getPartitionColumns().stream()
+                        .map(Column::getName)
+                        .collect(toImmutableList()));
+    }
+
+    @Override
+    public void finishStatisticsCollection(ConnectorSession session, ConnectorTableHandle tableHandle, Collection<ComputedStatistics> computedStatistics)
+    {
+        SchemaTableName tableName = schemaTableName(tableHandle);
+        Table table = metastore.getTable(tableName.getSchemaName(), tableName.getTableName())
+                .orElseThrow(() -> new TableNotFoundException(tableName));
+        Map<String, Type> columnTypes = table.getDataColumns().stream()
+                .collect(toImmutableMap(Column::getName, column -> column.getType().getType(typeManager)));
+        List<Type> partitionTypes = table.getPartitionColumns().stream()
+                .map(column -> column.getType().getType(typeManager))
+                .collect(toImmutableList());
+
+        Map<String, String> tableParameters = ImmutableMap.of();
+        ImmutableMap.Builder<List<String>, Map<String, String>> partitionParameters = ImmutableMap.builder();
+        for (ComputedStatistics statistics : computedStatistics) {
+            Map<String, String> parameters = toStatisticsParameters(statistics, columnTypes);
+            if (partitionTypes.isEmpty()) {
+                tableParameters = parameters;
+            }
+            else {
+                partitionParameters.put(getPartitionValues(partitionTypes, statistics.getGroupingValues()), parameters);
+            }
+        }
+        metastore.updateStatisticsParameters(tableName.getSchemaName(), tableName.getTableName(), tableParameters, partitionParameters.build());
+    }
+
+    @VisibleForTesting
+    static Map<String, String> toStatisticsParameters(ComputedStatistics statistics, Map<String, Type> columnTypes)
+    {
+        ImmutableMap.Builder<String, String> parameters = ImmutableMap.builder();
+        parameters.put("numRows", String.valueOf(statistics.getRowCount()));
+        for (Map.Entry<String, ComputedColumnStatistics> entry : statistics.getColumnStatistics().entrySet()) {
+            Type type = columnTypes.get(entry.getKey());
+            ComputedColumnStatistics columnStatistics = entry.getValue();
+            long nonNullsCount = statistics.getRowCount() - columnStatistics.getNullsCount();
+            OptionalDouble averageColumnLength = OptionalDouble.empty();
+            if (columnStatistics.getDataSize().isPresent() && nonNullsCount > 0) {
+                averageColumnLength = OptionalDouble.of(1.0 * columnStatistics.getDataSize().getAsLong() / nonNullsCount);
+            }
+            HiveComputedColumnStatistics hiveStatistics = new HiveComputedColumnStatistics(
+                    columnStatistics.getNullsCount(),
+                    columnStatistics.getDistinctValuesCount(),
+                    toDoubleValue(type, columnStatistics.getMin()),
+                    toDoubleValue(type, columnStatistics.getMax()),
+                    averageColumnLength);
+            parameters.put(HiveComputedColumnStatistics.getParameterName(entry.getKey()), hiveStatistics.toParameterValue());
+            if (columnStatistics.getQuantiles().isPresent() && nonNullsCount > 0) {
+                HiveColumnDistribution distribution = HiveColumnDistribution.fromQuantiles(
+                        columnStatistics.getQuantiles().get(),
+                        1.0 * nonNullsCount / statistics.getRowCount());
+                parameters.put(HiveColumnDistribution.getParameterName(entry.getKey()), distribution.toParameterValue());
+            }
+        }
+        return parameters.build();
+    }
+
+    private static OptionalDouble toDoubleValue(Type type, Optional<Object> value)
+    {
+        if (!value.isPresent()) {
+            return OptionalDouble.empty();
+        }
+        if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DATE)) {
+            return OptionalDouble.of((Long) value.get());
+        }
+        if (type.equals(DOUBLE)) {
+            return OptionalDouble.of((Double) value.get());
+        }
+        if (type.equals(REAL)) {
+            return OptionalDouble.of(intBitsToFloat(toIntExact((Long) value.get())));
+        }
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * Formats the values of the partition keys like the partition names created when writing.
+     */
+    @VisibleForTesting
+    static List<String> getPartitionValues(List<Type> partitionTypes, List<Object> groupingValues)
+    {
+        Block[] blocks = new Block[partitionTypes.size()];
+        for (int i = 0; i < partitionTypes.size(); i++) {
+            blocks[i] = nativeValueToBlock(partitionTypes.get(i), groupingValues.get(i));
+        }
+        return createPartitionValues(partitionTypes, new Page(blocks), 0);
+    }
+
     private List<SchemaTableName> listTables(ConnectorSession session, SchemaTablePrefix prefix)
     {
         if (prefix.getSchemaName() == null || prefix.getTableName() == null) {
@@ -52,6 +52,7 @@ public class HiveMetadataFactory
     private final BoundedExecutor renameExecution;
     private final TypeTranslator typeTranslator;
     private final String prestoVersion;
+    private final TableInvalidationCallback tableInvalidationCallback;
 
     @Inject
     @SuppressWarnings("deprecation")
@@ -67,7 +68,8 @@ public class HiveMetadataFactory
             TableParameterCodec tableParameterCodec,
             JsonCodec<PartitionUpdate> partitionUpdateCodec,
             TypeTranslator typeTranslator,
-            NodeVersion nodeVersion)
+            NodeVersion nodeVersion,
+            TableInvalidationCallback tableInvalidationCallback)
     {
         this(connectorId,
                 metastore,
@@ -88,7 +90,8 @@ public class HiveMetadataFactory
                 partitionUpdateCodec,
                 executorService,
                 typeTranslator,
-                nodeVersion.toString());
+                nodeVersion.toString(),
+                tableInvalidationCallback);
     }
 
     public HiveMetadataFactory(
@@ -111,7 +114,8 @@ public class HiveMetadataFactory
             JsonCodec<PartitionUpdate> partitionUpdateCodec,
             ExecutorService executorService,
             TypeTranslator typeTranslator,
-            String prestoVersion)
+            String prestoVersion,
+            TableInvalidationCallback tableInvalidationCallback)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null").toString();
 
@@ -133,6 +137,7 @@ public class HiveMetadataFactory
         this.partitionUpdateCodec = requireNonNull(partitionUpdateCodec, "partitionUpdateCodec is null");
         this.typeTranslator = requireNonNull(typeTranslator, "typeTranslator is null");
         this.prestoVersion = requireNonNull(prestoVersion, "prestoVersion is null");
+        this.tableInvalidationCallback = requireNonNull(tableInvalidationCallback, "tableInvalidationCallback is null");
 
         if (!allowCorruptWritesForTesting && !timeZone.equals(DateTimeZone.getDefault())) {
             log.warn("Hive writes are disabled. " +
@@ -150,7 +155,8 @@ public class HiveMetadataFactory
                 hdfsEnvironment,
                 CachingHiveMetastore.memoizeMetastore(this.metastore, perTransactionCacheMaximumSize), // per-transaction cache
                 renameExecution,
-                skipDeletionForAlter);
+                skipDeletionForAlter,
+                tableInvalidationCallback);
 
         return new HiveMetadata(
                 connectorId,
@@ -23,6 +23,8 @@ import com.google.common.collect.ImmutableMap;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
 
@@ -38,6 +40,7 @@ public class HiveSplit
     private final long start;
     private final long length;
     private final long fileSize;
+    private final long fileModifiedTime;
     private final Properties schema;
     private final List<HivePartitionKey> partitionKeys;
     private final List<HostAddress> addresses;
@@ -59,6 +62,7 @@ public class HiveSplit
             @JsonProperty("start") long start,
             @JsonProperty("length") long length,
             @JsonProperty("fileSize") long fileSize,
+            @JsonProperty("fileModifiedTime") long fileModifiedTime,
             @JsonProperty("schema") Properties schema,
             @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
             @JsonProperty("addresses") List<HostAddress> addresses,
@@ -90,6 +94,7 @@ public class HiveSplit
         this.start = start;
         this.length = length;
         this.fileSize = fileSize;
+        this.fileModifiedTime = fileModifiedTime;
         this.schema = schema;
         this.partitionKeys = ImmutableList.copyOf(partitionKeys);
         this.addresses = ImmutableList.copyOf(addresses);
@@ -147,6 +152,12 @@ public class HiveSplit
         return fileSize;
     }
 
+    @JsonProperty
+    public long getFileModifiedTime()
+    {
+        return fileModifiedTime;
+    }
+
     @JsonProperty
     public Properties getSchema()
     {
@@ -196,6 +207,16 @@ public class HiveSplit
         return !forceLocalScheduling;
     }
 
+    @Override
+    public Optional<Object> getCacheIdentifier()
+    {
+        if (fileModifiedTime <= 0) {
+            // the file system does not report modification times, so a rewritten file cannot be detected
+            return Optional.empty();
+        }
+        return Optional.of(new CacheIdentifier(this));
+    }
+
     @Override
     public Object getInfo()
     {
@@ -223,4 +244,68 @@ public class HiveSplit
                 .addValue(effectivePredicate)
                 .toString();
     }
+
+    private static class CacheIdentifier
+    {
+        private final String path;
+        private final long start;
+        private final long length;
+        private final long fileSize;
+        private final long fileModifiedTime;
+        private final Properties schema;
+        private final List<HivePartitionKey> partitionKeys;
+        private final TupleDomain<HiveColumnHandle> effectivePredicate;
+        private final Map<Integer, HiveType> columnCoercions;
+
+        public CacheIdentifier(HiveSplit split)
+        {
+            this.path = split.getPath();
+            this.start = split.getStart();
+            this.length = split.getLength();
+            this.fileSize = split.getFileSize();
+            this.fileModifiedTime = split.getFileModifiedTime();
+            this.schema = split.getSchema();
+            this.partitionKeys = split.getPartitionKeys();
+            this.effectivePredicate = split.getEffectivePredicate();
+            this.columnCoercions = split.getColumnCoercions();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheIdentifier other = (CacheIdentifier) o;
+            return start == other.start &&
+                    length == other.length &&
+                    fileSize == other.fileSize &&
+                    fileModifiedTime == other.fileModifiedTime &&
+                    Objects.equals(path, other.path) &&
+                    Objects.equals(schema, other.schema) &&
+                    Objects.equals(partitionKeys, other.partitionKeys) &&
+                    Objects.equals(effectivePredicate, other.effectivePredicate) &&
+                    Objects.equals(columnCoercions, other.columnCoercions);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, start, length, fileSize, fileModifiedTime, schema, partitionKeys, effectivePredicate, columnCoercions);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .addValue(path)
+                    .addValue(start)
+                    .addValue(length)
+                    .addValue(fileModifiedTime)
+                    .toString();
+        }
+    }
 }
@@ -17,6 +17,7 @@ import com.facebook.presto.hive.metastore.Column;
 import com.facebook.presto.hive.metastore.Partition;
 import com.facebook.presto.hive.metastore.SemiTransactionalHiveMetastore;
 import com.facebook.presto.hive.metastore.Table;
+import com.facebook.presto.hive.util.PrefetchingIterator;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.ConnectorTableLayoutHandle;
@@ -57,7 +58,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.getOnlyElement;
-import static com.google.common.collect.Iterables.transform;
 import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
@@ -67,6 +67,7 @@ public class HiveSplitManager
         implements ConnectorSplitManager
 {
     public static final String PRESTO_OFFLINE = "presto_offline";
+    private static final String TOTAL_SIZE = "totalSize";
 
     private final String connectorId;
     private final Function<HiveTransactionHandle, SemiTransactionalHiveMetastore> metastoreProvider;
@@ -79,6 +80,7 @@ public class HiveSplitManager
     private final int minPartitionBatchSize;
     private final int maxPartitionBatchSize;
     private final int maxInitialSplits;
+    private final int splitLoaderConcurrency;
     private final boolean recursiveDfsWalkerEnabled;
 
     @Inject
@@ -103,6 +105,7 @@ public class HiveSplitManager
                 hiveClientConfig.getMinPartitionBatchSize(),
                 hiveClientConfig.getMaxPartitionBatchSize(),
                 hiveClientConfig.getMaxInitialSplits(),
+                hiveClientConfig.getSplitLoaderConcurrency(),
                 hiveClientConfig.getRecursiveDirWalkerEnabled());
     }
 
@@ -118,6 +121,7 @@ public class HiveSplitManager
             int minPartitionBatchSize,
             int maxPartitionBatchSize,
             int maxInitialSplits,
+            int splitLoaderConcurrency,
             boolean recursiveDfsWalkerEnabled)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null").toString();
@@ -132,6 +136,7 @@ public class HiveSplitManager
         this.minPartitionBatchSize = minPartitionBatchSize;
         this.maxPartitionBatchSize = maxPartitionBatchSize;
         this.maxInitialSplits = maxInitialSplits;
+        this.splitLoaderConcurrency = splitLoaderConcurrency;
         this.recursiveDfsWalkerEnabled = recursiveDfsWalkerEnabled;
     }
 
@@ -171,7 +176,7 @@ public class HiveSplitManager
                 namenodeStats,
                 directoryLister,
                 executor,
-                maxPartitionBatchSize,
+                splitLoaderConcurrency,
                 maxInitialSplits,
                 recursiveDfsWalkerEnabled);
 
@@ -195,7 +200,8 @@ public class HiveSplitManager
         }
 
         Iterable<List<HivePartition>> partitionNameBatches = partitionExponentially(hivePartitions, minPartitionBatchSize, maxPartitionBatchSize);
-        Iterable<List<HivePartitionMetadata>> partitionBatches = transform(partitionNameBatches, partitionBatch -> {
+        // fetch the next batch of partitions from the metastore while the current batch is being listed
+        Iterable<List<HivePartitionMetadata>> partitionBatches = () -> new PrefetchingIterator<>(partitionNameBatches.iterator(), partitionBatch -> {
             Map<String, Optional<Partition>> batch = metastore.getPartitionsByNames(
                     tableName.getSchemaName(),
                     tableName.getTableName(),
@@ -285,11 +291,29 @@ public class HiveSplitManager
                 results.add(new HivePartitionMetadata(hivePartition, Optional.of(partition), columnCoercions.build()));
             }
 
-            return results.build();
-        });
+            // start with the largest partitions of the batch, so that their listing and splits are not left for last;
+            // the order is only by size within a batch, as the metadata of later batches is not fetched yet
+            return Ordering.natural().onResultOf(HiveSplitManager::getEstimatedSize).reverse().sortedCopy(results.build());
+        }, executor);
         return concat(partitionBatches);
     }
 
+    private static long getEstimatedSize(HivePartitionMetadata partition)
+    {
+        String totalSize = partition.getPartition()
+                .map(value -> value.getParameters().get(TOTAL_SIZE))
+                .orElse(null);
+        if (totalSize == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(totalSize);
+        }
+        catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     /**
      * Partition the given list in exponentially (power of 2) increasing batch sizes starting at 1 up to maxBatchSize
      */
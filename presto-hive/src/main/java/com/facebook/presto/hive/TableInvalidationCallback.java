@@ -0,0 +1,42 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.spi.SchemaTableName;
+
+public interface TableInvalidationCallback
+{
+    TableInvalidationCallback NO_OP = new TableInvalidationCallback()
+    {
+        @Override
+        public void invalidate(SchemaTableName table)
+        {
+        }
+
+        @Override
+        public void invalidateAll()
+        {
+        }
+    };
+
+    /**
+     * Called after a transaction that modified the data or metadata of the table finished.
+     */
+    void invalidate(SchemaTableName table);
+
+    /**
+     * Called after a transaction finished whose effects can not be attributed to individual tables.
+     */
+    void invalidateAll();
+}
@@ -17,6 +17,7 @@ import com.facebook.presto.hive.ForCachingHiveMetastore;
 import com.facebook.presto.hive.HiveClientConfig;
 import com.facebook.presto.hive.HiveType;
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -25,8 +26,11 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.ExecutionError;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
 import io.airlift.units.Duration;
 import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
@@ -39,8 +43,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.facebook.presto.hive.HiveUtil.toPartitionValues;
@@ -50,6 +56,7 @@ import static com.google.common.cache.CacheLoader.asyncReloading;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Streams.stream;
 import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
@@ -62,7 +69,11 @@ import static java.util.stream.Collectors.toMap;
 public class CachingHiveMetastore
         implements ExtendedHiveMetastore
 {
+    private static final Logger log = Logger.get(CachingHiveMetastore.class);
+
     protected final ExtendedHiveMetastore delegate;
+    private final ExecutorService executor;
+    private final int partitionPrefetchSize;
     private final LoadingCache<String, Optional<Database>> databaseCache;
     private final LoadingCache<String, List<String>> databaseNamesCache;
     private final LoadingCache<HiveTableName, Optional<Table>> tableCache;
@@ -76,6 +87,12 @@ public class CachingHiveMetastore
     private final LoadingCache<String, Set<String>> userRolesCache;
     private final LoadingCache<UserTableKey, Set<HivePrivilegeInfo>> userTablePrivileges;
 
+    // the position of each partition in the cached partition name listings of its table, to find the partitions to prefetch
+    private final Cache<HivePartitionName, PartitionListingPosition> partitionListingPositions;
+    private final Set<HiveTableName> tablesBeingPrefetched = ConcurrentHashMap.newKeySet();
+    private final CounterStat prefetchedPartitions = new CounterStat();
+    private final CounterStat prefetchFailures = new CounterStat();
+
     @Inject
     public CachingHiveMetastore(@ForCachingHiveMetastore ExtendedHiveMetastore delegate, @ForCachingHiveMetastore ExecutorService executor, HiveClientConfig hiveClientConfig)
     {
@@ -84,17 +101,37 @@ public class CachingHiveMetastore
                 executor,
                 hiveClientConfig.getMetastoreCacheTtl(),
                 hiveClientConfig.getMetastoreRefreshInterval(),
-                hiveClientConfig.getMetastoreCacheMaximumSize());
+                hiveClientConfig.getMetastoreCacheMaxStaleness(),
+                hiveClientConfig.getMetastoreCacheMaximumSize(),
+                hiveClientConfig.getMetastorePartitionPrefetchSize());
     }
 
     public CachingHiveMetastore(ExtendedHiveMetastore delegate, ExecutorService executor, Duration cacheTtl, Duration refreshInterval, long maximumSize)
+    {
+        this(delegate, executor, cacheTtl, refreshInterval, new Duration(0, MILLISECONDS), maximumSize, 0);
+    }
+
+    /**
+     * Entries are reloaded in the background once they are older than {@code refreshInterval}.
+     * When {@code maxStaleness} is non-zero, entries older than {@code cacheTtl} are still returned
+     * for up to {@code maxStaleness} while they are reloaded, so readers never wait on a refresh.
+     */
+    public CachingHiveMetastore(
+            ExtendedHiveMetastore delegate,
+            ExecutorService executor,
+            Duration cacheTtl,
+            Duration refreshInterval,
+            Duration maxStaleness,
+            long maximumSize,
+            int partitionPrefetchSize)
     {
         this(
                 delegate,
                 executor,
-                OptionalLong.of(cacheTtl.toMillis()),
-                refreshInterval.toMillis() >= cacheTtl.toMillis() ? OptionalLong.empty() : OptionalLong.of(refreshInterval.toMillis()),
-                maximumSize);
+                OptionalLong.of(getExpiresAfterWriteMillis(cacheTtl, maxStaleness)),
+                getRefreshMillis(cacheTtl, refreshInterval, maxStaleness),
+                maximumSize,
+                cacheTtl.toMillis() > 0 ? partitionPrefetchSize : 0);
     }
 
     public static CachingHiveMetastore memoizeMetastore(ExtendedHiveMetastore delegate, long maximumSize)
@@ -104,13 +141,16 @@ public class CachingHiveMetastore
                 newDirectExecutorService(),
                 OptionalLong.empty(),
                 OptionalLong.empty(),
-                maximumSize);
+                maximumSize,
+                0);
     }
 
-    private CachingHiveMetastore(ExtendedHiveMetastore delegate, ExecutorService executor, OptionalLong expiresAfterWriteMillis, OptionalLong refreshMills, long maximumSize)
+    private CachingHiveMetastore(ExtendedHiveMetastore delegate, ExecutorService executor, OptionalLong expiresAfterWriteMillis, OptionalLong refreshMills, long maximumSize, int partitionPrefetchSize)
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
-        requireNonNull(executor, "executor is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        checkArgument(partitionPrefetchSize >= 0, "partitionPrefetchSize is negative");
+        this.partitionPrefetchSize = partitionPrefetchSize;
 
         databaseNamesCache = newCacheBuilder(expiresAfterWriteMillis, refreshMills, maximumSize)
                 .build(asyncReloading(new CacheLoader<String, List<String>>()
@@ -225,6 +265,9 @@ public class CachingHiveMetastore
                     }
                 }, executor));
 
+        partitionListingPositions = newCacheBuilder(expiresAfterWriteMillis, OptionalLong.empty(), maximumSize)
+                .build();
+
         partitionCache = newCacheBuilder(expiresAfterWriteMillis, refreshMills, maximumSize)
                 .build(asyncReloading(new CacheLoader<HivePartitionName, Optional<Partition>>()
                 {
@@ -277,9 +320,80 @@ public class CachingHiveMetastore
         tableCache.invalidateAll();
         partitionCache.invalidateAll();
         partitionFilterCache.invalidateAll();
+        partitionListingPositions.invalidateAll();
         userTablePrivileges.invalidateAll();
     }
 
+    @Managed
+    @Nested
+    public MetastoreCacheStats getDatabaseCacheStats()
+    {
+        return new MetastoreCacheStats(databaseCache);
+    }
+
+    @Managed
+    @Nested
+    public MetastoreCacheStats getTableCacheStats()
+    {
+        return new MetastoreCacheStats(tableCache);
+    }
+
+    @Managed
+    @Nested
+    public MetastoreCacheStats getTableNamesCacheStats()
+    {
+        return new MetastoreCacheStats(tableNamesCache);
+    }
+
+    @Managed
+    @Nested
+    public MetastoreCacheStats getPartitionCacheStats()
+    {
+        return new MetastoreCacheStats(partitionCache);
+    }
+
+    @Managed
+    @Nested
+    public MetastoreCacheStats getPartitionNamesCacheStats()
+    {
+        return new MetastoreCacheStats(partitionNamesCache);
+    }
+
+    @Managed
+    @Nested
+    public MetastoreCacheStats getPartitionFilterCacheStats()
+    {
+        return new MetastoreCacheStats(partitionFilterCache);
+    }
+
+    @Managed
+    @Nested
+    public MetastoreCacheStats getTableColumnStatisticsCacheStats()
+    {
+        return new MetastoreCacheStats(tableColumnStatisticsCache);
+    }
+
+    @Managed
+    @Nested
+    public MetastoreCacheStats getPartitionColumnStatisticsCacheStats()
+    {
+        return new MetastoreCacheStats(partitionColumnStatisticsCache);
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getPrefetchedPartitions()
+    {
+        return prefetchedPartitions;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getPrefetchFailures()
+    {
+        return prefetchFailures;
+    }
+
     private static <K, V> V get(LoadingCache<K, V> cache, K key)
     {
         try {
@@ -543,6 +657,17 @@ public class CachingHiveMetastore
         }
     }
 
+    @Override
+    public void updateTableParameters(String databaseName, String tableName, Function<Map<String, String>, Map<String, String>> update)
+    {
+        try {
+            delegate.updateTableParameters(databaseName, tableName, update);
+        }
+        finally {
+            invalidateTable(databaseName, tableName);
+        }
+    }
+
     @Override
     public void addColumn(String databaseName, String tableName, String columnName, HiveType columnType, String columnComment)
     {
@@ -603,7 +728,9 @@ public class CachingHiveMetastore
     private Optional<List<String>> loadPartitionNames(HiveTableName hiveTableName)
             throws Exception
     {
-        return delegate.getPartitionNames(hiveTableName.getDatabaseName(), hiveTableName.getTableName());
+        Optional<List<String>> partitionNames = delegate.getPartitionNames(hiveTableName.getDatabaseName(), hiveTableName.getTableName());
+        indexPartitionListing(hiveTableName, partitionNames);
+        return partitionNames;
     }
 
     @Override
@@ -615,15 +742,32 @@ public class CachingHiveMetastore
     private Optional<List<String>> loadPartitionNamesByParts(PartitionFilter partitionFilter)
             throws Exception
     {
-        return delegate.getPartitionNamesByParts(
+        Optional<List<String>> partitionNames = delegate.getPartitionNamesByParts(
                 partitionFilter.getHiveTableName().getDatabaseName(),
                 partitionFilter.getHiveTableName().getTableName(),
                 partitionFilter.getParts());
+        indexPartitionListing(partitionFilter.getHiveTableName(), partitionNames);
+        return partitionNames;
+    }
+
+    private void indexPartitionListing(HiveTableName hiveTableName, Optional<List<String>> partitionNames)
+    {
+        if (partitionPrefetchSize == 0 || !partitionNames.isPresent()) {
+            return;
+        }
+        List<String> names = partitionNames.get();
+        for (int i = 0; i < names.size(); i++) {
+            partitionListingPositions.put(HivePartitionName.partition(hiveTableName, names.get(i)), new PartitionListingPosition(names, i));
+        }
     }
 
     @Override
     public Map<String, Optional<Partition>> getPartitionsByNames(String databaseName, String tableName, List<String> partitionNames)
     {
+        if (partitionPrefetchSize > 0 && !partitionNames.isEmpty()) {
+            prefetchPartitions(HiveTableName.table(databaseName, tableName), partitionNames.get(partitionNames.size() - 1));
+        }
+
         Iterable<HivePartitionName> names = transform(partitionNames, name -> HivePartitionName.partition(databaseName, tableName, name));
 
         Map<HivePartitionName, Optional<Partition>> all = getAll(partitionCache, names);
@@ -634,6 +778,49 @@ public class CachingHiveMetastore
         return partitionsByName.build();
     }
 
+    /**
+     * Partitions are usually requested in the order of a cached partition name listing, one batch
+     * at a time. Load the partitions following the last requested one in the background, so the
+     * next batch is served from the cache instead of waiting for the metastore.
+     */
+    private void prefetchPartitions(HiveTableName hiveTableName, String lastRequestedPartition)
+    {
+        PartitionListingPosition position = partitionListingPositions.getIfPresent(HivePartitionName.partition(hiveTableName, lastRequestedPartition));
+        if (position == null) {
+            return;
+        }
+        List<String> partitionNames = position.getPartitionNames();
+        int start = position.getPosition() + 1;
+        List<HivePartitionName> partitionsToPrefetch = partitionNames.subList(start, min(start + partitionPrefetchSize, partitionNames.size())).stream()
+                .map(partitionName -> HivePartitionName.partition(hiveTableName, partitionName))
+                .filter(partitionName -> !partitionCache.asMap().containsKey(partitionName))
+                .collect(toList());
+        if (partitionsToPrefetch.isEmpty() || !tablesBeingPrefetched.add(hiveTableName)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    partitionCache.getAll(partitionsToPrefetch);
+                    prefetchedPartitions.update(partitionsToPrefetch.size());
+                }
+                catch (Exception | ExecutionError e) {
+                    // failures are reported to the query if it requests the partitions
+                    prefetchFailures.update(1);
+                    log.debug(e, "Failed to prefetch partitions of %s", hiveTableName);
+                }
+                finally {
+                    tablesBeingPrefetched.remove(hiveTableName);
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            tablesBeingPrefetched.remove(hiveTableName);
+            prefetchFailures.update(1);
+        }
+    }
+
     private Optional<Partition> loadPartitionByName(HivePartitionName partitionName)
             throws Exception
     {
@@ -713,6 +900,9 @@ public class CachingHiveMetastore
         partitionFilterCache.asMap().keySet().stream()
                 .filter(partitionFilter -> partitionFilter.getHiveTableName().equals(hiveTableName))
                 .forEach(partitionFilterCache::invalidate);
+        partitionListingPositions.asMap().keySet().stream()
+                .filter(partitionName -> partitionName.getHiveTableName().equals(hiveTableName))
+                .forEach(partitionListingPositions::invalidate);
     }
 
     @Override
@@ -766,6 +956,27 @@ public class CachingHiveMetastore
         }
     }
 
+    private static long getExpiresAfterWriteMillis(Duration cacheTtl, Duration maxStaleness)
+    {
+        if (cacheTtl.toMillis() == 0) {
+            return 0;
+        }
+        return cacheTtl.toMillis() + maxStaleness.toMillis();
+    }
+
+    private static OptionalLong getRefreshMillis(Duration cacheTtl, Duration refreshInterval, Duration maxStaleness)
+    {
+        long refreshMillis = refreshInterval.toMillis();
+        if (maxStaleness.toMillis() > 0) {
+            // entries past the ttl must be reloaded before they expire
+            refreshMillis = refreshMillis == 0 ? cacheTtl.toMillis() : min(refreshMillis, cacheTtl.toMillis());
+        }
+        if (refreshMillis <= 0 || refreshMillis >= getExpiresAfterWriteMillis(cacheTtl, maxStaleness)) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(refreshMillis);
+    }
+
     private static CacheBuilder<Object, Object> newCacheBuilder(OptionalLong expiresAfterWriteMillis, OptionalLong refreshMillis, long maximumSize)
     {
         CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
@@ -776,7 +987,7 @@ public class CachingHiveMetastore
             cacheBuilder = cacheBuilder.refreshAfterWrite(refreshMillis.getAsLong(), MILLISECONDS);
         }
         cacheBuilder = cacheBuilder.maximumSize(maximumSize);
-        return cacheBuilder;
+        return cacheBuilder.recordStats();
     }
 
     private static class HiveTableName
@@ -968,6 +1179,28 @@ public class CachingHiveMetastore
         }
     }
 
+    private static class PartitionListingPosition
+    {
+        private final List<String> partitionNames;
+        private final int position;
+
+        public PartitionListingPosition(List<String> partitionNames, int position)
+        {
+            this.partitionNames = requireNonNull(partitionNames, "partitionNames is null");
+            this.position = position;
+        }
+
+        public List<String> getPartitionNames()
+        {
+            return partitionNames;
+        }
+
+        public int getPosition()
+        {
+            return position;
+        }
+    }
+
     private static class UserTableKey
     {
         private final String user;
@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 public interface ExtendedHiveMetastore
 {
@@ -55,6 +56,11 @@ public interface ExtendedHiveMetastore
 
     void renameTable(String databaseName, String tableName, String newDatabaseName, String newTableName);
 
+    /**
+     * Replaces the parameters of the table with the result of the update function.
+     */
+    void updateTableParameters(String databaseName, String tableName, Function<Map<String, String>, Map<String, String>> update);
+
     void addColumn(String databaseName, String tableName, String columnName, HiveType columnType, String columnComment);
 
     void renameColumn(String databaseName, String tableName, String oldColumnName, String newColumnName);
@@ -0,0 +1,168 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.metastore;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.hive.metastore.MetastoreUtil.getColumnParameters;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Distribution of the values of a column of a numeric or date type, in their double representation
+ * (days for dates). The metastore has no place for distributions in its column statistics, so they are
+ * stored as JSON in table or partition parameters named after the column. {@code ANALYZE} stores the
+ * distribution computed by {@link #fromQuantiles}.
+ */
+public class HiveColumnDistribution
+{
+    public static final String PARAMETER_PREFIX = "presto_column_distribution.";
+
+    private static final JsonCodec<HiveColumnDistribution> CODEC = jsonCodec(HiveColumnDistribution.class);
+
+    private final List<Double> mostCommonValues;
+    private final List<Double> mostCommonValueFractions;
+    private final List<Double> histogramBoundaries;
+    private final double histogramFraction;
+
+    /**
+     * @param histogramBoundaries boundaries of the buckets of an equi-height histogram of the values other
+     * than the most common values; each bucket spans from one boundary to the next
+     * @param histogramFraction fraction of the rows having a value in the histogram
+     */
+    @JsonCreator
+    public HiveColumnDistribution(
+            @JsonProperty("mostCommonValues") List<Double> mostCommonValues,
+            @JsonProperty("mostCommonValueFractions") List<Double> mostCommonValueFractions,
+            @JsonProperty("histogramBoundaries") List<Double> histogramBoundaries,
+            @JsonProperty("histogramFraction") double histogramFraction)
+    {
+        this.mostCommonValues = ImmutableList.copyOf(requireNonNull(mostCommonValues, "mostCommonValues is null"));
+        this.mostCommonValueFractions = ImmutableList.copyOf(requireNonNull(mostCommonValueFractions, "mostCommonValueFractions is null"));
+        this.histogramBoundaries = ImmutableList.copyOf(requireNonNull(histogramBoundaries, "histogramBoundaries is null"));
+        checkArgument(mostCommonValues.size() == mostCommonValueFractions.size(), "mostCommonValues and mostCommonValueFractions differ in size");
+        checkArgument(mostCommonValueFractions.stream().allMatch(fraction -> fraction >= 0 && fraction <= 1), "mostCommonValueFractions must be between 0 and 1");
+        checkArgument(histogramBoundaries.size() != 1, "histogram must have no or at least two boundaries");
+        checkArgument(histogramFraction >= 0 && histogramFraction <= 1, "histogramFraction must be between 0 and 1");
+        this.histogramFraction = histogramFraction;
+    }
+
+    @JsonProperty
+    public List<Double> getMostCommonValues()
+    {
+        return mostCommonValues;
+    }
+
+    @JsonProperty
+    public List<Double> getMostCommonValueFractions()
+    {
+        return mostCommonValueFractions;
+    }
+
+    @JsonProperty
+    public List<Double> getHistogramBoundaries()
+    {
+        return histogramBoundaries;
+    }
+
+    @JsonProperty
+    public double getHistogramFraction()
+    {
+        return histogramFraction;
+    }
+
+    public int getHistogramBucketCount()
+    {
+        return Math.max(histogramBoundaries.size() - 1, 0);
+    }
+
+    /**
+     * Builds the distribution of the non-null values from their quantiles at evenly spaced fractions from 0 to 1.
+     * A value at several consecutive quantiles fills the buckets between them, so it is kept as a most common value
+     * with the fraction of those buckets, and the remaining buckets form the histogram. Only values filling at least
+     * one bucket are found this way.
+     */
+    public static HiveColumnDistribution fromQuantiles(List<Double> quantiles, double nonNullsFraction)
+    {
+        checkArgument(quantiles.size() >= 2, "at least two quantiles are required");
+        checkArgument(nonNullsFraction >= 0 && nonNullsFraction <= 1, "nonNullsFraction must be between 0 and 1");
+        double bucketFraction = nonNullsFraction / (quantiles.size() - 1);
+        ImmutableList.Builder<Double> mostCommonValues = ImmutableList.builder();
+        ImmutableList.Builder<Double> mostCommonValueFractions = ImmutableList.builder();
+        List<Double> histogramBoundaries = new ArrayList<>();
+        int histogramBucketCount = 0;
+        int start = 0;
+        while (start < quantiles.size()) {
+            int end = start;
+            while (end + 1 < quantiles.size() && quantiles.get(end + 1).equals(quantiles.get(start))) {
+                end++;
+            }
+            if (end > start) {
+                mostCommonValues.add(quantiles.get(start));
+                mostCommonValueFractions.add(bucketFraction * (end - start));
+            }
+            if (!histogramBoundaries.isEmpty()) {
+                histogramBucketCount++;
+            }
+            histogramBoundaries.add(quantiles.get(start));
+            start = end + 1;
+        }
+        if (histogramBucketCount == 0) {
+            histogramBoundaries.clear();
+        }
+        return new HiveColumnDistribution(
+                mostCommonValues.build(),
+                mostCommonValueFractions.build(),
+                histogramBoundaries,
+                bucketFraction * histogramBucketCount);
+    }
+
+    public static String getParameterName(String columnName)
+    {
+        return PARAMETER_PREFIX + columnName;
+    }
+
+    public String toParameterValue()
+    {
+        return CODEC.toJson(this);
+    }
+
+    /**
+     * Returns the distributions stored in the parameters of a table or partition, by column name.
+     */
+    public static Map<String, HiveColumnDistribution> fromParameters(Map<String, String> parameters)
+    {
+        return getColumnParameters(parameters, PARAMETER_PREFIX, CODEC);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("mostCommonValues", mostCommonValues)
+                .add("mostCommonValueFractions", mostCommonValueFractions)
+                .add("histogramBoundaries", histogramBoundaries)
+                .add("histogramFraction", histogramFraction)
+                .toString();
+    }
+}
@@ -28,6 +28,7 @@ public class HiveColumnStatistics<T>
     private final OptionalLong falseCount;
     private final OptionalLong nullsCount;
     private final OptionalLong distinctValuesCount;
+    private final Optional<HiveColumnDistribution> distribution;
 
     public HiveColumnStatistics(
             Optional<T> lowValue,
@@ -38,6 +39,20 @@ public class HiveColumnStatistics<T>
             OptionalLong falseCount,
             OptionalLong nullsCount,
             OptionalLong distinctValuesCount)
+    {
+        this(lowValue, highValue, maxColumnLength, averageColumnLength, trueCount, falseCount, nullsCount, distinctValuesCount, Optional.empty());
+    }
+
+    public HiveColumnStatistics(
+            Optional<T> lowValue,
+            Optional<T> highValue,
+            OptionalLong maxColumnLength,
+            OptionalDouble averageColumnLength,
+            OptionalLong trueCount,
+            OptionalLong falseCount,
+            OptionalLong nullsCount,
+            OptionalLong distinctValuesCount,
+            Optional<HiveColumnDistribution> distribution)
     {
         this.lowValue = lowValue;
         this.highValue = highValue;
@@ -47,6 +62,20 @@ public class HiveColumnStatistics<T>
         this.falseCount = falseCount;
         this.nullsCount = nullsCount;
         this.distinctValuesCount = distinctValuesCount;
+        this.distribution = distribution;
+    }
+
+    public static HiveColumnStatistics<Object> empty()
+    {
+        return new HiveColumnStatistics<>(
+                Optional.empty(),
+                Optional.empty(),
+                OptionalLong.empty(),
+                OptionalDouble.empty(),
+                OptionalLong.empty(),
+                OptionalLong.empty(),
+                OptionalLong.empty(),
+                OptionalLong.empty());
     }
 
     public Optional<T> getLowValue()
@@ -88,4 +117,14 @@ public class HiveColumnStatistics<T>
     {
         return distinctValuesCount;
     }
+
+    public Optional<HiveColumnDistribution> getDistribution()
+    {
+        return distribution;
+    }
+
+    public HiveColumnStatistics<T> withDistribution(HiveColumnDistribution distribution)
+    {
+        return new HiveColumnStatistics<>(lowValue, highValue, maxColumnLength, averageColumnLength, trueCount, falseCount, nullsCount, distinctValuesCount, Optional.of(distribution));
+    }
 }
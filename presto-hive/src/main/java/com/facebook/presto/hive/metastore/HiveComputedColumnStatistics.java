@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.metastore;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.airlift.json.JsonCodec;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+import static com.facebook.presto.hive.metastore.MetastoreUtil.getColumnParameters;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Column statistics computed by {@code ANALYZE}. Writing column statistics is not supported by
+ * all metastores, so they are stored as JSON in table or partition parameters named after the column,
+ * like {@link HiveColumnDistribution}. Low and high values of numeric and date columns are in their
+ * double representation (days for dates).
+ */
+public class HiveComputedColumnStatistics
+{
+    public static final String PARAMETER_PREFIX = "presto_column_statistics.";
+
+    private static final JsonCodec<HiveComputedColumnStatistics> CODEC = jsonCodec(HiveComputedColumnStatistics.class);
+
+    private final long nullsCount;
+    private final OptionalLong distinctValuesCount;
+    private final OptionalDouble lowValue;
+    private final OptionalDouble highValue;
+    private final OptionalDouble averageColumnLength;
+
+    @JsonCreator
+    public HiveComputedColumnStatistics(
+            @JsonProperty("nullsCount") long nullsCount,
+            @JsonProperty("distinctValuesCount") OptionalLong distinctValuesCount,
+            @JsonProperty("lowValue") OptionalDouble lowValue,
+            @JsonProperty("highValue") OptionalDouble highValue,
+            @JsonProperty("averageColumnLength") OptionalDouble averageColumnLength)
+    {
+        checkArgument(nullsCount >= 0, "nullsCount is negative");
+        this.nullsCount = nullsCount;
+        this.distinctValuesCount = requireNonNull(distinctValuesCount, "distinctValuesCount is null");
+        this.lowValue = requireNonNull(lowValue, "lowValue is null");
+        this.highValue = requireNonNull(highValue, "highValue is null");
+        this.averageColumnLength = requireNonNull(averageColumnLength, "averageColumnLength is null");
+    }
+
+    @JsonProperty
+    public long getNullsCount()
+    {
+        return nullsCount;
+    }
+
+    @JsonProperty
+    public OptionalLong getDistinctValuesCount()
+    {
+        return distinctValuesCount;
+    }
+
+    @JsonProperty
+    public OptionalDouble getLowValue()
+    {
+        return lowValue;
+    }
+
+    @JsonProperty
+    public OptionalDouble getHighValue()
+    {
+        return highValue;
+    }
+
+    @JsonProperty
+    public OptionalDouble getAverageColumnLength()
+    {
+        return averageColumnLength;
+    }
+
+    /**
+     * Replaces the statistics of the metastore with the computed ones, keeping the distribution.
+     */
+    public HiveColumnStatistics<Object> mergeInto(HiveColumnStatistics<?> statistics)
+    {
+        return new HiveColumnStatistics<>(
+                lowValue.isPresent() ? Optional.of(lowValue.getAsDouble()) : Optional.empty(),
+                highValue.isPresent() ? Optional.of(highValue.getAsDouble()) : Optional.empty(),
+                statistics.getMaxColumnLength(),
+                averageColumnLength.isPresent() ? averageColumnLength : statistics.getAverageColumnLength(),
+                statistics.getTrueCount(),
+                statistics.getFalseCount(),
+                OptionalLong.of(nullsCount),
+                distinctValuesCount.isPresent() ? distinctValuesCount : statistics.getDistinctValuesCount(),
+                statistics.getDistribution());
+    }
+
+    public static String getParameterName(String columnName)
+    {
+        return PARAMETER_PREFIX + columnName;
+    }
+
+    public String toParameterValue()
+    {
+        return CODEC.toJson(this);
+    }
+
+    /**
+     * Returns the statistics stored in the parameters of a table or partition, by column name.
+     */
+    public static Map<String, HiveComputedColumnStatistics> fromParameters(Map<String, String> parameters)
+    {
+        return getColumnParameters(parameters, PARAMETER_PREFIX, CODEC);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HiveComputedColumnStatistics that = (HiveComputedColumnStatistics) o;
+        return nullsCount == that.nullsCount &&
+                Objects.equals(distinctValuesCount, that.distinctValuesCount) &&
+                Objects.equals(lowValue, that.lowValue) &&
+                Objects.equals(highValue, that.highValue) &&
+                Objects.equals(averageColumnLength, that.averageColumnLength);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(nullsCount, distinctValuesCount, lowValue, highValue, averageColumnLength);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("nullsCount", nullsCount)
+                .add("distinctValuesCount", distinctValuesCount)
+                .add("lowValue", lowValue)
+                .add("highValue", highValue)
+                .add("averageColumnLength", averageColumnLength)
+                .toString();
+    }
+}
@@ -22,6 +22,7 @@ import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.TableNotFoundException;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import io.airlift.json.JsonCodec;
 import org.apache.hadoop.hive.common.FileUtils;
 import org.apache.hadoop.hive.metastore.ProtectMode;
 import org.apache.hadoop.hive.metastore.api.BinaryColumnStatsData;
@@ -209,6 +210,27 @@ public class MetastoreUtil
         return getProtectMode(table.getParameters());
     }
 
+    /**
+     * Returns the JSON values of the parameters named with the prefix followed by a column name, by column name.
+     * Malformed values are ignored, as the statistics stored in parameters only serve to improve estimates.
+     */
+    public static <T> Map<String, T> getColumnParameters(Map<String, String> parameters, String prefix, JsonCodec<T> codec)
+    {
+        ImmutableMap.Builder<String, T> values = ImmutableMap.builder();
+        for (Entry<String, String> parameter : parameters.entrySet()) {
+            if (!parameter.getKey().startsWith(prefix)) {
+                continue;
+            }
+            try {
+                values.put(parameter.getKey().substring(prefix.length()), codec.fromJson(parameter.getValue()));
+            }
+            catch (IllegalArgumentException e) {
+                // ignore
+            }
+        }
+        return values.build();
+    }
+
     public static String makePartName(List<Column> partitionColumns, List<String> values)
     {
         checkArgument(partitionColumns.size() == values.size());
@@ -19,6 +19,7 @@ import com.facebook.presto.hive.HdfsEnvironment.HdfsContext;
 import com.facebook.presto.hive.HiveType;
 import com.facebook.presto.hive.PartitionNotFoundException;
 import com.facebook.presto.hive.TableAlreadyExistsException;
+import com.facebook.presto.hive.TableInvalidationCallback;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
@@ -84,6 +85,7 @@ public class SemiTransactionalHiveMetastore
     private final HdfsEnvironment hdfsEnvironment;
     private final Executor renameExecutor;
     private final boolean skipDeletionForAlter;
+    private final TableInvalidationCallback tableInvalidationCallback;
 
     @GuardedBy("this")
     private final Map<SchemaTableName, Action<TableAndMore>> tableActions = new HashMap<>();
@@ -97,12 +99,18 @@ public class SemiTransactionalHiveMetastore
     private State state = State.EMPTY;
     private boolean throwOnCleanupFailure = false;
 
-    public SemiTransactionalHiveMetastore(HdfsEnvironment hdfsEnvironment, ExtendedHiveMetastore delegate, Executor renameExecutor, boolean skipDeletionForAlter)
+    public SemiTransactionalHiveMetastore(
+            HdfsEnvironment hdfsEnvironment,
+            ExtendedHiveMetastore delegate,
+            Executor renameExecutor,
+            boolean skipDeletionForAlter,
+            TableInvalidationCallback tableInvalidationCallback)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.delegate = requireNonNull(delegate, "delegate is null");
         this.renameExecutor = requireNonNull(renameExecutor, "renameExecutor is null");
         this.skipDeletionForAlter = requireNonNull(skipDeletionForAlter, "skipDeletionForAlter is null");
+        this.tableInvalidationCallback = requireNonNull(tableInvalidationCallback, "tableInvalidationCallback is null");
     }
 
     public synchronized List<String> getAllDatabases()
@@ -357,6 +365,33 @@ public class SemiTransactionalHiveMetastore
         setExclusive((delegate, hdfsEnvironment) -> delegate.dropColumn(databaseName, tableName, columnName));
     }
 
+    /**
+     * Adds the given statistics parameters to the parameters of the table and of its partitions,
+     * replacing existing parameters of the same name.
+     */
+    public synchronized void updateStatisticsParameters(String databaseName, String tableName, Map<String, String> tableParameters, Map<List<String>, Map<String, String>> partitionParameters)
+    {
+        setExclusive((delegate, hdfsEnvironment) -> {
+            if (!tableParameters.isEmpty()) {
+                delegate.updateTableParameters(databaseName, tableName, parameters -> mergeParameters(parameters, tableParameters));
+            }
+            for (Map.Entry<List<String>, Map<String, String>> entry : partitionParameters.entrySet()) {
+                Partition partition = delegate.getPartition(databaseName, tableName, entry.getKey())
+                        .orElseThrow(() -> new PartitionNotFoundException(new SchemaTableName(databaseName, tableName), entry.getKey()));
+                delegate.alterPartition(databaseName, tableName, Partition.builder(partition)
+                        .setParameters(mergeParameters(partition.getParameters(), entry.getValue()))
+                        .build());
+            }
+        });
+    }
+
+    private static Map<String, String> mergeParameters(Map<String, String> parameters, Map<String, String> updates)
+    {
+        Map<String, String> result = new HashMap<>(parameters);
+        result.putAll(updates);
+        return ImmutableMap.copyOf(result);
+    }
+
     public synchronized void finishInsertIntoExistingTable(ConnectorSession session, String databaseName, String tableName, Path currentLocation, List<String> fileNames)
     {
         // Data can only be inserted into partitions and unpartitioned tables. They can never be inserted into a partitioned table.
@@ -736,11 +771,23 @@ public class SemiTransactionalHiveMetastore
                 case EMPTY:
                     break;
                 case SHARED_OPERATION_BUFFERED:
-                    commitShared();
+                    try {
+                        commitShared();
+                    }
+                    finally {
+                        // even a failed commit may have moved files, so always invalidate
+                        tableActions.keySet().forEach(tableInvalidationCallback::invalidate);
+                        partitionActions.keySet().forEach(tableInvalidationCallback::invalidate);
+                    }
                     break;
                 case EXCLUSIVE_OPERATION_BUFFERED:
                     requireNonNull(bufferedExclusiveOperation, "bufferedExclusiveOperation is null");
-                    bufferedExclusiveOperation.execute(delegate, hdfsEnvironment);
+                    try {
+                        bufferedExclusiveOperation.execute(delegate, hdfsEnvironment);
+                    }
+                    finally {
+                        tableInvalidationCallback.invalidateAll();
+                    }
                     break;
                 case FINISHED:
                     throw new IllegalStateException("Tried to commit buffered metastore operations after transaction has been committed/aborted");
@@ -384,6 +384,12 @@ public class FileHiveMetastore
         }
     }
 
+    @Override
+    public synchronized void updateTableParameters(String databaseName, String tableName, Function<Map<String, String>, Map<String, String>> update)
+    {
+        alterTable(databaseName, tableName, oldTable -> oldTable.withParameters(update.apply(oldTable.getParameters())));
+    }
+
     @Override
     public synchronized void addColumn(String databaseName, String tableName, String columnName, HiveType columnType, String columnComment)
     {
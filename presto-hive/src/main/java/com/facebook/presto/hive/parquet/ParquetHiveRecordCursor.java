@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.parquet;
 
+import com.facebook.presto.hive.FileFormatDataSourceStats;
 import com.facebook.presto.hive.HdfsEnvironment;
 import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.parquet.predicate.ParquetPredicate;
@@ -130,7 +131,8 @@ public class ParquetHiveRecordCursor
             boolean useParquetColumnNames,
             TypeManager typeManager,
             boolean predicatePushdownEnabled,
-            TupleDomain<HiveColumnHandle> effectivePredicate)
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            FileFormatDataSourceStats stats)
     {
         requireNonNull(path, "path is null");
         checkArgument(length >= 0, "length is negative");
@@ -168,7 +170,8 @@ public class ParquetHiveRecordCursor
                 columns,
                 useParquetColumnNames,
                 predicatePushdownEnabled,
-                effectivePredicate);
+                effectivePredicate,
+                stats);
     }
 
     @Override
@@ -319,7 +322,8 @@ public class ParquetHiveRecordCursor
             List<HiveColumnHandle> columns,
             boolean useParquetColumnNames,
             boolean predicatePushdownEnabled,
-            TupleDomain<HiveColumnHandle> effectivePredicate)
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            FileFormatDataSourceStats stats)
     {
         ParquetDataSource dataSource = null;
         try {
@@ -347,7 +351,7 @@ public class ParquetHiveRecordCursor
                     if (predicatePushdownEnabled) {
                         TupleDomain<ColumnDescriptor> parquetTupleDomain = getParquetTupleDomain(fileSchema, requestedSchema, effectivePredicate);
                         ParquetPredicate parquetPredicate = buildParquetPredicate(requestedSchema, parquetTupleDomain, fileSchema);
-                        if (predicateMatches(parquetPredicate, block, dataSource, fileSchema, requestedSchema, parquetTupleDomain)) {
+                        if (predicateMatches(parquetPredicate, block, dataSource, fileSchema, requestedSchema, parquetTupleDomain, stats)) {
                             offsets.add(block.getStartingPos());
                         }
                     }
@@ -13,7 +13,11 @@
  */
 package com.facebook.presto.hive.parquet.predicate;
 
+import com.facebook.presto.hive.FileFormatDataSourceStats;
 import com.facebook.presto.hive.HiveColumnHandle;
+import com.facebook.presto.hive.parquet.ParquetDataPage;
+import com.facebook.presto.hive.parquet.ParquetDataPageV1;
+import com.facebook.presto.hive.parquet.ParquetDataPageV2;
 import com.facebook.presto.hive.parquet.ParquetDataSource;
 import com.facebook.presto.hive.parquet.ParquetDictionaryPage;
 import com.facebook.presto.hive.parquet.ParquetEncoding;
@@ -42,6 +46,7 @@ import parquet.schema.MessageType;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -103,15 +108,54 @@ public final class ParquetPredicateUtils
         return new TupleDomainParquetPredicate(parquetTupleDomain, columnReferences.build());
     }
 
-    public static boolean predicateMatches(ParquetPredicate parquetPredicate, BlockMetaData block, ParquetDataSource dataSource, MessageType fileSchema, MessageType requestedSchema, TupleDomain<ColumnDescriptor> parquetTupleDomain)
+    public static boolean predicateMatches(ParquetPredicate parquetPredicate, BlockMetaData block, ParquetDataSource dataSource, MessageType fileSchema, MessageType requestedSchema, TupleDomain<ColumnDescriptor> parquetTupleDomain, FileFormatDataSourceStats stats)
     {
         Map<ColumnDescriptor, Statistics<?>> columnStatistics = getStatistics(block, fileSchema, requestedSchema);
         if (!parquetPredicate.matches(block.getRowCount(), columnStatistics)) {
+            stats.rowGroupSkippedByStatistics();
             return false;
         }
 
         Map<ColumnDescriptor, ParquetDictionaryDescriptor> dictionaries = getDictionaries(block, dataSource, fileSchema, requestedSchema, parquetTupleDomain);
-        return parquetPredicate.matches(dictionaries);
+        if (!parquetPredicate.matches(dictionaries)) {
+            stats.rowGroupSkippedByDictionary();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks the statistics stored in the data page headers of a non-repeated column chunk.
+     * The column chunk can only be skipped when none of its pages may contain a matching value,
+     * since data pages of different columns are not aligned on row boundaries.
+     */
+    public static boolean pageStatisticsMatch(ParquetPredicate parquetPredicate, ColumnDescriptor column, List<ParquetDataPage> pages)
+    {
+        if (column.getMaxRepetitionLevel() > 0) {
+            return true;
+        }
+
+        for (ParquetDataPage page : pages) {
+            Statistics<?> statistics = getStatistics(page);
+            if (statistics == null || statistics.isEmpty()) {
+                return true;
+            }
+            if (parquetPredicate.matches(page.getValueCount(), ImmutableMap.of(column, statistics))) {
+                return true;
+            }
+        }
+        return pages.isEmpty();
+    }
+
+    private static Statistics<?> getStatistics(ParquetDataPage page)
+    {
+        if (page instanceof ParquetDataPageV1) {
+            return ((ParquetDataPageV1) page).getStatistics();
+        }
+        if (page instanceof ParquetDataPageV2) {
+            return ((ParquetDataPageV2) page).getStatistics();
+        }
+        return null;
     }
 
     private static Map<ColumnDescriptor, Statistics<?>> getStatistics(BlockMetaData blockMetadata, MessageType fileSchema, MessageType requestedSchema)
@@ -138,15 +182,16 @@ public final class ParquetPredicateUtils
                 ColumnDescriptor columnDescriptor = descriptor.get();
                 if (isOnlyDictionaryEncodingPages(columnMetaData.getEncodings()) && isColumnPredicate(columnDescriptor, parquetTupleDomain)) {
                     try {
-                        int totalSize = toIntExact(columnMetaData.getTotalSize());
-                        byte[] buffer = new byte[totalSize];
+                        // the dictionary page is always the first page of the column chunk
+                        long dictionaryPageSize = columnMetaData.getFirstDataPageOffset() - columnMetaData.getStartingPos();
+                        int size = toIntExact(dictionaryPageSize > 0 ? dictionaryPageSize : columnMetaData.getTotalSize());
+                        byte[] buffer = new byte[size];
                         dataSource.readFully(columnMetaData.getStartingPos(), buffer);
                         Optional<ParquetDictionaryPage> dictionaryPage = readDictionaryPage(buffer, columnMetaData.getCodec());
                         dictionaries.put(columnDescriptor, new ParquetDictionaryDescriptor(columnDescriptor, dictionaryPage));
                     }
                     catch (IOException ignored) {
                     }
-                    break;
                 }
             }
         }
@@ -159,7 +204,7 @@ public final class ParquetPredicateUtils
             ByteArrayInputStream inputStream = new ByteArrayInputStream(data);
             PageHeader pageHeader = Util.readPageHeader(inputStream);
 
-            if (pageHeader.type != PageType.DICTIONARY_PAGE) {
+            if (pageHeader.type != PageType.DICTIONARY_PAGE || pageHeader.getCompressed_page_size() > inputStream.available()) {
                 return Optional.empty();
             }
 
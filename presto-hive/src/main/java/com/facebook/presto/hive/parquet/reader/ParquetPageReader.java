@@ -20,6 +20,7 @@ import com.facebook.presto.hive.parquet.ParquetDictionaryPage;
 import parquet.hadoop.metadata.CompressionCodecName;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -52,6 +53,11 @@ class ParquetPageReader
         return valueCount;
     }
 
+    public List<ParquetDataPage> getRemainingCompressedPages()
+    {
+        return Collections.unmodifiableList(compressedPages);
+    }
+
     public ParquetDataPage readPage()
     {
         if (compressedPages.isEmpty()) {
@@ -13,11 +13,14 @@
  */
 package com.facebook.presto.hive.parquet.reader;
 
+import com.facebook.presto.hive.FileFormatDataSourceStats;
 import com.facebook.presto.hive.parquet.ParquetCorruptionException;
+import com.facebook.presto.hive.parquet.ParquetDataPage;
 import com.facebook.presto.hive.parquet.ParquetDataSource;
 import com.facebook.presto.hive.parquet.RichColumnDescriptor;
 import com.facebook.presto.hive.parquet.memory.AggregatedMemoryContext;
 import com.facebook.presto.hive.parquet.memory.LocalMemoryContext;
+import com.facebook.presto.hive.parquet.predicate.ParquetPredicate;
 import com.facebook.presto.spi.block.ArrayBlock;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.RowBlock;
@@ -27,6 +30,7 @@ import com.facebook.presto.spi.type.NamedTypeSignature;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.spi.type.TypeSignatureParameter;
+import com.google.common.collect.ImmutableSet;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import parquet.column.ColumnDescriptor;
@@ -42,10 +46,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.facebook.presto.hive.parquet.ParquetTypeUtils.getColumns;
 import static com.facebook.presto.hive.parquet.ParquetTypeUtils.getDescriptor;
 import static com.facebook.presto.hive.parquet.ParquetValidationUtils.validateParquet;
+import static com.facebook.presto.hive.parquet.predicate.ParquetPredicateUtils.pageStatisticsMatch;
 import static com.facebook.presto.spi.type.StandardTypes.ARRAY;
 import static com.facebook.presto.spi.type.StandardTypes.MAP;
 import static com.facebook.presto.spi.type.StandardTypes.ROW;
@@ -69,6 +75,9 @@ public class ParquetReader
     private final List<BlockMetaData> blocks;
     private final ParquetDataSource dataSource;
     private final TypeManager typeManager;
+    private final ParquetPredicate predicate;
+    private final Set<ColumnDescriptor> predicateColumns;
+    private final FileFormatDataSourceStats stats;
 
     private int currentBlock;
     private BlockMetaData currentBlockMetadata;
@@ -86,13 +95,19 @@ public class ParquetReader
             List<BlockMetaData> blocks,
             ParquetDataSource dataSource,
             TypeManager typeManager,
-            AggregatedMemoryContext systemMemoryContext)
+            AggregatedMemoryContext systemMemoryContext,
+            ParquetPredicate predicate,
+            Set<ColumnDescriptor> predicateColumns,
+            FileFormatDataSourceStats stats)
     {
         this.fileSchema = fileSchema;
         this.requestedSchema = requestedSchema;
         this.blocks = blocks;
         this.dataSource = dataSource;
         this.typeManager = typeManager;
+        this.predicate = requireNonNull(predicate, "predicate is null");
+        this.predicateColumns = ImmutableSet.copyOf(requireNonNull(predicateColumns, "predicateColumns is null"));
+        this.stats = requireNonNull(stats, "stats is null");
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
         this.currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
         initializeColumnReaders();
@@ -112,6 +127,7 @@ public class ParquetReader
     }
 
     public int nextBatch()
+            throws IOException
     {
         if (nextRowInGroup >= currentGroupRowCount && !advanceToNextRowGroup()) {
             return -1;
@@ -131,20 +147,46 @@ public class ParquetReader
     }
 
     private boolean advanceToNextRowGroup()
+            throws IOException
     {
-        currentRowGroupMemoryContext.close();
-        currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
+        while (true) {
+            currentRowGroupMemoryContext.close();
+            currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
+
+            if (currentBlock == blocks.size()) {
+                return false;
+            }
+            currentBlockMetadata = blocks.get(currentBlock);
+            currentBlock = currentBlock + 1;
+
+            nextRowInGroup = 0L;
+            currentGroupRowCount = currentBlockMetadata.getRowCount();
+            columnReadersMap.clear();
+            initializeColumnReaders();
 
-        if (currentBlock == blocks.size()) {
-            return false;
+            if (predicateColumnPagesMatch()) {
+                return true;
+            }
         }
-        currentBlockMetadata = blocks.get(currentBlock);
-        currentBlock = currentBlock + 1;
+    }
 
-        nextRowInGroup = 0L;
-        currentGroupRowCount = currentBlockMetadata.getRowCount();
-        columnReadersMap.clear();
-        initializeColumnReaders();
+    private boolean predicateColumnPagesMatch()
+            throws IOException
+    {
+        // Predicate columns are read anyway, so load them first and use the statistics
+        // in their page headers to skip the row group before touching the other columns
+        for (ColumnDescriptor column : predicateColumns) {
+            ParquetColumnReader columnReader = columnReadersMap.get(column);
+            if (columnReader == null || column.getMaxRepetitionLevel() > 0) {
+                continue;
+            }
+            loadPageReader(column, columnReader);
+            List<ParquetDataPage> pages = columnReader.getPageReader().getRemainingCompressedPages();
+            if (!pageStatisticsMatch(predicate, column, pages)) {
+                stats.rowGroupSkippedByPageStatistics(pages.size());
+                return false;
+            }
+        }
         return true;
     }
 
@@ -250,20 +292,27 @@ public class ParquetReader
             throws IOException
     {
         ParquetColumnReader columnReader = columnReadersMap.get(columnDescriptor);
-        if (columnReader.getPageReader() == null) {
-            validateParquet(currentBlockMetadata.getRowCount() > 0, "Row group has 0 rows");
-            ColumnChunkMetaData metadata = getColumnChunkMetaData(columnDescriptor);
-            long startingPosition = metadata.getStartingPos();
-            int totalSize = toIntExact(metadata.getTotalSize());
-            byte[] buffer = allocateBlock(totalSize);
-            dataSource.readFully(startingPosition, buffer);
-            ParquetColumnChunkDescriptor descriptor = new ParquetColumnChunkDescriptor(columnDescriptor, metadata, totalSize);
-            ParquetColumnChunk columnChunk = new ParquetColumnChunk(descriptor, buffer, 0);
-            columnReader.setPageReader(columnChunk.readAllPages());
-        }
+        loadPageReader(columnDescriptor, columnReader);
         return columnReader.readPrimitive(type, offsets);
     }
 
+    private void loadPageReader(ColumnDescriptor columnDescriptor, ParquetColumnReader columnReader)
+            throws IOException
+    {
+        if (columnReader.getPageReader() != null) {
+            return;
+        }
+        validateParquet(currentBlockMetadata.getRowCount() > 0, "Row group has 0 rows");
+        ColumnChunkMetaData metadata = getColumnChunkMetaData(columnDescriptor);
+        long startingPosition = metadata.getStartingPos();
+        int totalSize = toIntExact(metadata.getTotalSize());
+        byte[] buffer = allocateBlock(totalSize);
+        dataSource.readFully(startingPosition, buffer);
+        ParquetColumnChunkDescriptor descriptor = new ParquetColumnChunkDescriptor(columnDescriptor, metadata, totalSize);
+        ParquetColumnChunk columnChunk = new ParquetColumnChunk(descriptor, buffer, 0);
+        columnReader.setPageReader(columnChunk.readAllPages());
+    }
+
     private byte[] allocateBlock(int length)
     {
         byte[] buffer = new byte[length];
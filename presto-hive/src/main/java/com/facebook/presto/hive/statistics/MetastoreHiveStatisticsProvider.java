@@ -18,7 +18,9 @@ import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.HivePartition;
 import com.facebook.presto.hive.HiveTableHandle;
 import com.facebook.presto.hive.PartitionStatistics;
+import com.facebook.presto.hive.metastore.HiveColumnDistribution;
 import com.facebook.presto.hive.metastore.HiveColumnStatistics;
+import com.facebook.presto.hive.metastore.HiveComputedColumnStatistics;
 import com.facebook.presto.hive.metastore.Partition;
 import com.facebook.presto.hive.metastore.SemiTransactionalHiveMetastore;
 import com.facebook.presto.hive.metastore.Table;
@@ -29,14 +31,18 @@ import com.facebook.presto.spi.ConnectorTableHandle;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.statistics.ColumnStatistics;
 import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.Histogram;
 import com.facebook.presto.spi.statistics.RangeColumnStatistics;
 import com.facebook.presto.spi.statistics.TableStatistics;
+import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.collect.ImmutableMap;
 
 import javax.annotation.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -50,7 +56,15 @@ import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
 
 import static com.facebook.presto.hive.HiveSessionProperties.isStatisticsEnabled;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Float.floatToRawIntBits;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -58,6 +72,10 @@ import static java.util.stream.Collectors.toList;
 public class MetastoreHiveStatisticsProvider
         implements HiveStatisticsProvider
 {
+    // Distributions of many partitions are not combined into a single one, so their size is bounded
+    private static final int MAX_MOST_COMMON_VALUES = 1_000;
+    private static final int MAX_HISTOGRAM_BUCKETS = 10_000;
+
     private final TypeManager typeManager;
     private final SemiTransactionalHiveMetastore metastore;
 
@@ -95,6 +113,9 @@ public class MetastoreHiveStatisticsProvider
             ColumnStatistics.Builder columnStatistics = ColumnStatistics.builder();
             columnStatistics.setNullsFraction(nullsFraction);
             columnStatistics.addRange(rangeStatistics.build());
+            if (!hiveColumnHandle.isPartitionKey()) {
+                addDistribution(columnStatistics, partitionStatistics, columnName, typeManager.getType(hiveColumnHandle.getTypeSignature()));
+            }
             tableStatistics.setColumnStatistics(hiveColumnHandle, columnStatistics.build());
         }
         return tableStatistics.build();
@@ -173,6 +194,72 @@ public class MetastoreHiveStatisticsProvider
 
         return new Estimate(totalNullsCount.getValue() / totalRowsCount.getValue());
     }
+
+    /**
+     * Combines the distributions of the column in all partitions, weighted by the row counts of the partitions.
+     * The histograms of the partitions are kept as separate, possibly overlapping, buckets. The most common values
+     * of a partition may be part of the histogram of another one, so their frequency can be underestimated.
+     */
+    private static void addDistribution(ColumnStatistics.Builder columnStatistics, Map<String, PartitionStatistics> statisticsByPartitionName, String column, Type type)
+    {
+        if (statisticsByPartitionName.isEmpty() || !isDistributionSupported(type)) {
+            return;
+        }
+        long totalRowCount = 0;
+        for (PartitionStatistics partitionStatistics : statisticsByPartitionName.values()) {
+            HiveColumnStatistics<?> hiveColumnStatistics = partitionStatistics.getColumnStatistics().get(column);
+            if (!partitionStatistics.getRowCount().isPresent() || hiveColumnStatistics == null || !hiveColumnStatistics.getDistribution().isPresent()) {
+                return;
+            }
+            totalRowCount += partitionStatistics.getRowCount().getAsLong();
+        }
+        if (totalRowCount == 0) {
+            return;
+        }
+
+        Map<Double, Double> mostCommonValues = new HashMap<>();
+        List<Histogram.Bucket> buckets = new ArrayList<>();
+        for (PartitionStatistics partitionStatistics : statisticsByPartitionName.values()) {
+            double weight = 1.0 * partitionStatistics.getRowCount().getAsLong() / totalRowCount;
+            HiveColumnStatistics<?> hiveColumnStatistics = partitionStatistics.getColumnStatistics().get(column);
+            HiveColumnDistribution distribution = hiveColumnStatistics.getDistribution().get();
+            for (int i = 0; i < distribution.getMostCommonValues().size(); i++) {
+                mostCommonValues.merge(distribution.getMostCommonValues().get(i), distribution.getMostCommonValueFractions().get(i) * weight, Double::sum);
+            }
+            int bucketCount = distribution.getHistogramBucketCount();
+            for (int i = 0; i < bucketCount; i++) {
+                buckets.add(new Histogram.Bucket(
+                        toNativeValue(type, distribution.getHistogramBoundaries().get(i)),
+                        toNativeValue(type, distribution.getHistogramBoundaries().get(i + 1)),
+                        distribution.getHistogramFraction() * weight / bucketCount));
+            }
+        }
+        if (mostCommonValues.size() > MAX_MOST_COMMON_VALUES || buckets.size() > MAX_HISTOGRAM_BUCKETS) {
+            return;
+        }
+
+        mostCommonValues.forEach((value, fraction) -> columnStatistics.addMostCommonValue(toNativeValue(type, value), Math.min(fraction, 1)));
+        if (!buckets.isEmpty()) {
+            columnStatistics.setHistogram(new Histogram(buckets));
+        }
+    }
+
+    private static boolean isDistributionSupported(Type type)
+    {
+        return type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DATE) || type.equals(DOUBLE) || type.equals(REAL);
+    }
+
+    private static Object toNativeValue(Type type, double value)
+    {
+        if (type.equals(DOUBLE)) {
+            return value;
+        }
+        if (type.equals(REAL)) {
+            return (long) floatToRawIntBits((float) value);
+        }
+        return Math.round(value);
+    }
+
     private Estimate countDistinctPartitionKeys(HiveColumnHandle partitionColumn, List<HivePartition> partitions)
     {
         return new Estimate(partitions.stream()
@@ -283,8 +370,14 @@ public class MetastoreHiveStatisticsProvider
         return readStatisticsFromParameters(table.getParameters(), tableColumnStatistics);
     }
 
-    private PartitionStatistics readStatisticsFromParameters(Map<String, String> parameters, Map<String, HiveColumnStatistics> columnStatistics)
+    private PartitionStatistics readStatisticsFromParameters(Map<String, String> parameters, Map<String, HiveColumnStatistics> metastoreColumnStatistics)
     {
+        Map<String, HiveColumnStatistics> columnStatistics = new HashMap<>(metastoreColumnStatistics);
+        HiveComputedColumnStatistics.fromParameters(parameters).forEach((column, computed) ->
+                columnStatistics.put(column, computed.mergeInto(columnStatistics.getOrDefault(column, HiveColumnStatistics.empty()))));
+        HiveColumnDistribution.fromParameters(parameters).forEach((column, distribution) ->
+                columnStatistics.put(column, columnStatistics.getOrDefault(column, HiveColumnStatistics.empty()).withDistribution(distribution)));
+
         boolean columnStatsAcurate = Boolean.valueOf(Optional.ofNullable(parameters.get("COLUMN_STATS_ACCURATE")).orElse("false"));
         OptionalLong numFiles = convertStringParameter(parameters.get("numFiles"));
         OptionalLong numRows = convertStringParameter(parameters.get("numRows"));
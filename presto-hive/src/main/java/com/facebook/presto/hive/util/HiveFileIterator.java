@@ -18,6 +18,7 @@ import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.HivePartitionKey;
 import com.facebook.presto.hive.HiveType;
 import com.facebook.presto.hive.NamenodeStats;
+import com.facebook.presto.hive.metastore.Table;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.google.common.collect.AbstractIterator;
@@ -45,6 +46,7 @@ public class HiveFileIterator
     private final DirectoryLister directoryLister;
     private final NamenodeStats namenodeStats;
     private final Path path;
+    private final Table table;
     private final String partitionName;
     private final InputFormat<?, ?> inputFormat;
     private final Properties schema;
@@ -56,6 +58,7 @@ public class HiveFileIterator
 
     public HiveFileIterator(
             Path path,
+            Table table,
             FileSystem fileSystem,
             DirectoryLister directoryLister,
             NamenodeStats namenodeStats,
@@ -72,6 +75,7 @@ public class HiveFileIterator
         this.partitionKeys = requireNonNull(partitionKeys, "partitionKeys is null");
         this.effectivePredicate = requireNonNull(effectivePredicate, "effectivePredicate is null");
         this.path = requireNonNull(path, "path is null");
+        this.table = requireNonNull(table, "table is null");
         this.fileSystem = requireNonNull(fileSystem, "fileSystem is null");
         this.directoryLister = requireNonNull(directoryLister, "directoryLister is null");
         this.namenodeStats = requireNonNull(namenodeStats, "namenodeStats is null");
@@ -110,7 +114,7 @@ public class HiveFileIterator
             throws IOException
     {
         try (TimeStat.BlockTimer ignored = namenodeStats.getListLocatedStatus().time()) {
-            return directoryLister.list(fileSystem, path);
+            return directoryLister.list(fileSystem, table, path);
         }
         catch (IOException | RuntimeException e) {
             namenodeStats.getListLocatedStatus().recordException(e);
@@ -130,6 +134,11 @@ public class HiveFileIterator
         }
     }
 
+    public Table getTable()
+    {
+        return table;
+    }
+
     public FileSystem getFileSystem()
     {
         return fileSystem;
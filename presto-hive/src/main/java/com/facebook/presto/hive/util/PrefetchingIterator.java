@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.util;
+
+import com.google.common.collect.AbstractIterator;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Iterator that loads the element following the one just returned on the executor, so the
+ * latency of loading it overlaps with the processing of the current element. If the executor
+ * has not started loading an element by the time it is requested, it is loaded on the calling
+ * thread, so a saturated executor never blocks the consumer.
+ */
+public class PrefetchingIterator<S, T>
+        extends AbstractIterator<T>
+{
+    private final Iterator<S> sources;
+    private final Function<S, T> loader;
+    private final Executor executor;
+
+    private FutureTask<T> next;
+
+    public PrefetchingIterator(Iterator<S> sources, Function<S, T> loader, Executor executor)
+    {
+        this.sources = requireNonNull(sources, "sources is null");
+        this.loader = requireNonNull(loader, "loader is null");
+        this.executor = requireNonNull(executor, "executor is null");
+    }
+
+    @Override
+    protected T computeNext()
+    {
+        if (next == null) {
+            if (!sources.hasNext()) {
+                return endOfData();
+            }
+            next = newTask(sources.next());
+        }
+
+        FutureTask<T> current = next;
+        next = null;
+        if (sources.hasNext()) {
+            next = newTask(sources.next());
+            executor.execute(next);
+        }
+
+        // no-op if the task has already been started by the executor
+        current.run();
+        return getFutureValue(current);
+    }
+
+    private FutureTask<T> newTask(S source)
+    {
+        return new FutureTask<>(() -> loader.apply(source));
+    }
+}
@@ -272,7 +272,7 @@ public class TestBackgroundSplitLoader
         }
 
         @Override
-        public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Path path)
+        public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
         {
             return new RemoteIterator<LocatedFileStatus>()
             {
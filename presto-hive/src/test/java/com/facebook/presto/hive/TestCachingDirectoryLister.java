@@ -0,0 +1,206 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.metastore.Column;
+import com.facebook.presto.hive.metastore.StorageFormat;
+import com.facebook.presto.hive.metastore.Table;
+import com.facebook.presto.spi.SchemaTableName;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.Duration;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.hive.metastore.TableType;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.hive.HiveType.HIVE_STRING;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+public class TestCachingDirectoryLister
+{
+    private static final Path PATH = new Path("hdfs://VOL1:9000/db_name/table_name/part=1");
+    private static final List<LocatedFileStatus> FILES = ImmutableList.of(
+            locatedFileStatus(new Path(PATH, "file1")),
+            locatedFileStatus(new Path(PATH, "file2")));
+
+    @Test
+    public void testCachedTable()
+            throws IOException
+    {
+        CountingDirectoryLister delegate = new CountingDirectoryLister();
+        CachingDirectoryLister lister = new CachingDirectoryLister(delegate, new Duration(5, MINUTES), 1000, ImmutableList.of("db_name.cached"));
+        Table table = table("cached");
+
+        assertEquals(drain(lister.list(null, table, PATH)), 2);
+        assertEquals(drain(lister.list(null, table, PATH)), 2);
+        assertEquals(delegate.getListCount(), 1);
+        assertEquals(lister.getHitCount(), 1);
+        assertEquals(lister.getMissCount(), 1);
+
+        lister.invalidate(new SchemaTableName("db_name", "other"));
+        assertEquals(drain(lister.list(null, table, PATH)), 2);
+        assertEquals(delegate.getListCount(), 1);
+
+        lister.invalidate(new SchemaTableName("db_name", "cached"));
+        assertEquals(drain(lister.list(null, table, PATH)), 2);
+        assertEquals(delegate.getListCount(), 2);
+    }
+
+    @Test
+    public void testUncachedTable()
+            throws IOException
+    {
+        CountingDirectoryLister delegate = new CountingDirectoryLister();
+        CachingDirectoryLister lister = new CachingDirectoryLister(delegate, new Duration(5, MINUTES), 1000, ImmutableList.of("db_name.cached"));
+        Table table = table("not_cached");
+
+        assertEquals(drain(lister.list(null, table, PATH)), 2);
+        assertEquals(drain(lister.list(null, table, PATH)), 2);
+        assertEquals(delegate.getListCount(), 2);
+        assertEquals(lister.getSize(), 0);
+    }
+
+    @Test
+    public void testAllTables()
+            throws IOException
+    {
+        CountingDirectoryLister delegate = new CountingDirectoryLister();
+        CachingDirectoryLister lister = new CachingDirectoryLister(delegate, new Duration(5, MINUTES), 1000, ImmutableList.of("*"));
+
+        assertEquals(drain(lister.list(null, table("a"), PATH)), 2);
+        assertEquals(drain(lister.list(null, table("a"), PATH)), 2);
+        assertEquals(drain(lister.list(null, table("b"), PATH)), 2);
+        assertEquals(delegate.getListCount(), 2);
+
+        lister.invalidateAll();
+        assertEquals(lister.getSize(), 0);
+    }
+
+    @Test
+    public void testPartialListingNotCached()
+            throws IOException
+    {
+        CountingDirectoryLister delegate = new CountingDirectoryLister();
+        CachingDirectoryLister lister = new CachingDirectoryLister(delegate, new Duration(5, MINUTES), 1000, ImmutableList.of("*"));
+
+        RemoteIterator<LocatedFileStatus> iterator = lister.list(null, table("a"), PATH);
+        iterator.hasNext();
+        iterator.next();
+        assertEquals(lister.getSize(), 0);
+
+        assertEquals(drain(lister.list(null, table("a"), PATH)), 2);
+        assertEquals(lister.getSize(), 1);
+    }
+
+    @Test
+    public void testListingDuringInvalidationNotCached()
+            throws IOException
+    {
+        CountingDirectoryLister delegate = new CountingDirectoryLister();
+        CachingDirectoryLister lister = new CachingDirectoryLister(delegate, new Duration(5, MINUTES), 1000, ImmutableList.of("*"));
+
+        // the files may have changed after they were listed
+        RemoteIterator<LocatedFileStatus> iterator = lister.list(null, table("a"), PATH);
+        lister.invalidate(new SchemaTableName("db_name", "a"));
+        assertEquals(drain(iterator), 2);
+        assertEquals(lister.getSize(), 0);
+
+        assertEquals(drain(lister.list(null, table("a"), PATH)), 2);
+        assertEquals(lister.getSize(), 1);
+    }
+
+    private static int drain(RemoteIterator<LocatedFileStatus> iterator)
+            throws IOException
+    {
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+
+    private static Table table(String tableName)
+    {
+        Table.Builder tableBuilder = Table.builder();
+        tableBuilder.getStorageBuilder()
+                .setStorageFormat(
+                        StorageFormat.create(
+                                "com.facebook.hive.orc.OrcSerde",
+                                "org.apache.hadoop.hive.ql.io.RCFileInputFormat",
+                                "org.apache.hadoop.hive.ql.io.RCFileInputFormat"))
+                .setLocation("hdfs://VOL1:9000/db_name/" + tableName)
+                .setSkewed(false)
+                .setBucketProperty(Optional.empty())
+                .setSorted(false);
+
+        return tableBuilder
+                .setDatabaseName("db_name")
+                .setOwner("testOwner")
+                .setTableName(tableName)
+                .setTableType(TableType.MANAGED_TABLE.toString())
+                .setDataColumns(ImmutableList.of(new Column("col1", HIVE_STRING, Optional.empty())))
+                .setParameters(ImmutableMap.of())
+                .setPartitionColumns(ImmutableList.of())
+                .build();
+    }
+
+    private static LocatedFileStatus locatedFileStatus(Path path)
+    {
+        return new LocatedFileStatus(0L, false, 0, 0L, 0L, 0L, null, null, null, null, path, new BlockLocation[] {new BlockLocation()});
+    }
+
+    private static class CountingDirectoryLister
+            implements DirectoryLister
+    {
+        private int listCount;
+
+        @Override
+        public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
+        {
+            listCount++;
+            return new RemoteIterator<LocatedFileStatus>()
+            {
+                private final Iterator<LocatedFileStatus> iterator = FILES.iterator();
+
+                @Override
+                public boolean hasNext()
+                {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public LocatedFileStatus next()
+                {
+                    return iterator.next();
+                }
+            };
+        }
+
+        public int getListCount()
+        {
+            return listCount;
+        }
+    }
+}
@@ -41,9 +41,12 @@ public class TestHiveClientConfig
                 .setMaxPartitionsPerScan(100_000)
                 .setMaxOutstandingSplits(1_000)
                 .setMaxSplitIteratorThreads(1_000)
+                .setSplitLoaderConcurrency(100)
                 .setAllowCorruptWritesForTesting(false)
                 .setMetastoreCacheTtl(new Duration(0, TimeUnit.SECONDS))
                 .setMetastoreRefreshInterval(new Duration(0, TimeUnit.SECONDS))
+                .setMetastoreCacheMaxStaleness(new Duration(0, TimeUnit.SECONDS))
+                .setMetastorePartitionPrefetchSize(1000)
                 .setMetastoreCacheMaximumSize(10000)
                 .setPerTransactionMetastoreCacheMaximumSize(1000)
                 .setMaxMetastoreRefreshThreads(100)
@@ -93,7 +96,10 @@ public class TestHiveClientConfig
                 .setBucketWritingEnabled(true)
                 .setFileSystemMaxCacheSize(1000)
                 .setTableStatisticsEnabled(true)
-                .setWritesToNonManagedTablesEnabled(false));
+                .setWritesToNonManagedTablesEnabled(false)
+                .setFileStatusCacheTables("")
+                .setFileStatusCacheMaxSize(1_000_000)
+                .setFileStatusCacheExpireAfterWrite(new Duration(1, TimeUnit.MINUTES)));
     }
 
     @Test
@@ -105,9 +111,12 @@ public class TestHiveClientConfig
                 .put("hive.max-partitions-per-scan", "123")
                 .put("hive.max-outstanding-splits", "10")
                 .put("hive.max-split-iterator-threads", "10")
+                .put("hive.split-loader-concurrency", "12")
                 .put("hive.allow-corrupt-writes-for-testing", "true")
                 .put("hive.metastore-cache-ttl", "2h")
                 .put("hive.metastore-refresh-interval", "30m")
+                .put("hive.metastore-cache-max-staleness", "10m")
+                .put("hive.metastore-partition-prefetch-size", "250")
                 .put("hive.metastore-cache-maximum-size", "5000")
                 .put("hive.per-transaction-metastore-cache-maximum-size", "500")
                 .put("hive.metastore-refresh-max-threads", "2500")
@@ -158,6 +167,9 @@ public class TestHiveClientConfig
                 .put("hive.fs.cache.max-size", "1010")
                 .put("hive.table-statistics-enabled", "false")
                 .put("hive.non-managed-table-writes-enabled", "true")
+                .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
+                .put("hive.file-status-cache-size", "1000")
+                .put("hive.file-status-cache-expire-time", "30m")
                 .build();
 
         HiveClientConfig expected = new HiveClientConfig()
@@ -166,9 +178,12 @@ public class TestHiveClientConfig
                 .setMaxPartitionsPerScan(123)
                 .setMaxOutstandingSplits(10)
                 .setMaxSplitIteratorThreads(10)
+                .setSplitLoaderConcurrency(12)
                 .setAllowCorruptWritesForTesting(true)
                 .setMetastoreCacheTtl(new Duration(2, TimeUnit.HOURS))
                 .setMetastoreRefreshInterval(new Duration(30, TimeUnit.MINUTES))
+                .setMetastoreCacheMaxStaleness(new Duration(10, TimeUnit.MINUTES))
+                .setMetastorePartitionPrefetchSize(250)
                 .setMetastoreCacheMaximumSize(5000)
                 .setPerTransactionMetastoreCacheMaximumSize(500)
                 .setMaxMetastoreRefreshThreads(2500)
@@ -218,7 +233,10 @@ public class TestHiveClientConfig
                 .setBucketWritingEnabled(false)
                 .setFileSystemMaxCacheSize(1010)
                 .setTableStatisticsEnabled(false)
-                .setWritesToNonManagedTablesEnabled(true);
+                .setWritesToNonManagedTablesEnabled(true)
+                .setFileStatusCacheTables("foo.bar1,foo.bar2")
+                .setFileStatusCacheMaxSize(1000)
+                .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
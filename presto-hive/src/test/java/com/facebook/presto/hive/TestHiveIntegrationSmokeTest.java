@@ -1316,6 +1316,48 @@ public class TestHiveIntegrationSmokeTest
         assertFalse(getQueryRunner().tableExists(getSession(), "test_delete_unpartitioned"));
     }
 
+    @Test
+    public void testAnalyze()
+    {
+        assertUpdate("CREATE TABLE test_analyze (x BIGINT, y VARCHAR, ds VARCHAR) WITH (partitioned_by = ARRAY['ds'])");
+        assertUpdate("INSERT INTO test_analyze VALUES (1, 'a', 'p1'), (2, NULL, 'p1'), (NULL, 'abc', 'p2')", 3);
+
+        assertUpdate("ANALYZE test_analyze", 3);
+
+        MaterializedResult result = computeActual("SHOW STATS FOR test_analyze");
+        Map<String, MaterializedRow> statistics = new HashMap<>();
+        for (MaterializedRow row : result.getMaterializedRows()) {
+            statistics.put(String.valueOf(row.getField(0)), row);
+        }
+        // the row without a column name holds the table statistics
+        assertEquals(statistics.get("null").getField(4), 3.0);
+        assertEquals(statistics.get("x").getField(2), 2.0);
+        assertEquals(statistics.get("x").getField(3), 1.0 / 3);
+        assertEquals(statistics.get("y").getField(3), 1.0 / 3);
+
+        assertUpdate("DROP TABLE test_analyze");
+    }
+
+    @Test
+    public void testAnalyzeNonVarcharPartitionKeys()
+    {
+        assertUpdate("CREATE TABLE test_analyze_partition_keys (x BIGINT, ds DATE, p BIGINT) WITH (partitioned_by = ARRAY['ds', 'p'])");
+        assertUpdate("INSERT INTO test_analyze_partition_keys VALUES (1, DATE '2017-01-02', 1), (2, DATE '2017-01-02', 1), (NULL, DATE '2017-01-03', NULL)", 3);
+
+        // the statistics are stored in the partitions written by the inserts
+        assertUpdate("ANALYZE test_analyze_partition_keys", 3);
+
+        MaterializedResult result = computeActual("SHOW STATS FOR test_analyze_partition_keys");
+        Map<String, MaterializedRow> statistics = new HashMap<>();
+        for (MaterializedRow row : result.getMaterializedRows()) {
+            statistics.put(String.valueOf(row.getField(0)), row);
+        }
+        assertEquals(statistics.get("null").getField(4), 3.0);
+        assertEquals(statistics.get("x").getField(3), 1.0 / 3);
+
+        assertUpdate("DROP TABLE test_analyze_partition_keys");
+    }
+
     @Test
     public void testMetadataDelete()
             throws Exception
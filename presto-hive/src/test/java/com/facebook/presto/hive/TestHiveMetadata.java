@@ -13,21 +13,37 @@
  */
 package com.facebook.presto.hive;
 
+import com.facebook.presto.hive.metastore.HiveColumnDistribution;
+import com.facebook.presto.hive.metastore.HiveComputedColumnStatistics;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.NullableValue;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.predicate.TupleDomain.ColumnDomain;
+import com.facebook.presto.spi.statistics.ComputedColumnStatistics;
+import com.facebook.presto.spi.statistics.ComputedStatistics;
 import com.facebook.presto.spi.type.TypeSignature;
 import com.facebook.presto.spi.type.VarcharType;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.slice.Slices;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
 
 import static com.facebook.presto.hive.HiveMetadata.createPredicate;
+import static com.facebook.presto.hive.HiveMetadata.getPartitionValues;
+import static com.facebook.presto.hive.HiveMetadata.toStatisticsParameters;
+import static com.facebook.presto.hive.HivePartitionKey.HIVE_DEFAULT_DYNAMIC_PARTITION;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static org.testng.Assert.assertEquals;
 
 public class TestHiveMetadata
 {
@@ -101,4 +117,39 @@ public class TestHiveMetadata
 
         createPredicate(ImmutableList.of(TEST_COLUMN_HANDLE), partitions.build());
     }
+
+    @Test
+    public void testStatisticsParameters()
+    {
+        ComputedStatistics statistics = new ComputedStatistics(
+                ImmutableList.of(),
+                ImmutableList.of(),
+                10,
+                ImmutableMap.of(
+                        "x", new ComputedColumnStatistics(2, OptionalLong.of(5), Optional.of(-3L), Optional.of(42L), OptionalLong.empty(), Optional.of(ImmutableList.of(-3.0, 1.5, 1.5, 1.5, 42.0))),
+                        "y", new ComputedColumnStatistics(10, OptionalLong.of(0), Optional.empty(), Optional.empty(), OptionalLong.empty(), Optional.empty())));
+        Map<String, String> parameters = toStatisticsParameters(statistics, ImmutableMap.of("x", BIGINT, "y", BIGINT));
+        assertEquals(parameters.get("numRows"), "10");
+
+        Map<String, HiveComputedColumnStatistics> columnStatistics = HiveComputedColumnStatistics.fromParameters(parameters);
+        assertEquals(columnStatistics.get("x").getLowValue(), OptionalDouble.of(-3));
+        assertEquals(columnStatistics.get("x").getHighValue(), OptionalDouble.of(42));
+        assertEquals(columnStatistics.get("y").getNullsCount(), 10);
+
+        // the quantiles are stored as a histogram of the non-null values, and the repeated ones as most common values
+        Map<String, HiveColumnDistribution> distributions = HiveColumnDistribution.fromParameters(parameters);
+        assertEquals(distributions.keySet(), ImmutableSet.of("x"));
+        assertEquals(distributions.get("x").getMostCommonValues(), ImmutableList.of(1.5));
+        assertEquals(distributions.get("x").getMostCommonValueFractions(), ImmutableList.of(0.4));
+        assertEquals(distributions.get("x").getHistogramBoundaries(), ImmutableList.of(-3.0, 1.5, 42.0));
+        assertEquals(distributions.get("x").getHistogramFraction(), 0.4);
+    }
+
+    @Test
+    public void testPartitionValues()
+    {
+        assertEquals(
+                getPartitionValues(ImmutableList.of(BIGINT, DATE, DOUBLE, VarcharType.VARCHAR), Arrays.asList(42L, 17168L, 1.5, null)),
+                ImmutableList.of("42", "2017-01-02", "1.5", HIVE_DEFAULT_DYNAMIC_PARTITION));
+    }
 }
@@ -48,6 +48,7 @@ public class TestHiveSplit
                 42,
                 88,
                 88,
+                1234,
                 schema,
                 partitionKeys,
                 addresses,
@@ -67,6 +68,8 @@ public class TestHiveSplit
         assertEquals(actual.getStart(), expected.getStart());
         assertEquals(actual.getLength(), expected.getLength());
         assertEquals(actual.getFileSize(), expected.getFileSize());
+        assertEquals(actual.getFileModifiedTime(), expected.getFileModifiedTime());
+        assertEquals(actual.getCacheIdentifier(), expected.getCacheIdentifier());
         assertEquals(actual.getSchema(), expected.getSchema());
         assertEquals(actual.getPartitionKeys(), expected.getPartitionKeys());
         assertEquals(actual.getAddresses(), expected.getAddresses());
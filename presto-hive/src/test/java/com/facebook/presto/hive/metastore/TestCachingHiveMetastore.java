@@ -23,6 +23,8 @@ import org.testng.annotations.Test;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static com.facebook.presto.hive.metastore.MockHiveMetastoreClient.BAD_DATABASE;
@@ -31,11 +33,15 @@ import static com.facebook.presto.hive.metastore.MockHiveMetastoreClient.TEST_PA
 import static com.facebook.presto.hive.metastore.MockHiveMetastoreClient.TEST_PARTITION2;
 import static com.facebook.presto.hive.metastore.MockHiveMetastoreClient.TEST_TABLE;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestCachingHiveMetastore
@@ -204,6 +210,101 @@ public class TestCachingHiveMetastore
         assertEquals(mockClient.getAccessCount(), 4);
     }
 
+    @Test
+    public void testPrefetchPartitions()
+            throws Exception
+    {
+        // prefetching on a direct executor loads the next partitions before the requested ones
+        CachingHiveMetastore metastore = new CachingHiveMetastore(
+                new BridgingHiveMetastore(new ThriftHiveMetastore(new MockHiveCluster(mockClient))),
+                newDirectExecutorService(),
+                new Duration(5, TimeUnit.MINUTES),
+                new Duration(1, TimeUnit.MINUTES),
+                new Duration(0, TimeUnit.MINUTES),
+                1000,
+                10);
+
+        assertEquals(metastore.getPartitionNames(TEST_DATABASE, TEST_TABLE).get(), ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2));
+        assertEquals(mockClient.getAccessCount(), 1);
+
+        assertEquals(metastore.getPartitionsByNames(TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1)).size(), 1);
+        assertEquals(mockClient.getAccessCount(), 3);
+        assertEquals(metastore.getPrefetchedPartitions().getTotalCount(), 1);
+
+        // the second partition was prefetched
+        assertEquals(metastore.getPartitionsByNames(TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION2)).size(), 1);
+        assertEquals(mockClient.getAccessCount(), 3);
+        assertEquals(metastore.getPartitionCacheStats().getHitCount(), 1);
+        assertEquals(metastore.getPartitionCacheStats().getMissCount(), 2);
+    }
+
+    @Test
+    public void testPartitionListingPositionsAreBounded()
+            throws Exception
+    {
+        // the positions are limited to the maximum size of the caches, so the position of the first partition is evicted
+        CachingHiveMetastore metastore = new CachingHiveMetastore(
+                new BridgingHiveMetastore(new ThriftHiveMetastore(new MockHiveCluster(mockClient))),
+                newDirectExecutorService(),
+                new Duration(5, TimeUnit.MINUTES),
+                new Duration(1, TimeUnit.MINUTES),
+                new Duration(0, TimeUnit.MINUTES),
+                1,
+                10);
+
+        assertEquals(metastore.getPartitionNames(TEST_DATABASE, TEST_TABLE).get(), ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2));
+        assertEquals(metastore.getPartitionsByNames(TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1)).size(), 1);
+        assertEquals(metastore.getPrefetchedPartitions().getTotalCount(), 0);
+    }
+
+    @Test
+    public void testStaleEntryIsServedWhileReloading()
+            throws Exception
+    {
+        // the reload queues behind a blocked task, so the stale entry must be returned without waiting for it
+        CountDownLatch reloadAllowed = new CountDownLatch(1);
+        ExecutorService executor = newSingleThreadExecutor(daemonThreadsNamed("test-%s"));
+        executor.execute(() -> awaitUninterruptibly(reloadAllowed));
+        CachingHiveMetastore metastore = new CachingHiveMetastore(
+                new BridgingHiveMetastore(new ThriftHiveMetastore(new MockHiveCluster(mockClient))),
+                executor,
+                new Duration(100, TimeUnit.MILLISECONDS),
+                new Duration(0, TimeUnit.MILLISECONDS),
+                new Duration(5, TimeUnit.MINUTES),
+                1000,
+                0);
+
+        assertEquals(metastore.getAllDatabases(), ImmutableList.of(TEST_DATABASE));
+        assertEquals(mockClient.getAccessCount(), 1);
+
+        // past the ttl the entry is still served, and a reload is started
+        Thread.sleep(200);
+        assertEquals(metastore.getAllDatabases(), ImmutableList.of(TEST_DATABASE));
+        assertEquals(mockClient.getAccessCount(), 1);
+
+        reloadAllowed.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(mockClient.getAccessCount(), 2);
+
+        // the reloaded entry is fresh again
+        assertEquals(metastore.getAllDatabases(), ImmutableList.of(TEST_DATABASE));
+        assertEquals(mockClient.getAccessCount(), 2);
+    }
+
+    @Test
+    public void testCacheStats()
+            throws Exception
+    {
+        assertEquals(metastore.getTableCacheStats().getLoadCount(), 0);
+        metastore.getTable(TEST_DATABASE, TEST_TABLE);
+        metastore.getTable(TEST_DATABASE, TEST_TABLE);
+        assertEquals(metastore.getTableCacheStats().getHitCount(), 1);
+        assertEquals(metastore.getTableCacheStats().getMissCount(), 1);
+        assertEquals(metastore.getTableCacheStats().getLoadCount(), 1);
+        assertEquals(metastore.getTableCacheStats().getHitRate(), 0.5);
+    }
+
     public void testInvalidGetPartitionsByNames()
             throws Exception
     {
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.metastore;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static com.facebook.presto.hive.metastore.HiveColumnDistribution.fromParameters;
+import static com.facebook.presto.hive.metastore.HiveColumnDistribution.fromQuantiles;
+import static com.facebook.presto.hive.metastore.HiveColumnDistribution.getParameterName;
+import static org.testng.Assert.assertEquals;
+
+public class TestHiveColumnDistribution
+{
+    @Test
+    public void testParameterRoundTrip()
+    {
+        HiveColumnDistribution distribution = new HiveColumnDistribution(
+                ImmutableList.of(7.0, 42.0),
+                ImmutableList.of(0.3, 0.1),
+                ImmutableList.of(0.0, 10.0, 90.0),
+                0.6);
+
+        Map<String, HiveColumnDistribution> distributions = fromParameters(ImmutableMap.of(
+                getParameterName("x"), distribution.toParameterValue(),
+                getParameterName("y"), "not a distribution",
+                "numRows", "100"));
+
+        assertEquals(distributions.keySet(), ImmutableSet.of("x"));
+        HiveColumnDistribution actual = distributions.get("x");
+        assertEquals(actual.getMostCommonValues(), distribution.getMostCommonValues());
+        assertEquals(actual.getMostCommonValueFractions(), distribution.getMostCommonValueFractions());
+        assertEquals(actual.getHistogramBoundaries(), distribution.getHistogramBoundaries());
+        assertEquals(actual.getHistogramFraction(), 0.6);
+        assertEquals(actual.getHistogramBucketCount(), 2);
+    }
+
+    @Test
+    public void testFromQuantiles()
+    {
+        // 6 buckets of 0.125 of the rows each, 2 of them filled by 5
+        HiveColumnDistribution distribution = fromQuantiles(ImmutableList.of(1.0, 2.0, 5.0, 5.0, 5.0, 8.0, 9.0), 0.75);
+        assertEquals(distribution.getMostCommonValues(), ImmutableList.of(5.0));
+        assertEquals(distribution.getMostCommonValueFractions(), ImmutableList.of(0.25));
+        assertEquals(distribution.getHistogramBoundaries(), ImmutableList.of(1.0, 2.0, 5.0, 8.0, 9.0));
+        assertEquals(distribution.getHistogramFraction(), 0.5);
+
+        // a single value fills all the buckets
+        distribution = fromQuantiles(ImmutableList.of(7.0, 7.0, 7.0), 1.0);
+        assertEquals(distribution.getMostCommonValues(), ImmutableList.of(7.0));
+        assertEquals(distribution.getMostCommonValueFractions(), ImmutableList.of(1.0));
+        assertEquals(distribution.getHistogramBoundaries(), ImmutableList.of());
+        assertEquals(distribution.getHistogramFraction(), 0.0);
+
+        // distinct quantiles have no most common values
+        distribution = fromQuantiles(ImmutableList.of(1.0, 2.0, 3.0), 1.0);
+        assertEquals(distribution.getMostCommonValues(), ImmutableList.of());
+        assertEquals(distribution.getHistogramBoundaries(), ImmutableList.of(1.0, 2.0, 3.0));
+        assertEquals(distribution.getHistogramFraction(), 1.0);
+    }
+}
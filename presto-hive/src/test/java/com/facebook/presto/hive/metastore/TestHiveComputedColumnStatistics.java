@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.metastore;
+
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+import static com.facebook.presto.hive.metastore.HiveComputedColumnStatistics.fromParameters;
+import static com.facebook.presto.hive.metastore.HiveComputedColumnStatistics.getParameterName;
+import static org.testng.Assert.assertEquals;
+
+public class TestHiveComputedColumnStatistics
+{
+    @Test
+    public void testParameterRoundTrip()
+    {
+        HiveComputedColumnStatistics statistics = new HiveComputedColumnStatistics(3, OptionalLong.of(42), OptionalDouble.of(-1), OptionalDouble.of(99.5), OptionalDouble.empty());
+
+        Map<String, HiveComputedColumnStatistics> parsed = fromParameters(ImmutableMap.of(
+                getParameterName("x"), statistics.toParameterValue(),
+                getParameterName("y"), "not statistics",
+                "numRows", "100"));
+
+        assertEquals(parsed, ImmutableMap.of("x", statistics));
+    }
+
+    @Test
+    public void testMergeInto()
+    {
+        HiveColumnStatistics<Object> metastoreStatistics = new HiveColumnStatistics<>(
+                Optional.empty(),
+                Optional.empty(),
+                OptionalLong.of(20),
+                OptionalDouble.of(5.5),
+                OptionalLong.empty(),
+                OptionalLong.empty(),
+                OptionalLong.of(100),
+                OptionalLong.of(7));
+
+        HiveColumnStatistics<Object> merged = new HiveComputedColumnStatistics(3, OptionalLong.of(42), OptionalDouble.empty(), OptionalDouble.empty(), OptionalDouble.empty())
+                .mergeInto(metastoreStatistics);
+        assertEquals(merged.getNullsCount(), OptionalLong.of(3));
+        assertEquals(merged.getDistinctValuesCount(), OptionalLong.of(42));
+        assertEquals(merged.getMaxColumnLength(), OptionalLong.of(20));
+        assertEquals(merged.getAverageColumnLength(), OptionalDouble.of(5.5));
+    }
+}
@@ -13,20 +13,37 @@
  */
 package com.facebook.presto.hive.parquet.predicate;
 
+import com.facebook.presto.hive.parquet.ParquetDataPage;
+import com.facebook.presto.hive.parquet.ParquetDataPageV1;
+import com.facebook.presto.hive.parquet.ParquetEncoding;
+import com.facebook.presto.hive.parquet.RichColumnDescriptor;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.testng.annotations.Test;
+import parquet.column.ColumnDescriptor;
 import parquet.column.Encoding;
+import parquet.column.statistics.LongStatistics;
+import parquet.column.statistics.Statistics;
+import parquet.schema.PrimitiveType;
 
 import java.util.Set;
 
 import static com.facebook.presto.hive.parquet.predicate.ParquetPredicateUtils.isOnlyDictionaryEncodingPages;
+import static com.facebook.presto.hive.parquet.predicate.ParquetPredicateUtils.pageStatisticsMatch;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.google.common.collect.Sets.union;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
+import static io.airlift.slice.Slices.EMPTY_SLICE;
 import static parquet.column.Encoding.BIT_PACKED;
 import static parquet.column.Encoding.PLAIN;
 import static parquet.column.Encoding.PLAIN_DICTIONARY;
 import static parquet.column.Encoding.RLE;
+import static parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static parquet.schema.Type.Repetition.OPTIONAL;
 
 public class TestParquetPredicateUtils
 {
@@ -52,4 +69,34 @@ public class TestParquetPredicateUtils
         assertTrue(isOnlyDictionaryEncodingPages(union(optional, dictionary)), "optional dictionary");
         assertTrue(isOnlyDictionaryEncodingPages(union(repeated, dictionary)), "repeated dictionary");
     }
+
+    @Test
+    public void testPageStatistics()
+    {
+        RichColumnDescriptor column = new RichColumnDescriptor(new String[] {"x"}, new PrimitiveType(OPTIONAL, INT64, "x"), 0, 1);
+        TupleDomain<ColumnDescriptor> domain = TupleDomain.withColumnDomains(ImmutableMap.of(column, Domain.singleValue(BIGINT, 150L)));
+        ParquetPredicate predicate = new TupleDomainParquetPredicate(domain, ImmutableList.of(column));
+
+        assertFalse(pageStatisticsMatch(predicate, column, ImmutableList.of(longPage(0, 100), longPage(200, 300))));
+        assertTrue(pageStatisticsMatch(predicate, column, ImmutableList.of(longPage(0, 100), longPage(101, 200))));
+
+        // a page without statistics may contain anything
+        assertTrue(pageStatisticsMatch(predicate, column, ImmutableList.of(longPage(0, 100), dataPage(new LongStatistics()))));
+
+        // pages of repeated columns do not map to rows
+        RichColumnDescriptor repeated = new RichColumnDescriptor(new String[] {"x"}, new PrimitiveType(OPTIONAL, INT64, "x"), 1, 1);
+        assertTrue(pageStatisticsMatch(predicate, repeated, ImmutableList.of(longPage(0, 100), longPage(200, 300))));
+    }
+
+    private static ParquetDataPage longPage(long min, long max)
+    {
+        LongStatistics statistics = new LongStatistics();
+        statistics.setMinMax(min, max);
+        return dataPage(statistics);
+    }
+
+    private static ParquetDataPage dataPage(Statistics<?> statistics)
+    {
+        return new ParquetDataPageV1(EMPTY_SLICE, 10, 0, statistics, ParquetEncoding.PLAIN, ParquetEncoding.PLAIN, ParquetEncoding.PLAIN);
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.util;
+
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TestPrefetchingIterator
+{
+    @Test
+    public void testOrder()
+    {
+        Iterator<Integer> iterator = new PrefetchingIterator<>(ImmutableList.of(1, 2, 3).iterator(), value -> value * 10, directExecutor());
+        assertEquals(ImmutableList.copyOf(iterator), ImmutableList.of(10, 20, 30));
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        Iterator<Integer> iterator = new PrefetchingIterator<Integer, Integer>(ImmutableList.<Integer>of().iterator(), value -> value, directExecutor());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testPrefetchesNextElement()
+    {
+        AtomicInteger loaded = new AtomicInteger();
+        Iterator<Integer> iterator = new PrefetchingIterator<>(ImmutableList.of(1, 2, 3).iterator(), value -> {
+            loaded.incrementAndGet();
+            return value;
+        }, directExecutor());
+
+        assertEquals(iterator.next().intValue(), 1);
+        assertEquals(loaded.get(), 2);
+        assertEquals(iterator.next().intValue(), 2);
+        assertEquals(loaded.get(), 3);
+        assertEquals(iterator.next().intValue(), 3);
+        assertEquals(loaded.get(), 3);
+    }
+
+    @Test(timeOut = 10_000)
+    public void testSaturatedExecutor()
+    {
+        // tasks submitted to this executor never run, so every element must be loaded by the consumer
+        List<Runnable> queued = new ArrayList<>();
+        Iterator<Integer> iterator = new PrefetchingIterator<>(ImmutableList.of(1, 2, 3).iterator(), value -> value, queued::add);
+
+        assertEquals(ImmutableList.copyOf(iterator), ImmutableList.of(1, 2, 3));
+        assertEquals(queued.size(), 2);
+
+        // running the queued tasks afterwards is a no-op
+        queued.forEach(Runnable::run);
+    }
+}
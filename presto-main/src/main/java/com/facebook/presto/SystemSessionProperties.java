@@ -29,6 +29,7 @@ import javax.inject.Inject;
 import java.util.List;
 
 import static com.facebook.presto.spi.session.PropertyMetadata.booleanSessionProperty;
+import static com.facebook.presto.spi.session.PropertyMetadata.doubleSessionProperty;
 import static com.facebook.presto.spi.session.PropertyMetadata.integerSessionProperty;
 import static com.facebook.presto.spi.session.PropertyMetadata.stringSessionProperty;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
@@ -74,6 +75,11 @@ public final class SystemSessionProperties
     public static final String PUSH_AGGREGATION_THROUGH_JOIN = "push_aggregation_through_join";
     public static final String PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN = "push_partial_aggregation_through_join";
     public static final String FORCE_SINGLE_NODE_OUTPUT = "force_single_node_output";
+    public static final String SPLIT_RESULT_CACHE_ENABLED = "split_result_cache_enabled";
+    public static final String SPREAD_HOT_JOIN_KEYS = "spread_hot_join_keys";
+    public static final String HOT_JOIN_KEY_MIN_FRACTION = "hot_join_key_min_fraction";
+    public static final String MERGE_JSON_EXTRACT_SCALAR_CALLS = "merge_json_extract_scalar_calls";
+    public static final String USE_TDIGEST_FOR_APPROX_PERCENTILE = "use_tdigest_for_approx_percentile";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -324,7 +330,32 @@ public final class SystemSessionProperties
                         FORCE_SINGLE_NODE_OUTPUT,
                         "Force single node output",
                         featuresConfig.isForceSingleNodeOutput(),
-                        true));
+                        true),
+                booleanSessionProperty(
+                        SPLIT_RESULT_CACHE_ENABLED,
+                        "Experimental: Cache the output of table scans over immutable data on workers",
+                        featuresConfig.isSplitResultCacheEnabled(),
+                        false),
+                booleanSessionProperty(
+                        SPREAD_HOT_JOIN_KEYS,
+                        "Spread the probe rows of hot keys of partitioned joins over all partitions and replicate the matching build rows",
+                        featuresConfig.isSpreadHotJoinKeys(),
+                        false),
+                doubleSessionProperty(
+                        HOT_JOIN_KEY_MIN_FRACTION,
+                        "Minimum fraction of the probe rows of a partitioned join having a key for the key to be spread",
+                        featuresConfig.getHotJoinKeyMinFraction(),
+                        false),
+                booleanSessionProperty(
+                        MERGE_JSON_EXTRACT_SCALAR_CALLS,
+                        "Extract the paths of all json_extract_scalar calls of a projection on the same document in one pass",
+                        featuresConfig.isMergeJsonExtractScalarCalls(),
+                        false),
+                booleanSessionProperty(
+                        USE_TDIGEST_FOR_APPROX_PERCENTILE,
+                        "Compute approx_percentile of a single percentile with a t-digest",
+                        featuresConfig.isUseTDigestForApproxPercentile(),
+                        false));
     }
 
     public List<PropertyMetadata<?>> getSessionProperties()
@@ -510,4 +541,29 @@ public final class SystemSessionProperties
     {
         return session.getSystemProperty(FORCE_SINGLE_NODE_OUTPUT, Boolean.class);
     }
+
+    public static boolean isSplitResultCacheEnabled(Session session)
+    {
+        return session.getSystemProperty(SPLIT_RESULT_CACHE_ENABLED, Boolean.class);
+    }
+
+    public static boolean isSpreadHotJoinKeys(Session session)
+    {
+        return session.getSystemProperty(SPREAD_HOT_JOIN_KEYS, Boolean.class);
+    }
+
+    public static double getHotJoinKeyMinFraction(Session session)
+    {
+        return session.getSystemProperty(HOT_JOIN_KEY_MIN_FRACTION, Double.class);
+    }
+
+    public static boolean isMergeJsonExtractScalarCalls(Session session)
+    {
+        return session.getSystemProperty(MERGE_JSON_EXTRACT_SCALAR_CALLS, Boolean.class);
+    }
+
+    public static boolean isUseTDigestForApproxPercentile(Session session)
+    {
+        return session.getSystemProperty(USE_TDIGEST_FOR_APPROX_PERCENTILE, Boolean.class);
+    }
 }
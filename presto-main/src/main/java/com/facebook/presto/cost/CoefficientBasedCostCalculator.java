@@ -18,12 +18,13 @@ import com.facebook.presto.Session;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.Constraint;
-import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
 import com.facebook.presto.spi.statistics.Estimate;
 import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
-import com.facebook.presto.sql.planner.DomainTranslator;
+import com.facebook.presto.sql.planner.LiteralInterpreter;
 import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
 import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
@@ -38,7 +39,11 @@ import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.ValuesNode;
 import com.facebook.presto.sql.tree.BooleanLiteral;
+import com.facebook.presto.sql.tree.ComparisonExpression;
+import com.facebook.presto.sql.tree.ComparisonExpressionType;
 import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.Literal;
+import com.facebook.presto.sql.tree.SymbolReference;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 
@@ -48,13 +53,21 @@ import javax.inject.Inject;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.stream.Collectors;
 
 import static com.facebook.presto.cost.PlanNodeCost.UNKNOWN_COST;
+import static com.facebook.presto.cost.TableScanStatistics.getColumnStatistics;
+import static com.facebook.presto.cost.TableScanStatistics.getConstraint;
+import static com.facebook.presto.sql.ExpressionUtils.extractConjuncts;
 
 /**
  * Simple implementation of CostCalculator. It make many arbitrary decisions (e.g filtering selectivity, join matching).
  * It serves POC purpose. To be replaced with more advanced implementation.
+ * <p>
+ * Filters on table scans and equi-joins of table columns are estimated with {@link DistributionStatsCalculator}
+ * when the connector provides the distribution of the column values.
  */
 @ThreadSafe
 public class CoefficientBasedCostCalculator
@@ -62,6 +75,7 @@ public class CoefficientBasedCostCalculator
 {
     private static final Double FILTER_COEFFICIENT = 0.5;
     private static final Double JOIN_MATCHING_COEFFICIENT = 2.0;
+    private static final Double AGGREGATION_COEFFICIENT = 0.5;
 
     // todo some computation for outputSizeInBytes
 
@@ -119,7 +133,15 @@ public class CoefficientBasedCostCalculator
         {
             PlanNodeCost sourceCost;
             if (node.getSource() instanceof TableScanNode) {
-                sourceCost = visitTableScanWithPredicate((TableScanNode) node.getSource(), node.getPredicate());
+                TableScanNode tableScan = (TableScanNode) node.getSource();
+                TableStatistics tableStatistics = getTableStatistics(tableScan, node.getPredicate());
+                sourceCost = visitTableScanWithStatistics(tableScan, tableStatistics);
+
+                Optional<PlanNodeCost> filterCost = estimateFilterWithDistributions(tableScan, tableStatistics, node.getPredicate());
+                if (filterCost.isPresent()) {
+                    costs.put(node.getId(), filterCost.get());
+                    return filterCost.get();
+                }
             }
             else {
                 sourceCost = visitSource(node);
@@ -147,7 +169,14 @@ public class CoefficientBasedCostCalculator
 
             PlanNodeCost.Builder joinCost = PlanNodeCost.builder();
             if (!leftCost.getOutputRowCount().isValueUnknown() && !rightCost.getOutputRowCount().isValueUnknown()) {
-                double rowCount = Math.max(leftCost.getOutputRowCount().getValue(), rightCost.getOutputRowCount().getValue()) * JOIN_MATCHING_COEFFICIENT;
+                OptionalDouble selectivity = estimateJoinSelectivity(node);
+                double rowCount;
+                if (selectivity.isPresent()) {
+                    rowCount = leftCost.getOutputRowCount().getValue() * rightCost.getOutputRowCount().getValue() * selectivity.getAsDouble();
+                }
+                else {
+                    rowCount = Math.max(leftCost.getOutputRowCount().getValue(), rightCost.getOutputRowCount().getValue()) * JOIN_MATCHING_COEFFICIENT;
+                }
                 joinCost.setOutputRowCount(new Estimate(rowCount));
             }
 
@@ -155,6 +184,47 @@ public class CoefficientBasedCostCalculator
             return joinCost.build();
         }
 
+        /**
+         * The selectivity of an inner join is the lowest selectivity of its criteria, as join keys are often correlated.
+         */
+        private OptionalDouble estimateJoinSelectivity(JoinNode node)
+        {
+            if (node.getType() != JoinNode.Type.INNER || node.getFilter().isPresent()) {
+                return OptionalDouble.empty();
+            }
+            OptionalDouble result = OptionalDouble.empty();
+            for (JoinNode.EquiJoinClause clause : node.getCriteria()) {
+                Optional<ColumnStatistics> left = getColumnStatistics(metadata, session, types, node.getLeft(), clause.getLeft());
+                Optional<ColumnStatistics> right = getColumnStatistics(metadata, session, types, node.getRight(), clause.getRight());
+                if (!left.isPresent() || !right.isPresent()) {
+                    continue;
+                }
+                OptionalDouble selectivity = DistributionStatsCalculator.estimateEquiJoinSelectivity(left.get(), right.get());
+                if (selectivity.isPresent() && (!result.isPresent() || selectivity.getAsDouble() < result.getAsDouble())) {
+                    result = selectivity;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public PlanNodeCost visitAggregation(AggregationNode node, Void context)
+        {
+            PlanNodeCost sourceCost = visitSource(node);
+            PlanNodeCost aggregationCost;
+            if (node.hasNonEmptyGroupingSet()) {
+                final double aggregationCoefficient = AGGREGATION_COEFFICIENT;
+                aggregationCost = sourceCost.mapOutputRowCount(value -> value * aggregationCoefficient);
+            }
+            else {
+                aggregationCost = PlanNodeCost.builder()
+                        .setOutputRowCount(new Estimate(1.0))
+                        .build();
+            }
+            costs.put(node.getId(), aggregationCost);
+            return aggregationCost;
+        }
+
         @Override
         public PlanNodeCost visitExchange(ExchangeNode node, Void context)
         {
@@ -179,14 +249,17 @@ public class CoefficientBasedCostCalculator
         @Override
         public PlanNodeCost visitTableScan(TableScanNode node, Void context)
         {
-            return visitTableScanWithPredicate(node, BooleanLiteral.TRUE_LITERAL);
+            return visitTableScanWithStatistics(node, getTableStatistics(node, BooleanLiteral.TRUE_LITERAL));
         }
 
-        private PlanNodeCost visitTableScanWithPredicate(TableScanNode node, Expression predicate)
+        private TableStatistics getTableStatistics(TableScanNode node, Expression predicate)
         {
-            Constraint<ColumnHandle> constraint = getConstraint(node, predicate);
+            Constraint<ColumnHandle> constraint = getConstraint(metadata, session, types, node, predicate);
+            return metadata.getTableStatistics(session, node.getTable(), constraint);
+        }
 
-            TableStatistics tableStatistics = metadata.getTableStatistics(session, node.getTable(), constraint);
+        private PlanNodeCost visitTableScanWithStatistics(TableScanNode node, TableStatistics tableStatistics)
+        {
             PlanNodeCost tableScanCost = PlanNodeCost.builder()
                     .setOutputRowCount(tableStatistics.getRowCount())
                     .build();
@@ -195,19 +268,67 @@ public class CoefficientBasedCostCalculator
             return tableScanCost;
         }
 
-        private Constraint<ColumnHandle> getConstraint(TableScanNode node, Expression predicate)
+        /**
+         * Estimates the conjuncts comparing a column with a literal from the distribution of the column values,
+         * and applies the filter coefficient once for all other conjuncts. Returns empty when no conjunct can
+         * be estimated from a distribution.
+         */
+        private Optional<PlanNodeCost> estimateFilterWithDistributions(TableScanNode tableScan, TableStatistics tableStatistics, Expression predicate)
         {
-            DomainTranslator.ExtractionResult decomposedPredicate = DomainTranslator.fromPredicate(
-                    metadata,
-                    session,
-                    predicate,
-                    types);
+            if (tableStatistics.getRowCount().isValueUnknown()) {
+                return Optional.empty();
+            }
 
-            TupleDomain<ColumnHandle> simplifiedConstraint = decomposedPredicate.getTupleDomain()
-                    .transform(node.getAssignments()::get)
-                    .intersect(node.getCurrentConstraint());
+            double selectivity = 1;
+            boolean estimated = false;
+            boolean unestimated = false;
+            for (Expression conjunct : extractConjuncts(predicate)) {
+                OptionalDouble conjunctSelectivity = estimateComparison(tableScan, tableStatistics, conjunct);
+                if (conjunctSelectivity.isPresent()) {
+                    selectivity *= conjunctSelectivity.getAsDouble();
+                    estimated = true;
+                }
+                else {
+                    unestimated = true;
+                }
+            }
+            if (!estimated) {
+                return Optional.empty();
+            }
+            if (unestimated) {
+                selectivity *= FILTER_COEFFICIENT;
+            }
+            return Optional.of(PlanNodeCost.builder()
+                    .setOutputRowCount(new Estimate(tableStatistics.getRowCount().getValue() * selectivity))
+                    .build());
+        }
+
+        private OptionalDouble estimateComparison(TableScanNode tableScan, TableStatistics tableStatistics, Expression conjunct)
+        {
+            if (!(conjunct instanceof ComparisonExpression)) {
+                return OptionalDouble.empty();
+            }
+            ComparisonExpression comparison = (ComparisonExpression) conjunct;
+            ComparisonExpressionType type = comparison.getType();
+            Expression column = comparison.getLeft();
+            Expression literal = comparison.getRight();
+            if (column instanceof Literal && literal instanceof SymbolReference) {
+                column = comparison.getRight();
+                literal = comparison.getLeft();
+                type = type.flip();
+            }
+            if (!(column instanceof SymbolReference) || !(literal instanceof Literal)) {
+                return OptionalDouble.empty();
+            }
 
-            return new Constraint<>(simplifiedConstraint, bindings -> true);
+            Symbol symbol = Symbol.from(column);
+            ColumnHandle columnHandle = tableScan.getAssignments().get(symbol);
+            ColumnStatistics columnStatistics = columnHandle == null ? null : tableStatistics.getColumnStatistics().get(columnHandle);
+            Object value = LiteralInterpreter.evaluate(metadata, session.toConnectorSession(), literal);
+            if (columnStatistics == null || value == null || !types.containsKey(symbol)) {
+                return OptionalDouble.empty();
+            }
+            return DistributionStatsCalculator.estimateComparisonSelectivity(columnStatistics, types.get(symbol), type, value);
         }
 
         @Override
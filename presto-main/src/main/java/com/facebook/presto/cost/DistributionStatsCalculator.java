@@ -0,0 +1,221 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cost;
+
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Histogram;
+import com.facebook.presto.spi.statistics.RangeColumnStatistics;
+import com.facebook.presto.spi.statistics.ValueFrequency;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.tree.ComparisonExpressionType;
+
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.DoubleUnaryOperator;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+
+/**
+ * Estimates the selectivity of filters and joins from the distribution of column values, i.e. the most
+ * common values and histograms of {@link ColumnStatistics}. Estimates are only made for columns having
+ * a distribution, so that the coefficients used otherwise stay in effect for columns without one.
+ */
+public final class DistributionStatsCalculator
+{
+    private DistributionStatsCalculator() {}
+
+    /**
+     * Returns the fraction of rows for which {@code column <comparison> value} holds.
+     */
+    public static OptionalDouble estimateComparisonSelectivity(ColumnStatistics statistics, Type type, ComparisonExpressionType comparison, Object value)
+    {
+        if (!hasDistribution(statistics) || statistics.getNullsFraction().isValueUnknown()) {
+            return OptionalDouble.empty();
+        }
+        double nonNullFraction = 1 - statistics.getNullsFraction().getValue();
+
+        switch (comparison) {
+            case EQUAL:
+                return estimateEqualSelectivity(statistics, value);
+            case NOT_EQUAL:
+                return map(estimateEqualSelectivity(statistics, value), selectivity -> nonNullFraction - selectivity);
+            case LESS_THAN:
+                return estimateLessThanSelectivity(statistics, type, value, false);
+            case LESS_THAN_OR_EQUAL:
+                return estimateLessThanSelectivity(statistics, type, value, true);
+            case GREATER_THAN:
+                return map(estimateLessThanSelectivity(statistics, type, value, true), selectivity -> nonNullFraction - selectivity);
+            case GREATER_THAN_OR_EQUAL:
+                return map(estimateLessThanSelectivity(statistics, type, value, false), selectivity -> nonNullFraction - selectivity);
+            default:
+                return OptionalDouble.empty();
+        }
+    }
+
+    /**
+     * Returns the fraction of the cross product of the inputs for which {@code left = right} holds.
+     * Values that are most common on both sides are matched exactly; the remaining rows are assumed
+     * to match any of the remaining distinct values of the other side uniformly.
+     */
+    public static OptionalDouble estimateEquiJoinSelectivity(ColumnStatistics left, ColumnStatistics right)
+    {
+        if ((!hasDistribution(left) && !hasDistribution(right)) ||
+                left.getNullsFraction().isValueUnknown() ||
+                right.getNullsFraction().isValueUnknown()) {
+            return OptionalDouble.empty();
+        }
+        RangeColumnStatistics leftRange = left.getOnlyRangeColumnStatistics();
+        RangeColumnStatistics rightRange = right.getOnlyRangeColumnStatistics();
+        if (leftRange.getDistinctValuesCount().isValueUnknown() || rightRange.getDistinctValuesCount().isValueUnknown()) {
+            return OptionalDouble.empty();
+        }
+
+        double matchedFraction = 0;
+        double leftMatchedMostCommonFraction = 0;
+        double rightMatchedMostCommonFraction = 0;
+        for (ValueFrequency leftValue : left.getMostCommonValues()) {
+            for (ValueFrequency rightValue : right.getMostCommonValues()) {
+                if (Objects.equals(leftValue.getValue(), rightValue.getValue())) {
+                    matchedFraction += leftValue.getFraction() * rightValue.getFraction();
+                    leftMatchedMostCommonFraction += leftValue.getFraction();
+                    rightMatchedMostCommonFraction += rightValue.getFraction();
+                }
+            }
+        }
+
+        double leftOtherFraction = getOtherValuesFraction(left);
+        double rightOtherFraction = getOtherValuesFraction(right);
+        double leftOtherDistinctValues = max(leftRange.getDistinctValuesCount().getValue() - left.getMostCommonValues().size(), 1);
+        double rightOtherDistinctValues = max(rightRange.getDistinctValuesCount().getValue() - right.getMostCommonValues().size(), 1);
+
+        double selectivity = matchedFraction +
+                (getMostCommonValuesFraction(left) - leftMatchedMostCommonFraction) * rightOtherFraction / rightOtherDistinctValues +
+                (getMostCommonValuesFraction(right) - rightMatchedMostCommonFraction) * leftOtherFraction / leftOtherDistinctValues +
+                leftOtherFraction * rightOtherFraction / max(leftOtherDistinctValues, rightOtherDistinctValues);
+        return OptionalDouble.of(clamp(selectivity));
+    }
+
+    private static OptionalDouble estimateEqualSelectivity(ColumnStatistics statistics, Object value)
+    {
+        for (ValueFrequency mostCommonValue : statistics.getMostCommonValues()) {
+            if (Objects.equals(mostCommonValue.getValue(), value)) {
+                return OptionalDouble.of(mostCommonValue.getFraction());
+            }
+        }
+
+        // any other value is assumed to be as frequent as the other values that are not most common
+        RangeColumnStatistics range = statistics.getOnlyRangeColumnStatistics();
+        if (range.getDistinctValuesCount().isValueUnknown()) {
+            return OptionalDouble.empty();
+        }
+        double otherDistinctValues = max(range.getDistinctValuesCount().getValue() - statistics.getMostCommonValues().size(), 1);
+        return OptionalDouble.of(clamp(getOtherValuesFraction(statistics) / otherDistinctValues));
+    }
+
+    private static OptionalDouble estimateLessThanSelectivity(ColumnStatistics statistics, Type type, Object value, boolean inclusive)
+    {
+        OptionalDouble bound = toDouble(type, value);
+        if (!statistics.getHistogram().isPresent() || !bound.isPresent()) {
+            return OptionalDouble.empty();
+        }
+
+        double selectivity = 0;
+        for (ValueFrequency mostCommonValue : statistics.getMostCommonValues()) {
+            OptionalDouble mostCommon = toDouble(type, mostCommonValue.getValue());
+            if (!mostCommon.isPresent()) {
+                return OptionalDouble.empty();
+            }
+            if (mostCommon.getAsDouble() < bound.getAsDouble() || (inclusive && mostCommon.getAsDouble() == bound.getAsDouble())) {
+                selectivity += mostCommonValue.getFraction();
+            }
+        }
+        for (Histogram.Bucket bucket : statistics.getHistogram().get().getBuckets()) {
+            OptionalDouble low = toDouble(type, bucket.getLowValue());
+            OptionalDouble high = toDouble(type, bucket.getHighValue());
+            if (!low.isPresent() || !high.isPresent()) {
+                return OptionalDouble.empty();
+            }
+            selectivity += bucket.getFraction() * getFractionBelow(low.getAsDouble(), high.getAsDouble(), bound.getAsDouble(), inclusive);
+        }
+        return OptionalDouble.of(clamp(selectivity));
+    }
+
+    private static double getFractionBelow(double low, double high, double bound, boolean inclusive)
+    {
+        if (bound < low || (bound == low && !inclusive && low < high)) {
+            return 0;
+        }
+        if (low == high) {
+            return bound > low || inclusive ? 1 : 0;
+        }
+        return min((bound - low) / (high - low), 1);
+    }
+
+    private static boolean hasDistribution(ColumnStatistics statistics)
+    {
+        return !statistics.getMostCommonValues().isEmpty() || statistics.getHistogram().isPresent();
+    }
+
+    private static double getMostCommonValuesFraction(ColumnStatistics statistics)
+    {
+        return statistics.getMostCommonValues().stream()
+                .mapToDouble(ValueFrequency::getFraction)
+                .sum();
+    }
+
+    private static double getOtherValuesFraction(ColumnStatistics statistics)
+    {
+        return max(1 - statistics.getNullsFraction().getValue() - getMostCommonValuesFraction(statistics), 0);
+    }
+
+    /**
+     * Converts a value of a numeric or date type to a double, preserving the order of the values.
+     */
+    static OptionalDouble toDouble(Type type, Object value)
+    {
+        if ((type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DATE)) && value instanceof Long) {
+            return OptionalDouble.of((Long) value);
+        }
+        if (type.equals(DOUBLE) && value instanceof Double) {
+            return OptionalDouble.of((Double) value);
+        }
+        if (type.equals(REAL) && value instanceof Long) {
+            return OptionalDouble.of(intBitsToFloat(toIntExact((Long) value)));
+        }
+        return OptionalDouble.empty();
+    }
+
+    private static OptionalDouble map(OptionalDouble value, DoubleUnaryOperator function)
+    {
+        if (!value.isPresent()) {
+            return value;
+        }
+        return OptionalDouble.of(clamp(function.applyAsDouble(value.getAsDouble())));
+    }
+
+    private static double clamp(double fraction)
+    {
+        return min(max(fraction, 0), 1);
+    }
+}
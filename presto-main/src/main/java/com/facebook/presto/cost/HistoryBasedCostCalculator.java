@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cost;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.execution.history.HistoricalPlanNodeStatistics;
+import com.facebook.presto.execution.history.QueryHistoryStore;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.sql.planner.CanonicalPlanHasher.hashPlan;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Uses the statistics observed in earlier executions of the same plan subtree, when the
+ * query history has them, and the estimates of the delegate otherwise.
+ */
+@ThreadSafe
+public class HistoryBasedCostCalculator
+        implements CostCalculator
+{
+    private final CostCalculator delegate;
+    private final QueryHistoryStore queryHistoryStore;
+
+    @Inject
+    public HistoryBasedCostCalculator(CoefficientBasedCostCalculator delegate, QueryHistoryStore queryHistoryStore)
+    {
+        this((CostCalculator) delegate, queryHistoryStore);
+    }
+
+    public HistoryBasedCostCalculator(CostCalculator delegate, QueryHistoryStore queryHistoryStore)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.queryHistoryStore = requireNonNull(queryHistoryStore, "queryHistoryStore is null");
+    }
+
+    @Override
+    public Map<PlanNodeId, PlanNodeCost> calculateCostForPlan(Session session, Map<Symbol, Type> types, PlanNode planNode)
+    {
+        Map<PlanNodeId, PlanNodeCost> costs = delegate.calculateCostForPlan(session, types, planNode);
+        if (!queryHistoryStore.isEnabled()) {
+            return costs;
+        }
+
+        Map<PlanNodeId, String> canonicalPlanHashes = hashPlan(planNode);
+        ImmutableMap.Builder<PlanNodeId, PlanNodeCost> result = ImmutableMap.builder();
+        for (Map.Entry<PlanNodeId, PlanNodeCost> entry : costs.entrySet()) {
+            Optional<HistoricalPlanNodeStatistics> statistics = Optional.ofNullable(canonicalPlanHashes.get(entry.getKey()))
+                    .flatMap(queryHistoryStore::getStatistics);
+            if (statistics.isPresent()) {
+                result.put(entry.getKey(), PlanNodeCost.builder()
+                        .setOutputRowCount(new Estimate(statistics.get().getOutputPositions()))
+                        .setOutputSizeInBytes(new Estimate(statistics.get().getOutputBytes()))
+                        .build());
+            }
+            else {
+                result.put(entry);
+            }
+        }
+        return result.build();
+    }
+}
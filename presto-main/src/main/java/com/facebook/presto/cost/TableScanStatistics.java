@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cost;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.DomainTranslator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.SymbolReference;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Looks up the statistics of the data read by table scans, i.e. restricted to the current constraint of the
+ * scan and to the predicate of a filter directly above it, so that connectors only load the statistics of
+ * the partitions actually read.
+ */
+public final class TableScanStatistics
+{
+    private TableScanStatistics() {}
+
+    /**
+     * Returns the constraint of the rows read by the table scan that satisfy the predicate.
+     */
+    public static Constraint<ColumnHandle> getConstraint(Metadata metadata, Session session, Map<Symbol, Type> types, TableScanNode node, Expression predicate)
+    {
+        DomainTranslator.ExtractionResult decomposedPredicate = DomainTranslator.fromPredicate(
+                metadata,
+                session,
+                predicate,
+                types);
+
+        TupleDomain<ColumnHandle> simplifiedConstraint = decomposedPredicate.getTupleDomain()
+                .transform(node.getAssignments()::get)
+                .intersect(node.getCurrentConstraint());
+
+        return new Constraint<>(simplifiedConstraint, bindings -> true);
+    }
+
+    /**
+     * Returns the statistics of the table column the symbol is produced from, looking through filters,
+     * projections and exchanges with a single source, i.e. assuming that they do not change the distribution
+     * of the column.
+     */
+    public static Optional<ColumnStatistics> getColumnStatistics(Metadata metadata, Session session, Map<Symbol, Type> types, PlanNode node, Symbol symbol)
+    {
+        if (node instanceof TableScanNode) {
+            TableScanNode tableScan = (TableScanNode) node;
+            return getColumnStatistics(metadata, session, tableScan, new Constraint<>(tableScan.getCurrentConstraint(), bindings -> true), symbol);
+        }
+        if (node instanceof FilterNode) {
+            FilterNode filter = (FilterNode) node;
+            if (filter.getSource() instanceof TableScanNode) {
+                TableScanNode tableScan = (TableScanNode) filter.getSource();
+                return getColumnStatistics(metadata, session, tableScan, getConstraint(metadata, session, types, tableScan, filter.getPredicate()), symbol);
+            }
+            return getColumnStatistics(metadata, session, types, filter.getSource(), symbol);
+        }
+        if (node instanceof ProjectNode) {
+            Expression expression = ((ProjectNode) node).getAssignments().get(symbol);
+            if (expression instanceof SymbolReference) {
+                return getColumnStatistics(metadata, session, types, ((ProjectNode) node).getSource(), Symbol.from(expression));
+            }
+        }
+        if (node instanceof ExchangeNode && node.getSources().size() == 1) {
+            ExchangeNode exchange = (ExchangeNode) node;
+            int index = exchange.getOutputSymbols().indexOf(symbol);
+            if (index >= 0) {
+                return getColumnStatistics(metadata, session, types, exchange.getSources().get(0), exchange.getInputs().get(0).get(index));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ColumnStatistics> getColumnStatistics(Metadata metadata, Session session, TableScanNode tableScan, Constraint<ColumnHandle> constraint, Symbol symbol)
+    {
+        ColumnHandle column = tableScan.getAssignments().get(symbol);
+        if (column == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(metadata.getTableStatistics(session, tableScan.getTable(), constraint).getColumnStatistics().get(column));
+    }
+}
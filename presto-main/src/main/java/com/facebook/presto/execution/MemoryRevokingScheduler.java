@@ -16,30 +16,36 @@ package com.facebook.presto.execution;
 import com.facebook.presto.memory.LocalMemoryManager;
 import com.facebook.presto.memory.MemoryPool;
 import com.facebook.presto.memory.MemoryPoolListener;
-import com.facebook.presto.memory.QueryContext;
 import com.facebook.presto.memory.TraversingQueryContextVisitor;
 import com.facebook.presto.memory.VoidTraversingQueryContextVisitor;
 import com.facebook.presto.operator.OperatorContext;
+import com.facebook.presto.operator.TaskContext;
 import com.facebook.presto.sql.analyzer.FeaturesConfig;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Ordering;
 import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
 
 import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -48,6 +54,9 @@ public class MemoryRevokingScheduler
     private static final Logger log = Logger.get(MemoryRevokingScheduler.class);
 
     private static final Ordering<SqlTask> ORDER_BY_CREATE_TIME = Ordering.natural().onResultOf(task -> task.getTaskInfo().getStats().getCreateTime());
+    // fixed cost of revoking memory from an operator, expressed as an equivalent amount of spilled data
+    private static final long REVOCATION_OVERHEAD_BYTES = new DataSize(1, MEGABYTE).toBytes();
+
     private final List<MemoryPool> memoryPools;
     private final Supplier<? extends Collection<SqlTask>> currentTasksSupplier;
     private final ScheduledExecutorService taskManagementExecutor;
@@ -217,7 +226,9 @@ public class MemoryRevokingScheduler
         return sqlTasks.stream()
                 .filter(task -> task.getTaskInfo().getTaskStatus().getState() == TaskState.RUNNING)
                 .filter(task -> task.getQueryContext().getMemoryPool() == memoryPool)
-                .mapToLong(task -> task.getQueryContext().accept(new TraversingQueryContextVisitor<Void, Long>()
+                .map(SqlTask::getQueryContext)
+                .distinct()
+                .mapToLong(queryContext -> queryContext.accept(new TraversingQueryContextVisitor<Void, Long>()
                 {
                     @Override
                     public Long visitOperatorContext(OperatorContext operatorContext, Void context)
@@ -240,35 +251,84 @@ public class MemoryRevokingScheduler
 
     private void requestRevoking(MemoryPool memoryPool, Collection<SqlTask> sqlTasks, long remainingBytesToRevoke)
     {
-        AtomicLong remainingBytesToRevokeAtomic = new AtomicLong(remainingBytesToRevoke);
+        if (remainingBytesToRevoke <= 0) {
+            return;
+        }
+
+        List<RevocationCandidate> candidates = new ArrayList<>();
         sqlTasks.stream()
                 .filter(task -> task.getTaskInfo().getTaskStatus().getState() == TaskState.RUNNING)
                 .filter(task -> task.getQueryContext().getMemoryPool() == memoryPool)
                 .sorted(ORDER_BY_CREATE_TIME)
-                .forEach(task -> task.getQueryContext().accept(new VoidTraversingQueryContextVisitor<AtomicLong>()
+                .map(SqlTask::getQueryContext)
+                .distinct()
+                .forEach(queryContext -> queryContext.accept(new VoidTraversingQueryContextVisitor<List<RevocationCandidate>>()
                 {
                     @Override
-                    public Void visitQueryContext(QueryContext queryContext, AtomicLong remainingBytesToRevoke)
+                    public Void visitOperatorContext(OperatorContext operatorContext, List<RevocationCandidate> candidates)
                     {
-                        if (remainingBytesToRevoke.get() < 0) {
-                            // exit immediately if no work needs to be done
-                            return null;
-                        }
-                        return super.visitQueryContext(queryContext, remainingBytesToRevoke);
-                    }
-
-                    @Override
-                    public Void visitOperatorContext(OperatorContext operatorContext, AtomicLong remainingBytesToRevoke)
-                    {
-                        if (remainingBytesToRevoke.get() > 0) {
-                            long revokedBytes = operatorContext.requestMemoryRevoking();
-                            if (revokedBytes > 0) {
-                                remainingBytesToRevoke.addAndGet(-revokedBytes);
-                                log.debug("memoryPool=%s: requested revoking %s; remaining %s", memoryPool.getId(), revokedBytes, remainingBytesToRevoke.get());
-                            }
+                        long revocableBytes = operatorContext.getReservedRevocableBytes();
+                        if (revocableBytes > 0 && !operatorContext.isMemoryRevokingRequested()) {
+                            candidates.add(new RevocationCandidate(operatorContext, getRevocationScore(revocableBytes, operatorContext.getMemoryRevokingRequests())));
                         }
                         return null;
                     }
-                }, remainingBytesToRevokeAtomic));
+                }, candidates));
+
+        // the sort is stable, so among equally good candidates the operators of older tasks are revoked first
+        candidates.sort(Comparator.comparingDouble(RevocationCandidate::getScore).reversed());
+
+        Map<TaskContext, Long> revokedBytesByTask = new LinkedHashMap<>();
+        Map<TaskContext, Integer> revokedOperatorsByTask = new HashMap<>();
+        for (RevocationCandidate candidate : candidates) {
+            if (remainingBytesToRevoke <= 0) {
+                break;
+            }
+            OperatorContext operatorContext = candidate.getOperatorContext();
+            long revokedBytes = operatorContext.requestMemoryRevoking();
+            if (revokedBytes > 0) {
+                remainingBytesToRevoke -= revokedBytes;
+                TaskContext taskContext = operatorContext.getDriverContext().getPipelineContext().getTaskContext();
+                revokedBytesByTask.merge(taskContext, revokedBytes, Long::sum);
+                revokedOperatorsByTask.merge(taskContext, 1, Integer::sum);
+                log.debug("memoryPool=%s: requested revoking %s; remaining %s", memoryPool.getId(), revokedBytes, remainingBytesToRevoke);
+            }
+        }
+        revokedBytesByTask.forEach((taskContext, revokedBytes) -> taskContext.recordMemoryRevocation(revokedBytes, revokedOperatorsByTask.get(taskContext)));
+    }
+
+    /**
+     * Estimates how much memory a revocation frees per unit of spill cost. Spilled data is
+     * written and later read back, and every revocation has a fixed cost for creating and
+     * flushing a spill file. Operators that were already revoked before are more expensive,
+     * because each revocation adds another spill file that must be merged on unspill.
+     */
+    @VisibleForTesting
+    static double getRevocationScore(long revocableBytes, int previousRevocations)
+    {
+        double estimatedCost = (REVOCATION_OVERHEAD_BYTES + 2.0 * revocableBytes) * (1 + previousRevocations);
+        return revocableBytes / estimatedCost;
+    }
+
+    private static class RevocationCandidate
+    {
+        private final OperatorContext operatorContext;
+        private final double score;
+
+        public RevocationCandidate(OperatorContext operatorContext, double score)
+        {
+            this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+            this.score = score;
+        }
+
+        public OperatorContext getOperatorContext()
+        {
+            return operatorContext;
+        }
+
+        public double getScore()
+        {
+            return score;
+        }
     }
 }
@@ -0,0 +1,388 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.metadata.TableLayoutHandle;
+import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.facebook.presto.spi.resourceGroups.QueryType;
+import com.facebook.presto.spi.type.TimeZoneKey;
+import com.facebook.presto.sql.parser.SqlParser;
+import com.facebook.presto.sql.planner.Plan;
+import com.facebook.presto.sql.planner.plan.IndexSourceNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.tree.CurrentTime;
+import com.facebook.presto.sql.tree.Deallocate;
+import com.facebook.presto.sql.tree.DefaultTraversalVisitor;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.Prepare;
+import com.facebook.presto.sql.tree.Query;
+import com.facebook.presto.sql.tree.ResetSession;
+import com.facebook.presto.sql.tree.Rollback;
+import com.facebook.presto.sql.tree.SetSession;
+import com.facebook.presto.sql.tree.StartTransaction;
+import com.facebook.presto.sql.tree.Statement;
+import com.facebook.presto.sql.tree.Use;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.stats.CounterStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.facebook.presto.spi.resourceGroups.QueryType.DATA_DEFINITION;
+import static com.facebook.presto.spi.resourceGroups.QueryType.DELETE;
+import static com.facebook.presto.spi.resourceGroups.QueryType.INSERT;
+import static com.facebook.presto.sql.SqlFormatter.formatSql;
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Caches the parsed statements and the optimized plans of queries on the coordinator, so that
+ * repeated executions of the same query (e.g. of a prepared statement or a dashboard) skip planning.
+ * <p>
+ * A plan is only reused for the same statement with the same parameter values, run by the same user
+ * with the same session. Queries are still analyzed before a cached plan is used, so access control
+ * is checked as usual. The cache is cleared when a statement that can change tables or views completes
+ * on this coordinator, and plans expire after a while to pick up changes made outside of the cluster.
+ */
+@ThreadSafe
+public class PlanCache
+{
+    // these are evaluated when the query is planned, so the plan is only valid for a single query
+    private static final Set<String> QUERY_TIME_FUNCTIONS = ImmutableSet.of(
+            "now",
+            "current_timestamp",
+            "current_date",
+            "current_time",
+            "current_timezone",
+            "localtime",
+            "localtimestamp");
+
+    // statements that only change the state of the session
+    private static final Set<Class<? extends Statement>> SESSION_STATEMENTS = ImmutableSet.of(
+            Use.class,
+            SetSession.class,
+            ResetSession.class,
+            Prepare.class,
+            Deallocate.class,
+            StartTransaction.class,
+            Rollback.class);
+
+    private final boolean enabled;
+    private final Cache<String, Statement> statements;
+    private final Cache<PlanCacheKey, CachedPlan> plans;
+    // incremented on every invalidation, so plans that were created before it are not used afterwards
+    private final AtomicLong generation = new AtomicLong();
+
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat invalidations = new CounterStat();
+
+    @Inject
+    public PlanCache(PlanCacheConfig config)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isEnabled();
+        this.statements = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .build();
+        this.plans = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(config.getTtl().toMillis(), MILLISECONDS)
+                .build();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public Statement parseStatement(SqlParser sqlParser, String sql)
+    {
+        if (!enabled) {
+            return sqlParser.createStatement(sql);
+        }
+        Statement statement = statements.getIfPresent(sql);
+        if (statement == null) {
+            // the syntax trees are immutable, so they can be shared by queries
+            statement = sqlParser.createStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Returns the key the plan of the statement is cached with, or empty if the plan of the statement
+     * must not be cached.
+     */
+    public Optional<PlanCacheKey> createKey(Session session, Statement statement, List<Expression> parameters)
+    {
+        if (!enabled || !(statement instanceof Query) || dependsOnQueryTime(statement)) {
+            return Optional.empty();
+        }
+        return Optional.of(new PlanCacheKey(formatSql(statement, Optional.of(parameters)), session, generation.get()));
+    }
+
+    /**
+     * Returns the cached plan, with the table layouts bound to the connector transactions of the current query.
+     */
+    public Optional<Plan> getPlan(PlanCacheKey key, Function<ConnectorId, ConnectorTransactionHandle> transactionHandles)
+    {
+        CachedPlan cachedPlan = plans.getIfPresent(key);
+        if (cachedPlan != null && cachedPlan.getGeneration() != generation.get()) {
+            // the plan was added while the cache was being invalidated
+            plans.asMap().remove(key, cachedPlan);
+            cachedPlan = null;
+        }
+        if (cachedPlan == null) {
+            misses.update(1);
+            return Optional.empty();
+        }
+        hits.update(1);
+        Plan plan = cachedPlan.getPlan();
+        PlanNode root = SimplePlanRewriter.rewriteWith(new TransactionRebinder(transactionHandles), plan.getRoot());
+        return Optional.of(new Plan(root, plan.getTypes(), plan.getPlanNodeCosts()));
+    }
+
+    public void putPlan(PlanCacheKey key, Plan plan)
+    {
+        if (key.getGeneration() != generation.get()) {
+            // the plan may be based on metadata that has changed since
+            return;
+        }
+        if (searchFrom(plan.getRoot()).where(IndexSourceNode.class::isInstance).matches()) {
+            // index handles are bound to the transaction of the query, and are not rebound
+            return;
+        }
+        plans.put(key, new CachedPlan(plan, key.getGeneration()));
+    }
+
+    /**
+     * Returns whether cached plans must be discarded when the statement completes, because it may have
+     * changed the tables or views they read.
+     */
+    public static boolean isInvalidatedBy(Statement statement, Optional<QueryType> queryType)
+    {
+        if (!queryType.isPresent()) {
+            return true;
+        }
+        QueryType type = queryType.get();
+        return type == INSERT || type == DELETE || (type == DATA_DEFINITION && !SESSION_STATEMENTS.contains(statement.getClass()));
+    }
+
+    @Managed
+    public void invalidateAll()
+    {
+        generation.incrementAndGet();
+        plans.invalidateAll();
+        invalidations.update(1);
+    }
+
+    @VisibleForTesting
+    static boolean dependsOnQueryTime(Statement statement)
+    {
+        AtomicBoolean found = new AtomicBoolean();
+        new DefaultTraversalVisitor<Void, Void>()
+        {
+            @Override
+            protected Void visitCurrentTime(CurrentTime node, Void context)
+            {
+                found.set(true);
+                return null;
+            }
+
+            @Override
+            protected Void visitFunctionCall(FunctionCall node, Void context)
+            {
+                if (QUERY_TIME_FUNCTIONS.contains(node.getName().toString().toLowerCase(Locale.ENGLISH))) {
+                    found.set(true);
+                }
+                return super.visitFunctionCall(node, context);
+            }
+        }.process(statement, null);
+        return found.get();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return plans.size();
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getInvalidations()
+    {
+        return invalidations;
+    }
+
+    private static class TransactionRebinder
+            extends SimplePlanRewriter<Void>
+    {
+        private final Function<ConnectorId, ConnectorTransactionHandle> transactionHandles;
+
+        public TransactionRebinder(Function<ConnectorId, ConnectorTransactionHandle> transactionHandles)
+        {
+            this.transactionHandles = requireNonNull(transactionHandles, "transactionHandles is null");
+        }
+
+        @Override
+        public PlanNode visitTableScan(TableScanNode node, RewriteContext<Void> context)
+        {
+            Optional<TableLayoutHandle> layout = node.getLayout()
+                    .map(handle -> new TableLayoutHandle(
+                            handle.getConnectorId(),
+                            transactionHandles.apply(handle.getConnectorId()),
+                            handle.getConnectorHandle()));
+            return new TableScanNode(
+                    node.getId(),
+                    node.getTable(),
+                    node.getOutputSymbols(),
+                    node.getAssignments(),
+                    layout,
+                    node.getCurrentConstraint(),
+                    node.getOriginalConstraint());
+        }
+    }
+
+    private static final class CachedPlan
+    {
+        private final Plan plan;
+        private final long generation;
+
+        public CachedPlan(Plan plan, long generation)
+        {
+            this.plan = requireNonNull(plan, "plan is null");
+            this.generation = generation;
+        }
+
+        public Plan getPlan()
+        {
+            return plan;
+        }
+
+        public long getGeneration()
+        {
+            return generation;
+        }
+    }
+
+    public static final class PlanCacheKey
+    {
+        private final String statement;
+        private final String user;
+        private final Optional<String> catalog;
+        private final Optional<String> schema;
+        private final TimeZoneKey timeZoneKey;
+        private final Locale locale;
+        private final Map<String, String> systemProperties;
+        private final Map<ConnectorId, Map<String, String>> connectorProperties;
+        private final Map<String, Map<String, String>> catalogProperties;
+        // not part of the identity of the key
+        private final long generation;
+
+        private PlanCacheKey(String statement, Session session, long generation)
+        {
+            this.statement = requireNonNull(statement, "statement is null");
+            this.user = session.getUser();
+            this.catalog = session.getCatalog();
+            this.schema = session.getSchema();
+            this.timeZoneKey = session.getTimeZoneKey();
+            this.locale = session.getLocale();
+            this.systemProperties = ImmutableMap.copyOf(session.getSystemProperties());
+            this.connectorProperties = ImmutableMap.copyOf(session.getConnectorProperties());
+            this.catalogProperties = ImmutableMap.copyOf(session.getUnprocessedCatalogProperties());
+            this.generation = generation;
+        }
+
+        private long getGeneration()
+        {
+            return generation;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PlanCacheKey that = (PlanCacheKey) o;
+            return Objects.equals(statement, that.statement) &&
+                    Objects.equals(user, that.user) &&
+                    Objects.equals(catalog, that.catalog) &&
+                    Objects.equals(schema, that.schema) &&
+                    Objects.equals(timeZoneKey, that.timeZoneKey) &&
+                    Objects.equals(locale, that.locale) &&
+                    Objects.equals(systemProperties, that.systemProperties) &&
+                    Objects.equals(connectorProperties, that.connectorProperties) &&
+                    Objects.equals(catalogProperties, that.catalogProperties);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(statement, user, catalog, schema, timeZoneKey, locale, systemProperties, connectorProperties, catalogProperties);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("statement", statement)
+                    .add("user", user)
+                    .add("catalog", catalog.orElse(null))
+                    .add("schema", schema.orElse(null))
+                    .toString();
+        }
+    }
+}
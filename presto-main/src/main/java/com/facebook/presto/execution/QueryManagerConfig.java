@@ -59,6 +59,9 @@ public class QueryManagerConfig
     private int initializationRequiredWorkers = 1;
     private Duration initializationTimeout = new Duration(5, TimeUnit.MINUTES);
 
+    private boolean memoryAdmissionEnabled;
+    private int memoryAdmissionHistorySize = 10_000;
+
     public String getQueueConfigFile()
     {
         return queueConfigFile;
@@ -316,4 +319,31 @@ public class QueryManagerConfig
         this.initializationTimeout = initializationTimeout;
         return this;
     }
+
+    public boolean isMemoryAdmissionEnabled()
+    {
+        return memoryAdmissionEnabled;
+    }
+
+    @Config("query.memory-admission.enabled")
+    @ConfigDescription("Queue queries until their predicted peak memory fits in the free cluster memory")
+    public QueryManagerConfig setMemoryAdmissionEnabled(boolean memoryAdmissionEnabled)
+    {
+        this.memoryAdmissionEnabled = memoryAdmissionEnabled;
+        return this;
+    }
+
+    @Min(0)
+    public int getMemoryAdmissionHistorySize()
+    {
+        return memoryAdmissionHistorySize;
+    }
+
+    @Config("query.memory-admission.history-size")
+    @ConfigDescription("Number of distinct queries whose peak memory is remembered for admission control")
+    public QueryManagerConfig setMemoryAdmissionHistorySize(int memoryAdmissionHistorySize)
+    {
+        this.memoryAdmissionHistorySize = memoryAdmissionHistorySize;
+        return this;
+    }
 }
@@ -19,6 +19,7 @@ import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.memory.VersionedMemoryPoolId;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.operator.BlockedReason;
+import com.facebook.presto.operator.MemoryRevocation;
 import com.facebook.presto.operator.OperatorStats;
 import com.facebook.presto.security.AccessControl;
 import com.facebook.presto.spi.ErrorCode;
@@ -65,6 +66,7 @@ import static com.facebook.presto.execution.QueryState.STARTING;
 import static com.facebook.presto.execution.QueryState.TERMINAL_QUERY_STATES;
 import static com.facebook.presto.execution.StageInfo.getAllStages;
 import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
+import static com.facebook.presto.operator.MemoryRevocation.mergeMemoryRevocations;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_FOUND;
 import static com.facebook.presto.spi.StandardErrorCode.USER_CANCELED;
 import static com.facebook.presto.util.Failures.toFailure;
@@ -325,6 +327,9 @@ public class QueryStateMachine
         long outputDataSize = 0;
         long outputPositions = 0;
 
+        long spilledDataSize = 0;
+        ImmutableList.Builder<List<MemoryRevocation>> memoryRevocations = ImmutableList.builder();
+
         boolean fullyBlocked = rootStage.isPresent();
         Set<BlockedReason> blockedReasons = new HashSet<>();
 
@@ -363,6 +368,9 @@ public class QueryStateMachine
                 processedInputDataSize += stageStats.getProcessedInputDataSize().toBytes();
                 processedInputPositions += stageStats.getProcessedInputPositions();
             }
+            spilledDataSize += stageStats.getSpilledDataSize().toBytes();
+            memoryRevocations.add(stageStats.getMemoryRevocations());
+
             completeInfo = completeInfo && stageInfo.isCompleteInfo();
             operatorStatsSummary.addAll(stageInfo.getStageStats().getOperatorSummaries());
         }
@@ -417,6 +425,8 @@ public class QueryStateMachine
                 processedInputPositions,
                 succinctBytes(outputDataSize),
                 outputPositions,
+                succinctBytes(spilledDataSize),
+                mergeMemoryRevocations(memoryRevocations.build()),
                 operatorStatsSummary.build());
 
         return new QueryInfo(queryId,
@@ -830,6 +840,8 @@ public class QueryStateMachine
                 queryStats.getProcessedInputPositions(),
                 queryStats.getOutputDataSize(),
                 queryStats.getOutputPositions(),
+                queryStats.getSpilledDataSize(),
+                queryStats.getMemoryRevocations(),
                 ImmutableList.of()); // Remove the operator summaries as OperatorInfo (especially ExchangeClientStatus) can hold onto a large amount of memory
     }
 
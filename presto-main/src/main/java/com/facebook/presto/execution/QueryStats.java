@@ -14,6 +14,7 @@
 package com.facebook.presto.execution;
 
 import com.facebook.presto.operator.BlockedReason;
+import com.facebook.presto.operator.MemoryRevocation;
 import com.facebook.presto.operator.OperatorStats;
 import com.facebook.presto.operator.TableWriterOperator;
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -82,6 +83,9 @@ public class QueryStats
     private final DataSize outputDataSize;
     private final long outputPositions;
 
+    private final DataSize spilledDataSize;
+    private final List<MemoryRevocation> memoryRevocations;
+
     private final List<OperatorStats> operatorSummaries;
 
     @VisibleForTesting
@@ -121,6 +125,8 @@ public class QueryStats
         this.processedInputPositions = 0;
         this.outputDataSize = null;
         this.outputPositions = 0;
+        this.spilledDataSize = null;
+        this.memoryRevocations = null;
         this.operatorSummaries = null;
     }
 
@@ -169,6 +175,9 @@ public class QueryStats
             @JsonProperty("outputDataSize") DataSize outputDataSize,
             @JsonProperty("outputPositions") long outputPositions,
 
+            @JsonProperty("spilledDataSize") DataSize spilledDataSize,
+            @JsonProperty("memoryRevocations") List<MemoryRevocation> memoryRevocations,
+
             @JsonProperty("operatorSummaries") List<OperatorStats> operatorSummaries)
     {
         this.createTime = requireNonNull(createTime, "createTime is null");
@@ -223,6 +232,10 @@ public class QueryStats
         this.outputDataSize = requireNonNull(outputDataSize, "outputDataSize is null");
         checkArgument(outputPositions >= 0, "outputPositions is negative");
         this.outputPositions = outputPositions;
+
+        this.spilledDataSize = requireNonNull(spilledDataSize, "spilledDataSize is null");
+        this.memoryRevocations = ImmutableList.copyOf(requireNonNull(memoryRevocations, "memoryRevocations is null"));
+
         this.operatorSummaries = ImmutableList.copyOf(requireNonNull(operatorSummaries, "operatorSummaries is null"));
     }
 
@@ -440,6 +453,18 @@ public class QueryStats
         return outputPositions;
     }
 
+    @JsonProperty
+    public DataSize getSpilledDataSize()
+    {
+        return spilledDataSize;
+    }
+
+    @JsonProperty
+    public List<MemoryRevocation> getMemoryRevocations()
+    {
+        return memoryRevocations;
+    }
+
     @JsonProperty
     public long getWrittenPositions()
     {
@@ -19,7 +19,9 @@ import com.facebook.presto.Session;
 import com.facebook.presto.SystemSessionProperties;
 import com.facebook.presto.connector.ConnectorId;
 import com.facebook.presto.cost.CostCalculator;
+import com.facebook.presto.execution.PlanCache.PlanCacheKey;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
+import com.facebook.presto.execution.history.QueryHistoryStore;
 import com.facebook.presto.execution.scheduler.ExecutionPolicy;
 import com.facebook.presto.execution.scheduler.NodeScheduler;
 import com.facebook.presto.execution.scheduler.SplitSchedulerStats;
@@ -53,6 +55,8 @@ import com.facebook.presto.sql.planner.PlanOptimizers;
 import com.facebook.presto.sql.planner.StageExecutionPlan;
 import com.facebook.presto.sql.planner.SubPlan;
 import com.facebook.presto.sql.planner.optimizations.PlanOptimizer;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.sql.tree.Analyze;
 import com.facebook.presto.sql.tree.CreateTableAsSelect;
 import com.facebook.presto.sql.tree.Delete;
 import com.facebook.presto.sql.tree.DescribeInput;
@@ -97,6 +101,7 @@ import static com.facebook.presto.spi.resourceGroups.QueryType.DESCRIBE;
 import static com.facebook.presto.spi.resourceGroups.QueryType.EXPLAIN;
 import static com.facebook.presto.spi.resourceGroups.QueryType.INSERT;
 import static com.facebook.presto.spi.resourceGroups.QueryType.SELECT;
+import static com.facebook.presto.sql.planner.CanonicalPlanHasher.hashPlan;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static java.util.Objects.requireNonNull;
@@ -113,6 +118,7 @@ public final class SqlQueryExecution
     private final QueryStateMachine stateMachine;
 
     private final Statement statement;
+    private final TransactionManager transactionManager;
     private final Metadata metadata;
     private final AccessControl accessControl;
     private final SqlParser sqlParser;
@@ -128,6 +134,8 @@ public final class SqlQueryExecution
 
     private final QueryExplainer queryExplainer;
     private final CostCalculator costCalculator;
+    private final QueryHistoryStore queryHistoryStore;
+    private final PlanCache planCache;
     private final AtomicReference<SqlQueryScheduler> queryScheduler = new AtomicReference<>();
     private final AtomicReference<Plan> queryPlan = new AtomicReference<>();
     private final NodeTaskMap nodeTaskMap;
@@ -148,6 +156,8 @@ public final class SqlQueryExecution
             NodePartitioningManager nodePartitioningManager,
             NodeScheduler nodeScheduler,
             CostCalculator costCalculator,
+            QueryHistoryStore queryHistoryStore,
+            PlanCache planCache,
             List<PlanOptimizer> planOptimizers,
             RemoteTaskFactory remoteTaskFactory,
             LocationFactory locationFactory,
@@ -162,6 +172,7 @@ public final class SqlQueryExecution
     {
         try (SetThreadName ignored = new SetThreadName("Query-%s", queryId)) {
             this.statement = requireNonNull(statement, "statement is null");
+            this.transactionManager = requireNonNull(transactionManager, "transactionManager is null");
             this.metadata = requireNonNull(metadata, "metadata is null");
             this.accessControl = requireNonNull(accessControl, "accessControl is null");
             this.sqlParser = requireNonNull(sqlParser, "sqlParser is null");
@@ -169,6 +180,8 @@ public final class SqlQueryExecution
             this.nodePartitioningManager = requireNonNull(nodePartitioningManager, "nodePartitioningManager is null");
             this.nodeScheduler = requireNonNull(nodeScheduler, "nodeScheduler is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
+            this.queryHistoryStore = requireNonNull(queryHistoryStore, "queryHistoryStore is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
             this.planOptimizers = requireNonNull(planOptimizers, "planOptimizers is null");
             this.locationFactory = requireNonNull(locationFactory, "locationFactory is null");
             this.queryExecutor = requireNonNull(queryExecutor, "queryExecutor is null");
@@ -322,7 +335,7 @@ public final class SqlQueryExecution
                 statement instanceof ShowColumns || statement instanceof DescribeInput || statement instanceof DescribeOutput) {
             return Optional.of(DESCRIBE);
         }
-        else if (statement instanceof CreateTableAsSelect || statement instanceof Insert) {
+        else if (statement instanceof CreateTableAsSelect || statement instanceof Insert || statement instanceof Analyze) {
             return Optional.of(INSERT);
         }
         else if (statement instanceof Delete) {
@@ -352,12 +365,32 @@ public final class SqlQueryExecution
 
         stateMachine.setUpdateType(analysis.getUpdateType());
 
-        // plan query
-        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
-        LogicalPlanner logicalPlanner = new LogicalPlanner(stateMachine.getSession(), planOptimizers, idAllocator, metadata, sqlParser, costCalculator);
-        Plan plan = logicalPlanner.plan(analysis);
+        // plan query, unless the plan of an identical query is cached
+        Session session = stateMachine.getSession();
+        Optional<PlanCacheKey> planCacheKey = planCache.createKey(session, statement, parameters);
+        Optional<Plan> cachedPlan = planCacheKey.flatMap(key -> planCache.getPlan(
+                key,
+                connectorId -> transactionManager.getConnectorTransaction(session.getRequiredTransactionId(), connectorId)));
+        Plan plan;
+        if (cachedPlan.isPresent()) {
+            plan = cachedPlan.get();
+        }
+        else {
+            PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+            LogicalPlanner logicalPlanner = new LogicalPlanner(session, planOptimizers, idAllocator, metadata, sqlParser, costCalculator);
+            plan = logicalPlanner.plan(analysis);
+            if (planCacheKey.isPresent()) {
+                planCache.putPlan(planCacheKey.get(), plan);
+            }
+        }
         queryPlan.set(plan);
 
+        // record the runtime statistics of the plan nodes when the query finishes
+        if (queryHistoryStore.isEnabled()) {
+            Map<PlanNodeId, String> canonicalPlanHashes = hashPlan(plan.getRoot());
+            stateMachine.addQueryInfoStateChangeListener(finalQueryInfo -> queryHistoryStore.recordQuery(finalQueryInfo, canonicalPlanHashes));
+        }
+
         // extract inputs
         List<Input> inputs = new InputExtractor(metadata, stateMachine.getSession()).extractInputs(plan.getRoot());
         stateMachine.setInputs(inputs);
@@ -618,6 +651,8 @@ public final class SqlQueryExecution
         private final NodePartitioningManager nodePartitioningManager;
         private final NodeScheduler nodeScheduler;
         private final CostCalculator costCalculator;
+        private final QueryHistoryStore queryHistoryStore;
+        private final PlanCache planCache;
         private final List<PlanOptimizer> planOptimizers;
         private final RemoteTaskFactory remoteTaskFactory;
         private final TransactionManager transactionManager;
@@ -639,6 +674,8 @@ public final class SqlQueryExecution
                 NodePartitioningManager nodePartitioningManager,
                 NodeScheduler nodeScheduler,
                 CostCalculator costCalculator,
+                QueryHistoryStore queryHistoryStore,
+                PlanCache planCache,
                 PlanOptimizers planOptimizers,
                 RemoteTaskFactory remoteTaskFactory,
                 TransactionManager transactionManager,
@@ -670,6 +707,8 @@ public final class SqlQueryExecution
 
             this.executionPolicies = requireNonNull(executionPolicies, "schedulerPolicies is null");
             this.costCalculator = requireNonNull(costCalculator, "cost calculator is null");
+            this.queryHistoryStore = requireNonNull(queryHistoryStore, "queryHistoryStore is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
             this.planOptimizers = planOptimizers.get();
         }
 
@@ -694,6 +733,8 @@ public final class SqlQueryExecution
                     nodePartitioningManager,
                     nodeScheduler,
                     costCalculator,
+                    queryHistoryStore,
+                    planCache,
                     planOptimizers,
                     remoteTaskFactory,
                     locationFactory,
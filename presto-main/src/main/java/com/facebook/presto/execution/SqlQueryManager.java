@@ -66,8 +66,10 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 import static com.facebook.presto.execution.ParameterExtractor.getParameterCount;
+import static com.facebook.presto.execution.PlanCache.isInvalidatedBy;
 import static com.facebook.presto.execution.QueryState.RUNNING;
 import static com.facebook.presto.spi.NodeState.ACTIVE;
 import static com.facebook.presto.spi.StandardErrorCode.ABANDONED_QUERY;
@@ -95,6 +97,7 @@ public class SqlQueryManager
     private static final Logger log = Logger.get(SqlQueryManager.class);
 
     private final SqlParser sqlParser;
+    private final PlanCache planCache;
 
     private final ExecutorService queryExecutor;
     private final ThreadPoolExecutorMBean queryExecutorMBean;
@@ -138,6 +141,7 @@ public class SqlQueryManager
     @Inject
     public SqlQueryManager(
             SqlParser sqlParser,
+            PlanCache planCache,
             NodeSchedulerConfig nodeSchedulerConfig,
             QueryManagerConfig queryManagerConfig,
             QueryMonitor queryMonitor,
@@ -152,6 +156,7 @@ public class SqlQueryManager
             Metadata metadata)
     {
         this.sqlParser = requireNonNull(sqlParser, "sqlParser is null");
+        this.planCache = requireNonNull(planCache, "planCache is null");
 
         this.executionFactories = requireNonNull(executionFactories, "executionFactories is null");
 
@@ -379,8 +384,8 @@ public class SqlQueryManager
                 throw new PrestoException(QUERY_TEXT_TOO_LARGE, format("Query text length (%s) exceeds the maximum length (%s)", queryLength, maxQueryLength));
             }
 
-            Statement wrappedStatement = sqlParser.createStatement(query);
-            statement = unwrapExecuteStatement(wrappedStatement, sqlParser, session);
+            Statement wrappedStatement = planCache.parseStatement(sqlParser, query);
+            statement = unwrapExecuteStatement(wrappedStatement, sql -> planCache.parseStatement(sqlParser, sql), session);
             List<Expression> parameters = wrappedStatement instanceof Execute ? ((Execute) wrappedStatement).getParameters() : emptyList();
             validateParameters(statement, parameters);
             QueryExecutionFactory<?> queryExecutionFactory = executionFactories.get(statement.getClass());
@@ -447,6 +452,10 @@ public class SqlQueryManager
             }
         });
 
+        if (planCache.isEnabled() && isInvalidatedBy(statement, queryExecution.getQueryType())) {
+            queryExecution.addFinalQueryInfoListener(finalQueryInfo -> planCache.invalidateAll());
+        }
+
         addStatsListeners(queryExecution);
 
         queries.put(queryId, queryExecution);
@@ -458,13 +467,18 @@ public class SqlQueryManager
     }
 
     public static Statement unwrapExecuteStatement(Statement statement, SqlParser sqlParser, Session session)
+    {
+        return unwrapExecuteStatement(statement, sqlParser::createStatement, session);
+    }
+
+    private static Statement unwrapExecuteStatement(Statement statement, Function<String, Statement> parser, Session session)
     {
         if ((!(statement instanceof Execute))) {
             return statement;
         }
 
         String sql = session.getPreparedStatementFromExecute((Execute) statement);
-        return sqlParser.createStatement(sql);
+        return parser.apply(sql);
     }
 
     public static void validateParameters(Statement node, List<Expression> parameterValues)
@@ -162,6 +162,7 @@ public class SqlTaskExecution
                         taskContext,
                         fragment.getRoot(),
                         fragment.getSymbols(),
+                        fragment.getEstimatedRowCounts(),
                         fragment.getPartitioningScheme(),
                         outputBuffer);
                 driverFactories = localExecutionPlan.getDriverFactories();
@@ -17,6 +17,7 @@ import com.facebook.presto.Session;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.execution.scheduler.SplitSchedulerStats;
 import com.facebook.presto.operator.BlockedReason;
+import com.facebook.presto.operator.MemoryRevocation;
 import com.facebook.presto.operator.OperatorStats;
 import com.facebook.presto.operator.PipelineStats;
 import com.facebook.presto.operator.TaskStats;
@@ -51,6 +52,7 @@ import static com.facebook.presto.execution.StageState.SCHEDULED;
 import static com.facebook.presto.execution.StageState.SCHEDULING;
 import static com.facebook.presto.execution.StageState.SCHEDULING_SPLITS;
 import static com.facebook.presto.execution.StageState.TERMINAL_STAGE_STATES;
+import static com.facebook.presto.operator.MemoryRevocation.mergeMemoryRevocations;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.airlift.units.Duration.succinctDuration;
@@ -236,6 +238,9 @@ public class StageStateMachine
         long outputDataSize = 0;
         long outputPositions = 0;
 
+        long spilledDataSize = 0;
+        ImmutableList.Builder<List<MemoryRevocation>> memoryRevocations = ImmutableList.builder();
+
         boolean fullyBlocked = true;
         Set<BlockedReason> blockedReasons = new HashSet<>();
 
@@ -279,6 +284,9 @@ public class StageStateMachine
             outputDataSize += taskStats.getOutputDataSize().toBytes();
             outputPositions += taskStats.getOutputPositions();
 
+            spilledDataSize += taskStats.getSpilledDataSize().toBytes();
+            memoryRevocations.add(taskStats.getMemoryRevocations());
+
             for (PipelineStats pipeline : taskStats.getPipelines()) {
                 for (OperatorStats operatorStats : pipeline.getOperatorSummaries()) {
                     String id = pipeline.getPipelineId() + "." + operatorStats.getOperatorId();
@@ -320,6 +328,8 @@ public class StageStateMachine
                 succinctBytes(bufferedDataSize),
                 succinctBytes(outputDataSize),
                 outputPositions,
+                succinctBytes(spilledDataSize),
+                mergeMemoryRevocations(memoryRevocations.build()),
                 ImmutableList.copyOf(operatorToStats.values()));
 
         ExecutionFailureInfo failureInfo = null;
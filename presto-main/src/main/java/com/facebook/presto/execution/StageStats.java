@@ -14,6 +14,7 @@
 package com.facebook.presto.execution;
 
 import com.facebook.presto.operator.BlockedReason;
+import com.facebook.presto.operator.MemoryRevocation;
 import com.facebook.presto.operator.OperatorStats;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -72,6 +73,8 @@ public class StageStats
     private final DataSize bufferedDataSize;
     private final DataSize outputDataSize;
     private final long outputPositions;
+    private final DataSize spilledDataSize;
+    private final List<MemoryRevocation> memoryRevocations;
     private final List<OperatorStats> operatorSummaries;
 
     @VisibleForTesting
@@ -105,6 +108,8 @@ public class StageStats
         this.bufferedDataSize = null;
         this.outputDataSize = null;
         this.outputPositions = 0;
+        this.spilledDataSize = null;
+        this.memoryRevocations = null;
         this.operatorSummaries = null;
     }
 
@@ -146,6 +151,8 @@ public class StageStats
             @JsonProperty("bufferedDataSize") DataSize bufferedDataSize,
             @JsonProperty("outputDataSize") DataSize outputDataSize,
             @JsonProperty("outputPositions") long outputPositions,
+            @JsonProperty("spilledDataSize") DataSize spilledDataSize,
+            @JsonProperty("memoryRevocations") List<MemoryRevocation> memoryRevocations,
             @JsonProperty("operatorSummaries") List<OperatorStats> operatorSummaries)
     {
         this.schedulingComplete = schedulingComplete;
@@ -194,6 +201,8 @@ public class StageStats
         this.outputDataSize = requireNonNull(outputDataSize, "outputDataSize is null");
         checkArgument(outputPositions >= 0, "outputPositions is negative");
         this.outputPositions = outputPositions;
+        this.spilledDataSize = requireNonNull(spilledDataSize, "spilledDataSize is null");
+        this.memoryRevocations = ImmutableList.copyOf(requireNonNull(memoryRevocations, "memoryRevocations is null"));
         this.operatorSummaries = ImmutableList.copyOf(requireNonNull(operatorSummaries, "operatorSummaries is null"));
     }
 
@@ -365,6 +374,18 @@ public class StageStats
         return outputPositions;
     }
 
+    @JsonProperty
+    public DataSize getSpilledDataSize()
+    {
+        return spilledDataSize;
+    }
+
+    @JsonProperty
+    public List<MemoryRevocation> getMemoryRevocations()
+    {
+        return memoryRevocations;
+    }
+
     @JsonProperty
     public List<OperatorStats> getOperatorSummaries()
     {
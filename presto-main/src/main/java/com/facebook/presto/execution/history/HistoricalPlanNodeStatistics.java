@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.history;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Runtime statistics of a plan node, averaged over the recorded executions.
+ */
+public class HistoricalPlanNodeStatistics
+{
+    // Older executions are weighted as if there were at most this many, so the statistics follow changes in the data
+    private static final int MAX_WEIGHT = 10;
+
+    private final long outputPositions;
+    private final long outputBytes;
+    private final long cpuNanos;
+    private final long peakMemoryBytes;
+    private final int executions;
+
+    @JsonCreator
+    public HistoricalPlanNodeStatistics(
+            @JsonProperty("outputPositions") long outputPositions,
+            @JsonProperty("outputBytes") long outputBytes,
+            @JsonProperty("cpuNanos") long cpuNanos,
+            @JsonProperty("peakMemoryBytes") long peakMemoryBytes,
+            @JsonProperty("executions") int executions)
+    {
+        checkArgument(outputPositions >= 0, "outputPositions is negative");
+        checkArgument(outputBytes >= 0, "outputBytes is negative");
+        checkArgument(cpuNanos >= 0, "cpuNanos is negative");
+        checkArgument(peakMemoryBytes >= 0, "peakMemoryBytes is negative");
+        checkArgument(executions > 0, "executions must be positive");
+        this.outputPositions = outputPositions;
+        this.outputBytes = outputBytes;
+        this.cpuNanos = cpuNanos;
+        this.peakMemoryBytes = peakMemoryBytes;
+        this.executions = executions;
+    }
+
+    @JsonProperty
+    public long getOutputPositions()
+    {
+        return outputPositions;
+    }
+
+    @JsonProperty
+    public long getOutputBytes()
+    {
+        return outputBytes;
+    }
+
+    @JsonProperty
+    public long getCpuNanos()
+    {
+        return cpuNanos;
+    }
+
+    @JsonProperty
+    public long getPeakMemoryBytes()
+    {
+        return peakMemoryBytes;
+    }
+
+    @JsonProperty
+    public int getExecutions()
+    {
+        return executions;
+    }
+
+    public HistoricalPlanNodeStatistics mergeWith(HistoricalPlanNodeStatistics other)
+    {
+        long weight = Math.min(executions, MAX_WEIGHT);
+        long otherWeight = Math.min(other.executions, MAX_WEIGHT);
+        return new HistoricalPlanNodeStatistics(
+                average(outputPositions, weight, other.outputPositions, otherWeight),
+                average(outputBytes, weight, other.outputBytes, otherWeight),
+                average(cpuNanos, weight, other.cpuNanos, otherWeight),
+                average(peakMemoryBytes, weight, other.peakMemoryBytes, otherWeight),
+                executions + other.executions);
+    }
+
+    private static long average(long value, long weight, long otherValue, long otherWeight)
+    {
+        return (long) ((value * (double) weight + otherValue * (double) otherWeight) / (weight + otherWeight));
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HistoricalPlanNodeStatistics that = (HistoricalPlanNodeStatistics) o;
+        return outputPositions == that.outputPositions &&
+                outputBytes == that.outputBytes &&
+                cpuNanos == that.cpuNanos &&
+                peakMemoryBytes == that.peakMemoryBytes &&
+                executions == that.executions;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(outputPositions, outputBytes, cpuNanos, peakMemoryBytes, executions);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("outputPositions", outputPositions)
+                .add("outputBytes", outputBytes)
+                .add("cpuNanos", cpuNanos)
+                .add("peakMemoryBytes", peakMemoryBytes)
+                .add("executions", executions)
+                .toString();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.history;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.Duration;
+import io.airlift.units.MinDuration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+public class QueryHistoryConfig
+{
+    private boolean enabled;
+    private File file = new File("var/query-history.json");
+    private int maxEntries = 100_000;
+    private Duration flushInterval = new Duration(1, MINUTES);
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("query-history.enabled")
+    @ConfigDescription("Record the runtime statistics of plan nodes of finished queries")
+    public QueryHistoryConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    @NotNull
+    public File getFile()
+    {
+        return file;
+    }
+
+    @Config("query-history.file")
+    @ConfigDescription("File the query history is persisted to")
+    public QueryHistoryConfig setFile(File file)
+    {
+        this.file = file;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    @Config("query-history.max-entries")
+    @ConfigDescription("Maximum number of plan nodes with recorded statistics")
+    public QueryHistoryConfig setMaxEntries(int maxEntries)
+    {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1s")
+    public Duration getFlushInterval()
+    {
+        return flushInterval;
+    }
+
+    @Config("query-history.flush-interval")
+    public QueryHistoryConfig setFlushInterval(Duration flushInterval)
+    {
+        this.flushInterval = flushInterval;
+        return this;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.history;
+
+import com.facebook.presto.execution.QueryInfo;
+import com.facebook.presto.execution.StageInfo;
+import com.facebook.presto.execution.TaskInfo;
+import com.facebook.presto.operator.OperatorStats;
+import com.facebook.presto.operator.PipelineStats;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.sql.planner.planPrinter.PlanNodeStats;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.json.JsonCodec;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
+import io.airlift.units.Duration;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.facebook.presto.execution.QueryState.FINISHED;
+import static com.facebook.presto.execution.StageInfo.getAllStages;
+import static com.facebook.presto.sql.planner.planPrinter.PlanNodeStatsSummarizer.aggregatePlanNodeStats;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.json.JsonCodec.mapJsonCodec;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Records the runtime statistics of the plan nodes of finished queries, keyed by the canonical
+ * hash of the plan subtree rooted at each node (see {@link com.facebook.presto.sql.planner.CanonicalPlanHasher}).
+ * The statistics are kept in memory, bounded by the number of entries, and periodically written to a local file
+ * from which they are loaded when the server starts.
+ */
+@ThreadSafe
+public class QueryHistoryStore
+{
+    private static final Logger log = Logger.get(QueryHistoryStore.class);
+    private static final JsonCodec<Map<String, HistoricalPlanNodeStatistics>> CODEC = mapJsonCodec(String.class, HistoricalPlanNodeStatistics.class);
+
+    private final boolean enabled;
+    private final File file;
+    private final Duration flushInterval;
+    private final Cache<String, HistoricalPlanNodeStatistics> statistics;
+    private final ScheduledExecutorService flushExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed("query-history-flush"));
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private final CounterStat recordedQueries = new CounterStat();
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+
+    @Inject
+    public QueryHistoryStore(QueryHistoryConfig config)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isEnabled();
+        this.file = config.getFile();
+        this.flushInterval = config.getFlushInterval();
+        this.statistics = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .build();
+    }
+
+    @PostConstruct
+    public void start()
+    {
+        if (!enabled) {
+            return;
+        }
+        load();
+        flushExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            }
+            catch (Throwable e) {
+                log.warn(e, "Error writing query history to %s", file);
+            }
+        }, flushInterval.toMillis(), flushInterval.toMillis(), MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop()
+            throws IOException
+    {
+        flushExecutor.shutdownNow();
+        if (enabled) {
+            flush();
+        }
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public Optional<HistoricalPlanNodeStatistics> getStatistics(String canonicalPlanHash)
+    {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        HistoricalPlanNodeStatistics result = statistics.getIfPresent(canonicalPlanHash);
+        if (result == null) {
+            misses.update(1);
+            return Optional.empty();
+        }
+        hits.update(1);
+        return Optional.of(result);
+    }
+
+    /**
+     * Records the statistics of a query. Only successful queries are recorded, as the statistics
+     * of failed or canceled queries do not cover the whole input.
+     */
+    public void recordQuery(QueryInfo queryInfo, Map<PlanNodeId, String> canonicalPlanHashes)
+    {
+        if (!enabled || queryInfo.getState() != FINISHED || !queryInfo.getOutputStage().isPresent()) {
+            return;
+        }
+        for (Map.Entry<PlanNodeId, HistoricalPlanNodeStatistics> entry : extractStatistics(queryInfo.getOutputStage().get()).entrySet()) {
+            String hash = canonicalPlanHashes.get(entry.getKey());
+            if (hash != null) {
+                record(hash, entry.getValue());
+            }
+        }
+        recordedQueries.update(1);
+    }
+
+    @VisibleForTesting
+    void record(String canonicalPlanHash, HistoricalPlanNodeStatistics planNodeStatistics)
+    {
+        statistics.asMap().merge(canonicalPlanHash, planNodeStatistics, HistoricalPlanNodeStatistics::mergeWith);
+        dirty.set(true);
+    }
+
+    @VisibleForTesting
+    static Map<PlanNodeId, HistoricalPlanNodeStatistics> extractStatistics(StageInfo outputStage)
+    {
+        Map<PlanNodeId, Long> cpuNanos = new HashMap<>();
+        Map<PlanNodeId, Long> peakMemoryBytes = new HashMap<>();
+        Map<PlanNodeId, PlanNodeStats> planNodeStats = new HashMap<>();
+        for (StageInfo stage : getAllStages(Optional.of(outputStage))) {
+            for (TaskInfo task : stage.getTasks()) {
+                for (PipelineStats pipeline : task.getStats().getPipelines()) {
+                    for (OperatorStats operator : pipeline.getOperatorSummaries()) {
+                        long cpu = operator.getAddInputCpu().roundTo(NANOSECONDS) + operator.getGetOutputCpu().roundTo(NANOSECONDS) + operator.getFinishCpu().roundTo(NANOSECONDS);
+                        cpuNanos.merge(operator.getPlanNodeId(), cpu, Long::sum);
+                        peakMemoryBytes.merge(operator.getPlanNodeId(), operator.getPeakMemoryReservation().toBytes(), Long::sum);
+                    }
+                }
+            }
+            aggregatePlanNodeStats(stage).forEach((planNodeId, stats) -> planNodeStats.merge(planNodeId, stats, PlanNodeStats::mergeWith));
+        }
+
+        ImmutableMap.Builder<PlanNodeId, HistoricalPlanNodeStatistics> result = ImmutableMap.builder();
+        for (PlanNodeStats stats : planNodeStats.values()) {
+            PlanNodeId planNodeId = stats.getPlanNodeId();
+            result.put(planNodeId, new HistoricalPlanNodeStatistics(
+                    stats.getPlanNodeOutputPositions(),
+                    stats.getPlanNodeOutputDataSize().toBytes(),
+                    cpuNanos.getOrDefault(planNodeId, 0L),
+                    peakMemoryBytes.getOrDefault(planNodeId, 0L),
+                    1));
+        }
+        return result.build();
+    }
+
+    private void load()
+    {
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            statistics.putAll(CODEC.fromJson(new String(Files.readAllBytes(file.toPath()), UTF_8)));
+            log.info("Loaded statistics of %s plan nodes from %s", statistics.size(), file);
+        }
+        catch (IOException | IllegalArgumentException e) {
+            // the history only improves estimates, so a damaged file must not prevent the server from starting
+            log.warn(e, "Error reading query history from %s", file);
+        }
+    }
+
+    @VisibleForTesting
+    void flush()
+            throws IOException
+    {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Path target = file.toPath().toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, CODEC.toJson(ImmutableMap.copyOf(statistics.asMap())).getBytes(UTF_8));
+            Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            dirty.set(true);
+            throw e;
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Managed
+    public long getEntries()
+    {
+        return statistics.size();
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getRecordedQueries()
+    {
+        return recordedQueries;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+}
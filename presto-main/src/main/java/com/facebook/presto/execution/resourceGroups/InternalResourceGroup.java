@@ -78,6 +78,7 @@ public class InternalResourceGroup
     private final ResourceGroupId id;
     private final BiConsumer<InternalResourceGroup, Boolean> jmxExportListener;
     private final Executor executor;
+    private final MemoryAdmissionController memoryAdmissionController;
 
     @GuardedBy("root")
     private final Map<String, InternalResourceGroup> subGroups = new HashMap<>();
@@ -124,11 +125,17 @@ public class InternalResourceGroup
     @GuardedBy("root")
     private Duration runningTimeLimit = new Duration(Long.MAX_VALUE, MILLISECONDS);
 
-    protected InternalResourceGroup(Optional<InternalResourceGroup> parent, String name, BiConsumer<InternalResourceGroup, Boolean> jmxExportListener, Executor executor)
+    protected InternalResourceGroup(
+            Optional<InternalResourceGroup> parent,
+            String name,
+            BiConsumer<InternalResourceGroup, Boolean> jmxExportListener,
+            Executor executor,
+            MemoryAdmissionController memoryAdmissionController)
     {
         this.parent = requireNonNull(parent, "parent is null");
         this.jmxExportListener = requireNonNull(jmxExportListener, "jmxExportListener is null");
         this.executor = requireNonNull(executor, "executor is null");
+        this.memoryAdmissionController = requireNonNull(memoryAdmissionController, "memoryAdmissionController is null");
         requireNonNull(name, "name is null");
         if (parent.isPresent()) {
             id = new ResourceGroupId(parent.get().id, name);
@@ -529,7 +536,7 @@ public class InternalResourceGroup
             if (subGroups.containsKey(name)) {
                 return subGroups.get(name);
             }
-            InternalResourceGroup subGroup = new InternalResourceGroup(Optional.of(this), name, jmxExportListener, executor);
+            InternalResourceGroup subGroup = new InternalResourceGroup(Optional.of(this), name, jmxExportListener, executor, memoryAdmissionController);
             // Sub group must use query priority to ensure ordering
             if (schedulingPolicy == QUERY_PRIORITY) {
                 subGroup.setSchedulingPolicy(QUERY_PRIORITY);
@@ -560,7 +567,8 @@ public class InternalResourceGroup
                 query.fail(new QueryQueueFullException(id));
                 return;
             }
-            if (canRun) {
+            memoryAdmissionController.querySubmitted(query);
+            if (canRun && memoryAdmissionController.canAdmit(query)) {
                 startInBackground(query);
             }
             else {
@@ -614,6 +622,7 @@ public class InternalResourceGroup
         checkState(Thread.holdsLock(root), "Must hold lock to start a query");
         synchronized (root) {
             runningQueries.add(query);
+            memoryAdmissionController.queryStarted(query);
             InternalResourceGroup group = this;
             while (group.parent.isPresent()) {
                 group.parent.get().descendantRunningQueries++;
@@ -632,6 +641,7 @@ public class InternalResourceGroup
                 // Query has already been cleaned up
                 return;
             }
+            memoryAdmissionController.queryFinished(query);
             // Only count the CPU time if the query succeeded, or the failure was the fault of the user
             if (query.getState() == QueryState.FINISHED || query.getQueryInfo().getErrorType() == USER_ERROR) {
                 InternalResourceGroup group = this;
@@ -694,6 +704,12 @@ public class InternalResourceGroup
         }
     }
 
+    protected void internalRefreshMemoryAdmission()
+    {
+        checkState(Thread.holdsLock(root), "Must hold lock to refresh memory admission");
+        memoryAdmissionController.refresh();
+    }
+
     protected void internalGenerateCpuQuota(long elapsedSeconds)
     {
         checkState(Thread.holdsLock(root), "Must hold lock to generate cpu quota");
@@ -725,9 +741,13 @@ public class InternalResourceGroup
             if (!canRunMore()) {
                 return false;
             }
-            QueryExecution query = queuedQueries.poll();
+            QueryExecution query = queuedQueries.peek();
             if (query != null) {
-                startInBackground(query);
+                if (!memoryAdmissionController.canAdmit(query)) {
+                    // Wait until the cluster has enough free memory for the query
+                    return false;
+                }
+                startInBackground(queuedQueries.poll());
                 return true;
             }
 
@@ -737,7 +757,11 @@ public class InternalResourceGroup
                 return false;
             }
             boolean started = subGroup.internalStartNext();
-            checkState(started, "Eligible sub group had no queries to run");
+            if (!started) {
+                // The next query of the sub group is waiting for memory
+                eligibleSubGroups.addOrUpdate(subGroup, getSubGroupSchedulingPriority(schedulingPolicy, subGroup));
+                return false;
+            }
             descendantQueuedQueries--;
             // Don't call updateEligibility here, as we're in a recursive call, and don't want to repeatedly update our ancestors.
             if (subGroup.isEligibleToStartNext()) {
@@ -881,12 +905,18 @@ public class InternalResourceGroup
     {
         public RootInternalResourceGroup(String name, BiConsumer<InternalResourceGroup, Boolean> jmxExportListener, Executor executor)
         {
-            super(Optional.empty(), name, jmxExportListener, executor);
+            this(name, jmxExportListener, executor, MemoryAdmissionController.disabled());
+        }
+
+        public RootInternalResourceGroup(String name, BiConsumer<InternalResourceGroup, Boolean> jmxExportListener, Executor executor, MemoryAdmissionController memoryAdmissionController)
+        {
+            super(Optional.empty(), name, jmxExportListener, executor, memoryAdmissionController);
         }
 
         public synchronized void processQueuedQueries()
         {
             internalRefreshStats();
+            internalRefreshMemoryAdmission();
             enforceTimeLimits();
             while (internalStartNext()) {
                 // start all the queries we can
@@ -15,6 +15,7 @@ package com.facebook.presto.execution.resourceGroups;
 
 import com.facebook.presto.Session;
 import com.facebook.presto.execution.QueryExecution;
+import com.facebook.presto.execution.QueryManagerConfig;
 import com.facebook.presto.execution.resourceGroups.InternalResourceGroup.RootInternalResourceGroup;
 import com.facebook.presto.server.ResourceGroupStateInfo;
 import com.facebook.presto.spi.PrestoException;
@@ -34,6 +35,7 @@ import io.airlift.node.NodeInfo;
 import org.weakref.jmx.JmxException;
 import org.weakref.jmx.MBeanExporter;
 import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 import org.weakref.jmx.ObjectNames;
 
 import javax.annotation.PostConstruct;
@@ -61,6 +63,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static com.facebook.presto.SystemSessionProperties.getQueryPriority;
 import static com.facebook.presto.execution.resourceGroups.LegacyResourceGroupConfigurationManagerFactory.LEGACY_RESOURCE_GROUP_MANAGER;
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
 import static com.facebook.presto.spi.StandardErrorCode.QUERY_REJECTED;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -89,12 +92,22 @@ public final class InternalResourceGroupManager
     private final AtomicBoolean started = new AtomicBoolean();
     private final AtomicLong lastCpuQuotaGenerationNanos = new AtomicLong(System.nanoTime());
     private final Map<String, ResourceGroupConfigurationManagerFactory> configurationManagerFactories = new ConcurrentHashMap<>();
+    private final MemoryAdmissionController memoryAdmissionController;
 
     @Inject
-    public InternalResourceGroupManager(LegacyResourceGroupConfigurationManagerFactory builtinFactory, ClusterMemoryPoolManager memoryPoolManager, NodeInfo nodeInfo, MBeanExporter exporter)
+    public InternalResourceGroupManager(
+            LegacyResourceGroupConfigurationManagerFactory builtinFactory,
+            ClusterMemoryPoolManager memoryPoolManager,
+            NodeInfo nodeInfo,
+            MBeanExporter exporter,
+            QueryManagerConfig queryManagerConfig)
     {
         this.exporter = requireNonNull(exporter, "exporter is null");
         this.configurationManagerContext = new ResourceGroupConfigurationManagerContextInstance(memoryPoolManager, nodeInfo.getEnvironment());
+        this.memoryAdmissionController = new MemoryAdmissionController(queryManagerConfig.isMemoryAdmissionEnabled(), queryManagerConfig.getMemoryAdmissionHistorySize());
+        if (memoryAdmissionController.isEnabled()) {
+            memoryPoolManager.addChangeListener(GENERAL_POOL, memoryAdmissionController::updateClusterMemory);
+        }
         requireNonNull(builtinFactory, "builtinFactory is null");
         addConfigurationManagerFactory(builtinFactory);
     }
@@ -254,7 +267,7 @@ public final class InternalResourceGroupManager
                 group = parent.getOrCreateSubGroup(id.getLastSegment());
             }
             else {
-                RootInternalResourceGroup root = new RootInternalResourceGroup(id.getSegments().get(0), this::exportGroup, executor);
+                RootInternalResourceGroup root = new RootInternalResourceGroup(id.getSegments().get(0), this::exportGroup, executor, memoryAdmissionController);
                 group = root;
                 rootGroups.add(root);
             }
@@ -302,6 +315,13 @@ public final class InternalResourceGroupManager
         return queryExecution.getQueryType().map(Enum::toString);
     }
 
+    @Managed
+    @Nested
+    public MemoryAdmissionController getMemoryAdmissionController()
+    {
+        return memoryAdmissionController;
+    }
+
     @Managed
     public int getQueriesQueuedOnInternal()
     {
@@ -0,0 +1,177 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.resourceGroups;
+
+import com.facebook.presto.execution.QueryExecution;
+import com.facebook.presto.execution.QueryState;
+import com.facebook.presto.spi.QueryId;
+import com.facebook.presto.spi.memory.MemoryPoolInfo;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Delays the start of queries until their predicted peak memory is likely to fit in the free
+ * memory of the cluster's general pool. The prediction is the peak memory of earlier executions
+ * of the same query text, with literals removed. Queries without history are admitted.
+ * <p>
+ * Memory that admitted queries are predicted to use but have not reserved yet is subtracted
+ * from the free memory, so a burst of large queries is not started at once.
+ */
+@ThreadSafe
+public class MemoryAdmissionController
+{
+    private static final Pattern STRING_LITERAL = Pattern.compile("'([^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?([eE][+-]?\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final boolean enabled;
+    private final Cache<String, Long> peakMemoryHistory;
+
+    @GuardedBy("this")
+    private final Map<QueryId, Long> predictedPeakMemory = new HashMap<>();
+    @GuardedBy("this")
+    private final Map<QueryExecution, Long> admittedQueries = new HashMap<>();
+    @GuardedBy("this")
+    private long unreservedPredictedBytes;
+    @GuardedBy("this")
+    private long clusterFreeBytes = Long.MAX_VALUE;
+
+    public static MemoryAdmissionController disabled()
+    {
+        return new MemoryAdmissionController(false, 0);
+    }
+
+    public MemoryAdmissionController(boolean enabled, int historySize)
+    {
+        this.enabled = enabled;
+        this.peakMemoryHistory = CacheBuilder.newBuilder()
+                .maximumSize(historySize)
+                .build();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public synchronized void updateClusterMemory(MemoryPoolInfo generalPool)
+    {
+        requireNonNull(generalPool, "generalPool is null");
+        // a pool without memory means no worker has reported yet
+        clusterFreeBytes = generalPool.getMaxBytes() == 0 ? Long.MAX_VALUE : generalPool.getFreeBytes() + generalPool.getReservedRevocableBytes();
+    }
+
+    public synchronized void querySubmitted(QueryExecution query)
+    {
+        if (!enabled) {
+            return;
+        }
+        Long peakMemory = peakMemoryHistory.getIfPresent(normalizeQuery(query.getQueryInfo().getQuery()));
+        predictedPeakMemory.put(query.getQueryId(), peakMemory == null ? 0 : peakMemory);
+    }
+
+    public synchronized boolean canAdmit(QueryExecution query)
+    {
+        if (!enabled || admittedQueries.isEmpty()) {
+            // a query that does not fit in an idle cluster would otherwise never start
+            return true;
+        }
+        long predicted = predictedPeakMemory.getOrDefault(query.getQueryId(), 0L);
+        return predicted <= clusterFreeBytes - unreservedPredictedBytes;
+    }
+
+    public synchronized void queryStarted(QueryExecution query)
+    {
+        if (!enabled) {
+            return;
+        }
+        long predicted = predictedPeakMemory.getOrDefault(query.getQueryId(), 0L);
+        admittedQueries.put(query, predicted);
+        unreservedPredictedBytes += predicted;
+    }
+
+    public synchronized void queryFinished(QueryExecution query)
+    {
+        if (!enabled) {
+            return;
+        }
+        predictedPeakMemory.remove(query.getQueryId());
+        Long predicted = admittedQueries.remove(query);
+        if (predicted != null) {
+            unreservedPredictedBytes -= Math.max(0, predicted - query.getTotalMemoryReservation());
+        }
+        if (query.getState() == QueryState.FINISHED) {
+            recordPeakMemory(query.getQueryInfo().getQuery(), query.getQueryInfo().getQueryStats().getPeakMemoryReservation().toBytes());
+        }
+    }
+
+    /**
+     * Recomputes the memory admitted queries are predicted to reserve in addition to their current reservation.
+     */
+    public synchronized void refresh()
+    {
+        long unreserved = 0;
+        for (Map.Entry<QueryExecution, Long> entry : admittedQueries.entrySet()) {
+            unreserved += Math.max(0, entry.getValue() - entry.getKey().getTotalMemoryReservation());
+        }
+        unreservedPredictedBytes = unreserved;
+    }
+
+    @VisibleForTesting
+    void recordPeakMemory(String query, long peakMemoryBytes)
+    {
+        String key = normalizeQuery(query);
+        Long previous = peakMemoryHistory.getIfPresent(key);
+        // average with the previous prediction to smooth out differences between executions
+        peakMemoryHistory.put(key, previous == null ? peakMemoryBytes : (previous + peakMemoryBytes) / 2);
+    }
+
+    @VisibleForTesting
+    static String normalizeQuery(String query)
+    {
+        String normalized = STRING_LITERAL.matcher(query).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    @Managed
+    public synchronized long getUnreservedPredictedBytes()
+    {
+        return unreservedPredictedBytes;
+    }
+
+    @Managed
+    public synchronized long getClusterFreeBytes()
+    {
+        return clusterFreeBytes;
+    }
+
+    @Managed
+    public long getHistorySize()
+    {
+        return peakMemoryHistory.size();
+    }
+}
@@ -18,6 +18,7 @@ import com.facebook.presto.execution.LocationFactory;
 import com.facebook.presto.execution.QueryExecution;
 import com.facebook.presto.execution.QueryIdGenerator;
 import com.facebook.presto.execution.QueryManagerConfig;
+import com.facebook.presto.memory.LowMemoryKiller.QueryMemoryInfo;
 import com.facebook.presto.metadata.InternalNodeManager;
 import com.facebook.presto.server.ServerConfig;
 import com.facebook.presto.spi.Node;
@@ -59,12 +60,14 @@ import static com.facebook.presto.ExceededMemoryLimitException.exceededGlobalLim
 import static com.facebook.presto.SystemSessionProperties.RESOURCE_OVERCOMMIT;
 import static com.facebook.presto.SystemSessionProperties.getQueryMaxCpuTime;
 import static com.facebook.presto.SystemSessionProperties.getQueryMaxMemory;
+import static com.facebook.presto.SystemSessionProperties.getQueryPriority;
 import static com.facebook.presto.SystemSessionProperties.resourceOvercommit;
 import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
 import static com.facebook.presto.memory.LocalMemoryManager.RESERVED_POOL;
 import static com.facebook.presto.spi.NodeState.ACTIVE;
 import static com.facebook.presto.spi.NodeState.SHUTTING_DOWN;
 import static com.facebook.presto.spi.StandardErrorCode.CLUSTER_OUT_OF_MEMORY;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Sets.difference;
@@ -89,6 +92,10 @@ public class ClusterMemoryManager
     private final boolean enabled;
     private final boolean killOnOutOfMemory;
     private final Duration killOnOutOfMemoryDelay;
+    private final String lowMemoryKillerPolicy;
+    private final boolean lowMemoryKillerDryRun;
+    private final Map<String, LowMemoryKiller> lowMemoryKillers;
+    private final Map<String, LowMemoryKillerStats> lowMemoryKillerStats;
     private final String coordinatorId;
     private final AtomicLong memoryPoolAssignmentsVersion = new AtomicLong();
     private final AtomicLong clusterMemoryUsageBytes = new AtomicLong();
@@ -108,6 +115,9 @@ public class ClusterMemoryManager
     @GuardedBy("this")
     private QueryId lastKilledQuery;
 
+    @GuardedBy("this")
+    private final Map<String, Optional<QueryId>> lastDryRunChoices = new HashMap<>();
+
     @Inject
     public ClusterMemoryManager(
             @ForMemoryManager HttpClient httpClient,
@@ -119,7 +129,8 @@ public class ClusterMemoryManager
             QueryIdGenerator queryIdGenerator,
             ServerConfig serverConfig,
             MemoryManagerConfig config,
-            QueryManagerConfig queryManagerConfig)
+            QueryManagerConfig queryManagerConfig,
+            Map<String, LowMemoryKiller> lowMemoryKillers)
     {
         requireNonNull(config, "config is null");
         this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
@@ -134,6 +145,23 @@ public class ClusterMemoryManager
         this.enabled = serverConfig.isCoordinator();
         this.killOnOutOfMemoryDelay = config.getKillOnOutOfMemoryDelay();
         this.killOnOutOfMemory = config.isKillOnOutOfMemory();
+        this.lowMemoryKillers = ImmutableMap.copyOf(requireNonNull(lowMemoryKillers, "lowMemoryKillers is null"));
+        this.lowMemoryKillerPolicy = config.getLowMemoryKillerPolicy();
+        checkArgument(this.lowMemoryKillers.containsKey(lowMemoryKillerPolicy), "Unknown low memory killer policy: %s", lowMemoryKillerPolicy);
+        this.lowMemoryKillerDryRun = config.isLowMemoryKillerDryRun();
+
+        ImmutableMap.Builder<String, LowMemoryKillerStats> stats = ImmutableMap.builder();
+        for (String policy : this.lowMemoryKillers.keySet()) {
+            LowMemoryKillerStats policyStats = new LowMemoryKillerStats();
+            try {
+                exporter.export(getLowMemoryKillerStatsObjectName(policy), policyStats);
+            }
+            catch (JmxException e) {
+                log.error(e, "Error exporting low memory killer stats for policy %s", policy);
+            }
+            stats.put(policy, policyStats);
+        }
+        this.lowMemoryKillerStats = stats.build();
     }
 
     @Override
@@ -187,21 +215,10 @@ public class ClusterMemoryManager
             }
 
             if (shouldKillQuery && lastKilledQueryIsGone && !queryKilled) {
-                // Kill the biggest query in the general pool
-                QueryExecution biggestQuery = null;
-                long maxMemory = -1;
-                for (QueryExecution query : queries) {
-                    long bytesUsed = query.getTotalMemoryReservation();
-                    if (bytesUsed > maxMemory && query.getMemoryPool().getId().equals(GENERAL_POOL)) {
-                        biggestQuery = query;
-                        maxMemory = bytesUsed;
-                    }
-                }
-                if (biggestQuery != null) {
-                    biggestQuery.fail(new PrestoException(CLUSTER_OUT_OF_MEMORY, "The cluster is out of memory, and your query was killed. Please try again in a few minutes."));
-                    queriesKilledDueToOutOfMemory.incrementAndGet();
-                    lastKilledQuery = biggestQuery.getQueryId();
-                }
+                callOomKiller(queries);
+            }
+            else if (!outOfMemory) {
+                lastDryRunChoices.clear();
             }
         }
 
@@ -226,6 +243,60 @@ public class ClusterMemoryManager
         }
     }
 
+    private synchronized void callOomKiller(Iterable<QueryExecution> queries)
+    {
+        Map<QueryId, QueryExecution> queriesById = new HashMap<>();
+        ImmutableList.Builder<QueryMemoryInfo> queryMemoryInfos = ImmutableList.builder();
+        for (QueryExecution query : queries) {
+            queriesById.put(query.getQueryId(), query);
+            queryMemoryInfos.add(new QueryMemoryInfo(
+                    query.getQueryId(),
+                    query.getMemoryPool().getId(),
+                    query.getTotalMemoryReservation(),
+                    getQueryPriority(query.getSession())));
+        }
+        List<QueryMemoryInfo> runningQueries = queryMemoryInfos.build();
+        List<MemoryInfo> nodeMemoryInfos = getNodeMemoryInfos();
+
+        // Every policy is evaluated, so the statistics show what each of them would have done
+        Map<String, Optional<QueryId>> choices = new HashMap<>();
+        for (Map.Entry<String, LowMemoryKiller> entry : lowMemoryKillers.entrySet()) {
+            Optional<QueryId> choice = entry.getValue().chooseQueryToKill(runningQueries, nodeMemoryInfos);
+            LowMemoryKillerStats stats = lowMemoryKillerStats.get(entry.getKey());
+            if (choice.isPresent() && queriesById.containsKey(choice.get())) {
+                stats.recordSelection(queriesById.get(choice.get()).getTotalMemoryReservation());
+            }
+            else {
+                choice = Optional.empty();
+                stats.recordNoSelection();
+            }
+            choices.put(entry.getKey(), choice);
+        }
+
+        if (lowMemoryKillerDryRun) {
+            for (Map.Entry<String, Optional<QueryId>> entry : choices.entrySet()) {
+                if (!entry.getValue().equals(lastDryRunChoices.put(entry.getKey(), entry.getValue()))) {
+                    log.info("Low memory killer dry run: policy %s%s would kill %s",
+                            entry.getKey(),
+                            entry.getKey().equals(lowMemoryKillerPolicy) ? " (active)" : "",
+                            entry.getValue().map(QueryId::toString).orElse("no query"));
+                }
+            }
+            return;
+        }
+
+        Optional<QueryId> chosenQuery = choices.get(lowMemoryKillerPolicy);
+        if (chosenQuery.isPresent()) {
+            QueryExecution query = queriesById.get(chosenQuery.get());
+            long bytes = query.getTotalMemoryReservation();
+            log.info("Killing query %s using %s of memory, chosen by low memory killer policy %s", query.getQueryId(), succinctBytes(bytes), lowMemoryKillerPolicy);
+            query.fail(new PrestoException(CLUSTER_OUT_OF_MEMORY, "The cluster is out of memory, and your query was killed. Please try again in a few minutes."));
+            queriesKilledDueToOutOfMemory.incrementAndGet();
+            lowMemoryKillerStats.get(lowMemoryKillerPolicy).recordKill(bytes);
+            lastKilledQuery = query.getQueryId();
+        }
+    }
+
     @VisibleForTesting
     synchronized Map<MemoryPoolId, ClusterMemoryPool> getPools()
     {
@@ -328,11 +399,7 @@ public class ClusterMemoryManager
     private synchronized void updatePools(Map<MemoryPoolId, Integer> queryCounts)
     {
         // Update view of cluster memory and pools
-        List<MemoryInfo> nodeMemoryInfos = nodes.values().stream()
-                .map(RemoteNodeMemory::getInfo)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(toImmutableList());
+        List<MemoryInfo> nodeMemoryInfos = getNodeMemoryInfos();
 
         long totalClusterMemory = nodeMemoryInfos.stream()
                 .map(MemoryInfo::getTotalNodeMemory)
@@ -377,6 +444,15 @@ public class ClusterMemoryManager
         }
     }
 
+    private synchronized List<MemoryInfo> getNodeMemoryInfos()
+    {
+        return nodes.values().stream()
+                .map(RemoteNodeMemory::getInfo)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(toImmutableList());
+    }
+
     @PreDestroy
     public synchronized void destroy()
     {
@@ -385,6 +461,14 @@ public class ClusterMemoryManager
                 unexport(pool);
             }
             pools.clear();
+            for (String policy : lowMemoryKillerStats.keySet()) {
+                try {
+                    exporter.unexport(getLowMemoryKillerStatsObjectName(policy));
+                }
+                catch (JmxException e) {
+                    log.error(e, "Failed to unexport low memory killer stats for policy %s", policy);
+                }
+            }
         }
         finally {
             listenerExecutor.shutdownNow();
@@ -402,6 +486,23 @@ public class ClusterMemoryManager
         }
     }
 
+    private static String getLowMemoryKillerStatsObjectName(String policy)
+    {
+        return ObjectNames.builder(LowMemoryKillerStats.class, policy).build();
+    }
+
+    @Managed
+    public String getLowMemoryKillerPolicy()
+    {
+        return lowMemoryKillerPolicy;
+    }
+
+    @Managed
+    public boolean isLowMemoryKillerDryRun()
+    {
+        return lowMemoryKillerDryRun;
+    }
+
     @Managed
     public long getClusterMemoryUsageBytes()
     {
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import io.airlift.stats.CounterStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+@ThreadSafe
+public class LowMemoryKillerStats
+{
+    private final CounterStat invocations = new CounterStat();
+    private final CounterStat selections = new CounterStat();
+    private final CounterStat selectedBytes = new CounterStat();
+    private final CounterStat kills = new CounterStat();
+    private final CounterStat killedBytes = new CounterStat();
+
+    public void recordSelection(long bytes)
+    {
+        invocations.update(1);
+        selections.update(1);
+        selectedBytes.update(bytes);
+    }
+
+    public void recordNoSelection()
+    {
+        invocations.update(1);
+    }
+
+    public void recordKill(long bytes)
+    {
+        kills.update(1);
+        killedBytes.update(bytes);
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getInvocations()
+    {
+        return invocations;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getSelections()
+    {
+        return selections;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getSelectedBytes()
+    {
+        return selectedBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getKills()
+    {
+        return kills;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getKilledBytes()
+    {
+        return killedBytes;
+    }
+}
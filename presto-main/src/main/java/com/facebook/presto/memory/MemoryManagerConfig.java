@@ -28,9 +28,16 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 @DefunctConfig("experimental.cluster-memory-manager-enabled")
 public class MemoryManagerConfig
 {
+    public static final String TOTAL_RESERVATION = "total-reservation";
+    public static final String TOTAL_RESERVATION_ON_BLOCKED_NODES = "total-reservation-on-blocked-nodes";
+    public static final String REVOCABLE_FIRST = "revocable-first";
+    public static final String QUERY_PRIORITY = "query-priority";
+
     private DataSize maxQueryMemory = new DataSize(20, GIGABYTE);
     private boolean killOnOutOfMemory;
     private Duration killOnOutOfMemoryDelay = new Duration(5, MINUTES);
+    private String lowMemoryKillerPolicy = TOTAL_RESERVATION;
+    private boolean lowMemoryKillerDryRun;
 
     public boolean isKillOnOutOfMemory()
     {
@@ -60,6 +67,33 @@ public class MemoryManagerConfig
         return this;
     }
 
+    @NotNull
+    public String getLowMemoryKillerPolicy()
+    {
+        return lowMemoryKillerPolicy;
+    }
+
+    @Config("query.low-memory-killer.policy")
+    @ConfigDescription("Policy used to choose the query killed by the low memory killer")
+    public MemoryManagerConfig setLowMemoryKillerPolicy(String lowMemoryKillerPolicy)
+    {
+        this.lowMemoryKillerPolicy = lowMemoryKillerPolicy;
+        return this;
+    }
+
+    public boolean isLowMemoryKillerDryRun()
+    {
+        return lowMemoryKillerDryRun;
+    }
+
+    @Config("query.low-memory-killer.dry-run")
+    @ConfigDescription("Log the queries the low memory killer policies would kill instead of killing them")
+    public MemoryManagerConfig setLowMemoryKillerDryRun(boolean lowMemoryKillerDryRun)
+    {
+        this.lowMemoryKillerDryRun = lowMemoryKillerDryRun;
+        return this;
+    }
+
     @NotNull
     public DataSize getMaxQueryMemory()
     {
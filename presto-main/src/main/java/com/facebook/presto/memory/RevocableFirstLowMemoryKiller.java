@@ -0,0 +1,37 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.spi.QueryId;
+import com.facebook.presto.spi.memory.MemoryPoolInfo;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.memory.TotalReservationOnBlockedNodesLowMemoryKiller.chooseLargest;
+
+/**
+ * Kills the query with the largest non-revocable reservation on blocked nodes. Revocable
+ * memory is reclaimed by the workers through spilling, so a query that only holds revocable
+ * memory on the blocked nodes is never killed.
+ */
+public class RevocableFirstLowMemoryKiller
+        implements LowMemoryKiller
+{
+    @Override
+    public Optional<QueryId> chooseQueryToKill(List<QueryMemoryInfo> runningQueries, List<MemoryInfo> nodes)
+    {
+        return chooseLargest(runningQueries, nodes, MemoryPoolInfo::getQueryMemoryReservations, false);
+    }
+}
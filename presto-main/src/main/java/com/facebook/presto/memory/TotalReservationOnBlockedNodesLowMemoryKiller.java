@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.spi.QueryId;
+import com.facebook.presto.spi.memory.MemoryPoolInfo;
+import com.google.common.collect.ImmutableList;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
+
+/**
+ * Kills the query with the largest reservation, including revocable memory, on the nodes whose
+ * general pool is blocked.
+ * Memory held by a query on nodes that still have free memory does not contribute to the
+ * pressure, so it is not counted.
+ */
+public class TotalReservationOnBlockedNodesLowMemoryKiller
+        implements LowMemoryKiller
+{
+    @Override
+    public Optional<QueryId> chooseQueryToKill(List<QueryMemoryInfo> runningQueries, List<MemoryInfo> nodes)
+    {
+        return chooseLargest(runningQueries, nodes, MemoryPoolInfo::getQueryMemoryReservations, true);
+    }
+
+    static Optional<QueryId> chooseLargest(
+            List<QueryMemoryInfo> runningQueries,
+            List<MemoryInfo> nodes,
+            Function<MemoryPoolInfo, Map<QueryId, Long>> reservations,
+            boolean includeRevocable)
+    {
+        Map<QueryId, Long> memoryOnBlockedNodes = new HashMap<>();
+        for (MemoryPoolInfo poolInfo : getBlockedGeneralPools(nodes)) {
+            reservations.apply(poolInfo).forEach((queryId, bytes) -> memoryOnBlockedNodes.merge(queryId, bytes, Long::sum));
+            if (includeRevocable) {
+                poolInfo.getQueryMemoryRevocableReservations().forEach((queryId, bytes) -> memoryOnBlockedNodes.merge(queryId, bytes, Long::sum));
+            }
+        }
+
+        QueryId biggestQuery = null;
+        long maxMemory = 0;
+        for (QueryMemoryInfo query : runningQueries) {
+            if (!query.getMemoryPoolId().equals(GENERAL_POOL)) {
+                continue;
+            }
+            long bytes = memoryOnBlockedNodes.getOrDefault(query.getQueryId(), 0L);
+            if (bytes > maxMemory) {
+                biggestQuery = query.getQueryId();
+                maxMemory = bytes;
+            }
+        }
+        return Optional.ofNullable(biggestQuery);
+    }
+
+    private static List<MemoryPoolInfo> getBlockedGeneralPools(List<MemoryInfo> nodes)
+    {
+        ImmutableList.Builder<MemoryPoolInfo> blockedPools = ImmutableList.builder();
+        for (MemoryInfo node : nodes) {
+            MemoryPoolInfo poolInfo = node.getPools().get(GENERAL_POOL);
+            // allocations on this node are blocking until memory is freed or revoked
+            if (poolInfo != null && poolInfo.getFreeBytes() <= 0) {
+                blockedPools.add(poolInfo);
+            }
+        }
+        return blockedPools.build();
+    }
+}
@@ -27,7 +27,9 @@ import com.facebook.presto.spi.connector.ConnectorOutputMetadata;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.GrantInfo;
 import com.facebook.presto.spi.security.Privilege;
+import com.facebook.presto.spi.statistics.ComputedStatistics;
 import com.facebook.presto.spi.statistics.TableStatistics;
+import com.facebook.presto.spi.statistics.TableStatisticsMetadata;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.spi.type.TypeSignature;
@@ -80,6 +82,16 @@ public interface Metadata
      */
     TableStatistics getTableStatistics(Session session, TableHandle tableHandle, Constraint<ColumnHandle> constraint);
 
+    /**
+     * Describes the statistics to collect for the specified table when it is analyzed.
+     */
+    TableStatisticsMetadata getStatisticsCollectionMetadata(Session session, TableHandle tableHandle);
+
+    /**
+     * Stores the statistics computed for the specified table.
+     */
+    void finishStatisticsCollection(Session session, TableHandle tableHandle, Collection<ComputedStatistics> computedStatistics);
+
     /**
      * Get the names that match the specified table prefix (never null).
      */
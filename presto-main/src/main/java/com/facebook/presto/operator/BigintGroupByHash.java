@@ -64,6 +64,7 @@ public class BigintGroupByHash
 
     private int nextGroupId;
     private long hashCollisions;
+    private long rehashCount;
     private double expectedHashCollisions;
 
     public BigintGroupByHash(int hashChannel, boolean outputRawHash, int expectedSize)
@@ -102,6 +103,12 @@ public class BigintGroupByHash
         return hashCollisions;
     }
 
+    @Override
+    public long getRehashCount()
+    {
+        return rehashCount;
+    }
+
     @Override
     public double getExpectedHashCollisions()
     {
@@ -267,6 +274,7 @@ public class BigintGroupByHash
     private void rehash()
     {
         expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+        rehashCount++;
 
         long newCapacityLong = hashCapacity * 2L;
         if (newCapacityLong > Integer.MAX_VALUE) {
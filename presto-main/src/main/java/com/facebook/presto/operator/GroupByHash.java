@@ -58,6 +58,8 @@ public interface GroupByHash
 
     double getExpectedHashCollisions();
 
+    long getRehashCount();
+
     List<Type> getTypes();
 
     int getGroupCount();
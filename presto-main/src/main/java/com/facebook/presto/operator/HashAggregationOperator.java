@@ -474,6 +474,7 @@ public class HashAggregationOperator
         outputIterator = null;
         if (aggregationBuilder != null) {
             aggregationBuilder.recordHashCollisions(hashCollisionsCounter);
+            operatorContext.recordRehashes(aggregationBuilder.getRehashCount());
             aggregationBuilder.close();
             // aggregationBuilder.close() will release all memory reserved in memory accounting.
             // The reference must be set to null afterwards to avoid unaccounted memory.
@@ -0,0 +1,53 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Recognizes the rows of the hot keys of a skewed join by the raw hash of the key columns.
+ * Rows of other keys with a colliding hash are recognized as well.
+ */
+public class HotKeyFilter
+{
+    private final HashGenerator hashGenerator;
+    private final LongSet hashes;
+
+    public HotKeyFilter(HashGenerator hashGenerator, Set<Long> hashes)
+    {
+        this.hashGenerator = requireNonNull(hashGenerator, "hashGenerator is null");
+        this.hashes = new LongOpenHashSet(requireNonNull(hashes, "hashes is null"));
+    }
+
+    public boolean isHotKey(int position, Page page)
+    {
+        return hashes.contains(hashGenerator.hashPosition(position, page));
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("hashGenerator", hashGenerator)
+                .add("hashes", hashes)
+                .toString();
+    }
+}
@@ -30,8 +30,9 @@ public class JoinOperatorInfo
     private final long[] logHistogramProbes;
     private final long[] logHistogramOutput;
     private final long lookupSourcePositions;
+    private final long hotKeyProbePositions;
 
-    public static JoinOperatorInfo createJoinOperatorInfo(JoinType joinType, long[] logHistogramCounters, long lookupSourcePositions)
+    public static JoinOperatorInfo createJoinOperatorInfo(JoinType joinType, long[] logHistogramCounters, long lookupSourcePositions, long hotKeyProbePositions)
     {
         long[] logHistogramProbes = new long[HISTOGRAM_BUCKETS];
         long[] logHistogramOutput = new long[HISTOGRAM_BUCKETS];
@@ -39,7 +40,7 @@ public class JoinOperatorInfo
             logHistogramProbes[i] = logHistogramCounters[2 * i];
             logHistogramOutput[i] = logHistogramCounters[2 * i + 1];
         }
-        return new JoinOperatorInfo(joinType, logHistogramProbes, logHistogramOutput, lookupSourcePositions);
+        return new JoinOperatorInfo(joinType, logHistogramProbes, logHistogramOutput, lookupSourcePositions, hotKeyProbePositions);
     }
 
     @JsonCreator
@@ -47,7 +48,8 @@ public class JoinOperatorInfo
             @JsonProperty("joinType") JoinType joinType,
             @JsonProperty("logHistogramProbes") long[] logHistogramProbes,
             @JsonProperty("logHistogramOutput") long[] logHistogramOutput,
-            @JsonProperty("lookupSourcePositions") long lookupSourcePositions)
+            @JsonProperty("lookupSourcePositions") long lookupSourcePositions,
+            @JsonProperty("hotKeyProbePositions") long hotKeyProbePositions)
     {
         checkArgument(logHistogramProbes.length == HISTOGRAM_BUCKETS);
         checkArgument(logHistogramOutput.length == HISTOGRAM_BUCKETS);
@@ -55,6 +57,7 @@ public class JoinOperatorInfo
         this.logHistogramProbes = logHistogramProbes;
         this.logHistogramOutput = logHistogramOutput;
         this.lookupSourcePositions = lookupSourcePositions;
+        this.hotKeyProbePositions = hotKeyProbePositions;
     }
 
     @JsonProperty
@@ -82,6 +85,13 @@ public class JoinOperatorInfo
         return lookupSourcePositions;
     }
 
+    /** Number of probe positions with a hot key, whose matching build rows are replicated to all partitions */
+    @JsonProperty
+    public long getHotKeyProbePositions()
+    {
+        return hotKeyProbePositions;
+    }
+
     @Override
     public String toString()
     {
@@ -90,6 +100,7 @@ public class JoinOperatorInfo
                 .add("logHistogramProbes", logHistogramProbes)
                 .add("logHistogramOutput", logHistogramOutput)
                 .add("lookupSourcePositions", lookupSourcePositions)
+                .add("hotKeyProbePositions", hotKeyProbePositions)
                 .toString();
     }
 
@@ -103,7 +114,7 @@ public class JoinOperatorInfo
             logHistogramProbes[i] = this.logHistogramProbes[i] + other.logHistogramProbes[i];
             logHistogramOutput[i] = this.logHistogramOutput[i] + other.logHistogramOutput[i];
         }
-        return new JoinOperatorInfo(this.joinType, logHistogramProbes, logHistogramOutput, this.lookupSourcePositions + other.lookupSourcePositions);
+        return new JoinOperatorInfo(this.joinType, logHistogramProbes, logHistogramOutput, this.lookupSourcePositions + other.lookupSourcePositions, this.hotKeyProbePositions + other.hotKeyProbePositions);
     }
 
     @Override
@@ -38,6 +38,8 @@ public class JoinStatisticsCounter
     /** Estimated number of positions in on the build side */
     private long lookupSourcePositions = -1;
 
+    private long hotKeyProbePositions;
+
     public JoinStatisticsCounter(JoinType joinType)
     {
         this.joinType = requireNonNull(joinType, "joinType is null");
@@ -70,9 +72,14 @@ public class JoinStatisticsCounter
         logHistogramCounters[2 * bucket + 1] += numSourcePositions;
     }
 
+    public void recordHotKeyProbes(int hotKeyPositions)
+    {
+        hotKeyProbePositions += hotKeyPositions;
+    }
+
     @Override
     public JoinOperatorInfo get()
     {
-        return createJoinOperatorInfo(joinType, logHistogramCounters, lookupSourcePositions);
+        return createJoinOperatorInfo(joinType, logHistogramCounters, lookupSourcePositions, hotKeyProbePositions);
     }
 }
@@ -61,6 +61,7 @@ public class LookupJoinOperator
     private final HashGenerator hashGenerator;
     private final LookupSourceFactory lookupSourceFactory;
     private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final Optional<HotKeyFilter> hotKeyFilter;
 
     private final JoinStatisticsCounter statisticsCounter;
 
@@ -104,7 +105,8 @@ public class LookupJoinOperator
             Runnable onClose,
             OptionalInt lookupJoinsCount,
             HashGenerator hashGenerator,
-            PartitioningSpillerFactory partitioningSpillerFactory)
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            Optional<HotKeyFilter> hotKeyFilter)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.allTypes = ImmutableList.copyOf(requireNonNull(allTypes, "allTypes is null"));
@@ -120,6 +122,7 @@ public class LookupJoinOperator
         this.hashGenerator = requireNonNull(hashGenerator, "hashGenerator is null");
         this.lookupSourceFactory = requireNonNull(lookupSourceFactory, "lookupSourceFactory is null");
         this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.hotKeyFilter = requireNonNull(hotKeyFilter, "hotKeyFilter is null");
         this.lookupSourceProviderFuture = lookupSourceFactory.createLookupSourceProvider();
 
         this.statisticsCounter = new JoinStatisticsCounter(joinType);
@@ -199,6 +202,10 @@ public class LookupJoinOperator
 
         checkState(tryFetchLookupSourceProvider(), "Not ready to handle input yet");
 
+        if (hotKeyFilter.isPresent()) {
+            recordHotKeyProbes(page, hotKeyFilter.get());
+        }
+
         SpillInfoSnapshot spillInfoSnapshot = lookupSourceProvider.withLease(SpillInfoSnapshot::from);
         addInput(page, spillInfoSnapshot);
     }
@@ -222,6 +229,17 @@ public class LookupJoinOperator
         joinPosition = -1;
     }
 
+    private void recordHotKeyProbes(Page page, HotKeyFilter hotKeyFilter)
+    {
+        int hotKeyPositions = 0;
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (hotKeyFilter.isHotKey(position, page)) {
+                hotKeyPositions++;
+            }
+        }
+        statisticsCounter.recordHotKeyProbes(hotKeyPositions);
+    }
+
     private boolean tryFetchLookupSourceProvider()
     {
         if (lookupSourceProvider == null) {
@@ -24,6 +24,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 
 import static com.facebook.presto.operator.LookupJoinOperators.JoinType.INNER;
 import static com.facebook.presto.operator.LookupJoinOperators.JoinType.PROBE_OUTER;
@@ -52,6 +53,7 @@ public class LookupJoinOperatorFactory
     private final OptionalInt totalOperatorsCount;
     private final HashGenerator probeHashGenerator;
     private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final Optional<HotKeyFilter> hotKeyFilter;
     private boolean closed;
 
     public LookupJoinOperatorFactory(int operatorId,
@@ -64,7 +66,8 @@ public class LookupJoinOperatorFactory
             OptionalInt totalOperatorsCount,
             List<Integer> probeJoinChannels,
             OptionalInt probeHashChannel,
-            PartitioningSpillerFactory partitioningSpillerFactory)
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            Set<Long> hotKeyHashes)
     {
         this.operatorId = operatorId;
         this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -116,6 +119,9 @@ public class LookupJoinOperatorFactory
         }
 
         this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+
+        requireNonNull(hotKeyHashes, "hotKeyHashes is null");
+        this.hotKeyFilter = hotKeyHashes.isEmpty() ? Optional.empty() : Optional.of(new HotKeyFilter(probeHashGenerator, hotKeyHashes));
     }
 
     private LookupJoinOperatorFactory(LookupJoinOperatorFactory other)
@@ -136,6 +142,7 @@ public class LookupJoinOperatorFactory
         totalOperatorsCount = other.totalOperatorsCount;
         probeHashGenerator = other.probeHashGenerator;
         partitioningSpillerFactory = other.partitioningSpillerFactory;
+        hotKeyFilter = other.hotKeyFilter;
 
         probeReferenceCount.retain();
     }
@@ -173,7 +180,8 @@ public class LookupJoinOperatorFactory
                 probeReferenceCount::release,
                 totalOperatorsCount,
                 probeHashGenerator,
-                partitioningSpillerFactory);
+                partitioningSpillerFactory,
+                hotKeyFilter);
     }
 
     @Override
@@ -15,12 +15,15 @@ package com.facebook.presto.operator;
 
 import com.facebook.presto.Session;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.gen.JoinCompiler;
+import com.google.common.collect.AbstractIterator;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,6 +50,52 @@ public class MarkDistinctHash
         return groupByHash.getEstimatedSize();
     }
 
+    public long getRehashCount()
+    {
+        return groupByHash.getRehashCount();
+    }
+
+    public boolean isEmpty()
+    {
+        return groupByHash.getGroupCount() == 0;
+    }
+
+    /**
+     * Returns the types of the pages of {@link #getDistinctValues()}: the types of the distinct
+     * channels, followed by the hash if it is precomputed.
+     */
+    public List<Type> getDistinctValueTypes()
+    {
+        return groupByHash.getTypes();
+    }
+
+    /**
+     * Returns the pages of the distinct values marked so far.
+     */
+    public Iterator<Page> getDistinctValues()
+    {
+        PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+        return new AbstractIterator<Page>()
+        {
+            private int groupId;
+
+            @Override
+            protected Page computeNext()
+            {
+                if (groupId == groupByHash.getGroupCount()) {
+                    return endOfData();
+                }
+                pageBuilder.reset();
+                while (!pageBuilder.isFull() && groupId < groupByHash.getGroupCount()) {
+                    groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+                    pageBuilder.declarePosition();
+                    groupId++;
+                }
+                return pageBuilder.build();
+            }
+        };
+    }
+
     public Block markDistinctRows(Page page)
     {
         GroupByIdBlock ids = groupByHash.getGroupIds(page);
@@ -13,26 +13,49 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.presto.operator.exchange.LocalPartitionGenerator;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.PartitioningSpiller;
+import com.facebook.presto.spiller.PartitioningSpillerFactory;
 import com.facebook.presto.sql.gen.JoinCompiler;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
+import static com.facebook.presto.operator.Operators.getDone;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.IntStream.range;
 
+/**
+ * Adds a channel that marks the first row of every distinct combination of values of the distinct channels.
+ * <p>
+ * When spilling is enabled, the hash of the distinct values uses revocable memory. When the memory is revoked,
+ * the distinct values seen so far are spilled, partitioned by their hash, and so is all later input. Once the
+ * input is finished, the partitions are processed one at a time: the spilled distinct values of the partition
+ * are loaded into a new hash, and the spilled rows of the partition are marked with it.
+ */
 public class MarkDistinctOperator
         implements Operator
 {
+    private static final int SPILL_PARTITION_COUNT = 16;
+
     public static class MarkDistinctOperatorFactory
             implements OperatorFactory
     {
@@ -41,6 +64,9 @@ public class MarkDistinctOperator
         private final Optional<Integer> hashChannel;
         private final List<Integer> markDistinctChannels;
         private final List<Type> types;
+        private final int expectedDistinctValues;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
         private final JoinCompiler joinCompiler;
         private boolean closed;
 
@@ -52,11 +78,41 @@ public class MarkDistinctOperator
                 Optional<Integer> hashChannel,
                 JoinCompiler joinCompiler)
         {
+            this(operatorId, planNodeId, sourceTypes, markDistinctChannels, hashChannel, 10_000, joinCompiler);
+        }
+
+        public MarkDistinctOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                Collection<Integer> markDistinctChannels,
+                Optional<Integer> hashChannel,
+                int expectedDistinctValues,
+                JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, markDistinctChannels, hashChannel, expectedDistinctValues, false, unsupportedPartitioningSpillerFactory(), joinCompiler);
+        }
+
+        public MarkDistinctOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                Collection<Integer> markDistinctChannels,
+                Optional<Integer> hashChannel,
+                int expectedDistinctValues,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory,
+                JoinCompiler joinCompiler)
+        {
+            checkArgument(expectedDistinctValues > 0, "expectedDistinctValues must be positive");
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
             this.markDistinctChannels = ImmutableList.copyOf(requireNonNull(markDistinctChannels, "markDistinctChannels is null"));
             checkArgument(!markDistinctChannels.isEmpty(), "markDistinctChannels is empty");
             this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+            this.expectedDistinctValues = expectedDistinctValues;
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
             this.types = ImmutableList.<Type>builder()
                     .addAll(sourceTypes)
@@ -75,7 +131,7 @@ public class MarkDistinctOperator
         {
             checkState(!closed, "Factory is already closed");
             OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MarkDistinctOperator.class.getSimpleName());
-            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler);
+            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, expectedDistinctValues, spillEnabled, partitioningSpillerFactory, joinCompiler);
         }
 
         @Override
@@ -87,30 +143,67 @@ public class MarkDistinctOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, joinCompiler);
+            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, expectedDistinctValues, spillEnabled, partitioningSpillerFactory, joinCompiler);
         }
     }
 
     private final OperatorContext operatorContext;
     private final List<Type> types;
-    private final MarkDistinctHash markDistinctHash;
+    private final List<Type> distinctTypes;
+    private final int[] markDistinctChannels;
+    private final int expectedDistinctValues;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final JoinCompiler joinCompiler;
+
+    private MarkDistinctHash markDistinctHash;
+
+    private Optional<PartitioningSpiller> distinctValuesSpiller = Optional.empty();
+    private Optional<PartitioningSpiller> inputSpiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+
+    // the partition being unspilled, the hash of its distinct values and its remaining input
+    private int unspilledPartition = -1;
+    private MarkDistinctHash partitionHash;
+    private Iterator<Page> unspilledInput = emptyIterator();
 
     private Page outputPage;
     private boolean finishing;
+    private boolean finished;
+    private long reportedRehashCount;
+
+    public MarkDistinctOperator(OperatorContext operatorContext, List<Type> types, List<Integer> markDistinctChannels, Optional<Integer> hashChannel, int expectedDistinctValues, JoinCompiler joinCompiler)
+    {
+        this(operatorContext, types, markDistinctChannels, hashChannel, expectedDistinctValues, false, unsupportedPartitioningSpillerFactory(), joinCompiler);
+    }
 
-    public MarkDistinctOperator(OperatorContext operatorContext, List<Type> types, List<Integer> markDistinctChannels, Optional<Integer> hashChannel, JoinCompiler joinCompiler)
+    public MarkDistinctOperator(
+            OperatorContext operatorContext,
+            List<Type> types,
+            List<Integer> markDistinctChannels,
+            Optional<Integer> hashChannel,
+            int expectedDistinctValues,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            JoinCompiler joinCompiler)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
 
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         requireNonNull(hashChannel, "hashChannel is null");
         requireNonNull(markDistinctChannels, "markDistinctChannels is null");
+        this.markDistinctChannels = Ints.toArray(markDistinctChannels);
+        this.expectedDistinctValues = expectedDistinctValues;
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
 
         ImmutableList.Builder<Type> distinctTypes = ImmutableList.builder();
         for (int channel : markDistinctChannels) {
             distinctTypes.add(types.get(channel));
         }
-        this.markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), distinctTypes.build(), Ints.toArray(markDistinctChannels), hashChannel, joinCompiler);
+        this.distinctTypes = distinctTypes.build();
+        this.markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), this.distinctTypes, this.markDistinctChannels, hashChannel, expectedDistinctValues, joinCompiler);
     }
 
     @Override
@@ -128,23 +221,37 @@ public class MarkDistinctOperator
     @Override
     public void finish()
     {
+        if (!finishing && markDistinctHash != null) {
+            // the rows were marked as they were added, so the hash is not needed anymore
+            markDistinctHash = null;
+            updateMemoryReservation();
+        }
         finishing = true;
     }
 
     @Override
     public boolean isFinished()
     {
-        return finishing && outputPage == null;
+        if (!finishing || outputPage != null) {
+            return false;
+        }
+        return !inputSpiller.isPresent() || finished;
     }
 
     @Override
-    public boolean needsInput()
+    public ListenableFuture<?> isBlocked()
     {
-        operatorContext.setMemoryReservation(markDistinctHash.getEstimatedSize());
-        if (finishing || outputPage != null) {
-            return false;
+        if (!spillInProgress.isDone()) {
+            return spillInProgress;
         }
-        return true;
+        return NOT_BLOCKED;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        updateMemoryReservation();
+        return !finishing && outputPage == null && spillInProgress.isDone();
     }
 
     @Override
@@ -153,10 +260,140 @@ public class MarkDistinctOperator
         requireNonNull(page, "page is null");
         checkState(!finishing, "Operator is finishing");
         checkState(outputPage == null, "Operator still has pending output");
-        operatorContext.setMemoryReservation(markDistinctHash.getEstimatedSize());
+        checkSpillSucceeded();
+
+        if (inputSpiller.isPresent()) {
+            // the distinct values seen so far were spilled, so the rows are marked after the input is finished
+            spillInProgress = inputSpiller.get().partitionAndSpill(page, partition -> true).getSpillingFuture();
+            return;
+        }
+
+        outputPage = markDistinctRows(markDistinctHash, page);
+        updateMemoryReservation();
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (outputPage != null) {
+            Page result = outputPage;
+            outputPage = null;
+            return result;
+        }
+        if (!finishing || finished || !inputSpiller.isPresent() || !spillInProgress.isDone()) {
+            return null;
+        }
+        checkSpillSucceeded();
+        return unspillNextPage();
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        if (markDistinctHash == null || markDistinctHash.isEmpty()) {
+            return NOT_BLOCKED;
+        }
+        checkSpillSucceeded();
+
+        PartitioningSpiller spiller = partitioningSpillerFactory.create(
+                markDistinctHash.getDistinctValueTypes(),
+                new LocalPartitionGenerator(new InterpretedHashGenerator(distinctTypes, range(0, distinctTypes.size()).toArray()), SPILL_PARTITION_COUNT),
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.getSystemMemoryContext().newAggregatedMemoryContext());
+        distinctValuesSpiller = Optional.of(spiller);
+        inputSpiller = Optional.of(partitioningSpillerFactory.create(
+                types.subList(0, types.size() - 1),
+                new LocalPartitionGenerator(new InterpretedHashGenerator(distinctTypes, markDistinctChannels), SPILL_PARTITION_COUNT),
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.getSystemMemoryContext().newAggregatedMemoryContext()));
+
+        spillInProgress = spillPages(spiller, markDistinctHash.getDistinctValues());
+        return spillInProgress;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        if (inputSpiller.isPresent()) {
+            markDistinctHash = null;
+        }
+        updateMemoryReservation();
+    }
+
+    @Override
+    public void close()
+            throws Exception
+    {
+        try (Closer closer = Closer.create()) {
+            distinctValuesSpiller.ifPresent(closer::register);
+            inputSpiller.ifPresent(closer::register);
+        }
+    }
 
-        Block markerBlock = markDistinctHash.markDistinctRows(page);
+    private static ListenableFuture<?> spillPages(PartitioningSpiller spiller, Iterator<Page> pages)
+    {
+        while (pages.hasNext()) {
+            ListenableFuture<?> future = spiller.partitionAndSpill(pages.next(), partition -> true).getSpillingFuture();
+            if (!future.isDone()) {
+                // the spiller does not allow a new spill before the previous one is finished
+                return Futures.transformAsync(future, ignored -> spillPages(spiller, pages), directExecutor());
+            }
+            getDone(future);
+        }
+        return immediateFuture(null);
+    }
+
+    private Page unspillNextPage()
+    {
+        while (!unspilledInput.hasNext()) {
+            if (unspilledPartition == SPILL_PARTITION_COUNT - 1) {
+                distinctValuesSpiller.get().verifyAllPartitionsRead();
+                inputSpiller.get().verifyAllPartitionsRead();
+                partitionHash = null;
+                finished = true;
+                updateMemoryReservation();
+                return null;
+            }
+            unspilledPartition++;
+
+            // the distinct values are spilled without the precomputed hash of the input, which is not
+            // guaranteed to be the hash the distinct values were spilled with
+            partitionHash = new MarkDistinctHash(
+                    operatorContext.getSession(),
+                    distinctTypes,
+                    range(0, distinctTypes.size()).toArray(),
+                    Optional.empty(),
+                    expectedDistinctValues,
+                    joinCompiler);
+            Iterator<Page> distinctValues = distinctValuesSpiller.get().getSpilledPages(unspilledPartition);
+            while (distinctValues.hasNext()) {
+                partitionHash.markDistinctRows(distinctValues.next());
+                updateMemoryReservation();
+            }
+            unspilledInput = inputSpiller.get().getSpilledPages(unspilledPartition);
+        }
+
+        Page page = unspilledInput.next();
+        Block[] distinctBlocks = new Block[markDistinctChannels.length];
+        for (int i = 0; i < markDistinctChannels.length; i++) {
+            distinctBlocks[i] = page.getBlock(markDistinctChannels[i]);
+        }
+        Block markerBlock = partitionHash.markDistinctRows(new Page(page.getPositionCount(), distinctBlocks));
+        updateMemoryReservation();
+        return appendMarkerBlock(page, markerBlock);
+    }
+
+    private Page markDistinctRows(MarkDistinctHash hash, Page page)
+    {
+        Block markerBlock = hash.markDistinctRows(page);
+        long rehashCount = hash.getRehashCount();
+        operatorContext.recordRehashes(rehashCount - reportedRehashCount);
+        reportedRehashCount = rehashCount;
+        return appendMarkerBlock(page, markerBlock);
+    }
 
+    private static Page appendMarkerBlock(Page page, Block markerBlock)
+    {
         // add the new boolean column to the page
         Block[] sourceBlocks = page.getBlocks();
         Block[] outputBlocks = new Block[sourceBlocks.length + 1]; // +1 for the single boolean output channel
@@ -164,14 +401,27 @@ public class MarkDistinctOperator
         System.arraycopy(sourceBlocks, 0, outputBlocks, 0, sourceBlocks.length);
         outputBlocks[sourceBlocks.length] = markerBlock;
 
-        outputPage = new Page(outputBlocks);
+        return new Page(outputBlocks);
     }
 
-    @Override
-    public Page getOutput()
+    private void updateMemoryReservation()
     {
-        Page result = outputPage;
-        outputPage = null;
-        return result;
+        long hashSize = markDistinctHash == null ? 0 : markDistinctHash.getEstimatedSize();
+        long partitionHashSize = partitionHash == null ? 0 : partitionHash.getEstimatedSize();
+        if (spillEnabled) {
+            operatorContext.setRevocableMemoryReservation(hashSize);
+            operatorContext.setMemoryReservation(partitionHashSize);
+        }
+        else {
+            operatorContext.setMemoryReservation(hashSize);
+        }
+    }
+
+    private void checkSpillSucceeded()
+    {
+        if (spillInProgress.isDone()) {
+            // propagate the failure of the previous spill, if any
+            getDone(spillInProgress);
+        }
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.execution.TaskId;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.airlift.units.DataSize;
+import org.joda.time.DateTime;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A request to revoke memory from the operators of a task, issued by the MemoryRevokingScheduler.
+ */
+@Immutable
+public class MemoryRevocation
+{
+    // revocations kept in the task, stage and query statistics; older ones are dropped
+    public static final int MAX_MEMORY_REVOCATIONS = 100;
+
+    private final TaskId taskId;
+    private final DateTime time;
+    private final DataSize revokedDataSize;
+    private final int operators;
+
+    @JsonCreator
+    public MemoryRevocation(
+            @JsonProperty("taskId") TaskId taskId,
+            @JsonProperty("time") DateTime time,
+            @JsonProperty("revokedDataSize") DataSize revokedDataSize,
+            @JsonProperty("operators") int operators)
+    {
+        this.taskId = requireNonNull(taskId, "taskId is null");
+        this.time = requireNonNull(time, "time is null");
+        this.revokedDataSize = requireNonNull(revokedDataSize, "revokedDataSize is null");
+        checkArgument(operators > 0, "operators must be positive");
+        this.operators = operators;
+    }
+
+    @JsonProperty
+    public TaskId getTaskId()
+    {
+        return taskId;
+    }
+
+    @JsonProperty
+    public DateTime getTime()
+    {
+        return time;
+    }
+
+    @JsonProperty
+    public DataSize getRevokedDataSize()
+    {
+        return revokedDataSize;
+    }
+
+    @JsonProperty
+    public int getOperators()
+    {
+        return operators;
+    }
+
+    /**
+     * Merges revocation timelines into a single timeline ordered by time, keeping
+     * the latest {@link #MAX_MEMORY_REVOCATIONS} revocations.
+     */
+    public static List<MemoryRevocation> mergeMemoryRevocations(List<List<MemoryRevocation>> timelines)
+    {
+        List<MemoryRevocation> revocations = timelines.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(MemoryRevocation::getTime))
+                .collect(toImmutableList());
+        return revocations.subList(Math.max(0, revocations.size() - MAX_MEMORY_REVOCATIONS), revocations.size());
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("taskId", taskId)
+                .add("time", time)
+                .add("revokedDataSize", revokedDataSize)
+                .add("operators", operators)
+                .toString();
+    }
+}
@@ -78,6 +78,7 @@ public class MultiChannelGroupByHash
     private int nextGroupId;
     private DictionaryLookBack dictionaryLookBack;
     private long hashCollisions;
+    private long rehashCount;
     private double expectedHashCollisions;
 
     public MultiChannelGroupByHash(
@@ -168,6 +169,12 @@ public class MultiChannelGroupByHash
         return hashCollisions;
     }
 
+    @Override
+    public long getRehashCount()
+    {
+        return rehashCount;
+    }
+
     @Override
     public double getExpectedHashCollisions()
     {
@@ -340,6 +347,7 @@ public class MultiChannelGroupByHash
     private void rehash()
     {
         expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+        rehashCount++;
 
         long newCapacityLong = hashCapacity * 2L;
         if (newCapacityLong > Integer.MAX_VALUE) {
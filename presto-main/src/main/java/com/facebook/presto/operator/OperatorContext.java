@@ -88,6 +88,8 @@ public class OperatorContext
     private final AtomicLong finishUserNanos = new AtomicLong();
 
     private final AtomicLong memoryReservation = new AtomicLong();
+    private final AtomicLong peakMemoryReservation = new AtomicLong();
+    private final AtomicLong rehashCount = new AtomicLong();
     /*
      * For reviewer: the revocable memory is a state accessed by multiple threads (the thread executing
      * operator and memory revoking thread) and it requires synchronization. Since this class is currently
@@ -110,6 +112,9 @@ public class OperatorContext
     @GuardedBy("this")
     private SettableFuture<?> memoryRevokingRequestedFuture = SettableFuture.create();
 
+    @GuardedBy("this")
+    private int memoryRevokingRequests;
+
     public OperatorContext(int operatorId, PlanNodeId planNodeId, String operatorType, DriverContext driverContext, Executor executor)
     {
         checkArgument(operatorId >= 0, "operatorId is negative");
@@ -246,7 +251,7 @@ public class OperatorContext
     public void reserveMemory(long bytes)
     {
         updateMemoryFuture(driverContext.reserveMemory(bytes), memoryFuture);
-        memoryReservation.addAndGet(bytes);
+        peakMemoryReservation.accumulateAndGet(memoryReservation.addAndGet(bytes), Math::max);
     }
 
     public synchronized void reserveRevocableMemory(long bytes)
@@ -389,7 +394,7 @@ public class OperatorContext
                 return false;
             }
 
-            memoryReservation.addAndGet(delta);
+            peakMemoryReservation.accumulateAndGet(memoryReservation.addAndGet(delta), Math::max);
         }
         else {
             freeMemory(-delta);
@@ -410,11 +415,20 @@ public class OperatorContext
         boolean alreadyRequested = isMemoryRevokingRequested();
         if (!alreadyRequested && revocableMemoryReservation > 0) {
             memoryRevokingRequestedFuture.set(null);
+            memoryRevokingRequests++;
             return revocableMemoryReservation;
         }
         return 0;
     }
 
+    /**
+     * Returns the number of times memory revoking was requested for this operator.
+     */
+    public synchronized int getMemoryRevokingRequests()
+    {
+        return memoryRevokingRequests;
+    }
+
     public synchronized void resetMemoryRevokingRequested()
     {
         SettableFuture<?> currentFuture = memoryRevokingRequestedFuture;
@@ -455,6 +469,16 @@ public class OperatorContext
         return outputPositions;
     }
 
+    /**
+     * Records how many times the hash tables of the operator had to be grown after they were
+     * created, which shows whether the expected size they were created with was too small.
+     */
+    public void recordRehashes(long count)
+    {
+        checkArgument(count >= 0, "count is negative");
+        rehashCount.addAndGet(count);
+    }
+
     @Override
     public String toString()
     {
@@ -501,6 +525,8 @@ public class OperatorContext
                 succinctBytes(memoryReservation.get()),
                 succinctBytes(getReservedRevocableBytes()),
                 succinctBytes(systemMemoryContext.getReservedBytes()),
+                succinctBytes(peakMemoryReservation.get()),
+                rehashCount.get(),
                 memoryFuture.get().isDone() ? Optional.empty() : Optional.of(WAITING_FOR_MEMORY),
                 info);
     }
@@ -66,6 +66,8 @@ public class OperatorStats
     private final DataSize memoryReservation;
     private final DataSize revocableMemoryReservation;
     private final DataSize systemMemoryReservation;
+    private final DataSize peakMemoryReservation;
+    private final long rehashCount;
     private final Optional<BlockedReason> blockedReason;
 
     private final OperatorInfo info;
@@ -104,6 +106,8 @@ public class OperatorStats
             @JsonProperty("memoryReservation") DataSize memoryReservation,
             @JsonProperty("revocableMemoryReservation") DataSize revocableMemoryReservation,
             @JsonProperty("systemMemoryReservation") DataSize systemMemoryReservation,
+            @JsonProperty("peakMemoryReservation") DataSize peakMemoryReservation,
+            @JsonProperty("rehashCount") long rehashCount,
             @JsonProperty("blockedReason") Optional<BlockedReason> blockedReason,
 
             @JsonProperty("info") OperatorInfo info)
@@ -144,6 +148,9 @@ public class OperatorStats
         this.memoryReservation = requireNonNull(memoryReservation, "memoryReservation is null");
         this.revocableMemoryReservation = requireNonNull(revocableMemoryReservation, "revocableMemoryReservation is null");
         this.systemMemoryReservation = requireNonNull(systemMemoryReservation, "systemMemoryReservation is null");
+        this.peakMemoryReservation = requireNonNull(peakMemoryReservation, "peakMemoryReservation is null");
+        checkArgument(rehashCount >= 0, "rehashCount is negative");
+        this.rehashCount = rehashCount;
         this.blockedReason = blockedReason;
 
         this.info = info;
@@ -305,6 +312,18 @@ public class OperatorStats
         return systemMemoryReservation;
     }
 
+    @JsonProperty
+    public DataSize getPeakMemoryReservation()
+    {
+        return peakMemoryReservation;
+    }
+
+    @JsonProperty
+    public long getRehashCount()
+    {
+        return rehashCount;
+    }
+
     @JsonProperty
     public Optional<BlockedReason> getBlockedReason()
     {
@@ -352,6 +371,8 @@ public class OperatorStats
         long memoryReservation = this.memoryReservation.toBytes();
         long revocableMemoryReservation = this.revocableMemoryReservation.toBytes();
         long systemMemoryReservation = this.systemMemoryReservation.toBytes();
+        long peakMemoryReservation = this.peakMemoryReservation.toBytes();
+        long rehashCount = this.rehashCount;
         Optional<BlockedReason> blockedReason = this.blockedReason;
 
         Mergeable<OperatorInfo> base = getMergeableInfoOrNull(info);
@@ -385,6 +406,9 @@ public class OperatorStats
             memoryReservation += operator.getMemoryReservation().toBytes();
             revocableMemoryReservation += operator.getRevocableMemoryReservation().toBytes();
             systemMemoryReservation += operator.getSystemMemoryReservation().toBytes();
+            // operators of different drivers may reach their peak at the same time
+            peakMemoryReservation += operator.getPeakMemoryReservation().toBytes();
+            rehashCount += operator.getRehashCount();
             if (operator.getBlockedReason().isPresent()) {
                 blockedReason = operator.getBlockedReason();
             }
@@ -428,6 +452,8 @@ public class OperatorStats
                 succinctBytes(memoryReservation),
                 succinctBytes(revocableMemoryReservation),
                 succinctBytes(systemMemoryReservation),
+                succinctBytes(peakMemoryReservation),
+                rehashCount,
                 blockedReason,
 
                 (OperatorInfo) base);
@@ -478,6 +504,8 @@ public class OperatorStats
                 memoryReservation,
                 revocableMemoryReservation,
                 systemMemoryReservation,
+                peakMemoryReservation,
+                rehashCount,
                 blockedReason,
                 (info != null && info.isFinal()) ? info : null);
     }
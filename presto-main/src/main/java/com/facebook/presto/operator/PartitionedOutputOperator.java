@@ -37,6 +37,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
@@ -59,6 +60,8 @@ public class PartitionedOutputOperator
         private final OutputBuffer outputBuffer;
         private final boolean replicatesAnyRow;
         private final OptionalInt nullChannel;
+        private final Optional<HotKeyFilter> hotKeyFilter;
+        private final boolean replicateHotKeys;
         private final DataSize maxMemory;
 
         public PartitionedOutputFactory(
@@ -67,6 +70,8 @@ public class PartitionedOutputOperator
                 List<Optional<NullableValue>> partitionConstants,
                 boolean replicatesAnyRow,
                 OptionalInt nullChannel,
+                Optional<HotKeyFilter> hotKeyFilter,
+                boolean replicateHotKeys,
                 OutputBuffer outputBuffer,
                 DataSize maxMemory)
         {
@@ -75,6 +80,8 @@ public class PartitionedOutputOperator
             this.partitionConstants = requireNonNull(partitionConstants, "partitionConstants is null");
             this.replicatesAnyRow = replicatesAnyRow;
             this.nullChannel = requireNonNull(nullChannel, "nullChannel is null");
+            this.hotKeyFilter = requireNonNull(hotKeyFilter, "hotKeyFilter is null");
+            this.replicateHotKeys = replicateHotKeys;
             this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
             this.maxMemory = requireNonNull(maxMemory, "maxMemory is null");
         }
@@ -97,6 +104,8 @@ public class PartitionedOutputOperator
                     partitionConstants,
                     replicatesAnyRow,
                     nullChannel,
+                    hotKeyFilter,
+                    replicateHotKeys,
                     outputBuffer,
                     serdeFactory,
                     maxMemory);
@@ -115,6 +124,8 @@ public class PartitionedOutputOperator
         private final List<Optional<NullableValue>> partitionConstants;
         private final boolean replicatesAnyRow;
         private final OptionalInt nullChannel;
+        private final Optional<HotKeyFilter> hotKeyFilter;
+        private final boolean replicateHotKeys;
         private final OutputBuffer outputBuffer;
         private final PagesSerdeFactory serdeFactory;
         private final DataSize maxMemory;
@@ -129,6 +140,8 @@ public class PartitionedOutputOperator
                 List<Optional<NullableValue>> partitionConstants,
                 boolean replicatesAnyRow,
                 OptionalInt nullChannel,
+                Optional<HotKeyFilter> hotKeyFilter,
+                boolean replicateHotKeys,
                 OutputBuffer outputBuffer,
                 PagesSerdeFactory serdeFactory,
                 DataSize maxMemory)
@@ -142,6 +155,8 @@ public class PartitionedOutputOperator
             this.partitionConstants = requireNonNull(partitionConstants, "partitionConstants is null");
             this.replicatesAnyRow = replicatesAnyRow;
             this.nullChannel = requireNonNull(nullChannel, "nullChannel is null");
+            this.hotKeyFilter = requireNonNull(hotKeyFilter, "hotKeyFilter is null");
+            this.replicateHotKeys = replicateHotKeys;
             this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
             this.serdeFactory = requireNonNull(serdeFactory, "serdeFactory is null");
             this.maxMemory = requireNonNull(maxMemory, "maxMemory is null");
@@ -166,6 +181,8 @@ public class PartitionedOutputOperator
                     partitionConstants,
                     replicatesAnyRow,
                     nullChannel,
+                    hotKeyFilter,
+                    replicateHotKeys,
                     outputBuffer,
                     serdeFactory,
                     maxMemory);
@@ -189,6 +206,8 @@ public class PartitionedOutputOperator
                     partitionConstants,
                     replicatesAnyRow,
                     nullChannel,
+                    hotKeyFilter,
+                    replicateHotKeys,
                     outputBuffer,
                     serdeFactory,
                     maxMemory);
@@ -210,6 +229,8 @@ public class PartitionedOutputOperator
             List<Optional<NullableValue>> partitionConstants,
             boolean replicatesAnyRow,
             OptionalInt nullChannel,
+            Optional<HotKeyFilter> hotKeyFilter,
+            boolean replicateHotKeys,
             OutputBuffer outputBuffer,
             PagesSerdeFactory serdeFactory,
             DataSize maxMemory)
@@ -222,6 +243,8 @@ public class PartitionedOutputOperator
                 partitionConstants,
                 replicatesAnyRow,
                 nullChannel,
+                hotKeyFilter,
+                replicateHotKeys,
                 outputBuffer,
                 serdeFactory,
                 sourceTypes,
@@ -312,9 +335,13 @@ public class PartitionedOutputOperator
         private final List<PageBuilder> pageBuilders;
         private final boolean replicatesAnyRow;
         private final OptionalInt nullChannel; // when present, send the position to every partition if this channel is null.
+        private final Optional<HotKeyFilter> hotKeyFilter; // when present, spread or replicate the positions of hot keys
+        private final boolean replicateHotKeys;
         private final AtomicLong rowsAdded = new AtomicLong();
         private final AtomicLong pagesAdded = new AtomicLong();
+        private final AtomicLong hotKeyRowsAdded = new AtomicLong();
         private boolean hasAnyRowBeenReplicated;
+        private int nextHotKeyPartition;
 
         public PagePartitioner(
                 PartitionFunction partitionFunction,
@@ -322,6 +349,8 @@ public class PartitionedOutputOperator
                 List<Optional<NullableValue>> partitionConstants,
                 boolean replicatesAnyRow,
                 OptionalInt nullChannel,
+                Optional<HotKeyFilter> hotKeyFilter,
+                boolean replicateHotKeys,
                 OutputBuffer outputBuffer,
                 PagesSerdeFactory serdeFactory,
                 List<Type> sourceTypes,
@@ -334,6 +363,8 @@ public class PartitionedOutputOperator
                     .collect(toImmutableList());
             this.replicatesAnyRow = replicatesAnyRow;
             this.nullChannel = requireNonNull(nullChannel, "nullChannel is null");
+            this.hotKeyFilter = requireNonNull(hotKeyFilter, "hotKeyFilter is null");
+            this.replicateHotKeys = replicateHotKeys;
             this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
             this.sourceTypes = requireNonNull(sourceTypes, "sourceTypes is null");
             this.serde = requireNonNull(serdeFactory, "serdeFactory is null").createPagesSerde();
@@ -346,6 +377,9 @@ public class PartitionedOutputOperator
                 pageBuilders.add(PageBuilder.withMaxPageSize(pageSize, sourceTypes));
             }
             this.pageBuilders = pageBuilders.build();
+
+            // start spreading hot keys at a different partition in every operator
+            this.nextHotKeyPartition = ThreadLocalRandom.current().nextInt(this.pageBuilders.size());
         }
 
         // Does not include size of SharedBuffer
@@ -358,7 +392,7 @@ public class PartitionedOutputOperator
 
         public PartitionedOutputInfo getInfo()
         {
-            return new PartitionedOutputInfo(rowsAdded.get(), pagesAdded.get());
+            return new PartitionedOutputInfo(rowsAdded.get(), pagesAdded.get(), hotKeyRowsAdded.get());
         }
 
         public ListenableFuture<?> partitionPage(Page page)
@@ -369,18 +403,29 @@ public class PartitionedOutputOperator
             for (int position = 0; position < page.getPositionCount(); position++) {
                 boolean shouldReplicate = (replicatesAnyRow && !hasAnyRowBeenReplicated) ||
                         nullChannel.isPresent() && page.getBlock(nullChannel.getAsInt()).isNull(position);
-                if (shouldReplicate) {
+                boolean hotKey = !shouldReplicate && hotKeyFilter.isPresent() && hotKeyFilter.get().isHotKey(position, partitionFunctionArgs);
+                if (shouldReplicate || (hotKey && replicateHotKeys)) {
                     for (PageBuilder pageBuilder : pageBuilders) {
                         appendRow(pageBuilder, page, position);
                     }
                     hasAnyRowBeenReplicated = true;
                 }
                 else {
-                    int partition = partitionFunction.getPartition(partitionFunctionArgs, position);
+                    int partition;
+                    if (hotKey) {
+                        partition = nextHotKeyPartition;
+                        nextHotKeyPartition = (nextHotKeyPartition + 1) % pageBuilders.size();
+                    }
+                    else {
+                        partition = partitionFunction.getPartition(partitionFunctionArgs, position);
+                    }
 
                     PageBuilder pageBuilder = pageBuilders.get(partition);
                     appendRow(pageBuilder, page, position);
                 }
+                if (hotKey) {
+                    hotKeyRowsAdded.incrementAndGet();
+                }
             }
             return flush(false);
         }
@@ -442,14 +487,17 @@ public class PartitionedOutputOperator
     {
         private final long rowsAdded;
         private final long pagesAdded;
+        private final long hotKeyRowsAdded;
 
         @JsonCreator
         public PartitionedOutputInfo(
                 @JsonProperty("rowsAdded") long rowsAdded,
-                @JsonProperty("pagesAdded") long pagesAdded)
+                @JsonProperty("pagesAdded") long pagesAdded,
+                @JsonProperty("hotKeyRowsAdded") long hotKeyRowsAdded)
         {
             this.rowsAdded = rowsAdded;
             this.pagesAdded = pagesAdded;
+            this.hotKeyRowsAdded = hotKeyRowsAdded;
         }
 
         @JsonProperty
@@ -464,10 +512,19 @@ public class PartitionedOutputOperator
             return pagesAdded;
         }
 
+        /**
+         * Number of input rows of hot keys, which were spread over or replicated to all partitions
+         */
+        @JsonProperty
+        public long getHotKeyRowsAdded()
+        {
+            return hotKeyRowsAdded;
+        }
+
         @Override
         public PartitionedOutputInfo mergeWith(PartitionedOutputInfo other)
         {
-            return new PartitionedOutputInfo(rowsAdded + other.rowsAdded, pagesAdded + other.pagesAdded);
+            return new PartitionedOutputInfo(rowsAdded + other.rowsAdded, pagesAdded + other.pagesAdded, hotKeyRowsAdded + other.hotKeyRowsAdded);
         }
 
         @Override
@@ -476,6 +533,7 @@ public class PartitionedOutputOperator
             return toStringHelper(this)
                     .add("rowsAdded", rowsAdded)
                     .add("pagesAdded", pagesAdded)
+                    .add("hotKeyRowsAdded", hotKeyRowsAdded)
                     .toString();
         }
     }
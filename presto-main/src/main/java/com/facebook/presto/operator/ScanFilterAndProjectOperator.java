@@ -38,6 +38,8 @@ import com.google.common.util.concurrent.SettableFuture;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -61,6 +63,8 @@ public class ScanFilterAndProjectOperator
     private final PageProcessor pageProcessor;
     private final LocalMemoryContext pageSourceMemoryContext;
     private final LocalMemoryContext pageBuilderMemoryContext;
+    private final LocalMemoryContext resultCacheMemoryContext;
+    private final Optional<SplitResultCache.Scan> resultCache;
     private final SettableFuture<?> blocked = SettableFuture.create();
 
     private RecordCursor cursor;
@@ -70,6 +74,13 @@ public class ScanFilterAndProjectOperator
     private PageProcessorOutput currentOutput = EMPTY_PAGE_PROCESSOR_OUTPUT;
 
     private boolean finishing;
+    private boolean sourceExhausted;
+
+    // output served from, or recorded for, the split result cache
+    private Optional<SplitResultCacheKey> resultCacheKey = Optional.empty();
+    private Iterator<Page> cachedPages;
+    private List<Page> resultPages;
+    private long resultPagesRetainedSizeInBytes;
 
     private long completedBytes;
     private long readTimeNanos;
@@ -81,7 +92,8 @@ public class ScanFilterAndProjectOperator
             CursorProcessor cursorProcessor,
             PageProcessor pageProcessor,
             Iterable<ColumnHandle> columns,
-            Iterable<Type> types)
+            Iterable<Type> types,
+            Optional<SplitResultCache.Scan> resultCache)
     {
         this.cursorProcessor = requireNonNull(cursorProcessor, "cursorProcessor is null");
         this.pageProcessor = requireNonNull(pageProcessor, "pageProcessor is null");
@@ -92,6 +104,8 @@ public class ScanFilterAndProjectOperator
         this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
         this.pageSourceMemoryContext = operatorContext.getSystemMemoryContext().newLocalMemoryContext();
         this.pageBuilderMemoryContext = operatorContext.getSystemMemoryContext().newLocalMemoryContext();
+        this.resultCacheMemoryContext = operatorContext.getSystemMemoryContext().newLocalMemoryContext();
+        this.resultCache = requireNonNull(resultCache, "resultCache is null");
 
         this.pageBuilder = new PageBuilder(getTypes());
     }
@@ -129,6 +143,18 @@ public class ScanFilterAndProjectOperator
         if (split.getConnectorSplit() instanceof EmptySplit) {
             pageSource = new EmptySplitPageSource();
         }
+        else {
+            resultCacheKey = resultCache.flatMap(cache -> cache.getCacheKey(split));
+            if (resultCacheKey.isPresent()) {
+                Optional<List<Page>> pages = resultCache.get().getCache().get(resultCacheKey.get());
+                if (pages.isPresent()) {
+                    cachedPages = pages.get().iterator();
+                }
+                else {
+                    resultPages = new ArrayList<>();
+                }
+            }
+        }
 
         return () -> {
             if (pageSource instanceof UpdatablePageSource) {
@@ -163,6 +189,10 @@ public class ScanFilterAndProjectOperator
     public void finish()
     {
         blocked.set(null);
+        if (!sourceExhausted) {
+            // the output is incomplete and must not be cached
+            discardResultPages();
+        }
         if (pageSource != null) {
             try {
                 pageSource.close();
@@ -215,6 +245,10 @@ public class ScanFilterAndProjectOperator
             return null;
         }
 
+        if (cachedPages != null) {
+            return processCachedPages();
+        }
+
         if (!finishing && pageSource == null && cursor == null) {
             ConnectorPageSource source = pageSourceProvider.createPageSource(operatorContext.getSession(), split, columns);
             if (source instanceof RecordPageSource) {
@@ -225,12 +259,56 @@ public class ScanFilterAndProjectOperator
             }
         }
 
+        Page page;
         if (pageSource != null) {
-            return processPageSource();
+            page = processPageSource();
         }
         else {
-            return processColumnSource();
+            page = processColumnSource();
+        }
+        if (resultPages != null) {
+            recordResultPage(page);
         }
+        return page;
+    }
+
+    private Page processCachedPages()
+    {
+        if (finishing || !cachedPages.hasNext()) {
+            finishing = true;
+            return null;
+        }
+        Page page = cachedPages.next();
+        operatorContext.recordGeneratedInput(page.getSizeInBytes(), page.getPositionCount());
+        finishing = !cachedPages.hasNext();
+        return page;
+    }
+
+    private void recordResultPage(Page page)
+    {
+        if (page != null) {
+            // the cached page must not reference the page source once it is closed
+            page.assureLoaded();
+            resultPagesRetainedSizeInBytes += page.getRetainedSizeInBytes();
+            if (resultPagesRetainedSizeInBytes > resultCache.get().getCache().getMaxEntrySizeInBytes()) {
+                discardResultPages();
+                return;
+            }
+            resultPages.add(page);
+            resultCacheMemoryContext.setBytes(resultPagesRetainedSizeInBytes);
+        }
+
+        if (sourceExhausted && isFinished()) {
+            resultCache.get().getCache().put(resultCacheKey.get(), resultPages, resultPagesRetainedSizeInBytes);
+            discardResultPages();
+        }
+    }
+
+    private void discardResultPages()
+    {
+        resultPages = null;
+        resultPagesRetainedSizeInBytes = 0;
+        resultCacheMemoryContext.setBytes(0);
     }
 
     private Page processColumnSource()
@@ -246,6 +324,7 @@ public class ScanFilterAndProjectOperator
             completedBytes = cursor.getCompletedBytes();
             readTimeNanos = cursor.getReadTimeNanos();
             finishing = output.isNoMoreRows();
+            sourceExhausted = finishing;
         }
 
         // only return a page if buffer is full or we are finishing
@@ -265,6 +344,7 @@ public class ScanFilterAndProjectOperator
             Page page = pageSource.getNextPage();
 
             finishing = pageSource.isFinished();
+            sourceExhausted = finishing;
             pageSourceMemoryContext.setBytes(pageSource.getSystemMemoryUsage());
 
             if (page == null) {
@@ -297,6 +377,7 @@ public class ScanFilterAndProjectOperator
         private final PageSourceProvider pageSourceProvider;
         private final List<ColumnHandle> columns;
         private final List<Type> types;
+        private final Optional<SplitResultCache.Scan> resultCache;
         private boolean closed;
 
         public ScanFilterAndProjectOperatorFactory(
@@ -308,6 +389,20 @@ public class ScanFilterAndProjectOperator
                 Supplier<PageProcessor> pageProcessor,
                 Iterable<ColumnHandle> columns,
                 List<Type> types)
+        {
+            this(operatorId, planNodeId, sourceId, pageSourceProvider, cursorProcessor, pageProcessor, columns, types, Optional.empty());
+        }
+
+        public ScanFilterAndProjectOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                PlanNodeId sourceId,
+                PageSourceProvider pageSourceProvider,
+                Supplier<CursorProcessor> cursorProcessor,
+                Supplier<PageProcessor> pageProcessor,
+                Iterable<ColumnHandle> columns,
+                List<Type> types,
+                Optional<SplitResultCache.Scan> resultCache)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -317,6 +412,7 @@ public class ScanFilterAndProjectOperator
             this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
             this.types = requireNonNull(types, "types is null");
+            this.resultCache = requireNonNull(resultCache, "resultCache is null");
         }
 
         @Override
@@ -343,7 +439,8 @@ public class ScanFilterAndProjectOperator
                     cursorProcessor.get(),
                     pageProcessor.get(),
                     columns,
-                    types);
+                    types,
+                    resultCache);
         }
 
         @Override
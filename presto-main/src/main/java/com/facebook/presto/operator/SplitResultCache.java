@@ -0,0 +1,246 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.memory.LocalMemoryManager;
+import com.facebook.presto.memory.MemoryPool;
+import com.facebook.presto.metadata.FunctionRegistry;
+import com.facebook.presto.metadata.Split;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.QueryId;
+import com.facebook.presto.spi.type.TimeZoneKey;
+import com.facebook.presto.sql.relational.CallExpression;
+import com.facebook.presto.sql.relational.DeterminismEvaluator;
+import com.facebook.presto.sql.relational.LambdaDefinitionExpression;
+import com.facebook.presto.sql.relational.RowExpression;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+import io.airlift.stats.CounterStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static com.facebook.presto.memory.LocalMemoryManager.SYSTEM_POOL;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Worker-local cache of the output of table scans, after filtering and projection. Entries are
+ * evicted in LRU order and their memory is reserved in the system memory pool. Only splits that
+ * provide a cache identifier are cached, so only scans over immutable data can be served from it.
+ */
+@ThreadSafe
+public class SplitResultCache
+{
+    private static final QueryId CACHE_QUERY_ID = new QueryId("split_result_cache");
+
+    // deterministic functions whose value depends on the start time of the query
+    private static final Set<String> QUERY_TIME_FUNCTIONS = ImmutableSet.of("current_date", "current_time", "current_timestamp", "now", "localtime", "localtimestamp");
+
+    private final MemoryPool memoryPool;
+    private final long maxEntrySizeInBytes;
+    private final Cache<SplitResultCacheKey, CachedResult> cache;
+
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final CounterStat rejectedEntries = new CounterStat();
+
+    @Inject
+    public SplitResultCache(SplitResultCacheConfig config, LocalMemoryManager localMemoryManager)
+    {
+        this(config, localMemoryManager.getPool(SYSTEM_POOL));
+    }
+
+    public SplitResultCache(SplitResultCacheConfig config, MemoryPool memoryPool)
+    {
+        requireNonNull(config, "config is null");
+        this.memoryPool = requireNonNull(memoryPool, "memoryPool is null");
+        this.maxEntrySizeInBytes = config.getMaxEntrySize().toBytes();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((SplitResultCacheKey key, CachedResult result) -> Ints.saturatedCast(result.getRetainedSizeInBytes()))
+                .expireAfterWrite(config.getTtl().toMillis(), MILLISECONDS)
+                .removalListener(notification -> free(notification.getValue().getRetainedSizeInBytes()))
+                .recordStats()
+                .build();
+    }
+
+    public Scan forScan(List<ColumnHandle> columns, Optional<RowExpression> filter, List<RowExpression> projections, TimeZoneKey timeZoneKey)
+    {
+        return new Scan(columns, filter, projections, timeZoneKey);
+    }
+
+    /**
+     * Returns true if the output of the filter and projections only depends on the scanned data
+     * and the session time zone, so it can be reused by other queries.
+     */
+    public static boolean isCacheable(FunctionRegistry functionRegistry, Optional<RowExpression> filter, List<RowExpression> projections)
+    {
+        DeterminismEvaluator determinismEvaluator = new DeterminismEvaluator(functionRegistry);
+        return Stream.concat(filter.map(Stream::of).orElse(Stream.empty()), projections.stream())
+                .allMatch(expression -> determinismEvaluator.isDeterministic(expression) && !dependsOnQueryTime(expression));
+    }
+
+    private static boolean dependsOnQueryTime(RowExpression expression)
+    {
+        if (expression instanceof CallExpression) {
+            CallExpression call = (CallExpression) expression;
+            return QUERY_TIME_FUNCTIONS.contains(call.getSignature().getName()) ||
+                    call.getArguments().stream().anyMatch(SplitResultCache::dependsOnQueryTime);
+        }
+        if (expression instanceof LambdaDefinitionExpression) {
+            return dependsOnQueryTime(((LambdaDefinitionExpression) expression).getBody());
+        }
+        return false;
+    }
+
+    public long getMaxEntrySizeInBytes()
+    {
+        return maxEntrySizeInBytes;
+    }
+
+    public Optional<List<Page>> get(SplitResultCacheKey key)
+    {
+        return Optional.ofNullable(cache.getIfPresent(key))
+                .map(CachedResult::getPages);
+    }
+
+    public void put(SplitResultCacheKey key, List<Page> pages, long retainedSizeInBytes)
+    {
+        if (retainedSizeInBytes > maxEntrySizeInBytes || !memoryPool.tryReserve(CACHE_QUERY_ID, retainedSizeInBytes)) {
+            rejectedEntries.update(1);
+            return;
+        }
+        reservedBytes.addAndGet(retainedSizeInBytes);
+        cache.put(key, new CachedResult(pages, retainedSizeInBytes));
+    }
+
+    private void free(long bytes)
+    {
+        reservedBytes.addAndGet(-bytes);
+        memoryPool.free(CACHE_QUERY_ID, bytes);
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getReservedBytes()
+    {
+        return reservedBytes.get();
+    }
+
+    @Managed
+    public long getEntryCount()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getRejectedEntries()
+    {
+        return rejectedEntries;
+    }
+
+    /**
+     * The cache bound to a single scan, filter and projection.
+     */
+    public class Scan
+    {
+        private final List<ColumnHandle> columns;
+        private final Optional<RowExpression> filter;
+        private final List<RowExpression> projections;
+        private final TimeZoneKey timeZoneKey;
+
+        private Scan(List<ColumnHandle> columns, Optional<RowExpression> filter, List<RowExpression> projections, TimeZoneKey timeZoneKey)
+        {
+            this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+            this.filter = requireNonNull(filter, "filter is null");
+            this.projections = ImmutableList.copyOf(requireNonNull(projections, "projections is null"));
+            this.timeZoneKey = requireNonNull(timeZoneKey, "timeZoneKey is null");
+        }
+
+        public Optional<SplitResultCacheKey> getCacheKey(Split split)
+        {
+            return split.getConnectorSplit().getCacheIdentifier()
+                    .map(identifier -> new SplitResultCacheKey(split.getConnectorId(), identifier, columns, filter, projections, timeZoneKey));
+        }
+
+        public SplitResultCache getCache()
+        {
+            return SplitResultCache.this;
+        }
+    }
+
+    private static class CachedResult
+    {
+        private final List<Page> pages;
+        private final long retainedSizeInBytes;
+
+        public CachedResult(List<Page> pages, long retainedSizeInBytes)
+        {
+            this.pages = ImmutableList.copyOf(requireNonNull(pages, "pages is null"));
+            this.retainedSizeInBytes = retainedSizeInBytes;
+        }
+
+        public List<Page> getPages()
+        {
+            return pages;
+        }
+
+        public long getRetainedSizeInBytes()
+        {
+            return retainedSizeInBytes;
+        }
+    }
+}
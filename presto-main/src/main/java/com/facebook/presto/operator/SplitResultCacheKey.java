@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.type.TimeZoneKey;
+import com.facebook.presto.sql.relational.RowExpression;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+public final class SplitResultCacheKey
+{
+    private final ConnectorId connectorId;
+    private final Object splitIdentifier;
+    private final List<ColumnHandle> columns;
+    private final Optional<RowExpression> filter;
+    private final List<RowExpression> projections;
+    private final TimeZoneKey timeZoneKey;
+
+    public SplitResultCacheKey(
+            ConnectorId connectorId,
+            Object splitIdentifier,
+            List<ColumnHandle> columns,
+            Optional<RowExpression> filter,
+            List<RowExpression> projections,
+            TimeZoneKey timeZoneKey)
+    {
+        this.connectorId = requireNonNull(connectorId, "connectorId is null");
+        this.splitIdentifier = requireNonNull(splitIdentifier, "splitIdentifier is null");
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        this.filter = requireNonNull(filter, "filter is null");
+        this.projections = ImmutableList.copyOf(requireNonNull(projections, "projections is null"));
+        this.timeZoneKey = requireNonNull(timeZoneKey, "timeZoneKey is null");
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SplitResultCacheKey other = (SplitResultCacheKey) o;
+        return Objects.equals(connectorId, other.connectorId) &&
+                Objects.equals(splitIdentifier, other.splitIdentifier) &&
+                Objects.equals(columns, other.columns) &&
+                Objects.equals(filter, other.filter) &&
+                Objects.equals(projections, other.projections) &&
+                Objects.equals(timeZoneKey, other.timeZoneKey);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(connectorId, splitIdentifier, columns, filter, projections, timeZoneKey);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("connectorId", connectorId)
+                .add("splitIdentifier", splitIdentifier)
+                .add("columns", columns)
+                .add("filter", filter)
+                .add("projections", projections)
+                .add("timeZoneKey", timeZoneKey)
+                .toString();
+    }
+}
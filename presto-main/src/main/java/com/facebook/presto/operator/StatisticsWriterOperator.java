@@ -0,0 +1,243 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.statistics.ComputedColumnStatistics;
+import com.facebook.presto.spi.statistics.ComputedStatistics;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode.ColumnStatisticsDescriptor;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode.StatisticsDescriptor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.TypeUtils.readNativeValue;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects the rows of the statistics aggregation, one per group, and passes them to the
+ * {@link StatisticsWriter} when the input is finished. Outputs the total number of rows analyzed.
+ */
+public class StatisticsWriterOperator
+        implements Operator
+{
+    public static final List<Type> TYPES = ImmutableList.of(BIGINT);
+
+    public static class StatisticsWriterOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final StatisticsWriter statisticsWriter;
+        private final StatisticsDescriptor<Integer> descriptor;
+        private final List<Type> sourceTypes;
+        private boolean closed;
+
+        public StatisticsWriterOperatorFactory(int operatorId, PlanNodeId planNodeId, StatisticsWriter statisticsWriter, StatisticsDescriptor<Integer> descriptor, List<Type> sourceTypes)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.statisticsWriter = requireNonNull(statisticsWriter, "statisticsWriter is null");
+            this.descriptor = requireNonNull(descriptor, "descriptor is null");
+            this.sourceTypes = ImmutableList.copyOf(requireNonNull(sourceTypes, "sourceTypes is null"));
+        }
+
+        @Override
+        public List<Type> getTypes()
+        {
+            return TYPES;
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext context = driverContext.addOperatorContext(operatorId, planNodeId, StatisticsWriterOperator.class.getSimpleName());
+            return new StatisticsWriterOperator(context, statisticsWriter, descriptor, sourceTypes);
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            return new StatisticsWriterOperatorFactory(operatorId, planNodeId, statisticsWriter, descriptor, sourceTypes);
+        }
+    }
+
+    private enum State
+    {
+        RUNNING, FINISHING, FINISHED
+    }
+
+    private final OperatorContext operatorContext;
+    private final StatisticsWriter statisticsWriter;
+    private final StatisticsDescriptor<Integer> descriptor;
+    private final List<Type> sourceTypes;
+    private final List<String> groupingColumns;
+
+    private State state = State.RUNNING;
+    private long rowCount;
+    private final List<ComputedStatistics> computedStatistics = new ArrayList<>();
+
+    public StatisticsWriterOperator(OperatorContext operatorContext, StatisticsWriter statisticsWriter, StatisticsDescriptor<Integer> descriptor, List<Type> sourceTypes)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.statisticsWriter = requireNonNull(statisticsWriter, "statisticsWriter is null");
+        this.descriptor = requireNonNull(descriptor, "descriptor is null");
+        this.sourceTypes = ImmutableList.copyOf(requireNonNull(sourceTypes, "sourceTypes is null"));
+        this.groupingColumns = ImmutableList.copyOf(descriptor.getGrouping().keySet());
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return TYPES;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (state == State.RUNNING) {
+            state = State.FINISHING;
+        }
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return state == State.FINISHED;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return state == State.RUNNING;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(state == State.RUNNING, "Operator is %s", state);
+
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            ComputedStatistics statistics = getComputedStatistics(page, position);
+            rowCount += statistics.getRowCount();
+            computedStatistics.add(statistics);
+        }
+    }
+
+    private ComputedStatistics getComputedStatistics(Page page, int position)
+    {
+        List<Object> groupingValues = new ArrayList<>(groupingColumns.size());
+        for (String column : groupingColumns) {
+            groupingValues.add(getValue(page, descriptor.getGrouping().get(column), position));
+        }
+
+        long groupRowCount = getLong(page, descriptor.getRowCount(), position);
+
+        ImmutableMap.Builder<String, ComputedColumnStatistics> columnStatistics = ImmutableMap.builder();
+        for (Map.Entry<String, ColumnStatisticsDescriptor<Integer>> entry : descriptor.getColumnStatistics().entrySet()) {
+            ColumnStatisticsDescriptor<Integer> column = entry.getValue();
+            columnStatistics.put(entry.getKey(), new ComputedColumnStatistics(
+                    groupRowCount - getLong(page, column.getNonNullsCount(), position),
+                    getOptionalLong(page, column.getDistinctValuesCount(), position),
+                    column.getMin().map(channel -> getValue(page, channel, position)),
+                    column.getMax().map(channel -> getValue(page, channel, position)),
+                    getOptionalLong(page, column.getDataSize(), position),
+                    column.getQuantiles().flatMap(channel -> getDoubles(page, channel, position))));
+        }
+        return new ComputedStatistics(groupingColumns, groupingValues, groupRowCount, columnStatistics.build());
+    }
+
+    private Object getValue(Page page, int channel, int position)
+    {
+        return readNativeValue(sourceTypes.get(channel), page.getBlock(channel), position);
+    }
+
+    private static long getLong(Page page, int channel, int position)
+    {
+        Block block = page.getBlock(channel);
+        // aggregations over no input produce null rather than zero
+        return block.isNull(position) ? 0 : BIGINT.getLong(block, position);
+    }
+
+    private static OptionalLong getOptionalLong(Page page, Optional<Integer> channel, int position)
+    {
+        if (!channel.isPresent()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(getLong(page, channel.get(), position));
+    }
+
+    private static Optional<List<Double>> getDoubles(Page page, int channel, int position)
+    {
+        Block block = page.getBlock(channel);
+        // approx_percentile over no non-null values produces null
+        if (block.isNull(position)) {
+            return Optional.empty();
+        }
+        Block array = block.getObject(position, Block.class);
+        ImmutableList.Builder<Double> values = ImmutableList.builder();
+        for (int i = 0; i < array.getPositionCount(); i++) {
+            values.add(DOUBLE.getDouble(array, i));
+        }
+        return Optional.of(values.build());
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (state != State.FINISHING) {
+            return null;
+        }
+        state = State.FINISHED;
+
+        statisticsWriter.writeStatistics(ImmutableList.copyOf(computedStatistics));
+
+        PageBuilder page = new PageBuilder(getTypes());
+        page.declarePosition();
+        BIGINT.writeLong(page.getBlockBuilder(0), rowCount);
+        return page.build();
+    }
+
+    public interface StatisticsWriter
+    {
+        void writeStatistics(Collection<ComputedStatistics> computedStatistics);
+    }
+}
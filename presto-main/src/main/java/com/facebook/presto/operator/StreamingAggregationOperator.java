@@ -0,0 +1,305 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.memory.LocalMemoryContext;
+import com.facebook.presto.operator.AggregationOperator.Aggregator;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.gen.JoinCompiler;
+import com.facebook.presto.sql.planner.plan.AggregationNode.Step;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Queue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.IntStream.range;
+
+/**
+ * Aggregates input that is grouped on the grouping keys, i.e. all the rows of a group are adjacent.
+ * A group is complete as soon as a row with different keys arrives, so only the accumulators of the
+ * current group are kept in memory, instead of a hash table of all the groups.
+ */
+public class StreamingAggregationOperator
+        implements Operator
+{
+    public static class StreamingAggregationOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final List<Type> groupByTypes;
+        private final List<Integer> groupByChannels;
+        private final Step step;
+        private final List<AccumulatorFactory> accumulatorFactories;
+        private final JoinCompiler joinCompiler;
+        private final List<Type> types;
+        private boolean closed;
+
+        public StreamingAggregationOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<Type> groupByTypes,
+                List<Integer> groupByChannels,
+                Step step,
+                List<AccumulatorFactory> accumulatorFactories,
+                JoinCompiler joinCompiler)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.groupByTypes = ImmutableList.copyOf(requireNonNull(groupByTypes, "groupByTypes is null"));
+            this.groupByChannels = ImmutableList.copyOf(requireNonNull(groupByChannels, "groupByChannels is null"));
+            checkArgument(!groupByChannels.isEmpty(), "groupByChannels is empty");
+            checkArgument(groupByTypes.size() == groupByChannels.size(), "groupByTypes and groupByChannels must have the same size");
+            this.step = requireNonNull(step, "step is null");
+            this.accumulatorFactories = ImmutableList.copyOf(requireNonNull(accumulatorFactories, "accumulatorFactories is null"));
+            this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.types = toTypes(groupByTypes, step, accumulatorFactories);
+        }
+
+        @Override
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, StreamingAggregationOperator.class.getSimpleName());
+            return new StreamingAggregationOperator(operatorContext, groupByTypes, groupByChannels, step, accumulatorFactories, joinCompiler);
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            return new StreamingAggregationOperatorFactory(operatorId, planNodeId, groupByTypes, groupByChannels, step, accumulatorFactories, joinCompiler);
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final LocalMemoryContext systemMemoryContext;
+    private final List<Type> groupByTypes;
+    private final int[] groupByChannels;
+    private final Step step;
+    private final List<AccumulatorFactory> accumulatorFactories;
+    private final List<Type> types;
+    private final PagesHashStrategy groupByHashStrategy;
+    private final PageBuilder pageBuilder;
+    private final Queue<Page> outputPages = new ArrayDeque<>();
+
+    private List<Aggregator> aggregates;
+    // the grouping keys of the group that is being aggregated, or null if no group was started yet
+    private Page currentGroup;
+    private boolean finishing;
+
+    public StreamingAggregationOperator(
+            OperatorContext operatorContext,
+            List<Type> groupByTypes,
+            List<Integer> groupByChannels,
+            Step step,
+            List<AccumulatorFactory> accumulatorFactories,
+            JoinCompiler joinCompiler)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.systemMemoryContext = operatorContext.getSystemMemoryContext().newLocalMemoryContext();
+        this.groupByTypes = ImmutableList.copyOf(requireNonNull(groupByTypes, "groupByTypes is null"));
+        this.groupByChannels = Ints.toArray(requireNonNull(groupByChannels, "groupByChannels is null"));
+        this.step = requireNonNull(step, "step is null");
+        this.accumulatorFactories = ImmutableList.copyOf(requireNonNull(accumulatorFactories, "accumulatorFactories is null"));
+        requireNonNull(joinCompiler, "joinCompiler is null");
+
+        this.types = toTypes(groupByTypes, step, accumulatorFactories);
+        this.groupByHashStrategy = joinCompiler.compilePagesHashStrategyFactory(this.groupByTypes, range(0, groupByTypes.size()).boxed().collect(toImmutableList()))
+                .createPagesHashStrategy(groupByTypes.stream().map(type -> ImmutableList.<Block>of()).collect(toImmutableList()), OptionalInt.empty());
+        this.pageBuilder = new PageBuilder(types);
+        this.aggregates = createAggregators();
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public void finish()
+    {
+        finishing = true;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finishing && currentGroup == null && pageBuilder.isEmpty() && outputPages.isEmpty();
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finishing && outputPages.isEmpty();
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        checkState(needsInput(), "Operator is already finishing");
+        requireNonNull(page, "page is null");
+
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+
+        Block[] groupByBlocks = new Block[groupByChannels.length];
+        for (int i = 0; i < groupByChannels.length; i++) {
+            groupByBlocks[i] = page.getBlock(groupByChannels[i]);
+        }
+        Page groupByPage = new Page(page.getPositionCount(), groupByBlocks);
+
+        if (currentGroup != null && !groupByHashStrategy.rowEqualsRow(0, currentGroup, 0, groupByPage)) {
+            // the page starts with a new group, so the current one is complete
+            evaluateAndFlushGroup();
+        }
+
+        int groupStart = 0;
+        while (true) {
+            if (currentGroup == null) {
+                currentGroup = getSingleRow(groupByPage, groupStart);
+            }
+            int nextGroupStart = findNextGroupStart(groupByPage, groupStart);
+            Page group = page.getRegion(groupStart, nextGroupStart - groupStart);
+            for (Aggregator aggregate : aggregates) {
+                aggregate.processPage(group);
+            }
+            if (nextGroupStart == page.getPositionCount()) {
+                // the group may continue in the next page
+                break;
+            }
+            evaluateAndFlushGroup();
+            groupStart = nextGroupStart;
+        }
+
+        updateMemoryReservation();
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (finishing && outputPages.isEmpty()) {
+            if (currentGroup != null) {
+                evaluateAndFlushGroup();
+            }
+            if (!pageBuilder.isEmpty()) {
+                outputPages.add(pageBuilder.build());
+                pageBuilder.reset();
+            }
+            updateMemoryReservation();
+        }
+        return outputPages.poll();
+    }
+
+    private int findNextGroupStart(Page groupByPage, int groupStart)
+    {
+        for (int position = groupStart + 1; position < groupByPage.getPositionCount(); position++) {
+            if (!groupByHashStrategy.rowEqualsRow(groupStart, groupByPage, position, groupByPage)) {
+                return position;
+            }
+        }
+        return groupByPage.getPositionCount();
+    }
+
+    private void evaluateAndFlushGroup()
+    {
+        pageBuilder.declarePosition();
+        for (int i = 0; i < groupByTypes.size(); i++) {
+            groupByTypes.get(i).appendTo(currentGroup.getBlock(i), 0, pageBuilder.getBlockBuilder(i));
+        }
+        for (int i = 0; i < aggregates.size(); i++) {
+            aggregates.get(i).evaluate(pageBuilder.getBlockBuilder(groupByTypes.size() + i));
+        }
+        if (pageBuilder.isFull()) {
+            outputPages.add(pageBuilder.build());
+            pageBuilder.reset();
+        }
+
+        currentGroup = null;
+        aggregates = createAggregators();
+    }
+
+    private List<Aggregator> createAggregators()
+    {
+        ImmutableList.Builder<Aggregator> builder = ImmutableList.builder();
+        for (AccumulatorFactory accumulatorFactory : accumulatorFactories) {
+            builder.add(new Aggregator(accumulatorFactory, step));
+        }
+        return builder.build();
+    }
+
+    private void updateMemoryReservation()
+    {
+        long memorySize = pageBuilder.getRetainedSizeInBytes();
+        for (Aggregator aggregate : aggregates) {
+            memorySize += aggregate.getEstimatedSize();
+        }
+        if (step.isOutputPartial()) {
+            systemMemoryContext.setBytes(memorySize);
+        }
+        else {
+            operatorContext.setMemoryReservation(memorySize);
+        }
+    }
+
+    private static Page getSingleRow(Page page, int position)
+    {
+        // copy the values, so that the group does not retain the whole input page
+        Block[] blocks = new Block[page.getChannelCount()];
+        for (int channel = 0; channel < page.getChannelCount(); channel++) {
+            blocks[channel] = page.getBlock(channel).getSingleValueBlock(position);
+        }
+        return new Page(1, blocks);
+    }
+
+    private static List<Type> toTypes(List<Type> groupByTypes, Step step, List<AccumulatorFactory> accumulatorFactories)
+    {
+        ImmutableList.Builder<Type> types = ImmutableList.<Type>builder().addAll(groupByTypes);
+        for (AccumulatorFactory accumulatorFactory : accumulatorFactories) {
+            types.add(new Aggregator(accumulatorFactory, step).getType());
+        }
+        return types.build();
+    }
+}
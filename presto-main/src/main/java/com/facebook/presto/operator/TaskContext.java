@@ -31,6 +31,8 @@ import org.joda.time.DateTime;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -39,6 +41,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.facebook.presto.operator.MemoryRevocation.MAX_MEMORY_REVOCATIONS;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.transform;
@@ -60,6 +63,10 @@ public class TaskContext
     private final AtomicLong memoryReservation = new AtomicLong();
     private final AtomicLong systemMemoryReservation = new AtomicLong();
     private final AtomicLong revocableMemoryReservation = new AtomicLong();
+    private final AtomicLong spilledBytes = new AtomicLong();
+
+    @GuardedBy("this")
+    private final Deque<MemoryRevocation> memoryRevocations = new ArrayDeque<>();
 
     private final long createNanos = System.nanoTime();
 
@@ -184,7 +191,22 @@ public class TaskContext
     public synchronized ListenableFuture<?> reserveSpill(long bytes)
     {
         checkArgument(bytes >= 0, "bytes is negative");
-        return queryContext.reserveSpill(bytes);
+        ListenableFuture<?> future = queryContext.reserveSpill(bytes);
+        spilledBytes.getAndAdd(bytes);
+        return future;
+    }
+
+    public synchronized void recordMemoryRevocation(long revokedBytes, int operators)
+    {
+        if (memoryRevocations.size() == MAX_MEMORY_REVOCATIONS) {
+            memoryRevocations.removeFirst();
+        }
+        memoryRevocations.addLast(new MemoryRevocation(getTaskId(), DateTime.now(), succinctBytes(revokedBytes), operators));
+    }
+
+    public synchronized List<MemoryRevocation> getMemoryRevocations()
+    {
+        return ImmutableList.copyOf(memoryRevocations);
     }
 
     public synchronized boolean tryReserveMemory(long bytes)
@@ -421,6 +443,8 @@ public class TaskContext
                 processedInputPositions,
                 succinctBytes(outputDataSize),
                 outputPositions,
+                succinctBytes(spilledBytes.get()),
+                getMemoryRevocations(),
                 pipelineStats);
     }
 
@@ -72,6 +72,9 @@ public class TaskStats
     private final DataSize outputDataSize;
     private final long outputPositions;
 
+    private final DataSize spilledDataSize;
+    private final List<MemoryRevocation> memoryRevocations;
+
     private final List<PipelineStats> pipelines;
 
     public TaskStats(DateTime createTime, DateTime endTime)
@@ -106,6 +109,8 @@ public class TaskStats
                 0,
                 new DataSize(0, BYTE),
                 0,
+                new DataSize(0, BYTE),
+                ImmutableList.of(),
                 ImmutableList.of());
     }
 
@@ -148,6 +153,9 @@ public class TaskStats
             @JsonProperty("outputDataSize") DataSize outputDataSize,
             @JsonProperty("outputPositions") long outputPositions,
 
+            @JsonProperty("spilledDataSize") DataSize spilledDataSize,
+            @JsonProperty("memoryRevocations") List<MemoryRevocation> memoryRevocations,
+
             @JsonProperty("pipelines") List<PipelineStats> pipelines)
     {
         this.createTime = requireNonNull(createTime, "createTime is null");
@@ -200,6 +208,9 @@ public class TaskStats
         checkArgument(outputPositions >= 0, "outputPositions is negative");
         this.outputPositions = outputPositions;
 
+        this.spilledDataSize = requireNonNull(spilledDataSize, "spilledDataSize is null");
+        this.memoryRevocations = ImmutableList.copyOf(requireNonNull(memoryRevocations, "memoryRevocations is null"));
+
         this.pipelines = ImmutableList.copyOf(requireNonNull(pipelines, "pipelines is null"));
     }
 
@@ -375,6 +386,18 @@ public class TaskStats
         return outputPositions;
     }
 
+    @JsonProperty
+    public DataSize getSpilledDataSize()
+    {
+        return spilledDataSize;
+    }
+
+    @JsonProperty
+    public List<MemoryRevocation> getMemoryRevocations()
+    {
+        return memoryRevocations;
+    }
+
     @JsonProperty
     public List<PipelineStats> getPipelines()
     {
@@ -426,6 +449,8 @@ public class TaskStats
                 processedInputPositions,
                 outputDataSize,
                 outputPositions,
+                spilledDataSize,
+                memoryRevocations,
                 ImmutableList.of());
     }
 
@@ -462,6 +487,8 @@ public class TaskStats
                 processedInputPositions,
                 outputDataSize,
                 outputPositions,
+                spilledDataSize,
+                memoryRevocations,
                 pipelines.stream()
                         .map(PipelineStats::summarize)
                         .collect(Collectors.toList()));
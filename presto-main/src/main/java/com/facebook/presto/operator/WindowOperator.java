@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.presto.operator.window.AggregateWindowFunction;
 import com.facebook.presto.operator.window.FramedWindowFunction;
 import com.facebook.presto.operator.window.WindowPartition;
 import com.facebook.presto.spi.Page;
@@ -324,7 +325,7 @@ public class WindowOperator
         if (processPendingInput()) {
             state = State.HAS_OUTPUT;
         }
-        operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+        updateMemoryReservation();
     }
 
     /**
@@ -394,10 +395,21 @@ public class WindowOperator
         }
 
         Page page = extractOutput();
-        operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+        updateMemoryReservation();
         return page;
     }
 
+    private void updateMemoryReservation()
+    {
+        // the segment trees of aggregations over frames are charged to the operator, as they can be as large as the aggregated partition
+        long windowFunctionsSize = windowFunctions.stream()
+                .map(FramedWindowFunction::getFunction)
+                .filter(AggregateWindowFunction.class::isInstance)
+                .mapToLong(function -> ((AggregateWindowFunction) function).getEstimatedSize())
+                .sum();
+        operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes() + windowFunctionsSize);
+    }
+
     private Page extractOutput()
     {
         // INVARIANT: pagesIndex contains the full grouped & sorted data for one or more partitions
@@ -33,6 +33,20 @@ public interface Accumulator
 
     void addInput(WindowIndex index, List<Integer> channels, int startPosition, int endPosition);
 
+    default boolean isRemoveInputSupported()
+    {
+        return false;
+    }
+
+    /**
+     * Removes the rows previously added with {@link #addInput(WindowIndex, List, int, int)}.
+     * Only supported if {@link #isRemoveInputSupported()} returns true.
+     */
+    default void removeInput(WindowIndex index, List<Integer> channels, int startPosition, int endPosition)
+    {
+        throw new UnsupportedOperationException("Aggregation does not support removing input");
+    }
+
     void addIntermediate(Block block);
 
     void evaluateIntermediate(BlockBuilder blockBuilder);
@@ -131,6 +131,9 @@ public class AccumulatorCompiler
         // Generate methods
         generateAddInput(definition, stateField, inputChannelsField, maskChannelField, metadata.getInputMetadata(), metadata.getInputFunction(), callSiteBinder, grouped);
         generateAddInputWindowIndex(definition, stateField, metadata.getInputMetadata(), metadata.getInputFunction(), callSiteBinder);
+        if (!grouped && metadata.getRemoveInputFunction().isPresent()) {
+            generateRemoveInputWindowIndex(definition, stateField, metadata.getInputMetadata(), metadata.getRemoveInputFunction().get(), callSiteBinder);
+        }
         generateGetEstimatedSize(definition, stateField);
         generateGetIntermediateType(definition, callSiteBinder, stateSerializer.getSerializedType());
         generateGetFinalType(definition, callSiteBinder, metadata.getOutputType());
@@ -251,13 +254,38 @@ public class AccumulatorCompiler
             CallSiteBinder callSiteBinder)
     {
         // TODO: implement masking based on maskChannel field once Window Functions support DISTINCT arguments to the functions.
+        generateWindowIndexInputLoop(definition, "addInput", stateField, parameterMetadatas, inputFunction, callSiteBinder);
+    }
+
+    private static void generateRemoveInputWindowIndex(
+            ClassDefinition definition,
+            FieldDefinition stateField,
+            List<ParameterMetadata> parameterMetadatas,
+            MethodHandle removeInputFunction,
+            CallSiteBinder callSiteBinder)
+    {
+        definition.declareMethod(a(PUBLIC), "isRemoveInputSupported", type(boolean.class))
+                .getBody()
+                .push(true)
+                .retBoolean();
 
+        generateWindowIndexInputLoop(definition, "removeInput", stateField, parameterMetadatas, removeInputFunction, callSiteBinder);
+    }
+
+    private static void generateWindowIndexInputLoop(
+            ClassDefinition definition,
+            String methodName,
+            FieldDefinition stateField,
+            List<ParameterMetadata> parameterMetadatas,
+            MethodHandle inputFunction,
+            CallSiteBinder callSiteBinder)
+    {
         Parameter index = arg("index", WindowIndex.class);
         Parameter channels = arg("channels", type(List.class, Integer.class));
         Parameter startPosition = arg("startPosition", int.class);
         Parameter endPosition = arg("endPosition", int.class);
 
-        MethodDefinition method = definition.declareMethod(a(PUBLIC), "addInput", type(void.class), ImmutableList.of(index, channels, startPosition, endPosition));
+        MethodDefinition method = definition.declareMethod(a(PUBLIC), methodName, type(void.class), ImmutableList.of(index, channels, startPosition, endPosition));
         Scope scope = method.getScope();
 
         Variable position = scope.declareVariable(int.class, "position");
@@ -13,7 +13,7 @@
  */
 package com.facebook.presto.operator.aggregation;
 
-import com.facebook.presto.operator.aggregation.state.HyperLogLogState;
+import com.facebook.presto.operator.aggregation.state.CompactHyperLogLogState;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.function.AggregationFunction;
 import com.facebook.presto.spi.function.AggregationState;
@@ -24,6 +24,7 @@ import com.facebook.presto.spi.function.OutputFunction;
 import com.facebook.presto.spi.function.SqlType;
 import com.facebook.presto.spi.type.StandardTypes;
 import com.google.common.annotations.VisibleForTesting;
+import io.airlift.slice.Murmur3Hash128;
 import io.airlift.slice.Slice;
 import io.airlift.stats.cardinality.HyperLogLog;
 
@@ -41,70 +42,58 @@ public final class ApproximateCountDistinctAggregations
     private ApproximateCountDistinctAggregations() {}
 
     @InputFunction
-    public static void input(@AggregationState HyperLogLogState state, @SqlType(StandardTypes.BIGINT) long value)
+    public static void input(@AggregationState CompactHyperLogLogState state, @SqlType(StandardTypes.BIGINT) long value)
     {
         input(state, value, DEFAULT_STANDARD_ERROR);
     }
 
     @InputFunction
-    public static void input(@AggregationState HyperLogLogState state, @SqlType(StandardTypes.BIGINT) long value, @SqlType(StandardTypes.DOUBLE) double maxStandardError)
+    public static void input(@AggregationState CompactHyperLogLogState state, @SqlType(StandardTypes.BIGINT) long value, @SqlType(StandardTypes.DOUBLE) double maxStandardError)
     {
-        HyperLogLog hll = getOrCreateHyperLogLog(state, maxStandardError);
-        state.addMemoryUsage(-hll.estimatedInMemorySize());
-        hll.add(value);
-        state.addMemoryUsage(hll.estimatedInMemorySize());
+        addHash(state, Murmur3Hash128.hash64(value), maxStandardError);
     }
 
     @InputFunction
-    public static void input(@AggregationState HyperLogLogState state, @SqlType(StandardTypes.DOUBLE) double value)
+    public static void input(@AggregationState CompactHyperLogLogState state, @SqlType(StandardTypes.DOUBLE) double value)
     {
         input(state, value, DEFAULT_STANDARD_ERROR);
     }
 
     @InputFunction
-    public static void input(@AggregationState HyperLogLogState state, @SqlType(StandardTypes.DOUBLE) double value, @SqlType(StandardTypes.DOUBLE) double maxStandardError)
+    public static void input(@AggregationState CompactHyperLogLogState state, @SqlType(StandardTypes.DOUBLE) double value, @SqlType(StandardTypes.DOUBLE) double maxStandardError)
     {
         input(state, Double.doubleToLongBits(value), maxStandardError);
     }
 
     @InputFunction
     @LiteralParameters("x")
-    public static void input(@AggregationState HyperLogLogState state, @SqlType("varchar(x)") Slice value)
+    public static void input(@AggregationState CompactHyperLogLogState state, @SqlType("varchar(x)") Slice value)
     {
         input(state, value, DEFAULT_STANDARD_ERROR);
     }
 
     @InputFunction
     @LiteralParameters("x")
-    public static void input(@AggregationState HyperLogLogState state, @SqlType("varchar(x)") Slice value, @SqlType(StandardTypes.DOUBLE) double maxStandardError)
+    public static void input(@AggregationState CompactHyperLogLogState state, @SqlType("varchar(x)") Slice value, @SqlType(StandardTypes.DOUBLE) double maxStandardError)
     {
         inputBinary(state, value, maxStandardError);
     }
 
     @InputFunction
-    public static void inputBinary(@AggregationState HyperLogLogState state, @SqlType(StandardTypes.VARBINARY) Slice value)
+    public static void inputBinary(@AggregationState CompactHyperLogLogState state, @SqlType(StandardTypes.VARBINARY) Slice value)
     {
         inputBinary(state, value, DEFAULT_STANDARD_ERROR);
     }
 
     @InputFunction
-    public static void inputBinary(@AggregationState HyperLogLogState state, @SqlType(StandardTypes.VARBINARY) Slice value, @SqlType(StandardTypes.DOUBLE) double maxStandardError)
+    public static void inputBinary(@AggregationState CompactHyperLogLogState state, @SqlType(StandardTypes.VARBINARY) Slice value, @SqlType(StandardTypes.DOUBLE) double maxStandardError)
     {
-        HyperLogLog hll = getOrCreateHyperLogLog(state, maxStandardError);
-        state.addMemoryUsage(-hll.estimatedInMemorySize());
-        hll.add(value);
-        state.addMemoryUsage(hll.estimatedInMemorySize());
+        addHash(state, Murmur3Hash128.hash64(value), maxStandardError);
     }
 
-    private static HyperLogLog getOrCreateHyperLogLog(HyperLogLogState state, double maxStandardError)
+    private static void addHash(CompactHyperLogLogState state, long hash, double maxStandardError)
     {
-        HyperLogLog hll = state.getHyperLogLog();
-        if (hll == null) {
-            hll = HyperLogLog.newInstance(standardErrorToBuckets(maxStandardError));
-            state.setHyperLogLog(hll);
-            state.addMemoryUsage(hll.estimatedInMemorySize());
-        }
-        return hll;
+        state.addHash(hash, standardErrorToBuckets(maxStandardError));
     }
 
     @VisibleForTesting
@@ -122,31 +111,33 @@ public final class ApproximateCountDistinctAggregations
     }
 
     @CombineFunction
-    public static void combineState(@AggregationState HyperLogLogState state, @AggregationState HyperLogLogState otherState)
+    public static void combineState(@AggregationState CompactHyperLogLogState state, @AggregationState CompactHyperLogLogState otherState)
     {
         HyperLogLog input = otherState.getHyperLogLog();
-
-        HyperLogLog previous = state.getHyperLogLog();
-        if (previous == null) {
-            state.setHyperLogLog(input);
-            state.addMemoryUsage(input.estimatedInMemorySize());
+        if (input != null) {
+            state.mergeWith(input, otherState.getNumberOfBuckets());
+            return;
         }
-        else {
-            state.addMemoryUsage(-previous.estimatedInMemorySize());
-            previous.mergeWith(input);
-            state.addMemoryUsage(previous.estimatedInMemorySize());
+        for (int i = 0; i < otherState.getHashCount(); i++) {
+            state.addHash(otherState.getHash(i), otherState.getNumberOfBuckets());
         }
     }
 
     @OutputFunction(StandardTypes.BIGINT)
-    public static void evaluateFinal(@AggregationState HyperLogLogState state, BlockBuilder out)
+    public static void evaluateFinal(@AggregationState CompactHyperLogLogState state, BlockBuilder out)
     {
-        HyperLogLog hyperLogLog = state.getHyperLogLog();
-        if (hyperLogLog == null) {
+        if (state.getNumberOfBuckets() == 0) {
             BIGINT.writeLong(out, 0);
+            return;
         }
-        else {
-            BIGINT.writeLong(out, hyperLogLog.cardinality());
+
+        HyperLogLog hyperLogLog = state.getHyperLogLog();
+        if (hyperLogLog == null) {
+            hyperLogLog = HyperLogLog.newInstance(state.getNumberOfBuckets());
+            for (int i = 0; i < state.getHashCount(); i++) {
+                hyperLogLog.addHash(state.getHash(i));
+            }
         }
+        BIGINT.writeLong(out, hyperLogLog.cardinality());
     }
 }
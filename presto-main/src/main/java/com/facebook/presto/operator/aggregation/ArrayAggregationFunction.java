@@ -48,8 +48,8 @@ public class ArrayAggregationFunction
         extends SqlAggregationFunction
 {
     private static final String NAME = "array_agg";
-    private static final MethodHandle INPUT_FUNCTION = methodHandle(ArrayAggregationFunction.class, "input", Type.class, ArrayAggregationState.class, Block.class, int.class);
-    private static final MethodHandle COMBINE_FUNCTION = methodHandle(ArrayAggregationFunction.class, "combine", Type.class, ArrayAggregationState.class, ArrayAggregationState.class);
+    private static final MethodHandle INPUT_FUNCTION = methodHandle(ArrayAggregationFunction.class, "input", ArrayAggregationState.class, Block.class, int.class);
+    private static final MethodHandle COMBINE_FUNCTION = methodHandle(ArrayAggregationFunction.class, "combine", ArrayAggregationState.class, ArrayAggregationState.class);
     private static final MethodHandle OUTPUT_FUNCTION = methodHandle(ArrayAggregationFunction.class, "output", Type.class, ArrayAggregationState.class, BlockBuilder.class);
 
     private final boolean legacyArrayAgg;
@@ -82,23 +82,21 @@ public class ArrayAggregationFunction
         DynamicClassLoader classLoader = new DynamicClassLoader(ArrayAggregationFunction.class.getClassLoader());
 
         AccumulatorStateSerializer<?> stateSerializer = new ArrayAggregationStateSerializer(type);
-        AccumulatorStateFactory<?> stateFactory = new ArrayAggregationStateFactory();
+        AccumulatorStateFactory<?> stateFactory = new ArrayAggregationStateFactory(type);
 
         List<Type> inputTypes = ImmutableList.of(type);
         Type outputType = new ArrayType(type);
         Type intermediateType = stateSerializer.getSerializedType();
         List<ParameterMetadata> inputParameterMetadata = createInputParameterMetadata(type, legacyArrayAgg);
 
-        MethodHandle inputFunction = INPUT_FUNCTION.bindTo(type);
-        MethodHandle combineFunction = COMBINE_FUNCTION.bindTo(type);
-        MethodHandle outputFunction = OUTPUT_FUNCTION.bindTo(outputType);
+        MethodHandle outputFunction = OUTPUT_FUNCTION.bindTo(type);
         Class<? extends AccumulatorState> stateInterface = ArrayAggregationState.class;
 
         AggregationMetadata metadata = new AggregationMetadata(
                 generateAggregationName(NAME, type.getTypeSignature(), inputTypes.stream().map(Type::getTypeSignature).collect(toImmutableList())),
                 inputParameterMetadata,
-                inputFunction,
-                combineFunction,
+                INPUT_FUNCTION,
+                COMBINE_FUNCTION,
                 outputFunction,
                 stateInterface,
                 stateSerializer,
@@ -114,45 +112,25 @@ public class ArrayAggregationFunction
         return ImmutableList.of(new ParameterMetadata(STATE), new ParameterMetadata(legacyArrayAgg ? BLOCK_INPUT_CHANNEL : NULLABLE_BLOCK_INPUT_CHANNEL, value), new ParameterMetadata(BLOCK_INDEX));
     }
 
-    public static void input(Type type, ArrayAggregationState state, Block value, int position)
+    public static void input(ArrayAggregationState state, Block value, int position)
     {
-        BlockBuilder blockBuilder = state.getBlockBuilder();
-        if (blockBuilder == null) {
-            blockBuilder = type.createBlockBuilder(null, 4);
-            state.setBlockBuilder(blockBuilder);
-        }
-        long startSize = blockBuilder.getRetainedSizeInBytes();
-        type.appendTo(value, position, blockBuilder);
-        state.addMemoryUsage(blockBuilder.getRetainedSizeInBytes() - startSize);
+        state.add(value, position);
     }
 
-    public static void combine(Type type, ArrayAggregationState state, ArrayAggregationState otherState)
+    public static void combine(ArrayAggregationState state, ArrayAggregationState otherState)
     {
-        BlockBuilder stateBlockBuilder = state.getBlockBuilder();
-        BlockBuilder otherStateBlockBuilder = otherState.getBlockBuilder();
-        if (otherStateBlockBuilder == null) {
-            return;
-        }
-        if (stateBlockBuilder == null) {
-            state.setBlockBuilder(otherStateBlockBuilder);
-            return;
-        }
-        int otherPositionCount = otherStateBlockBuilder.getPositionCount();
-        long startSize = stateBlockBuilder.getRetainedSizeInBytes();
-        for (int i = 0; i < otherPositionCount; i++) {
-            type.appendTo(otherStateBlockBuilder, i, stateBlockBuilder);
-        }
-        state.addMemoryUsage(stateBlockBuilder.getRetainedSizeInBytes() - startSize);
+        state.merge(otherState);
     }
 
-    public static void output(Type outputType, ArrayAggregationState state, BlockBuilder out)
+    public static void output(Type elementType, ArrayAggregationState state, BlockBuilder out)
     {
-        BlockBuilder stateBlockBuilder = state.getBlockBuilder();
-        if (stateBlockBuilder == null || stateBlockBuilder.getPositionCount() == 0) {
+        if (state.isEmpty()) {
             out.appendNull();
         }
         else {
-            outputType.writeObject(out, stateBlockBuilder.build());
+            BlockBuilder entryBuilder = out.beginBlockEntry();
+            state.forEach((block, position) -> elementType.appendTo(block, position, entryBuilder));
+            out.closeEntry();
         }
     }
 }
@@ -0,0 +1,298 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.VarcharType;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import static com.facebook.presto.spi.type.AbstractLongType.hash;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static java.lang.Double.doubleToLongBits;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Set of the elements of a row, for the functions that remove the duplicate elements of arrays.
+ * Unlike {@link TypedSet}, it does not copy the elements, but refers to the positions of the blocks
+ * they were added from, and compares the raw values of the element type. It is created once per
+ * function instance and cleared with {@link #reset(int)} for every row.
+ */
+public abstract class SpecializedTypedSet
+{
+    // types whose values are equal exactly when their long representations are
+    private static final Set<Type> LONG_TYPES = ImmutableSet.of(BIGINT, INTEGER, SMALLINT, TINYINT, DATE, TIMESTAMP);
+
+    private static final float FILL_RATIO = 0.75f;
+    private static final int EMPTY_SLOT = -1;
+
+    private int[] slots = new int[0];
+    private int mask;
+    private int maxSize;
+    private int size;
+    private boolean containsNullElement;
+
+    public static boolean isSupported(Type type)
+    {
+        return LONG_TYPES.contains(type) || type.equals(DOUBLE) || type instanceof VarcharType || type.equals(VARBINARY);
+    }
+
+    public static SpecializedTypedSet create(Type type)
+    {
+        requireNonNull(type, "type is null");
+        checkArgument(isSupported(type), "Unsupported type: %s", type);
+        if (type.equals(DOUBLE)) {
+            return new DoubleTypedSet();
+        }
+        if (LONG_TYPES.contains(type)) {
+            return new LongTypedSet(type);
+        }
+        return new SliceTypedSet();
+    }
+
+    /**
+     * Removes all elements from the set, and makes room for {@code maxSize} elements. The blocks
+     * the elements are added from must be kept until the next reset.
+     */
+    public void reset(int maxSize)
+    {
+        checkArgument(maxSize >= 0, "maxSize is negative");
+        int capacity = arraySize(maxSize, FILL_RATIO);
+        if (slots.length < capacity) {
+            slots = new int[capacity];
+        }
+        Arrays.fill(slots, 0, capacity, EMPTY_SLOT);
+        mask = capacity - 1;
+        resetElements(size, maxSize);
+        this.maxSize = maxSize;
+        size = 0;
+        containsNullElement = false;
+    }
+
+    /**
+     * Adds the element at {@code position} of {@code block}, and returns whether it was not in the set yet.
+     */
+    public boolean add(Block block, int position)
+    {
+        if (block.isNull(position)) {
+            boolean added = !containsNullElement;
+            containsNullElement = true;
+            return added;
+        }
+
+        checkState(size < maxSize, "Set is full");
+        int slot = findSlot(block, position);
+        if (slots[slot] != EMPTY_SLOT) {
+            return false;
+        }
+        slots[slot] = size;
+        setElement(size, block, position);
+        size++;
+        return true;
+    }
+
+    public boolean contains(Block block, int position)
+    {
+        if (block.isNull(position)) {
+            return containsNullElement;
+        }
+        return slots[findSlot(block, position)] != EMPTY_SLOT;
+    }
+
+    public int size()
+    {
+        return size + (containsNullElement ? 1 : 0);
+    }
+
+    protected final int getSlot(long hash)
+    {
+        return (int) hash & mask;
+    }
+
+    protected final int nextSlot(int slot)
+    {
+        return (slot + 1) & mask;
+    }
+
+    protected final int getElementIndex(int slot)
+    {
+        return slots[slot];
+    }
+
+    protected static boolean isEmpty(int elementIndex)
+    {
+        return elementIndex == EMPTY_SLOT;
+    }
+
+    protected abstract void resetElements(int previousSize, int maxSize);
+
+    /**
+     * Returns the slot of the element equal to the element at {@code position} of {@code block},
+     * or the empty slot where that element belongs.
+     */
+    protected abstract int findSlot(Block block, int position);
+
+    /**
+     * Stores the element of the last {@link #findSlot(Block, int)} call.
+     */
+    protected abstract void setElement(int elementIndex, Block block, int position);
+
+    private static final class LongTypedSet
+            extends SpecializedTypedSet
+    {
+        private final Type type;
+        private long[] values = new long[0];
+        private long lastValue;
+
+        private LongTypedSet(Type type)
+        {
+            this.type = type;
+        }
+
+        @Override
+        protected void resetElements(int previousSize, int maxSize)
+        {
+            if (values.length < maxSize) {
+                values = new long[maxSize];
+            }
+        }
+
+        @Override
+        protected int findSlot(Block block, int position)
+        {
+            long value = type.getLong(block, position);
+            lastValue = value;
+            int slot = getSlot(hash(value));
+            while (true) {
+                int elementIndex = getElementIndex(slot);
+                if (isEmpty(elementIndex) || values[elementIndex] == value) {
+                    return slot;
+                }
+                slot = nextSlot(slot);
+            }
+        }
+
+        @Override
+        protected void setElement(int elementIndex, Block block, int position)
+        {
+            values[elementIndex] = lastValue;
+        }
+    }
+
+    private static final class DoubleTypedSet
+            extends SpecializedTypedSet
+    {
+        private double[] values = new double[0];
+        private double lastValue;
+
+        @Override
+        protected void resetElements(int previousSize, int maxSize)
+        {
+            if (values.length < maxSize) {
+                values = new double[maxSize];
+            }
+        }
+
+        @Override
+        protected int findSlot(Block block, int position)
+        {
+            double value = DOUBLE.getDouble(block, position);
+            lastValue = value;
+            int slot = getSlot(hash(doubleToLongBits(value)));
+            while (true) {
+                int elementIndex = getElementIndex(slot);
+                // same equality as DoubleType, so NaN is never in the set
+                //noinspection FloatingPointEquality
+                if (isEmpty(elementIndex) || values[elementIndex] == value) {
+                    return slot;
+                }
+                slot = nextSlot(slot);
+            }
+        }
+
+        @Override
+        protected void setElement(int elementIndex, Block block, int position)
+        {
+            values[elementIndex] = lastValue;
+        }
+    }
+
+    private static final class SliceTypedSet
+            extends SpecializedTypedSet
+    {
+        private Block[] blocks = new Block[0];
+        private int[] positions = new int[0];
+        private int[] lengths = new int[0];
+        private long[] hashes = new long[0];
+        private int lastLength;
+        private long lastHash;
+
+        @Override
+        protected void resetElements(int previousSize, int maxSize)
+        {
+            // do not retain the blocks of earlier rows
+            Arrays.fill(blocks, 0, previousSize, null);
+            if (blocks.length < maxSize) {
+                blocks = new Block[maxSize];
+                positions = new int[maxSize];
+                lengths = new int[maxSize];
+                hashes = new long[maxSize];
+            }
+        }
+
+        @Override
+        protected int findSlot(Block block, int position)
+        {
+            int length = block.getSliceLength(position);
+            long hash = block.hash(position, 0, length);
+            lastLength = length;
+            lastHash = hash;
+            int slot = getSlot(hash);
+            while (true) {
+                int elementIndex = getElementIndex(slot);
+                if (isEmpty(elementIndex)) {
+                    return slot;
+                }
+                if (hashes[elementIndex] == hash &&
+                        lengths[elementIndex] == length &&
+                        block.equals(position, 0, blocks[elementIndex], positions[elementIndex], 0, length)) {
+                    return slot;
+                }
+                slot = nextSlot(slot);
+            }
+        }
+
+        @Override
+        protected void setElement(int elementIndex, Block block, int position)
+        {
+            blocks[elementIndex] = block;
+            positions[elementIndex] = position;
+            lengths[elementIndex] = lastLength;
+            hashes[elementIndex] = lastHash;
+        }
+    }
+}
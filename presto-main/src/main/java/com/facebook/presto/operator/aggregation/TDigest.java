@@ -0,0 +1,351 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.airlift.slice.SizeOf;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.Slices;
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.Swapper;
+import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
+import org.openjdk.jol.info.ClassLayout;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Arrays.copyOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A merging t-digest (Dunning and Ertl, "Computing Extremely Accurate Quantiles Using t-Digests").
+ * Values are buffered and periodically merged into a sorted list of weighted centroids. The arcsine
+ * scale function bounds the size of each centroid by its quantile, so the digest keeps at most about
+ * {@code compression} centroids, whatever the number of values, and is most accurate near the
+ * extreme quantiles. The arrays grow on demand, so a digest of a few values stays small.
+ */
+public class TDigest
+{
+    private static final byte FORMAT_TAG = 0;
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(TDigest.class).instanceSize();
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final double compression;
+    private final int maxBuffered;
+    private final double cosStep;
+    private final double sinStep;
+
+    // sorted centroids in [0, centroidCount), followed by unsorted buffered values
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+    private int bufferedCount;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(double compression)
+    {
+        checkArgument(compression >= 1, "compression must be at least 1");
+        this.compression = compression;
+        this.maxBuffered = (int) Math.ceil(compression);
+        this.cosStep = Math.cos(2 * Math.PI / compression);
+        this.sinStep = Math.sin(2 * Math.PI / compression);
+        this.means = new double[INITIAL_CAPACITY];
+        this.weights = new double[INITIAL_CAPACITY];
+    }
+
+    public TDigest(Slice serialized)
+    {
+        requireNonNull(serialized, "serialized is null");
+        SliceInput input = serialized.getInput();
+
+        checkArgument(input.readByte() == FORMAT_TAG, "Unsupported format tag");
+
+        this.compression = input.readDouble();
+        checkArgument(compression >= 1, "compression must be at least 1");
+        this.maxBuffered = (int) Math.ceil(compression);
+        this.cosStep = Math.cos(2 * Math.PI / compression);
+        this.sinStep = Math.sin(2 * Math.PI / compression);
+        this.min = input.readDouble();
+        this.max = input.readDouble();
+        this.centroidCount = input.readInt();
+        checkArgument(centroidCount >= 0, "centroid count is negative");
+        this.means = new double[Math.max(centroidCount, INITIAL_CAPACITY)];
+        this.weights = new double[Math.max(centroidCount, INITIAL_CAPACITY)];
+        input.readBytes(Slices.wrappedDoubleArray(means), centroidCount * SizeOf.SIZE_OF_DOUBLE);
+        input.readBytes(Slices.wrappedDoubleArray(weights), centroidCount * SizeOf.SIZE_OF_DOUBLE);
+        for (int i = 0; i < centroidCount; i++) {
+            totalWeight += weights[i];
+        }
+    }
+
+    public double getCompression()
+    {
+        return compression;
+    }
+
+    public double getCount()
+    {
+        return totalWeight;
+    }
+
+    public double getMin()
+    {
+        return min;
+    }
+
+    public double getMax()
+    {
+        return max;
+    }
+
+    public void add(double value)
+    {
+        add(value, 1);
+    }
+
+    public void add(double value, double weight)
+    {
+        checkArgument(!Double.isNaN(value), "value is NaN");
+        checkArgument(weight > 0, "weight must be positive");
+
+        addCentroid(value, weight);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void mergeWith(TDigest other)
+    {
+        for (int i = 0; i < other.centroidCount + other.bufferedCount; i++) {
+            addCentroid(other.means[i], other.weights[i]);
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the estimated value at the given quantile, or NaN if the digest is empty.
+     */
+    public double getQuantile(double quantile)
+    {
+        checkArgument(quantile >= 0 && quantile <= 1, "quantile must be between 0 and 1");
+        compress();
+
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+
+        // each centroid is centered at the middle of the ranks it covers, and the
+        // value is interpolated between neighbouring centers, or the min or max
+        double rank = quantile * totalWeight;
+        double center = weights[0] / 2;
+        if (rank < center) {
+            return interpolate(rank, 0, min, center, means[0]);
+        }
+        for (int i = 1; i < centroidCount; i++) {
+            double nextCenter = center + (weights[i - 1] + weights[i]) / 2;
+            if (rank < nextCenter) {
+                return interpolate(rank, center, means[i - 1], nextCenter, means[i]);
+            }
+            center = nextCenter;
+        }
+        return interpolate(rank, center, means[centroidCount - 1], totalWeight, max);
+    }
+
+    public long estimatedInMemorySizeInBytes()
+    {
+        return INSTANCE_SIZE + SizeOf.sizeOf(means) + SizeOf.sizeOf(weights);
+    }
+
+    public int estimatedSerializedSizeInBytes()
+    {
+        compress();
+        return SizeOf.SIZE_OF_BYTE + // format
+                SizeOf.SIZE_OF_DOUBLE + // compression
+                SizeOf.SIZE_OF_DOUBLE + // min
+                SizeOf.SIZE_OF_DOUBLE + // max
+                SizeOf.SIZE_OF_INT + // centroid count
+                SizeOf.SIZE_OF_DOUBLE * centroidCount + // means
+                SizeOf.SIZE_OF_DOUBLE * centroidCount; // weights
+    }
+
+    public Slice serialize()
+    {
+        int requiredBytes = estimatedSerializedSizeInBytes();
+        return Slices.allocate(requiredBytes)
+                .getOutput()
+                .appendByte(FORMAT_TAG)
+                .appendDouble(compression)
+                .appendDouble(min)
+                .appendDouble(max)
+                .appendInt(centroidCount)
+                .appendBytes(Slices.wrappedDoubleArray(means, 0, centroidCount))
+                .appendBytes(Slices.wrappedDoubleArray(weights, 0, centroidCount))
+                .getUnderlyingSlice();
+    }
+
+    @VisibleForTesting
+    int getCentroidCount()
+    {
+        compress();
+        return centroidCount;
+    }
+
+    private void addCentroid(double mean, double weight)
+    {
+        if (bufferedCount == maxBuffered) {
+            compress();
+        }
+        int index = centroidCount + bufferedCount;
+        if (index == means.length) {
+            int capacity = Math.min(means.length * 2, maxCentroids() + maxBuffered);
+            means = copyOf(means, Math.max(capacity, index + 1));
+            weights = copyOf(weights, means.length);
+        }
+        means[index] = mean;
+        weights[index] = weight;
+        bufferedCount++;
+        totalWeight += weight;
+    }
+
+    private int maxCentroids()
+    {
+        // adjacent centroids span more than one unit of the scale function, which spans compression / 2 units
+        return (int) Math.ceil(compression) + 1;
+    }
+
+    private void compress()
+    {
+        if (bufferedCount == 0) {
+            return;
+        }
+
+        // merge the sorted buffer with the centroids, which are already sorted, into new arrays
+        int count = centroidCount + bufferedCount;
+        sort(means, weights, centroidCount, count);
+        double[] mergedMeans = new double[Math.max(means.length, INITIAL_CAPACITY)];
+        double[] mergedWeights = new double[mergedMeans.length];
+
+        int mergedCount = 0;
+        int centroid = 0;
+        int buffered = centroidCount;
+        double mean = 0;
+        double weight = 0;
+        double weightSoFar = 0;
+        double weightLimit = 0;
+        for (int i = 0; i < count; i++) {
+            int next;
+            if (buffered == count || (centroid < centroidCount && means[centroid] <= means[buffered])) {
+                next = centroid++;
+            }
+            else {
+                next = buffered++;
+            }
+
+            if (i > 0 && weightSoFar + weight + weights[next] <= weightLimit) {
+                weight += weights[next];
+                if (means[next] != mean) {
+                    // the check keeps merged infinite values from becoming NaN
+                    mean += (means[next] - mean) * weights[next] / weight;
+                }
+                continue;
+            }
+            if (i > 0) {
+                mergedMeans[mergedCount] = mean;
+                mergedWeights[mergedCount] = weight;
+                mergedCount++;
+                weightSoFar += weight;
+            }
+            weightLimit = totalWeight * maxQuantile(weightSoFar / totalWeight);
+            mean = means[next];
+            weight = weights[next];
+        }
+        mergedMeans[mergedCount] = mean;
+        mergedWeights[mergedCount] = weight;
+        mergedCount++;
+
+        means = mergedMeans;
+        weights = mergedWeights;
+        centroidCount = mergedCount;
+        bufferedCount = 0;
+    }
+
+    /**
+     * Returns the largest quantile that a centroid starting at the given quantile may extend to, which is
+     * one unit of the scale function k(q) = compression / (2 * pi) * asin(2 * q - 1) further. With
+     * x = 2 * q - 1 and c = 2 * pi / compression, that is (sin(asin(x) + c) + 1) / 2, which expands to
+     * (x * cos(c) + sqrt(1 - x * x) * sin(c) + 1) / 2 while asin(x) + c does not exceed pi / 2.
+     */
+    private double maxQuantile(double quantile)
+    {
+        double x = 2 * quantile - 1;
+        if (x >= cosStep) {
+            return 1;
+        }
+        return (x * cosStep + Math.sqrt(1 - x * x) * sinStep + 1) / 2;
+    }
+
+    private static double interpolate(double x, double x1, double y1, double x2, double y2)
+    {
+        if (x <= x1 || y1 == y2) {
+            // also keeps infinite values from becoming NaN
+            return y1;
+        }
+        if (x >= x2) {
+            return y2;
+        }
+        return y1 + (y2 - y1) * ((x - x1) / (x2 - x1));
+    }
+
+    private static void sort(double[] means, double[] weights, int from, int to)
+    {
+        Arrays.quickSort(from, to, new AbstractIntComparator()
+        {
+            @Override
+            public int compare(int a, int b)
+            {
+                return Double.compare(means[a], means[b]);
+            }
+        }, new Swapper()
+        {
+            @Override
+            public void swap(int a, int b)
+            {
+                double temp = means[a];
+                means[a] = means[b];
+                means[b] = temp;
+
+                temp = weights[a];
+                weights[a] = weights[b];
+                weights[b] = temp;
+            }
+        });
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("compression", compression)
+                .add("count", totalWeight)
+                .add("min", min)
+                .add("max", max)
+                .toString();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation;
+
+import com.facebook.presto.operator.aggregation.state.TDigestAndPercentileState;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.function.AggregationFunction;
+import com.facebook.presto.spi.function.AggregationState;
+import com.facebook.presto.spi.function.CombineFunction;
+import com.facebook.presto.spi.function.InputFunction;
+import com.facebook.presto.spi.function.OutputFunction;
+import com.facebook.presto.spi.function.SqlType;
+import com.facebook.presto.spi.type.StandardTypes;
+
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.util.Failures.checkCondition;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * approx_percentile computed with a {@link TDigest} instead of a quantile digest. The digest keeps at
+ * most about 1 / accuracy centroids, so its size does not depend on the range of the values, and it
+ * is more accurate than required near the extreme percentiles. NaN values are ignored.
+ */
+@AggregationFunction(TDigestDoublePercentileAggregations.NAME)
+public final class TDigestDoublePercentileAggregations
+{
+    public static final String NAME = "approx_percentile_tdigest";
+
+    private static final double DEFAULT_ACCURACY = 0.01;
+    private static final double MAX_COMPRESSION = 10_000;
+
+    private TDigestDoublePercentileAggregations() {}
+
+    @InputFunction
+    public static void input(@AggregationState TDigestAndPercentileState state, @SqlType(StandardTypes.DOUBLE) double value, @SqlType(StandardTypes.DOUBLE) double percentile)
+    {
+        add(state, value, 1, percentile, DEFAULT_ACCURACY);
+    }
+
+    @InputFunction
+    public static void weightedInput(@AggregationState TDigestAndPercentileState state, @SqlType(StandardTypes.DOUBLE) double value, @SqlType(StandardTypes.BIGINT) long weight, @SqlType(StandardTypes.DOUBLE) double percentile)
+    {
+        checkWeight(weight);
+        add(state, value, weight, percentile, DEFAULT_ACCURACY);
+    }
+
+    @InputFunction
+    public static void weightedInput(@AggregationState TDigestAndPercentileState state, @SqlType(StandardTypes.DOUBLE) double value, @SqlType(StandardTypes.BIGINT) long weight, @SqlType(StandardTypes.DOUBLE) double percentile, @SqlType(StandardTypes.DOUBLE) double accuracy)
+    {
+        checkWeight(weight);
+        checkCondition(accuracy > 0 && accuracy < 1, INVALID_FUNCTION_ARGUMENT, "Percentile accuracy must be strictly between 0 and 1");
+        add(state, value, weight, percentile, accuracy);
+    }
+
+    @CombineFunction
+    public static void combine(@AggregationState TDigestAndPercentileState state, TDigestAndPercentileState otherState)
+    {
+        TDigest input = otherState.getDigest();
+
+        TDigest previous = state.getDigest();
+        if (previous == null) {
+            state.setDigest(input);
+            state.addMemoryUsage(input.estimatedInMemorySizeInBytes());
+        }
+        else {
+            state.addMemoryUsage(-previous.estimatedInMemorySizeInBytes());
+            previous.mergeWith(input);
+            state.addMemoryUsage(previous.estimatedInMemorySizeInBytes());
+        }
+        state.setPercentile(otherState.getPercentile());
+    }
+
+    @OutputFunction(StandardTypes.DOUBLE)
+    public static void output(@AggregationState TDigestAndPercentileState state, BlockBuilder out)
+    {
+        TDigest digest = state.getDigest();
+        if (digest == null || digest.getCount() == 0.0) {
+            out.appendNull();
+        }
+        else {
+            DOUBLE.writeDouble(out, getQuantile(state));
+        }
+    }
+
+    static double getQuantile(TDigestAndPercentileState state)
+    {
+        double percentile = state.getPercentile();
+        checkState(percentile != -1.0, "Percentile is missing");
+        checkCondition(0 <= percentile && percentile <= 1, INVALID_FUNCTION_ARGUMENT, "Percentile must be between 0 and 1");
+        return state.getDigest().getQuantile(percentile);
+    }
+
+    static void add(TDigestAndPercentileState state, double value, long weight, double percentile, double accuracy)
+    {
+        TDigest digest = state.getDigest();
+
+        if (digest == null) {
+            digest = new TDigest(Math.min(1 / accuracy, MAX_COMPRESSION));
+            state.setDigest(digest);
+            state.addMemoryUsage(digest.estimatedInMemorySizeInBytes());
+        }
+
+        // NaN has no rank among the other values
+        if (!Double.isNaN(value)) {
+            state.addMemoryUsage(-digest.estimatedInMemorySizeInBytes());
+            digest.add(value, weight);
+            state.addMemoryUsage(digest.estimatedInMemorySizeInBytes());
+        }
+
+        // use last percentile
+        state.setPercentile(percentile);
+    }
+
+    private static void checkWeight(long weight)
+    {
+        checkCondition(weight > 0, INVALID_FUNCTION_ARGUMENT, "percentile weight must be > 0");
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation;
+
+import com.facebook.presto.operator.aggregation.state.TDigestAndPercentileState;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.function.AggregationFunction;
+import com.facebook.presto.spi.function.AggregationState;
+import com.facebook.presto.spi.function.CombineFunction;
+import com.facebook.presto.spi.function.InputFunction;
+import com.facebook.presto.spi.function.OutputFunction;
+import com.facebook.presto.spi.function.SqlType;
+import com.facebook.presto.spi.type.StandardTypes;
+
+import static com.facebook.presto.operator.aggregation.TDigestDoublePercentileAggregations.getQuantile;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+
+@AggregationFunction(TDigestDoublePercentileAggregations.NAME)
+public final class TDigestLongPercentileAggregations
+{
+    private TDigestLongPercentileAggregations() {}
+
+    @InputFunction
+    public static void input(@AggregationState TDigestAndPercentileState state, @SqlType(StandardTypes.BIGINT) long value, @SqlType(StandardTypes.DOUBLE) double percentile)
+    {
+        TDigestDoublePercentileAggregations.input(state, value, percentile);
+    }
+
+    @InputFunction
+    public static void weightedInput(@AggregationState TDigestAndPercentileState state, @SqlType(StandardTypes.BIGINT) long value, @SqlType(StandardTypes.BIGINT) long weight, @SqlType(StandardTypes.DOUBLE) double percentile)
+    {
+        TDigestDoublePercentileAggregations.weightedInput(state, value, weight, percentile);
+    }
+
+    @InputFunction
+    public static void weightedInput(@AggregationState TDigestAndPercentileState state, @SqlType(StandardTypes.BIGINT) long value, @SqlType(StandardTypes.BIGINT) long weight, @SqlType(StandardTypes.DOUBLE) double percentile, @SqlType(StandardTypes.DOUBLE) double accuracy)
+    {
+        TDigestDoublePercentileAggregations.weightedInput(state, value, weight, percentile, accuracy);
+    }
+
+    @CombineFunction
+    public static void combine(@AggregationState TDigestAndPercentileState state, TDigestAndPercentileState otherState)
+    {
+        TDigestDoublePercentileAggregations.combine(state, otherState);
+    }
+
+    @OutputFunction(StandardTypes.BIGINT)
+    public static void output(@AggregationState TDigestAndPercentileState state, BlockBuilder out)
+    {
+        TDigest digest = state.getDigest();
+        if (digest == null || digest.getCount() == 0.0) {
+            out.appendNull();
+        }
+        else {
+            BIGINT.writeLong(out, Math.round(getQuantile(state)));
+        }
+    }
+}
@@ -32,6 +32,8 @@ public interface HashAggregationBuilder
 
     void recordHashCollisions(HashCollisionsCounter hashCollisionsCounter);
 
+    long getRehashCount();
+
     @Override
     void close();
 
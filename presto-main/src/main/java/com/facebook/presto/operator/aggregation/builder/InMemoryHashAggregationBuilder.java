@@ -165,6 +165,12 @@ public class InMemoryHashAggregationBuilder
         hashCollisionsCounter.recordHashCollision(groupByHash.getHashCollisions(), groupByHash.getExpectedHashCollisions());
     }
 
+    @Override
+    public long getRehashCount()
+    {
+        return groupByHash.getRehashCount();
+    }
+
     public long getHashCollisions()
     {
         return groupByHash.getHashCollisions();
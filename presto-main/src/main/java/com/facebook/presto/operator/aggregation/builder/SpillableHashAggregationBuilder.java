@@ -62,6 +62,7 @@ public class SpillableHashAggregationBuilder
     private long emptyHashAggregationBuilderSize = 0;
 
     private long hashCollisions;
+    private long rehashCount;
     private double expectedHashCollisions;
 
     public SpillableHashAggregationBuilder(
@@ -125,6 +126,12 @@ public class SpillableHashAggregationBuilder
         expectedHashCollisions = 0;
     }
 
+    @Override
+    public long getRehashCount()
+    {
+        return rehashCount + (hashAggregationBuilder == null ? 0 : hashAggregationBuilder.getRehashCount());
+    }
+
     @Override
     public boolean isFull()
     {
@@ -271,6 +278,7 @@ public class SpillableHashAggregationBuilder
     {
         if (hashAggregationBuilder != null) {
             hashCollisions += hashAggregationBuilder.getHashCollisions();
+            rehashCount += hashAggregationBuilder.getRehashCount();
             expectedHashCollisions += hashAggregationBuilder.getExpectedHashCollisions();
             hashAggregationBuilder.close();
         }
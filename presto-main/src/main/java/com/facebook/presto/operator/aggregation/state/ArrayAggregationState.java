@@ -13,7 +13,7 @@
  */
 package com.facebook.presto.operator.aggregation.state;
 
-import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.function.AccumulatorState;
 import com.facebook.presto.spi.function.AccumulatorStateMetadata;
 
@@ -21,9 +21,22 @@ import com.facebook.presto.spi.function.AccumulatorStateMetadata;
 public interface ArrayAggregationState
         extends AccumulatorState
 {
-    BlockBuilder getBlockBuilder();
+    void add(Block block, int position);
 
-    void setBlockBuilder(BlockBuilder value);
+    /**
+     * Calls the consumer with the block and position of every value of the state, in the order they were added.
+     */
+    void forEach(ArrayAggregationStateConsumer consumer);
 
-    void addMemoryUsage(long memory);
+    boolean isEmpty();
+
+    /**
+     * Removes all values from the state.
+     */
+    void reset();
+
+    default void merge(ArrayAggregationState otherState)
+    {
+        otherState.forEach(this::add);
+    }
 }
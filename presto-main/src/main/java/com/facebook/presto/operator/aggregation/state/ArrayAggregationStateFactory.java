@@ -13,20 +13,33 @@
  */
 package com.facebook.presto.operator.aggregation.state;
 
-import com.facebook.presto.array.ObjectBigArray;
+import com.facebook.presto.array.IntBigArray;
+import com.facebook.presto.array.LongBigArray;
+import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.function.AccumulatorStateFactory;
+import com.facebook.presto.spi.type.Type;
 import org.openjdk.jol.info.ClassLayout;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static java.util.Objects.requireNonNull;
 
 public class ArrayAggregationStateFactory
         implements AccumulatorStateFactory<ArrayAggregationState>
 {
+    private final Type type;
+
+    public ArrayAggregationStateFactory(Type type)
+    {
+        this.type = requireNonNull(type, "type is null");
+    }
+
     @Override
     public ArrayAggregationState createSingleState()
     {
-        return new SingleArrayAggregationState();
+        return new SingleArrayAggregationState(type);
     }
 
     @Override
@@ -38,7 +51,7 @@ public class ArrayAggregationStateFactory
     @Override
     public ArrayAggregationState createGroupedState()
     {
-        return new GroupedArrayAggregationState();
+        return new GroupedArrayAggregationState(type);
     }
 
     @Override
@@ -47,49 +60,113 @@ public class ArrayAggregationStateFactory
         return GroupedArrayAggregationState.class;
     }
 
+    /**
+     * Appends the values of all groups to shared blocks, and links the values of each group in the
+     * order they were added, like {@link com.facebook.presto.operator.ArrayPositionLinks} links the
+     * positions of the rows with the same join key. This avoids a block builder per group, and the
+     * arrays of the groups are only built by the output function.
+     */
     public static class GroupedArrayAggregationState
             extends AbstractGroupedAccumulatorState
             implements ArrayAggregationState
     {
         private static final int INSTANCE_SIZE = ClassLayout.parseClass(GroupedArrayAggregationState.class).instanceSize();
-        private final ObjectBigArray<BlockBuilder> blockBuilders = new ObjectBigArray<BlockBuilder>();
-        private long size;
+        private static final int MAX_BLOCK_SIZE_IN_BYTES = 1024 * 1024;
+        private static final int EXPECTED_BLOCK_ENTRIES = 1024;
+        private static final long NULL = -1;
+
+        private final Type type;
+        private final List<BlockBuilder> values = new ArrayList<>();
+        private BlockBuilder currentValues;
+        private long closedValuesRetainedSize;
+
+        private final LongBigArray headEntries = new LongBigArray(NULL);
+        private final LongBigArray tailEntries = new LongBigArray(NULL);
+
+        private final IntBigArray entryBlocks = new IntBigArray();
+        private final IntBigArray entryPositions = new IntBigArray();
+        private final LongBigArray nextEntries = new LongBigArray(NULL);
+        private long entryCount;
+
+        public GroupedArrayAggregationState(Type type)
+        {
+            this.type = requireNonNull(type, "type is null");
+        }
 
         @Override
         public void ensureCapacity(long size)
         {
-            blockBuilders.ensureCapacity(size);
+            headEntries.ensureCapacity(size);
+            tailEntries.ensureCapacity(size);
         }
 
         @Override
         public long getEstimatedSize()
         {
-            return INSTANCE_SIZE + size + blockBuilders.sizeOf();
+            long estimatedSize = INSTANCE_SIZE +
+                    headEntries.sizeOf() +
+                    tailEntries.sizeOf() +
+                    entryBlocks.sizeOf() +
+                    entryPositions.sizeOf() +
+                    nextEntries.sizeOf() +
+                    closedValuesRetainedSize;
+            if (currentValues != null) {
+                estimatedSize += currentValues.getRetainedSizeInBytes();
+            }
+            return estimatedSize;
         }
 
         @Override
-        public void addMemoryUsage(long memory)
+        public void add(Block block, int position)
         {
-            size += memory;
+            if (currentValues == null || currentValues.getSizeInBytes() >= MAX_BLOCK_SIZE_IN_BYTES) {
+                if (currentValues != null) {
+                    closedValuesRetainedSize += currentValues.getRetainedSizeInBytes();
+                }
+                currentValues = type.createBlockBuilder(null, EXPECTED_BLOCK_ENTRIES);
+                values.add(currentValues);
+            }
+
+            long entry = entryCount;
+            entryCount++;
+            entryBlocks.ensureCapacity(entryCount);
+            entryPositions.ensureCapacity(entryCount);
+            nextEntries.ensureCapacity(entryCount);
+            entryBlocks.set(entry, values.size() - 1);
+            entryPositions.set(entry, currentValues.getPositionCount());
+            type.appendTo(block, position, currentValues);
+
+            long groupId = getGroupId();
+            long tail = tailEntries.get(groupId);
+            if (tail == NULL) {
+                headEntries.set(groupId, entry);
+            }
+            else {
+                nextEntries.set(tail, entry);
+            }
+            tailEntries.set(groupId, entry);
         }
 
         @Override
-        public BlockBuilder getBlockBuilder()
+        public void forEach(ArrayAggregationStateConsumer consumer)
         {
-            return blockBuilders.get(getGroupId());
+            for (long entry = headEntries.get(getGroupId()); entry != NULL; entry = nextEntries.get(entry)) {
+                consumer.accept(values.get(entryBlocks.get(entry)), entryPositions.get(entry));
+            }
         }
 
         @Override
-        public void setBlockBuilder(BlockBuilder value)
+        public boolean isEmpty()
         {
-            requireNonNull(value, "value is null");
+            return headEntries.get(getGroupId()) == NULL;
+        }
 
-            BlockBuilder previous = getBlockBuilder();
-            if (previous != null) {
-                size -= previous.getRetainedSizeInBytes();
-            }
-            blockBuilders.set(getGroupId(), value);
-            size += value.getRetainedSizeInBytes();
+        @Override
+        public void reset()
+        {
+            // the values of the group stay in the shared blocks until the state is released
+            headEntries.set(getGroupId(), NULL);
+            tailEntries.set(getGroupId(), NULL);
         }
     }
 
@@ -97,8 +174,15 @@ public class ArrayAggregationStateFactory
             implements ArrayAggregationState
     {
         private static final int INSTANCE_SIZE = ClassLayout.parseClass(SingleArrayAggregationState.class).instanceSize();
+
+        private final Type type;
         private BlockBuilder blockBuilder;
 
+        public SingleArrayAggregationState(Type type)
+        {
+            this.type = requireNonNull(type, "type is null");
+        }
+
         @Override
         public long getEstimatedSize()
         {
@@ -110,22 +194,35 @@ public class ArrayAggregationStateFactory
         }
 
         @Override
-        public BlockBuilder getBlockBuilder()
+        public void add(Block block, int position)
+        {
+            if (blockBuilder == null) {
+                blockBuilder = type.createBlockBuilder(null, 16);
+            }
+            type.appendTo(block, position, blockBuilder);
+        }
+
+        @Override
+        public void forEach(ArrayAggregationStateConsumer consumer)
         {
-            return blockBuilder;
+            if (blockBuilder == null) {
+                return;
+            }
+            for (int position = 0; position < blockBuilder.getPositionCount(); position++) {
+                consumer.accept(blockBuilder, position);
+            }
         }
 
         @Override
-        public void setBlockBuilder(BlockBuilder value)
+        public boolean isEmpty()
         {
-            requireNonNull(value, "value is null");
-            blockBuilder = value;
+            return blockBuilder == null || blockBuilder.getPositionCount() == 0;
         }
 
         @Override
-        public void addMemoryUsage(long memory)
+        public void reset()
         {
-            // no op
+            blockBuilder = null;
         }
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation.state;
+
+import com.facebook.presto.spi.function.AccumulatorState;
+import com.facebook.presto.spi.function.AccumulatorStateMetadata;
+import io.airlift.slice.Slice;
+import io.airlift.stats.cardinality.HyperLogLog;
+
+/**
+ * HyperLogLog state that keeps the distinct hashes of the values of a group until they would take more
+ * memory than a dense HyperLogLog, and only then builds the HyperLogLog from them. The hashes are the
+ * ones {@link HyperLogLog#addHash(long)} takes, so the estimates are the same as with a HyperLogLog
+ * built from the start.
+ */
+@AccumulatorStateMetadata(stateSerializerClass = CompactHyperLogLogStateSerializer.class, stateFactoryClass = CompactHyperLogLogStateFactory.class)
+public interface CompactHyperLogLogState
+        extends AccumulatorState
+{
+    /**
+     * Returns the number of buckets of the HyperLogLog, or 0 if the state is empty.
+     */
+    int getNumberOfBuckets();
+
+    /**
+     * Returns the HyperLogLog, or null while the state keeps the hashes of the values.
+     */
+    HyperLogLog getHyperLogLog();
+
+    int getHashCount();
+
+    long getHash(int index);
+
+    void addHash(long hash, int numberOfBuckets);
+
+    void mergeWith(HyperLogLog hyperLogLog, int numberOfBuckets);
+
+    /**
+     * Replaces the contents of the state with the given distinct hashes.
+     */
+    void setHashes(int numberOfBuckets, Slice hashes);
+
+    /**
+     * Replaces the contents of the state with the given HyperLogLog.
+     */
+    void setHyperLogLog(int numberOfBuckets, HyperLogLog hyperLogLog);
+}
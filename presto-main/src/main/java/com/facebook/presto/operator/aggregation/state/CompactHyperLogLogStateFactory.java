@@ -0,0 +1,444 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation.state;
+
+import com.facebook.presto.array.IntBigArray;
+import com.facebook.presto.array.LongBigArray;
+import com.facebook.presto.array.ObjectBigArray;
+import com.facebook.presto.spi.function.AccumulatorStateFactory;
+import io.airlift.slice.Slice;
+import io.airlift.stats.cardinality.HyperLogLog;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
+
+public class CompactHyperLogLogStateFactory
+        implements AccumulatorStateFactory<CompactHyperLogLogState>
+{
+    @Override
+    public CompactHyperLogLogState createSingleState()
+    {
+        return new SingleCompactHyperLogLogState();
+    }
+
+    @Override
+    public Class<? extends CompactHyperLogLogState> getSingleStateClass()
+    {
+        return SingleCompactHyperLogLogState.class;
+    }
+
+    @Override
+    public CompactHyperLogLogState createGroupedState()
+    {
+        return new GroupedCompactHyperLogLogState();
+    }
+
+    @Override
+    public Class<? extends CompactHyperLogLogState> getGroupedStateClass()
+    {
+        return GroupedCompactHyperLogLogState.class;
+    }
+
+    /**
+     * Returns the number of hashes that take about as much memory as the 4-bit registers of a dense HyperLogLog.
+     */
+    public static int getMaxHashCount(int numberOfBuckets)
+    {
+        return Math.max(numberOfBuckets / 16, 1);
+    }
+
+    /**
+     * Keeps the hashes of all groups in one shared arena, so groups with few distinct values do not need any
+     * objects. The hashes of a group are kept sorted, so duplicates are found with a binary search, in a block
+     * of the arena whose size is a power of two, and blocks
+     * that become too small are reused for other groups through a free list per size, linked through the
+     * first slot of the free blocks.
+     */
+    public static class GroupedCompactHyperLogLogState
+            extends AbstractGroupedAccumulatorState
+            implements CompactHyperLogLogState
+    {
+        private static final int INSTANCE_SIZE = ClassLayout.parseClass(GroupedCompactHyperLogLogState.class).instanceSize();
+        private static final int MIN_BLOCK_SIZE = 2;
+
+        private final IntBigArray numberOfBuckets = new IntBigArray();
+        private final IntBigArray hashCounts = new IntBigArray();
+        private final LongBigArray blockOffsets = new LongBigArray();
+        private final ObjectBigArray<HyperLogLog> hyperLogLogs = new ObjectBigArray<>();
+
+        private final LongBigArray arena = new LongBigArray();
+        private long arenaSize;
+        private final long[] freeBlocks = new long[Integer.SIZE];
+        private long hyperLogLogsSize;
+
+        public GroupedCompactHyperLogLogState()
+        {
+            Arrays.fill(freeBlocks, -1);
+        }
+
+        @Override
+        public void ensureCapacity(long size)
+        {
+            numberOfBuckets.ensureCapacity(size);
+            hashCounts.ensureCapacity(size);
+            blockOffsets.ensureCapacity(size);
+            hyperLogLogs.ensureCapacity(size);
+        }
+
+        @Override
+        public int getNumberOfBuckets()
+        {
+            return numberOfBuckets.get(getGroupId());
+        }
+
+        @Override
+        public HyperLogLog getHyperLogLog()
+        {
+            return hyperLogLogs.get(getGroupId());
+        }
+
+        @Override
+        public int getHashCount()
+        {
+            return hashCounts.get(getGroupId());
+        }
+
+        @Override
+        public long getHash(int index)
+        {
+            return arena.get(blockOffsets.get(getGroupId()) + index);
+        }
+
+        @Override
+        public void addHash(long hash, int numberOfBuckets)
+        {
+            long groupId = getGroupId();
+            HyperLogLog hyperLogLog = hyperLogLogs.get(groupId);
+            if (hyperLogLog != null) {
+                hyperLogLogsSize -= hyperLogLog.estimatedInMemorySize();
+                hyperLogLog.addHash(hash);
+                hyperLogLogsSize += hyperLogLog.estimatedInMemorySize();
+                return;
+            }
+
+            int count = hashCounts.get(groupId);
+            if (count == 0) {
+                this.numberOfBuckets.set(groupId, numberOfBuckets);
+            }
+            long offset = blockOffsets.get(groupId);
+            int insertionPoint = binarySearch(offset, count, hash);
+            if (insertionPoint < 0) {
+                // the hash is already in the group
+                return;
+            }
+
+            if (count == getMaxHashCount(this.numberOfBuckets.get(groupId))) {
+                hyperLogLog = buildHyperLogLog(groupId);
+                hyperLogLog.addHash(hash);
+                setHyperLogLog(groupId, hyperLogLog);
+                return;
+            }
+
+            if (count == 0) {
+                offset = allocateBlock(MIN_BLOCK_SIZE);
+                blockOffsets.set(groupId, offset);
+            }
+            else if (count >= MIN_BLOCK_SIZE && Integer.bitCount(count) == 1) {
+                // the block is full
+                long newOffset = allocateBlock(count * 2);
+                for (int i = 0; i < count; i++) {
+                    arena.set(newOffset + i, arena.get(offset + i));
+                }
+                freeBlock(offset, count);
+                offset = newOffset;
+                blockOffsets.set(groupId, offset);
+            }
+            for (int i = count; i > insertionPoint; i--) {
+                arena.set(offset + i, arena.get(offset + i - 1));
+            }
+            arena.set(offset + insertionPoint, hash);
+            hashCounts.set(groupId, count + 1);
+        }
+
+        @Override
+        public void mergeWith(HyperLogLog hyperLogLog, int numberOfBuckets)
+        {
+            long groupId = getGroupId();
+            HyperLogLog previous = hyperLogLogs.get(groupId);
+            if (previous == null && hashCounts.get(groupId) == 0) {
+                this.numberOfBuckets.set(groupId, numberOfBuckets);
+                setHyperLogLog(groupId, hyperLogLog);
+                return;
+            }
+
+            if (previous == null) {
+                previous = buildHyperLogLog(groupId);
+                setHyperLogLog(groupId, previous);
+            }
+            hyperLogLogsSize -= previous.estimatedInMemorySize();
+            previous.mergeWith(hyperLogLog);
+            hyperLogLogsSize += previous.estimatedInMemorySize();
+        }
+
+        @Override
+        public void setHashes(int numberOfBuckets, Slice hashes)
+        {
+            long groupId = getGroupId();
+            clear(groupId);
+            for (int i = 0; i < hashes.length() / SIZE_OF_LONG; i++) {
+                addHash(hashes.getLong(i * SIZE_OF_LONG), numberOfBuckets);
+            }
+        }
+
+        @Override
+        public void setHyperLogLog(int numberOfBuckets, HyperLogLog hyperLogLog)
+        {
+            requireNonNull(hyperLogLog, "hyperLogLog is null");
+            long groupId = getGroupId();
+            clear(groupId);
+            this.numberOfBuckets.set(groupId, numberOfBuckets);
+            setHyperLogLog(groupId, hyperLogLog);
+        }
+
+        @Override
+        public long getEstimatedSize()
+        {
+            return INSTANCE_SIZE +
+                    numberOfBuckets.sizeOf() +
+                    hashCounts.sizeOf() +
+                    blockOffsets.sizeOf() +
+                    hyperLogLogs.sizeOf() +
+                    arena.sizeOf() +
+                    hyperLogLogsSize;
+        }
+
+        /**
+         * Returns the position of the hash in the sorted block, as {@code -(position + 1)} if it is present, or the
+         * position at which it must be inserted otherwise.
+         */
+        private int binarySearch(long offset, int count, long hash)
+        {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long value = arena.get(offset + middle);
+                if (value < hash) {
+                    low = middle + 1;
+                }
+                else if (value > hash) {
+                    high = middle - 1;
+                }
+                else {
+                    return -(middle + 1);
+                }
+            }
+            return low;
+        }
+
+        private HyperLogLog buildHyperLogLog(long groupId)
+        {
+            HyperLogLog hyperLogLog = HyperLogLog.newInstance(numberOfBuckets.get(groupId));
+            int count = hashCounts.get(groupId);
+            long offset = blockOffsets.get(groupId);
+            for (int i = 0; i < count; i++) {
+                hyperLogLog.addHash(arena.get(offset + i));
+            }
+            return hyperLogLog;
+        }
+
+        /**
+         * Replaces the hashes of the group, if any, with the HyperLogLog.
+         */
+        private void setHyperLogLog(long groupId, HyperLogLog hyperLogLog)
+        {
+            int count = hashCounts.get(groupId);
+            if (count > 0) {
+                freeBlock(blockOffsets.get(groupId), count);
+                hashCounts.set(groupId, 0);
+            }
+            hyperLogLogs.set(groupId, hyperLogLog);
+            hyperLogLogsSize += hyperLogLog.estimatedInMemorySize();
+        }
+
+        private void clear(long groupId)
+        {
+            int count = hashCounts.get(groupId);
+            if (count > 0) {
+                freeBlock(blockOffsets.get(groupId), count);
+                hashCounts.set(groupId, 0);
+            }
+            HyperLogLog hyperLogLog = hyperLogLogs.get(groupId);
+            if (hyperLogLog != null) {
+                hyperLogLogsSize -= hyperLogLog.estimatedInMemorySize();
+                hyperLogLogs.set(groupId, null);
+            }
+            numberOfBuckets.set(groupId, 0);
+        }
+
+        private long allocateBlock(int size)
+        {
+            int sizeClass = Integer.numberOfTrailingZeros(size);
+            long offset = freeBlocks[sizeClass];
+            if (offset >= 0) {
+                freeBlocks[sizeClass] = arena.get(offset);
+                return offset;
+            }
+            offset = arenaSize;
+            arenaSize += size;
+            arena.ensureCapacity(arenaSize);
+            return offset;
+        }
+
+        private void freeBlock(long offset, int hashCount)
+        {
+            // the size of the block is the smallest power of two that holds the hashes
+            int size = Math.max(MIN_BLOCK_SIZE, Integer.highestOneBit(hashCount - 1) << 1);
+            int sizeClass = Integer.numberOfTrailingZeros(size);
+            arena.set(offset, freeBlocks[sizeClass]);
+            freeBlocks[sizeClass] = offset;
+        }
+    }
+
+    public static class SingleCompactHyperLogLogState
+            implements CompactHyperLogLogState
+    {
+        private static final int INSTANCE_SIZE = ClassLayout.parseClass(SingleCompactHyperLogLogState.class).instanceSize();
+
+        private int numberOfBuckets;
+        private long[] hashes = new long[0];
+        private int hashCount;
+        private HyperLogLog hyperLogLog;
+
+        @Override
+        public int getNumberOfBuckets()
+        {
+            return numberOfBuckets;
+        }
+
+        @Override
+        public HyperLogLog getHyperLogLog()
+        {
+            return hyperLogLog;
+        }
+
+        @Override
+        public int getHashCount()
+        {
+            return hashCount;
+        }
+
+        @Override
+        public long getHash(int index)
+        {
+            return hashes[index];
+        }
+
+        @Override
+        public void addHash(long hash, int numberOfBuckets)
+        {
+            if (hyperLogLog != null) {
+                hyperLogLog.addHash(hash);
+                return;
+            }
+
+            if (hashCount == 0) {
+                this.numberOfBuckets = numberOfBuckets;
+            }
+            // the hashes are kept sorted
+            int position = Arrays.binarySearch(hashes, 0, hashCount, hash);
+            if (position >= 0) {
+                return;
+            }
+            int insertionPoint = -(position + 1);
+
+            if (hashCount == getMaxHashCount(this.numberOfBuckets)) {
+                hyperLogLog = buildHyperLogLog();
+                hyperLogLog.addHash(hash);
+                hashCount = 0;
+                return;
+            }
+
+            if (hashCount == hashes.length) {
+                hashes = Arrays.copyOf(hashes, Math.max(hashes.length * 2, 2));
+            }
+            System.arraycopy(hashes, insertionPoint, hashes, insertionPoint + 1, hashCount - insertionPoint);
+            hashes[insertionPoint] = hash;
+            hashCount++;
+        }
+
+        @Override
+        public void mergeWith(HyperLogLog hyperLogLog, int numberOfBuckets)
+        {
+            if (this.hyperLogLog == null && hashCount == 0) {
+                this.numberOfBuckets = numberOfBuckets;
+                this.hyperLogLog = hyperLogLog;
+                return;
+            }
+
+            if (this.hyperLogLog == null) {
+                this.hyperLogLog = buildHyperLogLog();
+                hashCount = 0;
+            }
+            this.hyperLogLog.mergeWith(hyperLogLog);
+        }
+
+        @Override
+        public void setHashes(int numberOfBuckets, Slice hashes)
+        {
+            int count = hashes.length() / SIZE_OF_LONG;
+            if (this.hashes.length < count) {
+                this.hashes = new long[count];
+            }
+            for (int i = 0; i < count; i++) {
+                this.hashes[i] = hashes.getLong(i * SIZE_OF_LONG);
+            }
+            Arrays.sort(this.hashes, 0, count);
+            this.numberOfBuckets = numberOfBuckets;
+            this.hashCount = count;
+            this.hyperLogLog = null;
+        }
+
+        @Override
+        public void setHyperLogLog(int numberOfBuckets, HyperLogLog hyperLogLog)
+        {
+            this.numberOfBuckets = numberOfBuckets;
+            this.hyperLogLog = requireNonNull(hyperLogLog, "hyperLogLog is null");
+            this.hashCount = 0;
+        }
+
+        @Override
+        public long getEstimatedSize()
+        {
+            long estimatedSize = INSTANCE_SIZE + sizeOf(hashes);
+            if (hyperLogLog != null) {
+                estimatedSize += hyperLogLog.estimatedInMemorySize();
+            }
+            return estimatedSize;
+        }
+
+        private HyperLogLog buildHyperLogLog()
+        {
+            HyperLogLog hyperLogLog = HyperLogLog.newInstance(numberOfBuckets);
+            for (int i = 0; i < hashCount; i++) {
+                hyperLogLog.addHash(hashes[i]);
+            }
+            return hyperLogLog;
+        }
+    }
+}
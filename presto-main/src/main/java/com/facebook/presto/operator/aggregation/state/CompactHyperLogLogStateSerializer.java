@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation.state;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.function.AccumulatorStateSerializer;
+import com.facebook.presto.spi.type.Type;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import io.airlift.stats.cardinality.HyperLogLog;
+
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static io.airlift.slice.SizeOf.SIZE_OF_BYTE;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+
+/**
+ * Serializes the hashes of the state while it keeps them, which is never larger than the dense
+ * HyperLogLog, and the HyperLogLog otherwise.
+ */
+public class CompactHyperLogLogStateSerializer
+        implements AccumulatorStateSerializer<CompactHyperLogLogState>
+{
+    private static final byte HASHES = 0;
+    private static final byte HYPER_LOG_LOG = 1;
+
+    @Override
+    public Type getSerializedType()
+    {
+        return VARBINARY;
+    }
+
+    @Override
+    public void serialize(CompactHyperLogLogState state, BlockBuilder out)
+    {
+        if (state.getNumberOfBuckets() == 0) {
+            out.appendNull();
+            return;
+        }
+
+        HyperLogLog hyperLogLog = state.getHyperLogLog();
+        if (hyperLogLog != null) {
+            Slice serialized = hyperLogLog.serialize();
+            SliceOutput output = Slices.allocate(SIZE_OF_BYTE + SIZE_OF_INT + serialized.length()).getOutput();
+            output.appendByte(HYPER_LOG_LOG);
+            output.appendInt(state.getNumberOfBuckets());
+            output.appendBytes(serialized);
+            VARBINARY.writeSlice(out, output.getUnderlyingSlice());
+            return;
+        }
+
+        int hashCount = state.getHashCount();
+        SliceOutput output = Slices.allocate(SIZE_OF_BYTE + SIZE_OF_INT + hashCount * SIZE_OF_LONG).getOutput();
+        output.appendByte(HASHES);
+        output.appendInt(state.getNumberOfBuckets());
+        for (int i = 0; i < hashCount; i++) {
+            output.appendLong(state.getHash(i));
+        }
+        VARBINARY.writeSlice(out, output.getUnderlyingSlice());
+    }
+
+    @Override
+    public void deserialize(Block block, int index, CompactHyperLogLogState state)
+    {
+        SliceInput input = VARBINARY.getSlice(block, index).getInput();
+        byte format = input.readByte();
+        int numberOfBuckets = input.readInt();
+        Slice contents = input.readSlice(input.available());
+        if (format == HYPER_LOG_LOG) {
+            state.setHyperLogLog(numberOfBuckets, HyperLogLog.newInstance(contents));
+        }
+        else {
+            state.setHashes(numberOfBuckets, contents);
+        }
+    }
+}
@@ -13,29 +13,37 @@
  */
 package com.facebook.presto.operator.scalar;
 
+import com.facebook.presto.operator.aggregation.SpecializedTypedSet;
 import com.facebook.presto.operator.aggregation.TypedSet;
+import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
-import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.function.Description;
 import com.facebook.presto.spi.function.ScalarFunction;
 import com.facebook.presto.spi.function.SqlType;
 import com.facebook.presto.spi.function.TypeParameter;
 import com.facebook.presto.spi.type.Type;
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
-import it.unimi.dsi.fastutil.longs.LongSet;
+import com.google.common.collect.ImmutableList;
 
-import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import java.util.Optional;
 
 @ScalarFunction("array_distinct")
 @Description("Remove duplicate values from the given array")
 public final class ArrayDistinctFunction
 {
-    private ArrayDistinctFunction() {}
+    private final PageBuilder pageBuilder;
+    private final Optional<SpecializedTypedSet> specializedSet;
+
+    @TypeParameter("E")
+    public ArrayDistinctFunction(@TypeParameter("E") Type elementType)
+    {
+        pageBuilder = new PageBuilder(ImmutableList.of(elementType));
+        specializedSet = SpecializedTypedSet.isSupported(elementType) ? Optional.of(SpecializedTypedSet.create(elementType)) : Optional.empty();
+    }
 
     @TypeParameter("E")
     @SqlType("array(E)")
-    public static Block distinct(@TypeParameter("E") Type type, @SqlType("array(E)") Block array)
+    public Block distinct(@TypeParameter("E") Type type, @SqlType("array(E)") Block array)
     {
         if (array.getPositionCount() < 2) {
             return array;
@@ -50,43 +58,33 @@ public final class ArrayDistinctFunction
             }
         }
 
-        TypedSet typedSet = new TypedSet(type, array.getPositionCount(), "array_distinct");
-        BlockBuilder distinctElementBlockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), array.getPositionCount());
-        for (int i = 0; i < array.getPositionCount(); i++) {
-            if (!typedSet.contains(array, i)) {
-                typedSet.add(array, i);
-                type.appendTo(array, i, distinctElementBlockBuilder);
-            }
+        if (pageBuilder.isFull()) {
+            pageBuilder.reset();
         }
-
-        return distinctElementBlockBuilder.build();
-    }
-
-    @SqlType("array(bigint)")
-    public static Block bigintDistinct(@SqlType("array(bigint)") Block array)
-    {
-        if (array.getPositionCount() == 0) {
-            return array;
-        }
-
-        boolean containsNull = false;
-        LongSet set = new LongOpenHashSet(array.getPositionCount());
-        BlockBuilder distinctElementBlockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), array.getPositionCount());
-        for (int i = 0; i < array.getPositionCount(); i++) {
-            if (array.isNull(i)) {
-                if (!containsNull) {
-                    containsNull = true;
-                    distinctElementBlockBuilder.appendNull();
+        BlockBuilder distinctElementBlockBuilder = pageBuilder.getBlockBuilder(0);
+        int distinctCount = 0;
+        if (specializedSet.isPresent()) {
+            SpecializedTypedSet set = specializedSet.get();
+            set.reset(array.getPositionCount());
+            for (int i = 0; i < array.getPositionCount(); i++) {
+                if (set.add(array, i)) {
+                    type.appendTo(array, i, distinctElementBlockBuilder);
+                    distinctCount++;
                 }
-                continue;
             }
-
-            long value = BIGINT.getLong(array, i);
-            if (set.add(value)) {
-                BIGINT.writeLong(distinctElementBlockBuilder, value);
+        }
+        else {
+            TypedSet typedSet = new TypedSet(type, array.getPositionCount(), "array_distinct");
+            for (int i = 0; i < array.getPositionCount(); i++) {
+                if (!typedSet.contains(array, i)) {
+                    typedSet.add(array, i);
+                    type.appendTo(array, i, distinctElementBlockBuilder);
+                    distinctCount++;
+                }
             }
         }
 
-        return distinctElementBlockBuilder.build();
+        pageBuilder.declarePositions(distinctCount);
+        return distinctElementBlockBuilder.getRegion(distinctElementBlockBuilder.getPositionCount() - distinctCount, distinctCount);
     }
 }
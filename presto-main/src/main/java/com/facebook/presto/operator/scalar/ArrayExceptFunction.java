@@ -13,25 +13,37 @@
  */
 package com.facebook.presto.operator.scalar;
 
+import com.facebook.presto.operator.aggregation.SpecializedTypedSet;
 import com.facebook.presto.operator.aggregation.TypedSet;
+import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
-import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.function.Description;
 import com.facebook.presto.spi.function.ScalarFunction;
 import com.facebook.presto.spi.function.SqlType;
 import com.facebook.presto.spi.function.TypeParameter;
 import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+
+import java.util.Optional;
 
 @ScalarFunction("array_except")
 @Description("Returns an array of elements that are in the first array but not the second, without duplicates.")
 public final class ArrayExceptFunction
 {
-    private ArrayExceptFunction() {}
+    private final PageBuilder pageBuilder;
+    private final Optional<SpecializedTypedSet> specializedSet;
+
+    @TypeParameter("E")
+    public ArrayExceptFunction(@TypeParameter("E") Type elementType)
+    {
+        pageBuilder = new PageBuilder(ImmutableList.of(elementType));
+        specializedSet = SpecializedTypedSet.isSupported(elementType) ? Optional.of(SpecializedTypedSet.create(elementType)) : Optional.empty();
+    }
 
     @TypeParameter("E")
     @SqlType("array(E)")
-    public static Block except(
+    public Block except(
             @TypeParameter("E") Type type,
             @SqlType("array(E)") Block leftArray,
             @SqlType("array(E)") Block rightArray)
@@ -42,17 +54,40 @@ public final class ArrayExceptFunction
         if (leftPositionCount == 0) {
             return leftArray;
         }
-        TypedSet typedSet = new TypedSet(type, leftPositionCount + rightPositionCount, "array_except");
-        BlockBuilder distinctElementBlockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), leftPositionCount);
-        for (int i = 0; i < rightPositionCount; i++) {
-            typedSet.add(rightArray, i);
+
+        if (pageBuilder.isFull()) {
+            pageBuilder.reset();
         }
-        for (int i = 0; i < leftPositionCount; i++) {
-            if (!typedSet.contains(leftArray, i)) {
-                typedSet.add(leftArray, i);
-                type.appendTo(leftArray, i, distinctElementBlockBuilder);
+        BlockBuilder distinctElementBlockBuilder = pageBuilder.getBlockBuilder(0);
+        int distinctCount = 0;
+        if (specializedSet.isPresent()) {
+            SpecializedTypedSet set = specializedSet.get();
+            set.reset(leftPositionCount + rightPositionCount);
+            for (int i = 0; i < rightPositionCount; i++) {
+                set.add(rightArray, i);
+            }
+            for (int i = 0; i < leftPositionCount; i++) {
+                if (set.add(leftArray, i)) {
+                    type.appendTo(leftArray, i, distinctElementBlockBuilder);
+                    distinctCount++;
+                }
             }
         }
-        return distinctElementBlockBuilder.build();
+        else {
+            TypedSet typedSet = new TypedSet(type, leftPositionCount + rightPositionCount, "array_except");
+            for (int i = 0; i < rightPositionCount; i++) {
+                typedSet.add(rightArray, i);
+            }
+            for (int i = 0; i < leftPositionCount; i++) {
+                if (!typedSet.contains(leftArray, i)) {
+                    typedSet.add(leftArray, i);
+                    type.appendTo(leftArray, i, distinctElementBlockBuilder);
+                    distinctCount++;
+                }
+            }
+        }
+
+        pageBuilder.declarePositions(distinctCount);
+        return distinctElementBlockBuilder.getRegion(distinctElementBlockBuilder.getPositionCount() - distinctCount, distinctCount);
     }
 }
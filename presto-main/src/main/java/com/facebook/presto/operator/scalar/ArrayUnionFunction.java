@@ -13,83 +13,87 @@
  */
 package com.facebook.presto.operator.scalar;
 
+import com.facebook.presto.operator.aggregation.SpecializedTypedSet;
 import com.facebook.presto.operator.aggregation.TypedSet;
+import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
-import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.function.Description;
 import com.facebook.presto.spi.function.ScalarFunction;
 import com.facebook.presto.spi.function.SqlType;
 import com.facebook.presto.spi.function.TypeParameter;
 import com.facebook.presto.spi.type.Type;
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
-import it.unimi.dsi.fastutil.longs.LongSet;
+import com.google.common.collect.ImmutableList;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-
-import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import java.util.Optional;
 
 @ScalarFunction("array_union")
 @Description("Union elements of the two given arrays")
 public final class ArrayUnionFunction
 {
-    private ArrayUnionFunction() {}
+    private final PageBuilder pageBuilder;
+    private final Optional<SpecializedTypedSet> specializedSet;
+
+    @TypeParameter("E")
+    public ArrayUnionFunction(@TypeParameter("E") Type elementType)
+    {
+        pageBuilder = new PageBuilder(ImmutableList.of(elementType));
+        specializedSet = SpecializedTypedSet.isSupported(elementType) ? Optional.of(SpecializedTypedSet.create(elementType)) : Optional.empty();
+    }
 
     @TypeParameter("E")
     @SqlType("array(E)")
-    public static Block union(
+    public Block union(
             @TypeParameter("E") Type type,
             @SqlType("array(E)") Block leftArray,
             @SqlType("array(E)") Block rightArray)
     {
         int leftArrayCount = leftArray.getPositionCount();
         int rightArrayCount = rightArray.getPositionCount();
-        TypedSet typedSet = new TypedSet(type, leftArrayCount + rightArrayCount, "array_union");
-        BlockBuilder distinctElementBlockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), leftArrayCount + rightArrayCount);
-        appendTypedArray(leftArray, type, typedSet, distinctElementBlockBuilder);
-        appendTypedArray(rightArray, type, typedSet, distinctElementBlockBuilder);
 
-        return distinctElementBlockBuilder.build();
+        if (pageBuilder.isFull()) {
+            pageBuilder.reset();
+        }
+        BlockBuilder distinctElementBlockBuilder = pageBuilder.getBlockBuilder(0);
+        int distinctCount;
+        if (specializedSet.isPresent()) {
+            SpecializedTypedSet set = specializedSet.get();
+            set.reset(leftArrayCount + rightArrayCount);
+            distinctCount = appendSpecializedArray(leftArray, type, set, distinctElementBlockBuilder);
+            distinctCount += appendSpecializedArray(rightArray, type, set, distinctElementBlockBuilder);
+        }
+        else {
+            TypedSet typedSet = new TypedSet(type, leftArrayCount + rightArrayCount, "array_union");
+            distinctCount = appendTypedArray(leftArray, type, typedSet, distinctElementBlockBuilder);
+            distinctCount += appendTypedArray(rightArray, type, typedSet, distinctElementBlockBuilder);
+        }
+
+        pageBuilder.declarePositions(distinctCount);
+        return distinctElementBlockBuilder.getRegion(distinctElementBlockBuilder.getPositionCount() - distinctCount, distinctCount);
     }
 
-    private static void appendTypedArray(Block array, Type type, TypedSet typedSet, BlockBuilder blockBuilder)
+    private static int appendTypedArray(Block array, Type type, TypedSet typedSet, BlockBuilder blockBuilder)
     {
+        int appended = 0;
         for (int i = 0; i < array.getPositionCount(); i++) {
             if (!typedSet.contains(array, i)) {
                 typedSet.add(array, i);
                 type.appendTo(array, i, blockBuilder);
+                appended++;
             }
         }
+        return appended;
     }
 
-    @SqlType("array(bigint)")
-    public static Block bigintUnion(@SqlType("array(bigint)") Block leftArray, @SqlType("array(bigint)") Block rightArray)
-    {
-        int leftArrayCount = leftArray.getPositionCount();
-        int rightArrayCount = rightArray.getPositionCount();
-        LongSet set = new LongOpenHashSet(leftArrayCount + rightArrayCount);
-        BlockBuilder distinctElementBlockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), leftArrayCount + rightArrayCount);
-        AtomicBoolean containsNull = new AtomicBoolean(false);
-        appendBigintArray(leftArray, containsNull, set, distinctElementBlockBuilder);
-        appendBigintArray(rightArray, containsNull, set, distinctElementBlockBuilder);
-
-        return distinctElementBlockBuilder.build();
-    }
-
-    private static void appendBigintArray(Block array, AtomicBoolean containsNull, LongSet set, BlockBuilder blockBuilder)
+    private static int appendSpecializedArray(Block array, Type type, SpecializedTypedSet set, BlockBuilder blockBuilder)
     {
+        int appended = 0;
         for (int i = 0; i < array.getPositionCount(); i++) {
-            if (array.isNull(i)) {
-                if (!containsNull.get()) {
-                    containsNull.set(true);
-                    blockBuilder.appendNull();
-                }
-                continue;
-            }
-            long value = BIGINT.getLong(array, i);
-            if (set.add(value)) {
-                BIGINT.writeLong(blockBuilder, value);
+            if (set.add(array, i)) {
+                type.appendTo(array, i, blockBuilder);
+                appended++;
             }
         }
+        return appended;
     }
 }
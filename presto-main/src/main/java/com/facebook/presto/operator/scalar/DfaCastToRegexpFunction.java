@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.facebook.presto.metadata.BoundVariables;
+import com.facebook.presto.metadata.FunctionRegistry;
+import com.facebook.presto.metadata.SqlOperator;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.type.TypeManager;
+import com.facebook.presto.type.DfaRegexp;
+import com.facebook.presto.type.DfaRegexpStats;
+import com.facebook.presto.type.DfaRegexpType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slice;
+
+import java.lang.invoke.MethodHandle;
+
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static com.facebook.presto.spi.function.OperatorType.CAST;
+import static com.facebook.presto.spi.type.Chars.padSpaces;
+import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
+import static com.facebook.presto.util.Reflection.methodHandle;
+import static java.lang.invoke.MethodHandles.insertArguments;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
+
+public class DfaCastToRegexpFunction
+        extends SqlOperator
+{
+    private static final MethodHandle METHOD_HANDLE = methodHandle(DfaCastToRegexpFunction.class, "castToRegexp", int.class, int.class, int.class, DfaRegexpStats.class, boolean.class, long.class, Slice.class);
+
+    private final int dfaStatesLimit;
+    private final int re2JDfaStatesLimit;
+    private final int re2JDfaRetries;
+    private final DfaRegexpStats stats;
+    private final boolean padSpaces;
+
+    public static SqlOperator castVarcharToDfaRegexp(int dfaStatesLimit, int re2JDfaStatesLimit, int re2JDfaRetries, DfaRegexpStats stats)
+    {
+        return new DfaCastToRegexpFunction("varchar(x)", dfaStatesLimit, re2JDfaStatesLimit, re2JDfaRetries, stats, false);
+    }
+
+    public static SqlOperator castCharToDfaRegexp(int dfaStatesLimit, int re2JDfaStatesLimit, int re2JDfaRetries, DfaRegexpStats stats)
+    {
+        return new DfaCastToRegexpFunction("char(x)", dfaStatesLimit, re2JDfaStatesLimit, re2JDfaRetries, stats, true);
+    }
+
+    private DfaCastToRegexpFunction(String sourceType, int dfaStatesLimit, int re2JDfaStatesLimit, int re2JDfaRetries, DfaRegexpStats stats, boolean padSpaces)
+    {
+        super(CAST, emptyList(), emptyList(), parseTypeSignature(DfaRegexpType.NAME), ImmutableList.of(parseTypeSignature(sourceType, ImmutableSet.of("x"))));
+        this.dfaStatesLimit = dfaStatesLimit;
+        this.re2JDfaStatesLimit = re2JDfaStatesLimit;
+        this.re2JDfaRetries = re2JDfaRetries;
+        this.stats = requireNonNull(stats, "stats is null");
+        this.padSpaces = padSpaces;
+    }
+
+    @Override
+    public ScalarFunctionImplementation specialize(BoundVariables boundVariables, int arity, TypeManager typeManager, FunctionRegistry functionRegistry)
+    {
+        return new ScalarFunctionImplementation(
+                false, ImmutableList.of(false),
+                insertArguments(METHOD_HANDLE, 0, dfaStatesLimit, re2JDfaStatesLimit, re2JDfaRetries, stats, padSpaces, boundVariables.getLongVariable("x")), true);
+    }
+
+    public static DfaRegexp castToRegexp(int dfaStatesLimit, int re2JDfaStatesLimit, int re2JDfaRetries, DfaRegexpStats stats, boolean padSpaces, long typeLength, Slice pattern)
+    {
+        DfaRegexp regexp;
+        try {
+            if (padSpaces) {
+                pattern = padSpaces(pattern, (int) typeLength);
+            }
+            regexp = new DfaRegexp(dfaStatesLimit, re2JDfaStatesLimit, re2JDfaRetries, pattern);
+        }
+        catch (Exception e) {
+            throw new PrestoException(INVALID_FUNCTION_ARGUMENT, e);
+        }
+        stats.recordPattern(regexp.isAutomatonSupported());
+        return regexp;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.function.Description;
+import com.facebook.presto.spi.function.LiteralParameters;
+import com.facebook.presto.spi.function.ScalarFunction;
+import com.facebook.presto.spi.function.SqlType;
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
+import io.airlift.slice.Slice;
+
+import java.util.List;
+
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.json.JsonCodec.listJsonCodec;
+
+/**
+ * Evaluates several json_extract_scalar calls on the same document in one pass. The paths are given as
+ * a JSON array, so that they are a single constant, and the values are returned in the same order.
+ * The calls are merged by {@link com.facebook.presto.sql.planner.iterative.rule.MergeJsonExtractScalarCalls}.
+ */
+@Description("internal function extracting the scalar values of several JSON paths")
+@ScalarFunction(value = JsonExtractScalarsFunction.NAME, hidden = true)
+public final class JsonExtractScalarsFunction
+{
+    public static final String NAME = "$internal$json_extract_scalars";
+
+    private static final JsonCodec<List<String>> PATHS_CODEC = listJsonCodec(String.class);
+
+    private final PageBuilder pageBuilder;
+    private Slice paths;
+    private JsonScalarPathExtractor extractor;
+
+    public JsonExtractScalarsFunction()
+    {
+        pageBuilder = new PageBuilder(ImmutableList.of(VARCHAR));
+    }
+
+    public static String encodePaths(List<String> paths)
+    {
+        return PATHS_CODEC.toJson(paths);
+    }
+
+    @LiteralParameters({"x", "y"})
+    @SqlType("array(varchar)")
+    public Block extractScalars(@SqlType("varchar(x)") Slice json, @SqlType("varchar(y)") Slice paths)
+    {
+        // the paths are a constant, so they are only decoded again if this instance is used for another call
+        if (extractor == null || (paths != this.paths && !paths.equals(this.paths))) {
+            extractor = createExtractor(paths);
+            this.paths = paths;
+        }
+
+        Slice[] values = new Slice[extractor.getPathCount()];
+        extractor.extract(json, values);
+
+        if (pageBuilder.isFull()) {
+            pageBuilder.reset();
+        }
+        BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(0);
+        for (Slice value : values) {
+            if (value == null) {
+                blockBuilder.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(blockBuilder, value);
+            }
+        }
+        pageBuilder.declarePositions(values.length);
+        return blockBuilder.getRegion(blockBuilder.getPositionCount() - values.length, values.length);
+    }
+
+    private static JsonScalarPathExtractor createExtractor(Slice paths)
+    {
+        try {
+            return new JsonScalarPathExtractor(PATHS_CODEC.fromJson(paths.toStringUtf8()));
+        }
+        catch (IllegalArgumentException e) {
+            throw new PrestoException(INVALID_FUNCTION_ARGUMENT, "Invalid JSON paths: " + paths.toStringUtf8(), e);
+        }
+    }
+}
@@ -396,7 +396,7 @@ public final class JsonFunctions
     @SqlType("varchar(x)")
     public static Slice varcharJsonExtractScalar(@SqlType("varchar(x)") Slice json, @SqlType(JsonPathType.NAME) JsonPath jsonPath)
     {
-        return JsonExtract.extract(json, jsonPath.getScalarExtractor());
+        return jsonPath.getScalarExtractor().extract(json);
     }
 
     @ScalarFunction
@@ -404,7 +404,7 @@ public final class JsonFunctions
     @SqlType(StandardTypes.VARCHAR)
     public static Slice jsonExtractScalar(@SqlType(StandardTypes.JSON) Slice json, @SqlType(JsonPathType.NAME) JsonPath jsonPath)
     {
-        return JsonExtract.extract(json, jsonPath.getScalarExtractor());
+        return jsonPath.getScalarExtractor().extract(json);
     }
 
     @ScalarFunction("json_extract")
@@ -13,22 +13,23 @@
  */
 package com.facebook.presto.operator.scalar;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 
 public class JsonPath
 {
-    private final JsonExtract.JsonExtractor<Slice> scalarExtractor;
+    private final JsonScalarPathExtractor scalarExtractor;
     private final JsonExtract.JsonExtractor<Slice> objectExtractor;
     private final JsonExtract.JsonExtractor<Long> sizeExtractor;
 
     public JsonPath(String pattern)
     {
-        scalarExtractor = JsonExtract.generateExtractor(pattern, new JsonExtract.ScalarValueJsonExtractor());
+        scalarExtractor = new JsonScalarPathExtractor(ImmutableList.of(pattern));
         objectExtractor = JsonExtract.generateExtractor(pattern, new JsonExtract.JsonValueJsonExtractor());
         sizeExtractor = JsonExtract.generateExtractor(pattern, new JsonExtract.JsonSizeExtractor());
     }
 
-    public JsonExtract.JsonExtractor<Slice> getScalarExtractor()
+    public JsonScalarPathExtractor getScalarExtractor()
     {
         return scalarExtractor;
     }
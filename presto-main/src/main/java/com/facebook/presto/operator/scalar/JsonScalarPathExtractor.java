@@ -0,0 +1,855 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.facebook.presto.operator.scalar.JsonExtract.JsonExtractor;
+import com.facebook.presto.operator.scalar.JsonExtract.ScalarValueJsonExtractor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Extracts the scalar values of one or more JSON paths, as {@link ScalarValueJsonExtractor} does,
+ * in a single pass over the UTF-8 bytes of the document.
+ * <p/>
+ * The paths are merged into a tree, so a common prefix is matched once, and the values no path refers
+ * to are skipped without being decoded. Strings without escape sequences are returned as slices of the
+ * document, and numbers as their text, so nothing is copied until a value is written to a block.
+ * <p/>
+ * The scanner only accepts strictly valid JSON in UTF-8 and gives up on anything else, e.g. an escape
+ * sequence in a field name, a lone surrogate or a byte order mark. The paths that are not resolved by then
+ * are extracted with {@link JsonExtract}, so the results are always those of Jackson.
+ */
+public final class JsonScalarPathExtractor
+{
+    // deeper documents are left to Jackson, so that scanning them does not overflow the stack
+    private static final int MAX_NESTING_DEPTH = 1000;
+
+    private final List<JsonExtractor<Slice>> extractors;
+    // null when the paths cannot be matched by the scanner
+    private final PathNode root;
+
+    public JsonScalarPathExtractor(List<String> paths)
+    {
+        requireNonNull(paths, "paths is null");
+        checkArgument(!paths.isEmpty(), "paths is empty");
+
+        ImmutableList.Builder<JsonExtractor<Slice>> extractors = ImmutableList.builder();
+        PathNode root = new PathNode(null, -1);
+        boolean supported = true;
+        for (int path = 0; path < paths.size(); path++) {
+            extractors.add(JsonExtract.generateExtractor(paths.get(path), new ScalarValueJsonExtractor()));
+
+            PathNode node = root;
+            for (String token : ImmutableList.copyOf(new JsonPathTokenizer(paths.get(path)))) {
+                supported &= isWellFormed(token);
+                node = node.getOrAddChild(token);
+            }
+            node.addPath(path);
+        }
+        this.extractors = extractors.build();
+        this.root = supported && root.finish() ? root : null;
+    }
+
+    public int getPathCount()
+    {
+        return extractors.size();
+    }
+
+    /**
+     * Returns the value of the only path.
+     */
+    public Slice extract(Slice json)
+    {
+        checkArgument(extractors.size() == 1, "extractor has %s paths", extractors.size());
+        Slice[] results = new Slice[1];
+        extract(json, results);
+        return results[0];
+    }
+
+    /**
+     * Stores the value of each path at its index in {@code results}, or null if the path has no scalar value.
+     */
+    public void extract(Slice json, Slice[] results)
+    {
+        requireNonNull(json, "json is null");
+        checkArgument(results.length == extractors.size(), "expected %s results, but got %s", extractors.size(), results.length);
+
+        boolean[] resolved = new boolean[results.length];
+        if (root != null) {
+            new Scanner(json, results, resolved).scanDocument(root);
+        }
+        for (int path = 0; path < results.length; path++) {
+            if (!resolved[path]) {
+                results[path] = JsonExtract.extract(json, extractors.get(path));
+            }
+        }
+    }
+
+    private static boolean isWellFormed(String token)
+    {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < token.length() && Character.isLowSurrogate(token.charAt(i + 1))) {
+                i++;
+            }
+            else if (Character.isSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class PathNode
+    {
+        private final String token;
+        private final Slice fieldName;
+        private final int index;
+        private final List<PathNode> childList = new ArrayList<>();
+        private final List<Integer> pathList = new ArrayList<>();
+
+        private PathNode[] children;
+        // the paths ending at this node
+        private int[] paths;
+        // the paths ending below this node
+        private int[] descendantPaths;
+        private int maxIndex;
+
+        public PathNode(String token, int index)
+        {
+            this.token = token;
+            this.fieldName = token == null ? null : utf8Slice(token);
+            this.index = index;
+        }
+
+        public PathNode getOrAddChild(String token)
+        {
+            for (PathNode child : childList) {
+                if (child.token.equals(token)) {
+                    return child;
+                }
+            }
+            PathNode child = new PathNode(token, tryParseIndex(token));
+            childList.add(child);
+            return child;
+        }
+
+        public void addPath(int path)
+        {
+            pathList.add(path);
+        }
+
+        /**
+         * Freezes the tree, and returns whether it can be matched by the scanner, which requires
+         * that no two children of a node refer to the same array element, e.g. "1" and "01".
+         */
+        public boolean finish()
+        {
+            children = childList.toArray(new PathNode[childList.size()]);
+            paths = Ints.toArray(pathList);
+
+            List<Integer> descendants = new ArrayList<>();
+            Set<Integer> indexes = new HashSet<>();
+            boolean supported = true;
+            maxIndex = -1;
+            for (PathNode child : children) {
+                supported &= child.finish();
+                descendants.addAll(Ints.asList(child.paths));
+                descendants.addAll(Ints.asList(child.descendantPaths));
+                if (child.index >= 0) {
+                    supported &= indexes.add(child.index);
+                    maxIndex = Math.max(maxIndex, child.index);
+                }
+            }
+            descendantPaths = Ints.toArray(descendants);
+            return supported;
+        }
+
+        public PathNode getField(Slice json, int offset, int length)
+        {
+            for (PathNode child : children) {
+                if (json.equals(offset, length, child.fieldName, 0, child.fieldName.length())) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        public PathNode getElement(int index)
+        {
+            if (index > maxIndex) {
+                return null;
+            }
+            for (PathNode child : children) {
+                if (child.index == index) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private static int tryParseIndex(String token)
+        {
+            // the same as the array subscripts of ObjectFieldJsonExtractor
+            try {
+                return Integer.parseInt(token);
+            }
+            catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    private static final class Scanner
+    {
+        private final Slice json;
+        private final Slice[] results;
+        private final boolean[] resolved;
+        private int unresolved;
+        private int position;
+
+        private Scanner(Slice json, Slice[] results, boolean[] resolved)
+        {
+            this.json = json;
+            this.results = results;
+            this.resolved = resolved;
+            this.unresolved = results.length;
+        }
+
+        public void scanDocument(PathNode root)
+        {
+            // Jackson detects UTF-16 and UTF-32 from zero bytes at the start, and skips a byte order mark
+            for (int i = 0; i < Math.min(json.length(), 4); i++) {
+                if (json.getByte(i) == 0) {
+                    return;
+                }
+            }
+            if (json.length() >= 3 && (json.getByte(0) & 0xFF) == 0xEF && (json.getByte(1) & 0xFF) == 0xBB && (json.getByte(2) & 0xFF) == 0xBF) {
+                return;
+            }
+
+            skipWhitespace();
+            if (hasNext()) {
+                scanValue(root, 0);
+            }
+        }
+
+        // The scan methods return false when scanning must stop, because all paths are resolved, or because the
+        // document is not supported. The skip methods return false only in the latter case.
+
+        private boolean scanValue(PathNode node, int depth)
+        {
+            byte next = json.getByte(position);
+            if (next == '{' || next == '[') {
+                resolve(node.paths, null);
+                if (unresolved == 0) {
+                    return false;
+                }
+                if (node.children.length == 0) {
+                    return skipValue(depth);
+                }
+                return next == '{' ? scanObject(node, depth + 1) : scanArray(node, depth + 1);
+            }
+
+            // a scalar value has no fields or elements
+            resolve(node.descendantPaths, null);
+            if (node.paths.length == 0) {
+                return unresolved > 0 && skipValue(depth);
+            }
+
+            Slice value;
+            if (next == '"') {
+                value = parseString();
+                if (value == null) {
+                    return false;
+                }
+            }
+            else {
+                int start = position;
+                if (!skipScalar(depth == 0)) {
+                    return false;
+                }
+                value = next == 'n' ? null : json.slice(start, position - start);
+            }
+            resolve(node.paths, value);
+            return unresolved > 0;
+        }
+
+        private boolean scanObject(PathNode node, int depth)
+        {
+            if (depth > MAX_NESTING_DEPTH) {
+                return false;
+            }
+            position++;
+            skipWhitespace();
+            if (!hasNext()) {
+                return false;
+            }
+            if (json.getByte(position) == '}') {
+                position++;
+            }
+            else {
+                while (true) {
+                    int start = position + 1;
+                    if (!skipFieldName()) {
+                        return false;
+                    }
+                    // like JsonParser.nextFieldName, only the first field with the name is used
+                    PathNode child = node.getField(json, start, position - 1 - start);
+                    if (!skipFieldSeparator()) {
+                        return false;
+                    }
+                    if (child != null && !isResolved(child)) {
+                        if (!scanValue(child, depth)) {
+                            return false;
+                        }
+                    }
+                    else if (!skipValue(depth)) {
+                        return false;
+                    }
+                    int end = skipValueSeparator('}');
+                    if (end < 0) {
+                        return false;
+                    }
+                    if (end > 0) {
+                        break;
+                    }
+                }
+            }
+            resolve(node.descendantPaths, null);
+            return unresolved > 0;
+        }
+
+        private boolean scanArray(PathNode node, int depth)
+        {
+            if (depth > MAX_NESTING_DEPTH) {
+                return false;
+            }
+            position++;
+            skipWhitespace();
+            if (!hasNext()) {
+                return false;
+            }
+            if (json.getByte(position) == ']') {
+                position++;
+            }
+            else {
+                for (int index = 0; ; index++) {
+                    PathNode child = node.getElement(index);
+                    if (child != null) {
+                        if (!scanValue(child, depth)) {
+                            return false;
+                        }
+                    }
+                    else if (!skipValue(depth)) {
+                        return false;
+                    }
+                    int end = skipValueSeparator(']');
+                    if (end < 0) {
+                        return false;
+                    }
+                    if (end > 0) {
+                        break;
+                    }
+                }
+            }
+            resolve(node.descendantPaths, null);
+            return unresolved > 0;
+        }
+
+        private boolean skipValue(int depth)
+        {
+            byte next = json.getByte(position);
+            if (next == '{') {
+                return skipObject(depth + 1);
+            }
+            if (next == '[') {
+                return skipArray(depth + 1);
+            }
+            if (next == '"') {
+                return skipString();
+            }
+            return skipScalar(depth == 0);
+        }
+
+        private boolean skipObject(int depth)
+        {
+            if (depth > MAX_NESTING_DEPTH) {
+                return false;
+            }
+            position++;
+            skipWhitespace();
+            if (!hasNext()) {
+                return false;
+            }
+            if (json.getByte(position) == '}') {
+                position++;
+                return true;
+            }
+            while (true) {
+                if (json.getByte(position) != '"' || !skipString() || !skipFieldSeparator() || !skipValue(depth)) {
+                    return false;
+                }
+                int end = skipValueSeparator('}');
+                if (end != 0) {
+                    return end > 0;
+                }
+            }
+        }
+
+        private boolean skipArray(int depth)
+        {
+            if (depth > MAX_NESTING_DEPTH) {
+                return false;
+            }
+            position++;
+            skipWhitespace();
+            if (!hasNext()) {
+                return false;
+            }
+            if (json.getByte(position) == ']') {
+                position++;
+                return true;
+            }
+            while (true) {
+                if (!skipValue(depth)) {
+                    return false;
+                }
+                int end = skipValueSeparator(']');
+                if (end != 0) {
+                    return end > 0;
+                }
+            }
+        }
+
+        /**
+         * Skips the separator after a field or element and the whitespace around it. Returns 1 at the end of
+         * the object or array, 0 if there is another value, which then starts at the current position, and -1
+         * if the document is not supported.
+         */
+        private int skipValueSeparator(char endCharacter)
+        {
+            skipWhitespace();
+            if (!hasNext()) {
+                return -1;
+            }
+            byte next = json.getByte(position++);
+            if (next == endCharacter) {
+                return 1;
+            }
+            if (next != ',') {
+                return -1;
+            }
+            skipWhitespace();
+            return hasNext() ? 0 : -1;
+        }
+
+        private boolean skipFieldSeparator()
+        {
+            skipWhitespace();
+            if (!hasNext() || json.getByte(position) != ':') {
+                return false;
+            }
+            position++;
+            skipWhitespace();
+            return hasNext();
+        }
+
+        /**
+         * Skips a field name, which is compared with the path as it is, so it must not contain escape sequences.
+         */
+        private boolean skipFieldName()
+        {
+            if (json.getByte(position) != '"') {
+                return false;
+            }
+            position++;
+            while (hasNext()) {
+                int next = json.getByte(position) & 0xFF;
+                if (next == '"') {
+                    position++;
+                    return true;
+                }
+                int length = characterLength(next);
+                if (length <= 0) {
+                    return false;
+                }
+                position += length;
+            }
+            return false;
+        }
+
+        private boolean skipString()
+        {
+            return scanString() >= 0;
+        }
+
+        private Slice parseString()
+        {
+            int start = position + 1;
+            int escapes = scanString();
+            if (escapes < 0) {
+                return null;
+            }
+            if (escapes == 0) {
+                return json.slice(start, position - 1 - start);
+            }
+            return decodeString(start, position - 1);
+        }
+
+        /**
+         * Skips a string and returns the number of escape sequences in it, or -1 if the document is not supported.
+         */
+        private int scanString()
+        {
+            position++;
+            int escapes = 0;
+            while (hasNext()) {
+                int next = json.getByte(position) & 0xFF;
+                if (next == '"') {
+                    position++;
+                    return escapes;
+                }
+                int length = next == '\\' ? escapeLength() : characterLength(next);
+                if (length <= 0) {
+                    return -1;
+                }
+                if (next == '\\') {
+                    escapes++;
+                }
+                position += length;
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the length of the unescaped character starting with the given byte at the current position, or
+         * 0 if it is a control character, a quote, a backslash or an invalid UTF-8 sequence.
+         */
+        private int characterLength(int first)
+        {
+            if (first < 0x20 || first == '"' || first == '\\') {
+                return 0;
+            }
+            if (first < 0x80) {
+                return 1;
+            }
+
+            int length;
+            int minSecond = 0x80;
+            int maxSecond = 0xBF;
+            if (first >= 0xC2 && first <= 0xDF) {
+                length = 2;
+            }
+            else if (first >= 0xE0 && first <= 0xEF) {
+                length = 3;
+                if (first == 0xE0) {
+                    // overlong encoding
+                    minSecond = 0xA0;
+                }
+                else if (first == 0xED) {
+                    // surrogate
+                    maxSecond = 0x9F;
+                }
+            }
+            else if (first >= 0xF0 && first <= 0xF4) {
+                length = 4;
+                if (first == 0xF0) {
+                    // overlong encoding
+                    minSecond = 0x90;
+                }
+                else if (first == 0xF4) {
+                    // above U+10FFFF
+                    maxSecond = 0x8F;
+                }
+            }
+            else {
+                return 0;
+            }
+
+            if (position + length > json.length()) {
+                return 0;
+            }
+            int second = json.getByte(position + 1) & 0xFF;
+            if (second < minSecond || second > maxSecond) {
+                return 0;
+            }
+            for (int i = 2; i < length; i++) {
+                if ((json.getByte(position + i) & 0xC0) != 0x80) {
+                    return 0;
+                }
+            }
+            return length;
+        }
+
+        /**
+         * Returns the length of the escape sequence at the current position, or 0 if it is invalid.
+         */
+        private int escapeLength()
+        {
+            if (position + 1 >= json.length()) {
+                return 0;
+            }
+            switch (json.getByte(position + 1)) {
+                case '"':
+                case '\\':
+                case '/':
+                case 'b':
+                case 'f':
+                case 'n':
+                case 'r':
+                case 't':
+                    return 2;
+                case 'u':
+                    if (position + 6 > json.length()) {
+                        return 0;
+                    }
+                    for (int i = 2; i < 6; i++) {
+                        if (Character.digit(json.getByte(position + i), 16) < 0) {
+                            return 0;
+                        }
+                    }
+                    return 6;
+                default:
+                    return 0;
+            }
+        }
+
+        /**
+         * Decodes the validated string between the given offsets, or returns null if it contains a lone surrogate,
+         * which Jackson would decode differently.
+         */
+        private Slice decodeString(int start, int end)
+        {
+            DynamicSliceOutput output = new DynamicSliceOutput(end - start);
+            int offset = start;
+            while (offset < end) {
+                byte next = json.getByte(offset);
+                if (next != '\\') {
+                    output.appendByte(next);
+                    offset++;
+                    continue;
+                }
+                byte escaped = json.getByte(offset + 1);
+                offset += 2;
+                switch (escaped) {
+                    case 'b':
+                        output.appendByte('\b');
+                        break;
+                    case 'f':
+                        output.appendByte('\f');
+                        break;
+                    case 'n':
+                        output.appendByte('\n');
+                        break;
+                    case 'r':
+                        output.appendByte('\r');
+                        break;
+                    case 't':
+                        output.appendByte('\t');
+                        break;
+                    case 'u':
+                        int codePoint = decodeHex(offset);
+                        offset += 4;
+                        if (Character.isHighSurrogate((char) codePoint)) {
+                            if (offset + 6 > end || json.getByte(offset) != '\\' || json.getByte(offset + 1) != 'u') {
+                                return null;
+                            }
+                            int low = decodeHex(offset + 2);
+                            if (!Character.isLowSurrogate((char) low)) {
+                                return null;
+                            }
+                            codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                            offset += 6;
+                        }
+                        else if (Character.isLowSurrogate((char) codePoint)) {
+                            return null;
+                        }
+                        appendCodePoint(output, codePoint);
+                        break;
+                    default:
+                        // a quote, backslash or slash
+                        output.appendByte(escaped);
+                }
+            }
+            return output.slice();
+        }
+
+        private int decodeHex(int offset)
+        {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 4) | Character.digit(json.getByte(offset + i), 16);
+            }
+            return value;
+        }
+
+        private static void appendCodePoint(DynamicSliceOutput output, int codePoint)
+        {
+            if (codePoint < 0x80) {
+                output.appendByte(codePoint);
+            }
+            else if (codePoint < 0x800) {
+                output.appendByte(0xC0 | (codePoint >>> 6));
+                output.appendByte(0x80 | (codePoint & 0x3F));
+            }
+            else if (codePoint < 0x1_0000) {
+                output.appendByte(0xE0 | (codePoint >>> 12));
+                output.appendByte(0x80 | ((codePoint >>> 6) & 0x3F));
+                output.appendByte(0x80 | (codePoint & 0x3F));
+            }
+            else {
+                output.appendByte(0xF0 | (codePoint >>> 18));
+                output.appendByte(0x80 | ((codePoint >>> 12) & 0x3F));
+                output.appendByte(0x80 | ((codePoint >>> 6) & 0x3F));
+                output.appendByte(0x80 | (codePoint & 0x3F));
+            }
+        }
+
+        /**
+         * Skips a number, true, false or null. Like Jackson, a value at the top level must be followed by whitespace.
+         */
+        private boolean skipScalar(boolean topLevel)
+        {
+            byte next = json.getByte(position);
+            if (next == 't') {
+                return skipLiteral("true") && isValueEnd(topLevel);
+            }
+            if (next == 'f') {
+                return skipLiteral("false") && isValueEnd(topLevel);
+            }
+            if (next == 'n') {
+                return skipLiteral("null") && isValueEnd(topLevel);
+            }
+
+            if (next == '-') {
+                position++;
+            }
+            if (!hasNext()) {
+                return false;
+            }
+            next = json.getByte(position);
+            if (next == '0') {
+                position++;
+            }
+            else if (next >= '1' && next <= '9') {
+                skipDigits();
+            }
+            else {
+                return false;
+            }
+            if (hasNext() && json.getByte(position) == '.') {
+                position++;
+                if (skipDigits() == 0) {
+                    return false;
+                }
+            }
+            if (hasNext() && (json.getByte(position) == 'e' || json.getByte(position) == 'E')) {
+                position++;
+                if (hasNext() && (json.getByte(position) == '+' || json.getByte(position) == '-')) {
+                    position++;
+                }
+                if (skipDigits() == 0) {
+                    return false;
+                }
+            }
+            return isValueEnd(topLevel);
+        }
+
+        private boolean skipLiteral(String literal)
+        {
+            if (position + literal.length() > json.length()) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (json.getByte(position + i) != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            position += literal.length();
+            return true;
+        }
+
+        private int skipDigits()
+        {
+            int start = position;
+            while (hasNext() && json.getByte(position) >= '0' && json.getByte(position) <= '9') {
+                position++;
+            }
+            return position - start;
+        }
+
+        private boolean isValueEnd(boolean topLevel)
+        {
+            if (!hasNext()) {
+                return true;
+            }
+            byte next = json.getByte(position);
+            return isWhitespace(next) || (!topLevel && (next == ',' || next == ']' || next == '}'));
+        }
+
+        private void skipWhitespace()
+        {
+            while (hasNext() && isWhitespace(json.getByte(position))) {
+                position++;
+            }
+        }
+
+        private static boolean isWhitespace(byte value)
+        {
+            return value == ' ' || value == '\n' || value == '\r' || value == '\t';
+        }
+
+        private boolean hasNext()
+        {
+            return position < json.length();
+        }
+
+        private boolean isResolved(PathNode node)
+        {
+            for (int path : node.paths) {
+                if (!resolved[path]) {
+                    return false;
+                }
+            }
+            for (int path : node.descendantPaths) {
+                if (!resolved[path]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void resolve(int[] paths, Slice value)
+        {
+            for (int path : paths) {
+                if (!resolved[path]) {
+                    resolved[path] = true;
+                    results[path] = value;
+                    unresolved--;
+                }
+            }
+        }
+    }
+}
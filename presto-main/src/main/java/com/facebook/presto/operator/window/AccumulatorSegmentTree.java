@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.window;
+
+import com.facebook.presto.operator.aggregation.Accumulator;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.function.WindowIndex;
+import com.facebook.presto.spi.type.FixedWidthType;
+import com.facebook.presto.spi.type.RowType;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.VarcharType;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Segment tree over the rows of a window partition, storing the intermediate state of the
+ * aggregation for each node. The state of a frame is combined from the states of at most
+ * two nodes per level, plus the rows at the edges of the frame that do not fill a leaf.
+ */
+final class AccumulatorSegmentTree
+{
+    static final int LEAF_SIZE = 16;
+
+    private final AccumulatorFactory accumulatorFactory;
+    private final WindowIndex windowIndex;
+    private final List<Integer> argumentChannels;
+    // level 0 holds one state per leaf, and each node of a level combines two nodes of the level below
+    private final List<Block> levels;
+
+    AccumulatorSegmentTree(AccumulatorFactory accumulatorFactory, Type intermediateType, WindowIndex windowIndex, List<Integer> argumentChannels)
+    {
+        this.accumulatorFactory = requireNonNull(accumulatorFactory, "accumulatorFactory is null");
+        this.windowIndex = requireNonNull(windowIndex, "windowIndex is null");
+        this.argumentChannels = ImmutableList.copyOf(requireNonNull(argumentChannels, "argumentChannels is null"));
+
+        int leafCount = (windowIndex.size() + LEAF_SIZE - 1) / LEAF_SIZE;
+        BlockBuilder leaves = intermediateType.createBlockBuilder(new BlockBuilderStatus(), leafCount);
+        for (int leaf = 0; leaf < leafCount; leaf++) {
+            Accumulator accumulator = accumulatorFactory.createAccumulator();
+            accumulator.addInput(windowIndex, argumentChannels, leaf * LEAF_SIZE, min((leaf + 1) * LEAF_SIZE, windowIndex.size()) - 1);
+            accumulator.evaluateIntermediate(leaves);
+        }
+
+        ImmutableList.Builder<Block> levels = ImmutableList.builder();
+        Block level = leaves.build();
+        levels.add(level);
+        while (level.getPositionCount() > 1) {
+            BlockBuilder parents = intermediateType.createBlockBuilder(new BlockBuilderStatus(), (level.getPositionCount() + 1) / 2);
+            for (int node = 0; node < level.getPositionCount(); node += 2) {
+                Accumulator accumulator = accumulatorFactory.createAccumulator();
+                accumulator.addIntermediate(level.getRegion(node, min(2, level.getPositionCount() - node)));
+                accumulator.evaluateIntermediate(parents);
+            }
+            level = parents.build();
+            levels.add(level);
+        }
+        this.levels = levels.build();
+    }
+
+    /**
+     * Returns whether the size of the intermediate state does not grow with the number of
+     * input rows, so that the tree is at most about twice the size of its leaves.
+     */
+    static boolean isSupported(Type intermediateType)
+    {
+        if (intermediateType instanceof FixedWidthType || intermediateType instanceof VarcharType) {
+            return true;
+        }
+        if (intermediateType instanceof RowType) {
+            return intermediateType.getTypeParameters().stream().allMatch(AccumulatorSegmentTree::isSupported);
+        }
+        return false;
+    }
+
+    long getRetainedSizeInBytes()
+    {
+        return levels.stream()
+                .mapToLong(Block::getRetainedSizeInBytes)
+                .sum();
+    }
+
+    /**
+     * Returns an accumulator with the rows from start to end inclusive added.
+     */
+    Accumulator accumulate(int start, int end)
+    {
+        Accumulator accumulator = accumulatorFactory.createAccumulator();
+
+        int firstLeaf = (start + LEAF_SIZE - 1) / LEAF_SIZE;
+        int endLeaf = (end + 1) / LEAF_SIZE;
+        if (firstLeaf >= endLeaf) {
+            accumulator.addInput(windowIndex, argumentChannels, start, end);
+            return accumulator;
+        }
+
+        if (start < firstLeaf * LEAF_SIZE) {
+            accumulator.addInput(windowIndex, argumentChannels, start, firstLeaf * LEAF_SIZE - 1);
+        }
+        int first = firstLeaf;
+        int last = endLeaf;
+        for (int level = 0; first < last; level++) {
+            if ((first & 1) == 1) {
+                accumulator.addIntermediate(levels.get(level).getRegion(first, 1));
+                first++;
+            }
+            if ((last & 1) == 1) {
+                last--;
+                accumulator.addIntermediate(levels.get(level).getRegion(last, 1));
+            }
+            first >>= 1;
+            last >>= 1;
+        }
+        if (endLeaf * LEAF_SIZE <= end) {
+            accumulator.addInput(windowIndex, argumentChannels, endLeaf * LEAF_SIZE, end);
+        }
+        return accumulator;
+    }
+}
@@ -33,26 +33,42 @@ public class AggregateWindowFunction
     private final InternalAggregationFunction function;
     private final List<Integer> argumentChannels;
     private final AccumulatorFactory accumulatorFactory;
+    private final boolean removeInputSupported;
+    private final boolean segmentTreeSupported;
 
     private WindowIndex windowIndex;
     private Accumulator accumulator;
     private int currentStart;
     private int currentEnd;
+    // number of rows in the current frame with no null arguments
+    private int currentNonNullRows;
+    private AccumulatorSegmentTree segmentTree;
 
     private AggregateWindowFunction(InternalAggregationFunction function, List<Integer> argumentChannels)
     {
         this.function = requireNonNull(function, "function is null");
         this.argumentChannels = ImmutableList.copyOf(argumentChannels);
         this.accumulatorFactory = function.bind(createArgs(function), Optional.empty());
+        this.removeInputSupported = accumulatorFactory.createAccumulator().isRemoveInputSupported();
+        this.segmentTreeSupported = AccumulatorSegmentTree.isSupported(function.getIntermediateType());
     }
 
     @Override
     public void reset(WindowIndex windowIndex)
     {
         this.windowIndex = windowIndex;
+        this.segmentTree = null;
         resetAccumulator();
     }
 
+    /**
+     * Returns the size of the segment tree built for the current partition, which is kept until the next partition.
+     */
+    public long getEstimatedSize()
+    {
+        return segmentTree == null ? 0 : segmentTree.getRetainedSizeInBytes();
+    }
+
     @Override
     public void processRow(BlockBuilder output, int peerGroupStart, int peerGroupEnd, int frameStart, int frameEnd)
     {
@@ -65,6 +81,23 @@ public class AggregateWindowFunction
             accumulate(currentEnd + 1, frameEnd);
             currentEnd = frameEnd;
         }
+        else if (canSlide(frameStart, frameEnd)) {
+            // sliding frame
+            remove(currentStart, frameStart - 1);
+            accumulate(currentEnd + 1, frameEnd);
+            currentStart = frameStart;
+            currentEnd = frameEnd;
+        }
+        else if (segmentTreeSupported && frameEnd - frameStart >= 2 * AccumulatorSegmentTree.LEAF_SIZE) {
+            // different frame, large enough to combine from the segment tree
+            if (segmentTree == null) {
+                segmentTree = new AccumulatorSegmentTree(accumulatorFactory, function.getIntermediateType(), windowIndex, argumentChannels);
+            }
+            accumulator = segmentTree.accumulate(frameStart, frameEnd);
+            currentStart = frameStart;
+            currentEnd = frameEnd;
+            currentNonNullRows = removeInputSupported ? countNonNullRows(frameStart, frameEnd) : 0;
+        }
         else {
             // different frame
             resetAccumulator();
@@ -76,9 +109,54 @@ public class AggregateWindowFunction
         accumulator.evaluateFinal(output);
     }
 
+    /**
+     * Returns whether the frame can be computed from the current one by removing the rows leaving it,
+     * which is only done if fewer rows are removed than the frame has, and some rows with no null
+     * arguments stay in the frame. Otherwise the state of the aggregation might not be the same as
+     * if nothing had been added, e.g. sum remembers that it has seen a value.
+     */
+    private boolean canSlide(int frameStart, int frameEnd)
+    {
+        if (!removeInputSupported || currentStart < 0 || frameStart < currentStart || frameStart > currentEnd || frameEnd < currentEnd) {
+            return false;
+        }
+        int removedRows = frameStart - currentStart;
+        return removedRows < frameEnd - frameStart + 1 && countNonNullRows(currentStart, frameStart - 1) < currentNonNullRows;
+    }
+
     private void accumulate(int start, int end)
     {
         accumulator.addInput(windowIndex, argumentChannels, start, end);
+        if (removeInputSupported) {
+            currentNonNullRows += countNonNullRows(start, end);
+        }
+    }
+
+    private void remove(int start, int end)
+    {
+        accumulator.removeInput(windowIndex, argumentChannels, start, end);
+        currentNonNullRows -= countNonNullRows(start, end);
+    }
+
+    private int countNonNullRows(int start, int end)
+    {
+        int rows = 0;
+        for (int position = start; position <= end; position++) {
+            if (!hasNullArgument(position)) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private boolean hasNullArgument(int position)
+    {
+        for (int channel : argumentChannels) {
+            if (windowIndex.isNull(channel, position)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void resetAccumulator()
@@ -87,6 +165,7 @@ public class AggregateWindowFunction
             accumulator = accumulatorFactory.createAccumulator();
             currentStart = -1;
             currentEnd = -1;
+            currentNonNullRows = 0;
         }
     }
 
@@ -28,6 +28,7 @@ import com.facebook.presto.execution.DropTableTask;
 import com.facebook.presto.execution.DropViewTask;
 import com.facebook.presto.execution.ForQueryExecution;
 import com.facebook.presto.execution.GrantTask;
+import com.facebook.presto.execution.PlanCache;
 import com.facebook.presto.execution.PrepareTask;
 import com.facebook.presto.execution.QueryExecution;
 import com.facebook.presto.execution.QueryExecutionMBean;
@@ -58,12 +59,18 @@ import com.facebook.presto.execution.scheduler.PhasedExecutionPolicy;
 import com.facebook.presto.execution.scheduler.SplitSchedulerStats;
 import com.facebook.presto.memory.ClusterMemoryManager;
 import com.facebook.presto.memory.ForMemoryManager;
+import com.facebook.presto.memory.LowMemoryKiller;
+import com.facebook.presto.memory.QueryPriorityLowMemoryKiller;
+import com.facebook.presto.memory.RevocableFirstLowMemoryKiller;
+import com.facebook.presto.memory.TotalReservationLowMemoryKiller;
+import com.facebook.presto.memory.TotalReservationOnBlockedNodesLowMemoryKiller;
 import com.facebook.presto.operator.ForScheduler;
 import com.facebook.presto.server.remotetask.RemoteTaskStats;
 import com.facebook.presto.spi.memory.ClusterMemoryPoolManager;
 import com.facebook.presto.sql.analyzer.FeaturesConfig;
 import com.facebook.presto.sql.analyzer.QueryExplainer;
 import com.facebook.presto.sql.tree.AddColumn;
+import com.facebook.presto.sql.tree.Analyze;
 import com.facebook.presto.sql.tree.Call;
 import com.facebook.presto.sql.tree.Commit;
 import com.facebook.presto.sql.tree.CreateSchema;
@@ -119,6 +126,10 @@ import java.util.concurrent.ExecutorService;
 import static com.facebook.presto.execution.DataDefinitionExecution.DataDefinitionExecutionFactory;
 import static com.facebook.presto.execution.QueryExecution.QueryExecutionFactory;
 import static com.facebook.presto.execution.SqlQueryExecution.SqlQueryExecutionFactory;
+import static com.facebook.presto.memory.MemoryManagerConfig.QUERY_PRIORITY;
+import static com.facebook.presto.memory.MemoryManagerConfig.REVOCABLE_FIRST;
+import static com.facebook.presto.memory.MemoryManagerConfig.TOTAL_RESERVATION;
+import static com.facebook.presto.memory.MemoryManagerConfig.TOTAL_RESERVATION_ON_BLOCKED_NODES;
 import static com.google.inject.multibindings.MapBinder.newMapBinder;
 import static io.airlift.concurrent.Threads.threadsNamed;
 import static io.airlift.discovery.client.DiscoveryBinder.discoveryBinder;
@@ -176,6 +187,11 @@ public class CoordinatorModule
         // cluster memory manager
         binder.bind(ClusterMemoryManager.class).in(Scopes.SINGLETON);
         binder.bind(ClusterMemoryPoolManager.class).to(ClusterMemoryManager.class).in(Scopes.SINGLETON);
+        MapBinder<String, LowMemoryKiller> lowMemoryKillerBinder = newMapBinder(binder, String.class, LowMemoryKiller.class);
+        lowMemoryKillerBinder.addBinding(TOTAL_RESERVATION).to(TotalReservationLowMemoryKiller.class).in(Scopes.SINGLETON);
+        lowMemoryKillerBinder.addBinding(TOTAL_RESERVATION_ON_BLOCKED_NODES).to(TotalReservationOnBlockedNodesLowMemoryKiller.class).in(Scopes.SINGLETON);
+        lowMemoryKillerBinder.addBinding(REVOCABLE_FIRST).to(RevocableFirstLowMemoryKiller.class).in(Scopes.SINGLETON);
+        lowMemoryKillerBinder.addBinding(QUERY_PRIORITY).to(QueryPriorityLowMemoryKiller.class).in(Scopes.SINGLETON);
         httpClientBinder(binder).bindHttpClient("memoryManager", ForMemoryManager.class)
                 .withTracing()
                 .withConfigDefaults(config -> {
@@ -190,6 +206,10 @@ public class CoordinatorModule
         // query explainer
         binder.bind(QueryExplainer.class).in(Scopes.SINGLETON);
 
+        // plan cache
+        binder.bind(PlanCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(PlanCache.class).withGeneratedName();
+
         // execution scheduler
         binder.bind(RemoteTaskFactory.class).to(HttpRemoteTaskFactory.class).in(Scopes.SINGLETON);
         newExporter(binder).export(RemoteTaskFactory.class).withGeneratedName();
@@ -233,6 +253,7 @@ public class CoordinatorModule
         executionBinder.addBinding(CreateTableAsSelect.class).to(SqlQueryExecutionFactory.class).in(Scopes.SINGLETON);
         executionBinder.addBinding(Insert.class).to(SqlQueryExecutionFactory.class).in(Scopes.SINGLETON);
         executionBinder.addBinding(Delete.class).to(SqlQueryExecutionFactory.class).in(Scopes.SINGLETON);
+        executionBinder.addBinding(Analyze.class).to(SqlQueryExecutionFactory.class).in(Scopes.SINGLETON);
         executionBinder.addBinding(DescribeInput.class).to(SqlQueryExecutionFactory.class).in(Scopes.SINGLETON);
         executionBinder.addBinding(DescribeOutput.class).to(SqlQueryExecutionFactory.class).in(Scopes.SINGLETON);
 
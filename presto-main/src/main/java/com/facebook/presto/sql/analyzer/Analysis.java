@@ -118,6 +118,7 @@ public class Analysis
     private Optional<String> createTableComment = Optional.empty();
 
     private Optional<Insert> insert = Optional.empty();
+    private Optional<TableHandle> analyzeTarget = Optional.empty();
 
     // for describe input and describe output
     private final boolean isDescribe;
@@ -523,6 +524,16 @@ public class Analysis
         return insert;
     }
 
+    public void setAnalyzeTarget(TableHandle analyzeTarget)
+    {
+        this.analyzeTarget = Optional.of(analyzeTarget);
+    }
+
+    public Optional<TableHandle> getAnalyzeTarget()
+    {
+        return analyzeTarget;
+    }
+
     public Query getNamedQuery(Table table)
     {
         return namedQueries.get(NodeRef.of(table));
@@ -57,6 +57,11 @@ public class FeaturesConfig
     private boolean legacyMapSubscript;
     private boolean optimizeMixedDistinctAggregations;
     private boolean forceSingleNodeOutput;
+    private boolean splitResultCacheEnabled;
+    private boolean spreadHotJoinKeys;
+    private double hotJoinKeyMinFraction = 0.1;
+    private boolean mergeJsonExtractScalarCalls = true;
+    private boolean useTDigestForApproxPercentile;
 
     private boolean dictionaryAggregation;
     private boolean resourceGroups;
@@ -64,6 +69,7 @@ public class FeaturesConfig
     private int re2JDfaStatesLimit = Integer.MAX_VALUE;
     private int re2JDfaRetries = 5;
     private RegexLibrary regexLibrary = JONI;
+    private int dfaRegexStatesLimit = 1000;
     private boolean spillEnabled;
     private DataSize aggregationOperatorUnspillMemoryLimit = new DataSize(4, DataSize.Unit.MEGABYTE);
     private List<Path> spillerSpillPaths = ImmutableList.of();
@@ -297,6 +303,20 @@ public class FeaturesConfig
         return this;
     }
 
+    @Min(1)
+    public int getDfaRegexStatesLimit()
+    {
+        return dfaRegexStatesLimit;
+    }
+
+    @Config("dfa-regex.states-limit")
+    @ConfigDescription("Maximum number of states of the automaton built for a pattern by the DFA regex library, larger patterns use RE2J")
+    public FeaturesConfig setDfaRegexStatesLimit(int dfaRegexStatesLimit)
+    {
+        this.dfaRegexStatesLimit = dfaRegexStatesLimit;
+        return this;
+    }
+
     public boolean isSpillEnabled()
     {
         return spillEnabled;
@@ -471,4 +491,70 @@ public class FeaturesConfig
         this.forceSingleNodeOutput = value;
         return this;
     }
+
+    public boolean isSplitResultCacheEnabled()
+    {
+        return splitResultCacheEnabled;
+    }
+
+    @Config("experimental.split-result-cache-enabled")
+    public FeaturesConfig setSplitResultCacheEnabled(boolean splitResultCacheEnabled)
+    {
+        this.splitResultCacheEnabled = splitResultCacheEnabled;
+        return this;
+    }
+
+    public boolean isSpreadHotJoinKeys()
+    {
+        return spreadHotJoinKeys;
+    }
+
+    @Config("optimizer.spread-hot-join-keys")
+    @ConfigDescription("Spread the probe rows of hot keys of partitioned joins over all partitions and replicate the matching build rows")
+    public FeaturesConfig setSpreadHotJoinKeys(boolean spreadHotJoinKeys)
+    {
+        this.spreadHotJoinKeys = spreadHotJoinKeys;
+        return this;
+    }
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    public double getHotJoinKeyMinFraction()
+    {
+        return hotJoinKeyMinFraction;
+    }
+
+    @Config("optimizer.hot-join-key-min-fraction")
+    @ConfigDescription("Minimum fraction of the probe rows of a partitioned join having a key for the key to be spread")
+    public FeaturesConfig setHotJoinKeyMinFraction(double hotJoinKeyMinFraction)
+    {
+        this.hotJoinKeyMinFraction = hotJoinKeyMinFraction;
+        return this;
+    }
+
+    public boolean isMergeJsonExtractScalarCalls()
+    {
+        return mergeJsonExtractScalarCalls;
+    }
+
+    @Config("optimizer.merge-json-extract-scalar-calls")
+    @ConfigDescription("Extract the paths of all json_extract_scalar calls of a projection on the same document in one pass")
+    public FeaturesConfig setMergeJsonExtractScalarCalls(boolean mergeJsonExtractScalarCalls)
+    {
+        this.mergeJsonExtractScalarCalls = mergeJsonExtractScalarCalls;
+        return this;
+    }
+
+    public boolean isUseTDigestForApproxPercentile()
+    {
+        return useTDigestForApproxPercentile;
+    }
+
+    @Config("optimizer.use-tdigest-for-approx-percentile")
+    @ConfigDescription("Compute approx_percentile of a single percentile with a t-digest")
+    public FeaturesConfig setUseTDigestForApproxPercentile(boolean useTDigestForApproxPercentile)
+    {
+        this.useTDigestForApproxPercentile = useTDigestForApproxPercentile;
+        return this;
+    }
 }
@@ -57,6 +57,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import static com.facebook.presto.bytecode.Access.FINAL;
@@ -104,7 +105,8 @@ public class JoinProbeCompiler
             List<Integer> probeOutputChannels,
             JoinType joinType,
             OptionalInt totalOperatorsCount,
-            PartitioningSpillerFactory partitioningSpillerFactory)
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            Set<Long> hotKeyHashes)
     {
         try {
             List<Type> probeOutputChannelTypes = probeOutputChannels.stream()
@@ -127,7 +129,8 @@ public class JoinProbeCompiler
                     totalOperatorsCount,
                     probeJoinChannel,
                     probeHashChannel,
-                    partitioningSpillerFactory);
+                    partitioningSpillerFactory,
+                    hotKeyHashes);
         }
         catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
             throw Throwables.propagate(e.getCause());
@@ -585,7 +588,8 @@ public class JoinProbeCompiler
                         OptionalInt.class,
                         List.class,
                         OptionalInt.class,
-                        PartitioningSpillerFactory.class);
+                        PartitioningSpillerFactory.class,
+                        Set.class);
             }
             catch (NoSuchMethodException e) {
                 throw Throwables.propagate(e);
@@ -602,7 +606,8 @@ public class JoinProbeCompiler
                 OptionalInt totalOperatorsCount,
                 List<Integer> probeJoinChannels,
                 OptionalInt probeHashChannel,
-                PartitioningSpillerFactory partitioningSpillerFactory)
+                PartitioningSpillerFactory partitioningSpillerFactory,
+                Set<Long> hotKeyHashes)
         {
             try {
                 return constructor.newInstance(
@@ -616,7 +621,8 @@ public class JoinProbeCompiler
                         totalOperatorsCount,
                         probeJoinChannels,
                         probeHashChannel,
-                        partitioningSpillerFactory);
+                        partitioningSpillerFactory,
+                        hotKeyHashes);
             }
             catch (Exception e) {
                 throw Throwables.propagate(e);
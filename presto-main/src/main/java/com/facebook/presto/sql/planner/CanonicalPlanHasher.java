@@ -0,0 +1,320 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.ApplyNode;
+import com.facebook.presto.sql.planner.plan.AssignUniqueId;
+import com.facebook.presto.sql.planner.plan.DistinctLimitNode;
+import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
+import com.facebook.presto.sql.planner.plan.ExceptNode;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
+import com.facebook.presto.sql.planner.plan.IndexJoinNode;
+import com.facebook.presto.sql.planner.plan.IndexSourceNode;
+import com.facebook.presto.sql.planner.plan.IntersectNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.LateralJoinNode;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.MarkDistinctNode;
+import com.facebook.presto.sql.planner.plan.OutputNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.sql.planner.plan.PlanVisitor;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.RowNumberNode;
+import com.facebook.presto.sql.planner.plan.SampleNode;
+import com.facebook.presto.sql.planner.plan.SemiJoinNode;
+import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.TopNNode;
+import com.facebook.presto.sql.planner.plan.TopNRowNumberNode;
+import com.facebook.presto.sql.planner.plan.UnionNode;
+import com.facebook.presto.sql.planner.plan.UnnestNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.planner.plan.WindowNode;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Computes a hash for every node of a plan that identifies the computation of the subtree rooted at
+ * the node, independently of the plan node ids. Two executions of the same query produce the same
+ * hashes, so runtime statistics recorded for a node can be matched with the node in a later plan.
+ */
+public final class CanonicalPlanHasher
+{
+    private static final DetailsVisitor DETAILS_VISITOR = new DetailsVisitor();
+
+    private CanonicalPlanHasher() {}
+
+    public static Map<PlanNodeId, String> hashPlan(PlanNode root)
+    {
+        Map<PlanNodeId, String> hashes = new HashMap<>();
+        hash(root, hashes);
+        return ImmutableMap.copyOf(hashes);
+    }
+
+    /**
+     * Returns the hash of the subtree rooted at the node, or empty if the subtree contains a node
+     * whose computation is not described, in which case the node and its ancestors get no hash.
+     */
+    private static Optional<String> hash(PlanNode node, Map<PlanNodeId, String> hashes)
+    {
+        List<Optional<String>> sourceHashes = node.getSources().stream()
+                .map(source -> hash(source, hashes))
+                .collect(toImmutableList());
+        Optional<String> details = node.accept(DETAILS_VISITOR, null);
+        if (!details.isPresent() || sourceHashes.stream().anyMatch(sourceHash -> !sourceHash.isPresent())) {
+            return Optional.empty();
+        }
+
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(node.getClass().getSimpleName(), UTF_8)
+                .putString(details.get(), UTF_8)
+                .putString(node.getOutputSymbols().toString(), UTF_8);
+        for (Optional<String> sourceHash : sourceHashes) {
+            hasher.putString(sourceHash.get(), UTF_8);
+        }
+        String hash = hasher.hash().toString();
+        hashes.put(node.getId(), hash);
+        return Optional.of(hash);
+    }
+
+    /**
+     * Describes the parts of a node that affect its output, other than the output symbols and the sources.
+     * Nodes that are not described, such as writers and remote sources, are never matched with recorded statistics.
+     */
+    private static class DetailsVisitor
+            extends PlanVisitor<Optional<String>, Void>
+    {
+        @Override
+        protected Optional<String> visitPlan(PlanNode node, Void context)
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> visitTableScan(TableScanNode node, Void context)
+        {
+            return details(node.getTable(), node.getAssignments(), node.getOriginalConstraint());
+        }
+
+        @Override
+        public Optional<String> visitIndexSource(IndexSourceNode node, Void context)
+        {
+            return details(node.getIndexHandle(), node.getTableHandle(), node.getLookupSymbols(), node.getAssignments(), node.getEffectiveTupleDomain());
+        }
+
+        @Override
+        public Optional<String> visitValues(ValuesNode node, Void context)
+        {
+            return details(node.getRows());
+        }
+
+        @Override
+        public Optional<String> visitFilter(FilterNode node, Void context)
+        {
+            return details(node.getPredicate());
+        }
+
+        @Override
+        public Optional<String> visitProject(ProjectNode node, Void context)
+        {
+            return details(node.getAssignments().getMap());
+        }
+
+        @Override
+        public Optional<String> visitAggregation(AggregationNode node, Void context)
+        {
+            return details(node.getStep(), node.getGroupingSets(), node.getAggregations().entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + entry.getValue().getCall() + entry.getValue().getMask().map(mask -> " mask " + mask).orElse(""))
+                    .collect(Collectors.joining(",")));
+        }
+
+        @Override
+        public Optional<String> visitGroupId(GroupIdNode node, Void context)
+        {
+            return details(node.getGroupingSets(), node.getGroupingSetMappings(), node.getArgumentMappings(), node.getGroupIdSymbol());
+        }
+
+        @Override
+        public Optional<String> visitMarkDistinct(MarkDistinctNode node, Void context)
+        {
+            return details(node.getMarkerSymbol(), node.getDistinctSymbols());
+        }
+
+        @Override
+        public Optional<String> visitJoin(JoinNode node, Void context)
+        {
+            return details(node.getType(), node.getCriteria().stream()
+                    .map(clause -> clause.getLeft() + "=" + clause.getRight())
+                    .collect(Collectors.joining(",")), node.getFilter().map(Object::toString).orElse(""));
+        }
+
+        @Override
+        public Optional<String> visitSemiJoin(SemiJoinNode node, Void context)
+        {
+            return details(node.getSourceJoinSymbol() + "=" + node.getFilteringSourceJoinSymbol(), node.getSemiJoinOutput());
+        }
+
+        @Override
+        public Optional<String> visitIndexJoin(IndexJoinNode node, Void context)
+        {
+            return details(node.getType(), node.getCriteria().stream()
+                    .map(clause -> clause.getProbe() + "=" + clause.getIndex())
+                    .collect(Collectors.joining(",")));
+        }
+
+        @Override
+        public Optional<String> visitApply(ApplyNode node, Void context)
+        {
+            return details(node.getSubqueryAssignments().getMap(), node.getCorrelation());
+        }
+
+        @Override
+        public Optional<String> visitLateralJoin(LateralJoinNode node, Void context)
+        {
+            return details(node.getType(), node.getCorrelation());
+        }
+
+        @Override
+        public Optional<String> visitUnion(UnionNode node, Void context)
+        {
+            return details(node.getSymbolMapping());
+        }
+
+        @Override
+        public Optional<String> visitIntersect(IntersectNode node, Void context)
+        {
+            return details(node.getSymbolMapping());
+        }
+
+        @Override
+        public Optional<String> visitExcept(ExceptNode node, Void context)
+        {
+            return details(node.getSymbolMapping());
+        }
+
+        @Override
+        public Optional<String> visitUnnest(UnnestNode node, Void context)
+        {
+            return details(node.getReplicateSymbols(), node.getUnnestSymbols(), node.getOrdinalitySymbol());
+        }
+
+        @Override
+        public Optional<String> visitLimit(LimitNode node, Void context)
+        {
+            return details(node.getCount());
+        }
+
+        @Override
+        public Optional<String> visitDistinctLimit(DistinctLimitNode node, Void context)
+        {
+            return details(node.isPartial(), node.getLimit(), node.getDistinctSymbols());
+        }
+
+        @Override
+        public Optional<String> visitSample(SampleNode node, Void context)
+        {
+            return details(node.getSampleType(), node.getSampleRatio());
+        }
+
+        @Override
+        public Optional<String> visitTopN(TopNNode node, Void context)
+        {
+            return details(node.getStep(), node.getCount(), node.getOrderBy(), node.getOrderings());
+        }
+
+        @Override
+        public Optional<String> visitSort(SortNode node, Void context)
+        {
+            return details(node.getOrderBy(), node.getOrderings());
+        }
+
+        @Override
+        public Optional<String> visitWindow(WindowNode node, Void context)
+        {
+            return details(specification(node.getSpecification()), node.getWindowFunctions().entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + function(entry.getValue()))
+                    .collect(Collectors.joining(",")));
+        }
+
+        @Override
+        public Optional<String> visitRowNumber(RowNumberNode node, Void context)
+        {
+            return details(node.getPartitionBy(), node.getRowNumberSymbol(), node.getMaxRowCountPerPartition());
+        }
+
+        @Override
+        public Optional<String> visitTopNRowNumber(TopNRowNumberNode node, Void context)
+        {
+            return details(node.isPartial(), specification(node.getSpecification()), node.getRowNumberSymbol(), node.getMaxRowCountPerPartition());
+        }
+
+        @Override
+        public Optional<String> visitEnforceSingleRow(EnforceSingleRowNode node, Void context)
+        {
+            return details();
+        }
+
+        @Override
+        public Optional<String> visitAssignUniqueId(AssignUniqueId node, Void context)
+        {
+            return details();
+        }
+
+        @Override
+        public Optional<String> visitExchange(ExchangeNode node, Void context)
+        {
+            return details(node.getType(), node.getScope(), node.getInputs());
+        }
+
+        @Override
+        public Optional<String> visitOutput(OutputNode node, Void context)
+        {
+            return details(node.getColumnNames());
+        }
+
+        private static String specification(WindowNode.Specification specification)
+        {
+            return specification.getPartitionBy() + ":" + specification.getOrderBy() + ":" + specification.getOrderings();
+        }
+
+        private static String function(WindowNode.Function function)
+        {
+            WindowNode.Frame frame = function.getFrame();
+            return function.getFunctionCall() + " " + function.getSignature() + " " +
+                    frame.getType() + " " + frame.getStartType() + " " + frame.getStartValue() + " " + frame.getEndType() + " " + frame.getEndValue();
+        }
+
+        private static Optional<String> details(Object... parts)
+        {
+            return Optional.of(Stream.of(parts)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(":")));
+        }
+    }
+}
@@ -41,6 +41,7 @@ import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -321,6 +322,12 @@ public class DistributedExecutionPlanner
             return node.getSource().accept(this, context);
         }
 
+        @Override
+        public Map<PlanNodeId, SplitSource> visitStatisticsWriter(StatisticsWriterNode node, Void context)
+        {
+            return node.getSource().accept(this, context);
+        }
+
         @Override
         public Map<PlanNodeId, SplitSource> visitDelete(DeleteNode node, Void context)
         {
@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Values of a partitioning column that are frequent enough to overload the partition they hash to.
+ * The values are identified at execution by the raw hash of the partitioning column (see
+ * {@link com.facebook.presto.operator.InterpretedHashGenerator}), so rows of other values with a
+ * colliding hash are handled as hot keys as well.
+ */
+public class HotKeys
+{
+    private final Set<Long> hashes;
+    private final List<String> values;
+
+    @JsonCreator
+    public HotKeys(
+            @JsonProperty("hashes") Set<Long> hashes,
+            @JsonProperty("values") List<String> values)
+    {
+        this.hashes = ImmutableSet.copyOf(requireNonNull(hashes, "hashes is null"));
+        this.values = ImmutableList.copyOf(requireNonNull(values, "values is null"));
+        checkArgument(!hashes.isEmpty(), "hashes is empty");
+    }
+
+    @JsonProperty
+    public Set<Long> getHashes()
+    {
+        return hashes;
+    }
+
+    /**
+     * Printable hot values, for explaining the plan.
+     */
+    @JsonProperty
+    public List<String> getValues()
+    {
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HotKeys that = (HotKeys) o;
+        return Objects.equals(hashes, that.hashes) &&
+                Objects.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(hashes, values);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("hashes", hashes)
+                .add("values", values)
+                .toString();
+    }
+}
@@ -36,7 +36,10 @@ import com.facebook.presto.operator.FilterAndProjectOperator;
 import com.facebook.presto.operator.GroupIdOperator;
 import com.facebook.presto.operator.HashAggregationOperator.HashAggregationOperatorFactory;
 import com.facebook.presto.operator.HashBuilderOperator.HashBuilderOperatorFactory;
+import com.facebook.presto.operator.HashGenerator;
 import com.facebook.presto.operator.HashSemiJoinOperator.HashSemiJoinOperatorFactory;
+import com.facebook.presto.operator.HotKeyFilter;
+import com.facebook.presto.operator.InterpretedHashGenerator;
 import com.facebook.presto.operator.JoinOperatorFactory;
 import com.facebook.presto.operator.LimitOperator.LimitOperatorFactory;
 import com.facebook.presto.operator.LocalPlannerAware;
@@ -51,11 +54,15 @@ import com.facebook.presto.operator.OutputFactory;
 import com.facebook.presto.operator.PagesIndex;
 import com.facebook.presto.operator.PartitionFunction;
 import com.facebook.presto.operator.PartitionedOutputOperator.PartitionedOutputFactory;
+import com.facebook.presto.operator.PrecomputedHashGenerator;
 import com.facebook.presto.operator.RowNumberOperator;
 import com.facebook.presto.operator.ScanFilterAndProjectOperator;
 import com.facebook.presto.operator.SetBuilderOperator.SetBuilderOperatorFactory;
 import com.facebook.presto.operator.SetBuilderOperator.SetSupplier;
 import com.facebook.presto.operator.SourceOperatorFactory;
+import com.facebook.presto.operator.SplitResultCache;
+import com.facebook.presto.operator.StatisticsWriterOperator.StatisticsWriterOperatorFactory;
+import com.facebook.presto.operator.StreamingAggregationOperator.StreamingAggregationOperatorFactory;
 import com.facebook.presto.operator.TableScanOperator.TableScanOperatorFactory;
 import com.facebook.presto.operator.TaskContext;
 import com.facebook.presto.operator.TaskOutputOperator.TaskOutputFactory;
@@ -135,6 +142,7 @@ import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -152,6 +160,7 @@ import com.facebook.presto.sql.tree.Expression;
 import com.facebook.presto.sql.tree.FieldReference;
 import com.facebook.presto.sql.tree.FunctionCall;
 import com.facebook.presto.sql.tree.NodeRef;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -188,6 +197,7 @@ import static com.facebook.presto.SystemSessionProperties.getTaskConcurrency;
 import static com.facebook.presto.SystemSessionProperties.getTaskWriterCount;
 import static com.facebook.presto.SystemSessionProperties.isExchangeCompressionEnabled;
 import static com.facebook.presto.SystemSessionProperties.isSpillEnabled;
+import static com.facebook.presto.SystemSessionProperties.isSplitResultCacheEnabled;
 import static com.facebook.presto.metadata.FunctionKind.SCALAR;
 import static com.facebook.presto.operator.DistinctLimitOperator.DistinctLimitOperatorFactory;
 import static com.facebook.presto.operator.NestedLoopBuildOperator.NestedLoopBuildOperatorFactory;
@@ -221,6 +231,8 @@ import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.getOnlyElement;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
@@ -230,6 +242,12 @@ public class LocalExecutionPlanner
 {
     private static final Logger log = Logger.get(LocalExecutionPlanner.class);
 
+    @VisibleForTesting
+    static final int DEFAULT_EXPECTED_POSITIONS = 10_000;
+    // hash tables are not created larger than this up front, as an overestimate would reserve memory that is never used
+    @VisibleForTesting
+    static final int MAX_EXPECTED_POSITIONS = 1_000_000;
+
     private final Metadata metadata;
     private final SqlParser sqlParser;
     private final CostCalculator costCalculator;
@@ -255,6 +273,7 @@ public class LocalExecutionPlanner
     private final PagesIndex.Factory pagesIndexFactory;
     private final JoinCompiler joinCompiler;
     private final LookupJoinOperators lookupJoinOperators;
+    private final SplitResultCache splitResultCache;
 
     @Inject
     public LocalExecutionPlanner(
@@ -279,7 +298,8 @@ public class LocalExecutionPlanner
             BlockEncodingSerde blockEncodingSerde,
             PagesIndex.Factory pagesIndexFactory,
             JoinCompiler joinCompiler,
-            LookupJoinOperators lookupJoinOperators)
+            LookupJoinOperators lookupJoinOperators,
+            SplitResultCache splitResultCache)
     {
         requireNonNull(compilerConfig, "compilerConfig is null");
         this.queryPerformanceFetcher = requireNonNull(queryPerformanceFetcher, "queryPerformanceFetcher is null");
@@ -305,6 +325,7 @@ public class LocalExecutionPlanner
         this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
         this.lookupJoinOperators = requireNonNull(lookupJoinOperators, "lookupJoinOperators is null");
+        this.splitResultCache = requireNonNull(splitResultCache, "splitResultCache is null");
 
         interpreterEnabled = compilerConfig.isInterpreterEnabled();
     }
@@ -313,6 +334,7 @@ public class LocalExecutionPlanner
             TaskContext taskContext,
             PlanNode plan,
             Map<Symbol, Type> types,
+            Map<PlanNodeId, Long> estimatedRowCounts,
             PartitioningScheme partitioningScheme,
             OutputBuffer outputBuffer)
     {
@@ -321,7 +343,7 @@ public class LocalExecutionPlanner
                 partitioningScheme.getPartitioning().getHandle().equals(FIXED_ARBITRARY_DISTRIBUTION) ||
                 partitioningScheme.getPartitioning().getHandle().equals(SINGLE_DISTRIBUTION) ||
                 partitioningScheme.getPartitioning().getHandle().equals(COORDINATOR_DISTRIBUTION)) {
-            return plan(taskContext, plan, outputLayout, types, new TaskOutputFactory(outputBuffer));
+            return plan(taskContext, plan, outputLayout, types, estimatedRowCounts, new TaskOutputFactory(outputBuffer));
         }
 
         // We can convert the symbols directly into channels, because the root must be a sink and therefore the layout is fixed
@@ -366,17 +388,33 @@ public class LocalExecutionPlanner
             nullChannel = OptionalInt.of(outputLayout.indexOf(getOnlyElement(partitioningColumns)));
         }
 
+        Optional<HotKeyFilter> hotKeyFilter = Optional.empty();
+        if (partitioningScheme.getHotKeys().isPresent()) {
+            // hot keys are recognized on the partition function arguments
+            HashGenerator hashGenerator;
+            if (partitioningScheme.getHashColumn().isPresent()) {
+                hashGenerator = new PrecomputedHashGenerator(0);
+            }
+            else {
+                hashGenerator = new InterpretedHashGenerator(partitionChannelTypes, range(0, partitionChannelTypes.size()).toArray());
+            }
+            hotKeyFilter = Optional.of(new HotKeyFilter(hashGenerator, partitioningScheme.getHotKeys().get().getHashes()));
+        }
+
         return plan(
                 taskContext,
                 plan,
                 outputLayout,
                 types,
+                estimatedRowCounts,
                 new PartitionedOutputFactory(
                         partitionFunction,
                         partitionChannels,
                         partitionConstants,
                         partitioningScheme.isReplicateNullsAndAny(),
                         nullChannel,
+                        hotKeyFilter,
+                        partitioningScheme.isReplicateHotKeys(),
                         outputBuffer,
                         maxPagePartitioningBufferSize));
     }
@@ -385,10 +423,11 @@ public class LocalExecutionPlanner
             PlanNode plan,
             List<Symbol> outputLayout,
             Map<Symbol, Type> types,
+            Map<PlanNodeId, Long> estimatedRowCounts,
             OutputFactory outputOperatorFactory)
     {
         Session session = taskContext.getSession();
-        LocalExecutionPlanContext context = new LocalExecutionPlanContext(taskContext, types);
+        LocalExecutionPlanContext context = new LocalExecutionPlanContext(taskContext, types, estimatedRowCounts);
 
         PhysicalOperation physicalOperation = plan.accept(new Visitor(session), context);
 
@@ -424,6 +463,16 @@ public class LocalExecutionPlanner
         return new LocalExecutionPlan(context.getDriverFactories());
     }
 
+    @VisibleForTesting
+    static int getExpectedPositions(Map<PlanNodeId, Long> estimatedRowCounts, PlanNodeId planNodeId, int driverInstances)
+    {
+        Long estimatedRowCount = estimatedRowCounts.get(planNodeId);
+        if (estimatedRowCount == null) {
+            return DEFAULT_EXPECTED_POSITIONS;
+        }
+        return (int) max(DEFAULT_EXPECTED_POSITIONS, min(MAX_EXPECTED_POSITIONS, estimatedRowCount / driverInstances));
+    }
+
     private static void addLookupOuterDrivers(LocalExecutionPlanContext context)
     {
         // For an outer join on the lookup side (RIGHT or FULL) add an additional
@@ -458,6 +507,7 @@ public class LocalExecutionPlanner
     {
         private final TaskContext taskContext;
         private final Map<Symbol, Type> types;
+        private final Map<PlanNodeId, Long> estimatedRowCounts;
         private final List<DriverFactory> driverFactories;
         private final Optional<IndexSourceContext> indexSourceContext;
 
@@ -468,20 +518,22 @@ public class LocalExecutionPlanner
         private boolean inputDriver = true;
         private OptionalInt driverInstanceCount = OptionalInt.empty();
 
-        public LocalExecutionPlanContext(TaskContext taskContext, Map<Symbol, Type> types)
+        public LocalExecutionPlanContext(TaskContext taskContext, Map<Symbol, Type> types, Map<PlanNodeId, Long> estimatedRowCounts)
         {
-            this(taskContext, types, new ArrayList<>(), Optional.empty(), new AtomicInteger(0));
+            this(taskContext, types, estimatedRowCounts, new ArrayList<>(), Optional.empty(), new AtomicInteger(0));
         }
 
         private LocalExecutionPlanContext(
                 TaskContext taskContext,
                 Map<Symbol, Type> types,
+                Map<PlanNodeId, Long> estimatedRowCounts,
                 List<DriverFactory> driverFactories,
                 Optional<IndexSourceContext> indexSourceContext,
                 AtomicInteger nextPipelineId)
         {
             this.taskContext = taskContext;
             this.types = types;
+            this.estimatedRowCounts = requireNonNull(estimatedRowCounts, "estimatedRowCounts is null");
             this.driverFactories = driverFactories;
             this.indexSourceContext = indexSourceContext;
             this.nextPipelineId = nextPipelineId;
@@ -517,6 +569,15 @@ public class LocalExecutionPlanner
             return indexSourceContext;
         }
 
+        /**
+         * Returns the number of positions a hash table holding the rows of the plan node should be created for,
+         * when the rows are spread over the given number of drivers.
+         */
+        public int getExpectedPositions(PlanNodeId planNodeId, int driverInstances)
+        {
+            return LocalExecutionPlanner.getExpectedPositions(estimatedRowCounts, planNodeId, driverInstances);
+        }
+
         private int getNextPipelineId()
         {
             return nextPipelineId.getAndIncrement();
@@ -540,12 +601,12 @@ public class LocalExecutionPlanner
         public LocalExecutionPlanContext createSubContext()
         {
             checkState(!indexSourceContext.isPresent(), "index build plan can not have sub-contexts");
-            return new LocalExecutionPlanContext(taskContext, types, driverFactories, indexSourceContext, nextPipelineId);
+            return new LocalExecutionPlanContext(taskContext, types, estimatedRowCounts, driverFactories, indexSourceContext, nextPipelineId);
         }
 
         public LocalExecutionPlanContext createIndexSourceSubContext(IndexSourceContext indexSourceContext)
         {
-            return new LocalExecutionPlanContext(taskContext, types, driverFactories, Optional.of(indexSourceContext), nextPipelineId);
+            return new LocalExecutionPlanContext(taskContext, types, estimatedRowCounts, driverFactories, Optional.of(indexSourceContext), nextPipelineId);
         }
 
         public OptionalInt getDriverInstanceCount()
@@ -955,10 +1016,20 @@ public class LocalExecutionPlanner
                 return planGlobalAggregation(context.getNextOperatorId(), node, source);
             }
 
+            if (node.isStreamable() && !node.getHashSymbol().isPresent()) {
+                return planStreamingAggregation(context.getNextOperatorId(), node, source);
+            }
+
             boolean spillEnabled = isSpillEnabled(context.getSession());
             DataSize unspillMemoryLimit = getAggregationOperatorUnspillMemoryLimit(context.getSession());
 
-            return planGroupByAggregation(node, source, context.getNextOperatorId(), spillEnabled, unspillMemoryLimit);
+            // partial aggregations are flushed when they get large, so they keep the default size
+            int expectedGroups = DEFAULT_EXPECTED_POSITIONS;
+            if (!node.getStep().isOutputPartial()) {
+                expectedGroups = context.getExpectedPositions(node.getId(), context.getDriverInstanceCount().orElse(1));
+            }
+
+            return planGroupByAggregation(node, source, context.getNextOperatorId(), expectedGroups, spillEnabled, unspillMemoryLimit);
         }
 
         @Override
@@ -968,7 +1039,17 @@ public class LocalExecutionPlanner
 
             List<Integer> channels = getChannelsForSymbols(node.getDistinctSymbols(), source.getLayout());
             Optional<Integer> hashChannel = node.getHashSymbol().map(channelGetter(source));
-            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(context.getNextOperatorId(), node.getId(), source.getTypes(), channels, hashChannel, joinCompiler);
+            int expectedDistinctValues = context.getExpectedPositions(node.getSource().getId(), context.getDriverInstanceCount().orElse(1));
+            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    source.getTypes(),
+                    channels,
+                    hashChannel,
+                    expectedDistinctValues,
+                    isSpillEnabled(context.getSession()),
+                    partitioningSpillerFactory,
+                    joinCompiler);
             return new PhysicalOperation(operator, makeLayout(node), source);
         }
 
@@ -1090,6 +1171,11 @@ public class LocalExecutionPlanner
                     Supplier<CursorProcessor> cursorProcessor = expressionCompiler.compileCursorProcessor(translatedFilter, translatedProjections, sourceNode.getId());
                     Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(translatedFilter, translatedProjections, Optional.of(context.getStageId() + "_" + planNodeId));
 
+                    Optional<SplitResultCache.Scan> resultCache = Optional.empty();
+                    if (isSplitResultCacheEnabled(context.getSession()) && SplitResultCache.isCacheable(metadata.getFunctionRegistry(), translatedFilter, translatedProjections)) {
+                        resultCache = Optional.of(splitResultCache.forScan(columns, translatedFilter, translatedProjections, context.getSession().getTimeZoneKey()));
+                    }
+
                     SourceOperatorFactory operatorFactory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
                             context.getNextOperatorId(),
                             planNodeId,
@@ -1098,7 +1184,8 @@ public class LocalExecutionPlanner
                             cursorProcessor,
                             pageProcessor,
                             columns,
-                            getTypes(rewrittenProjections, expressionTypes));
+                            getTypes(rewrittenProjections, expressionTypes),
+                            resultCache);
 
                     return new PhysicalOperation(operatorFactory, outputMappings);
                 }
@@ -1478,10 +1565,10 @@ public class LocalExecutionPlanner
             OptionalInt totalOperatorsCount = getJoinOperatorsCountForSpill(context, session);
             switch (node.getType()) {
                 case INNER:
-                    lookupJoinOperatorFactory = lookupJoinOperators.innerJoin(context.getNextOperatorId(), node.getId(), indexLookupSourceFactory, probeSource.getTypes(), probeChannels, probeHashChannel, Optional.empty(), totalOperatorsCount, partitioningSpillerFactory);
+                    lookupJoinOperatorFactory = lookupJoinOperators.innerJoin(context.getNextOperatorId(), node.getId(), indexLookupSourceFactory, probeSource.getTypes(), probeChannels, probeHashChannel, Optional.empty(), totalOperatorsCount, partitioningSpillerFactory, ImmutableSet.of());
                     break;
                 case SOURCE_OUTER:
-                    lookupJoinOperatorFactory = lookupJoinOperators.probeOuterJoin(context.getNextOperatorId(), node.getId(), indexLookupSourceFactory, probeSource.getTypes(), probeChannels, probeHashChannel, Optional.empty(), totalOperatorsCount, partitioningSpillerFactory);
+                    lookupJoinOperatorFactory = lookupJoinOperators.probeOuterJoin(context.getNextOperatorId(), node.getId(), indexLookupSourceFactory, probeSource.getTypes(), probeChannels, probeHashChannel, Optional.empty(), totalOperatorsCount, partitioningSpillerFactory, ImmutableSet.of());
                     break;
                 default:
                     throw new AssertionError("Unknown type: " + node.getType());
@@ -1638,7 +1725,7 @@ public class LocalExecutionPlanner
                     filterFunctionFactory,
                     sortChannel,
                     searchFunctionFactories,
-                    10_000,
+                    buildContext.getExpectedPositions(buildNode.getId(), partitionCount),
                     partitionCount,
                     pagesIndexFactory,
                     spillEnabled && !buildOuter && partitionCount > 1,
@@ -1709,16 +1796,19 @@ public class LocalExecutionPlanner
             OptionalInt probeHashChannel = probeHashSymbol.map(channelGetter(probeSource))
                     .map(OptionalInt::of).orElse(OptionalInt.empty());
             OptionalInt totalOperatorsCount = getJoinOperatorsCountForSpill(context, session);
+            Set<Long> hotKeyHashes = node.getHotKeys()
+                    .map(HotKeys::getHashes)
+                    .orElse(ImmutableSet.of());
 
             switch (node.getType()) {
                 case INNER:
-                    return lookupJoinOperators.innerJoin(context.getNextOperatorId(), node.getId(), lookupSourceFactory, probeTypes, probeJoinChannels, probeHashChannel, Optional.of(probeOutputChannels), totalOperatorsCount, partitioningSpillerFactory);
+                    return lookupJoinOperators.innerJoin(context.getNextOperatorId(), node.getId(), lookupSourceFactory, probeTypes, probeJoinChannels, probeHashChannel, Optional.of(probeOutputChannels), totalOperatorsCount, partitioningSpillerFactory, hotKeyHashes);
                 case LEFT:
-                    return lookupJoinOperators.probeOuterJoin(context.getNextOperatorId(), node.getId(), lookupSourceFactory, probeTypes, probeJoinChannels, probeHashChannel, Optional.of(probeOutputChannels), totalOperatorsCount, partitioningSpillerFactory);
+                    return lookupJoinOperators.probeOuterJoin(context.getNextOperatorId(), node.getId(), lookupSourceFactory, probeTypes, probeJoinChannels, probeHashChannel, Optional.of(probeOutputChannels), totalOperatorsCount, partitioningSpillerFactory, hotKeyHashes);
                 case RIGHT:
-                    return lookupJoinOperators.lookupOuterJoin(context.getNextOperatorId(), node.getId(), lookupSourceFactory, probeTypes, probeJoinChannels, probeHashChannel, Optional.of(probeOutputChannels), totalOperatorsCount, partitioningSpillerFactory);
+                    return lookupJoinOperators.lookupOuterJoin(context.getNextOperatorId(), node.getId(), lookupSourceFactory, probeTypes, probeJoinChannels, probeHashChannel, Optional.of(probeOutputChannels), totalOperatorsCount, partitioningSpillerFactory, hotKeyHashes);
                 case FULL:
-                    return lookupJoinOperators.fullOuterJoin(context.getNextOperatorId(), node.getId(), lookupSourceFactory, probeTypes, probeJoinChannels, probeHashChannel, Optional.of(probeOutputChannels), totalOperatorsCount, partitioningSpillerFactory);
+                    return lookupJoinOperators.fullOuterJoin(context.getNextOperatorId(), node.getId(), lookupSourceFactory, probeTypes, probeJoinChannels, probeHashChannel, Optional.of(probeOutputChannels), totalOperatorsCount, partitioningSpillerFactory, hotKeyHashes);
                 default:
                     throw new UnsupportedOperationException("Unsupported join type: " + node.getType());
             }
@@ -1765,7 +1855,7 @@ public class LocalExecutionPlanner
                     buildSource.getTypes().get(buildChannel),
                     buildChannel,
                     buildHashChannel,
-                    10_000,
+                    buildContext.getExpectedPositions(node.getFilteringSource().getId(), 1),
                     joinCompiler);
             SetSupplier setProvider = setBuilderOperatorFactory.getSetProvider();
             context.addDriverFactory(buildContext.isInputDriver(),
@@ -1831,6 +1921,22 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operatorFactory, layout, source);
         }
 
+        @Override
+        public PhysicalOperation visitStatisticsWriter(StatisticsWriterNode node, LocalExecutionPlanContext context)
+        {
+            PhysicalOperation source = node.getSource().accept(this, context);
+
+            OperatorFactory operatorFactory = new StatisticsWriterOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    computedStatistics -> metadata.finishStatisticsCollection(session, node.getTarget(), computedStatistics),
+                    node.getDescriptor().map(symbol -> source.getLayout().get(symbol)),
+                    source.getTypes());
+            Map<Symbol, Integer> layout = ImmutableMap.of(node.getOutputSymbols().get(0), 0);
+
+            return new PhysicalOperation(operatorFactory, layout, source);
+        }
+
         @Override
         public PhysicalOperation visitDelete(DeleteNode node, LocalExecutionPlanContext context)
         {
@@ -1993,10 +2099,51 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operatorFactory, outputMappings.build(), source);
         }
 
+        private PhysicalOperation planStreamingAggregation(int operatorId, AggregationNode node, PhysicalOperation source)
+        {
+            ImmutableMap.Builder<Symbol, Integer> outputMappings = ImmutableMap.builder();
+            // add group-by key fields each in a separate channel
+            int channel = 0;
+            for (Symbol symbol : node.getGroupingKeys()) {
+                outputMappings.put(symbol, channel);
+                channel++;
+            }
+
+            // aggregations go in following channels
+            List<AccumulatorFactory> accumulatorFactories = new ArrayList<>();
+            for (Map.Entry<Symbol, Aggregation> entry : node.getAggregations().entrySet()) {
+                Symbol symbol = entry.getKey();
+                Aggregation aggregation = entry.getValue();
+                accumulatorFactories.add(buildAccumulatorFactory(
+                        source,
+                        aggregation.getSignature(),
+                        aggregation.getCall(),
+                        aggregation.getMask()));
+                outputMappings.put(symbol, channel);
+                channel++;
+            }
+
+            List<Integer> groupByChannels = getChannelsForSymbols(node.getGroupingKeys(), source.getLayout());
+            List<Type> groupByTypes = groupByChannels.stream()
+                    .map(entry -> source.getTypes().get(entry))
+                    .collect(toImmutableList());
+
+            OperatorFactory operatorFactory = new StreamingAggregationOperatorFactory(
+                    operatorId,
+                    node.getId(),
+                    groupByTypes,
+                    groupByChannels,
+                    node.getStep(),
+                    accumulatorFactories,
+                    joinCompiler);
+            return new PhysicalOperation(operatorFactory, outputMappings.build(), source);
+        }
+
         private PhysicalOperation planGroupByAggregation(
                 AggregationNode node,
                 PhysicalOperation source,
                 int operatorId,
+                int expectedGroups,
                 boolean spillEnabled,
                 DataSize unspillMemoryLimit)
         {
@@ -2061,7 +2208,7 @@ public class LocalExecutionPlanner
                     accumulatorFactories,
                     hashChannel,
                     node.getGroupIdSymbol().map(mappings::get),
-                    10_000,
+                    expectedGroups,
                     maxPartialAggregationMemorySize,
                     spillEnabled,
                     unspillMemoryLimit,
@@ -20,12 +20,18 @@ import com.facebook.presto.cost.PlanNodeCost;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.NewTableLayout;
 import com.facebook.presto.metadata.QualifiedObjectName;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.metadata.TableHandle;
 import com.facebook.presto.metadata.TableMetadata;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.TableStatisticsMetadata;
+import com.facebook.presto.spi.type.ArrayType;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.VarcharType;
 import com.facebook.presto.sql.analyzer.Analysis;
 import com.facebook.presto.sql.analyzer.Field;
 import com.facebook.presto.sql.analyzer.RelationId;
@@ -33,6 +39,8 @@ import com.facebook.presto.sql.analyzer.RelationType;
 import com.facebook.presto.sql.analyzer.Scope;
 import com.facebook.presto.sql.parser.SqlParser;
 import com.facebook.presto.sql.planner.optimizations.PlanOptimizer;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.AggregationNode.Aggregation;
 import com.facebook.presto.sql.planner.plan.Assignments;
 import com.facebook.presto.sql.planner.plan.DeleteNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
@@ -41,36 +49,59 @@ import com.facebook.presto.sql.planner.plan.OutputNode;
 import com.facebook.presto.sql.planner.plan.PlanNode;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode.ColumnStatisticsDescriptor;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode.StatisticsDescriptor;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
 import com.facebook.presto.sql.planner.plan.ValuesNode;
 import com.facebook.presto.sql.planner.sanity.PlanSanityChecker;
+import com.facebook.presto.sql.tree.Analyze;
+import com.facebook.presto.sql.tree.ArrayConstructor;
 import com.facebook.presto.sql.tree.Cast;
 import com.facebook.presto.sql.tree.CreateTableAsSelect;
 import com.facebook.presto.sql.tree.Delete;
+import com.facebook.presto.sql.tree.DoubleLiteral;
 import com.facebook.presto.sql.tree.Explain;
 import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.GenericLiteral;
 import com.facebook.presto.sql.tree.Identifier;
 import com.facebook.presto.sql.tree.Insert;
 import com.facebook.presto.sql.tree.LambdaArgumentDeclaration;
 import com.facebook.presto.sql.tree.LongLiteral;
 import com.facebook.presto.sql.tree.NodeRef;
 import com.facebook.presto.sql.tree.NullLiteral;
+import com.facebook.presto.sql.tree.QualifiedName;
 import com.facebook.presto.sql.tree.Query;
 import com.facebook.presto.sql.tree.Statement;
+import com.facebook.presto.sql.tree.StringLiteral;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static com.facebook.presto.spi.StandardErrorCode.FUNCTION_NOT_FOUND;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_FOUND;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static com.facebook.presto.sql.analyzer.TypeSignatureProvider.fromTypes;
 import static com.facebook.presto.sql.planner.plan.TableWriterNode.CreateName;
 import static com.facebook.presto.sql.planner.plan.TableWriterNode.InsertReference;
 import static com.facebook.presto.sql.planner.plan.TableWriterNode.WriterTarget;
@@ -86,6 +117,9 @@ public class LogicalPlanner
         CREATED, OPTIMIZED, OPTIMIZED_AND_VALIDATED
     }
 
+    // number of buckets of the equi-height histograms computed by ANALYZE
+    private static final int STATISTICS_QUANTILE_BUCKETS = 20;
+
     private final PlanNodeIdAllocator idAllocator;
 
     private final Session session;
@@ -171,6 +205,10 @@ public class LogicalPlanner
         else if (statement instanceof Delete) {
             return createDeletePlan(analysis, (Delete) statement);
         }
+        else if (statement instanceof Analyze) {
+            checkState(analysis.getAnalyzeTarget().isPresent(), "Analyze target is missing");
+            return createAnalyzePlan(analysis, (Analyze) statement);
+        }
         else if (statement instanceof Query) {
             return createRelationPlan(analysis, (Query) statement);
         }
@@ -349,6 +387,139 @@ public class LogicalPlanner
         return new RelationPlan(commitNode, analysis.getScope(node), commitNode.getOutputSymbols());
     }
 
+    private RelationPlan createAnalyzePlan(Analysis analysis, Analyze analyzeStatement)
+    {
+        TableHandle targetTable = analysis.getAnalyzeTarget().get();
+        TableStatisticsMetadata statisticsMetadata = metadata.getStatisticsCollectionMetadata(session, targetTable);
+        TableMetadata tableMetadata = metadata.getTableMetadata(session, targetTable);
+        Map<String, ColumnHandle> columnHandles = metadata.getColumnHandles(session, targetTable);
+
+        ImmutableList.Builder<Symbol> scanSymbols = ImmutableList.builder();
+        ImmutableMap.Builder<Symbol, ColumnHandle> scanAssignments = ImmutableMap.builder();
+        Map<String, Symbol> columnSymbols = new HashMap<>();
+        for (ColumnMetadata column : tableMetadata.getColumns()) {
+            if (statisticsMetadata.getColumns().contains(column.getName()) || statisticsMetadata.getGroupingColumns().contains(column.getName())) {
+                Symbol symbol = symbolAllocator.newSymbol(column.getName(), column.getType());
+                scanSymbols.add(symbol);
+                scanAssignments.put(symbol, columnHandles.get(column.getName()));
+                columnSymbols.put(column.getName(), symbol);
+            }
+        }
+        PlanNode source = new TableScanNode(idAllocator.getNextId(), targetTable, scanSymbols.build(), scanAssignments.build(), Optional.empty(), TupleDomain.all(), null);
+
+        List<Symbol> groupingSymbols = statisticsMetadata.getGroupingColumns().stream()
+                .map(columnSymbols::get)
+                .collect(toImmutableList());
+
+        Assignments.Builder projections = Assignments.builder().putIdentities(source.getOutputSymbols());
+        Map<Symbol, Aggregation> aggregations = new LinkedHashMap<>();
+        Symbol rowCount = addStatisticsAggregation(aggregations, projections, "count").get();
+        ImmutableMap.Builder<String, ColumnStatisticsDescriptor<Symbol>> columnStatistics = ImmutableMap.builder();
+        for (String column : statisticsMetadata.getColumns()) {
+            Symbol symbol = columnSymbols.get(column);
+            Type type = symbolAllocator.getTypes().get(symbol);
+            Optional<Symbol> dataSize = Optional.empty();
+            if (type instanceof VarcharType) {
+                // the data size of a varchar value is the length of its UTF-8 encoding
+                Symbol length = symbolAllocator.newSymbol(column + "_length", BIGINT);
+                projections.put(length, new FunctionCall(QualifiedName.of("length"), ImmutableList.of(new Cast(symbol.toSymbolReference(), VARBINARY.getTypeSignature().toString()))));
+                dataSize = addStatisticsAggregation(aggregations, projections, "sum", length);
+            }
+            boolean orderable = type.isOrderable();
+            columnStatistics.put(column, new ColumnStatisticsDescriptor<>(
+                    addStatisticsAggregation(aggregations, projections, "count", symbol).get(),
+                    addStatisticsAggregation(aggregations, projections, "approx_distinct", symbol),
+                    orderable ? addStatisticsAggregation(aggregations, projections, "min", symbol) : Optional.empty(),
+                    orderable ? addStatisticsAggregation(aggregations, projections, "max", symbol) : Optional.empty(),
+                    dataSize,
+                    addQuantilesAggregation(aggregations, projections, column, symbol, type)));
+        }
+
+        PlanNode aggregation = new AggregationNode(
+                idAllocator.getNextId(),
+                new ProjectNode(idAllocator.getNextId(), source, projections.build()),
+                aggregations,
+                ImmutableList.of(groupingSymbols),
+                AggregationNode.Step.SINGLE,
+                Optional.empty(),
+                Optional.empty());
+
+        Map<String, Symbol> grouping = new LinkedHashMap<>();
+        for (int i = 0; i < groupingSymbols.size(); i++) {
+            grouping.put(statisticsMetadata.getGroupingColumns().get(i), groupingSymbols.get(i));
+        }
+        StatisticsDescriptor<Symbol> descriptor = new StatisticsDescriptor<>(grouping, rowCount, columnStatistics.build());
+
+        Symbol output = symbolAllocator.newSymbol("rows", BIGINT);
+        PlanNode writer = new StatisticsWriterNode(idAllocator.getNextId(), aggregation, targetTable, descriptor, output);
+        return new RelationPlan(writer, analysis.getScope(analyzeStatement), writer.getOutputSymbols());
+    }
+
+    /**
+     * Adds an aggregation computing a statistic of the arguments, coercing the arguments if the
+     * function requires it. Returns empty if the function does not support the argument types.
+     */
+    private Optional<Symbol> addStatisticsAggregation(Map<Symbol, Aggregation> aggregations, Assignments.Builder projections, String functionName, Symbol... arguments)
+    {
+        List<Type> argumentTypes = Stream.of(arguments)
+                .map(symbol -> symbolAllocator.getTypes().get(symbol))
+                .collect(toImmutableList());
+        Signature signature;
+        try {
+            signature = metadata.getFunctionRegistry().resolveFunction(QualifiedName.of(functionName), fromTypes(argumentTypes));
+        }
+        catch (PrestoException e) {
+            if (e.getErrorCode().equals(FUNCTION_NOT_FOUND.toErrorCode())) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+
+        ImmutableList.Builder<Expression> coercedArguments = ImmutableList.builder();
+        for (int i = 0; i < arguments.length; i++) {
+            Type argumentType = metadata.getType(signature.getArgumentTypes().get(i));
+            if (argumentType.equals(argumentTypes.get(i))) {
+                coercedArguments.add(arguments[i].toSymbolReference());
+            }
+            else {
+                Symbol coerced = symbolAllocator.newSymbol(arguments[i].getName(), argumentType);
+                projections.put(coerced, new Cast(arguments[i].toSymbolReference(), argumentType.getTypeSignature().toString()));
+                coercedArguments.add(coerced.toSymbolReference());
+            }
+        }
+
+        Symbol symbol = symbolAllocator.newSymbol(functionName, metadata.getType(signature.getReturnType()));
+        aggregations.put(symbol, new Aggregation(new FunctionCall(QualifiedName.of(functionName), coercedArguments.build()), signature, Optional.empty()));
+        return Optional.of(symbol);
+    }
+
+    /**
+     * Adds an aggregation computing the quantiles of the values of a numeric or date column, as doubles
+     * (days for dates), at evenly spaced fractions from 0 to 1. Returns empty for other types.
+     */
+    private Optional<Symbol> addQuantilesAggregation(Map<Symbol, Aggregation> aggregations, Assignments.Builder projections, String column, Symbol symbol, Type type)
+    {
+        Expression value;
+        if (type.equals(DATE)) {
+            value = new FunctionCall(QualifiedName.of("date_diff"), ImmutableList.of(new StringLiteral("day"), new GenericLiteral("DATE", "1970-01-01"), symbol.toSymbolReference()));
+        }
+        else if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DOUBLE) || type.equals(REAL)) {
+            value = symbol.toSymbolReference();
+        }
+        else {
+            return Optional.empty();
+        }
+        Symbol doubleValue = symbolAllocator.newSymbol(column + "_double", DOUBLE);
+        projections.put(doubleValue, new Cast(value, DOUBLE.getTypeSignature().toString()));
+
+        Symbol percentiles = symbolAllocator.newSymbol(column + "_percentiles", new ArrayType(DOUBLE));
+        projections.put(percentiles, new ArrayConstructor(IntStream.rangeClosed(0, STATISTICS_QUANTILE_BUCKETS)
+                .mapToObj(bucket -> new DoubleLiteral(String.valueOf(1.0 * bucket / STATISTICS_QUANTILE_BUCKETS)))
+                .collect(toImmutableList())));
+
+        return addStatisticsAggregation(aggregations, projections, "approx_percentile", doubleValue, percentiles);
+    }
+
     private PlanNode createOutputPlan(RelationPlan plan, Analysis analysis)
     {
         ImmutableList.Builder<Symbol> outputs = ImmutableList.builder();
@@ -34,6 +34,8 @@ public class PartitioningScheme
     private final Optional<Symbol> hashColumn;
     private final boolean replicateNullsAndAny;
     private final Optional<int[]> bucketToPartition;
+    private final Optional<HotKeys> hotKeys;
+    private final boolean replicateHotKeys;
 
     public PartitioningScheme(Partitioning partitioning, List<Symbol> outputLayout)
     {
@@ -55,13 +57,25 @@ public class PartitioningScheme
                 Optional.empty());
     }
 
+    public PartitioningScheme(
+            Partitioning partitioning,
+            List<Symbol> outputLayout,
+            Optional<Symbol> hashColumn,
+            boolean replicateNullsAndAny,
+            Optional<int[]> bucketToPartition)
+    {
+        this(partitioning, outputLayout, hashColumn, replicateNullsAndAny, bucketToPartition, Optional.empty(), false);
+    }
+
     @JsonCreator
     public PartitioningScheme(
             @JsonProperty("partitioning") Partitioning partitioning,
             @JsonProperty("outputLayout") List<Symbol> outputLayout,
             @JsonProperty("hashColumn") Optional<Symbol> hashColumn,
             @JsonProperty("replicateNullsAndAny") boolean replicateNullsAndAny,
-            @JsonProperty("bucketToPartition") Optional<int[]> bucketToPartition)
+            @JsonProperty("bucketToPartition") Optional<int[]> bucketToPartition,
+            @JsonProperty("hotKeys") Optional<HotKeys> hotKeys,
+            @JsonProperty("replicateHotKeys") boolean replicateHotKeys)
     {
         this.partitioning = requireNonNull(partitioning, "partitioning is null");
         this.outputLayout = ImmutableList.copyOf(requireNonNull(outputLayout, "outputLayout is null"));
@@ -77,6 +91,11 @@ public class PartitioningScheme
         checkArgument(!replicateNullsAndAny || columns.size() <= 1, "Must have at most one partitioning column when nullPartition is REPLICATE.");
         this.replicateNullsAndAny = replicateNullsAndAny;
         this.bucketToPartition = requireNonNull(bucketToPartition, "bucketToPartition is null");
+
+        this.hotKeys = requireNonNull(hotKeys, "hotKeys is null");
+        checkArgument(!hotKeys.isPresent() || columns.size() == 1, "Must have exactly one partitioning column when hot keys are set");
+        checkArgument(hotKeys.isPresent() || !replicateHotKeys, "Hot keys can only be replicated when set");
+        this.replicateHotKeys = replicateHotKeys;
     }
 
     @JsonProperty
@@ -109,9 +128,30 @@ public class PartitioningScheme
         return bucketToPartition;
     }
 
+    /**
+     * When present, rows with a hot key are not sent to the partition of their key, but either spread
+     * round robin over all partitions or, if {@link #isReplicateHotKeys()}, sent to every partition.
+     */
+    @JsonProperty
+    public Optional<HotKeys> getHotKeys()
+    {
+        return hotKeys;
+    }
+
+    @JsonProperty
+    public boolean isReplicateHotKeys()
+    {
+        return replicateHotKeys;
+    }
+
     public PartitioningScheme withBucketToPartition(Optional<int[]> bucketToPartition)
     {
-        return new PartitioningScheme(partitioning, outputLayout, hashColumn, replicateNullsAndAny, bucketToPartition);
+        return new PartitioningScheme(partitioning, outputLayout, hashColumn, replicateNullsAndAny, bucketToPartition, hotKeys, replicateHotKeys);
+    }
+
+    public PartitioningScheme withHotKeys(HotKeys hotKeys, boolean replicateHotKeys)
+    {
+        return new PartitioningScheme(partitioning, outputLayout, hashColumn, replicateNullsAndAny, bucketToPartition, Optional.of(hotKeys), replicateHotKeys);
     }
 
     public PartitioningScheme translateOutputLayout(List<Symbol> newOutputLayout)
@@ -126,7 +166,7 @@ public class PartitioningScheme
                 .map(outputLayout::indexOf)
                 .map(newOutputLayout::get);
 
-        return new PartitioningScheme(newPartitioning, newOutputLayout, newHashSymbol, replicateNullsAndAny, bucketToPartition);
+        return new PartitioningScheme(newPartitioning, newOutputLayout, newHashSymbol, replicateNullsAndAny, bucketToPartition, hotKeys, replicateHotKeys);
     }
 
     @Override
@@ -142,13 +182,15 @@ public class PartitioningScheme
         return Objects.equals(partitioning, that.partitioning) &&
                 Objects.equals(outputLayout, that.outputLayout) &&
                 replicateNullsAndAny == that.replicateNullsAndAny &&
-                Objects.equals(bucketToPartition, that.bucketToPartition);
+                Objects.equals(bucketToPartition, that.bucketToPartition) &&
+                Objects.equals(hotKeys, that.hotKeys) &&
+                replicateHotKeys == that.replicateHotKeys;
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(partitioning, outputLayout, replicateNullsAndAny, bucketToPartition);
+        return Objects.hash(partitioning, outputLayout, replicateNullsAndAny, bucketToPartition, hotKeys, replicateHotKeys);
     }
 
     @Override
@@ -160,6 +202,8 @@ public class PartitioningScheme
                 .add("hashChannel", hashColumn)
                 .add("replicateNullsAndAny", replicateNullsAndAny)
                 .add("bucketToPartition", bucketToPartition)
+                .add("hotKeys", hotKeys)
+                .add("replicateHotKeys", replicateHotKeys)
                 .toString();
     }
 }
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import javax.annotation.concurrent.Immutable;
@@ -49,8 +50,8 @@ public class PlanFragment
     private final Set<PlanNode> partitionedSourceNodes;
     private final List<RemoteSourceNode> remoteSourceNodes;
     private final PartitioningScheme partitioningScheme;
+    private final Map<PlanNodeId, Long> estimatedRowCounts;
 
-    @JsonCreator
     public PlanFragment(
             @JsonProperty("id") PlanFragmentId id,
             @JsonProperty("root") PlanNode root,
@@ -58,6 +59,23 @@ public class PlanFragment
             @JsonProperty("partitioning") PartitioningHandle partitioning,
             @JsonProperty("partitionedSources") List<PlanNodeId> partitionedSources,
             @JsonProperty("partitioningScheme") PartitioningScheme partitioningScheme)
+    {
+        this(id, root, symbols, partitioning, partitionedSources, partitioningScheme, ImmutableMap.of());
+    }
+
+    /**
+     * @param estimatedRowCounts the number of rows the planner expects each plan node of the fragment to produce
+     * in a single task, for the nodes it has an estimate for
+     */
+    @JsonCreator
+    public PlanFragment(
+            @JsonProperty("id") PlanFragmentId id,
+            @JsonProperty("root") PlanNode root,
+            @JsonProperty("symbols") Map<Symbol, Type> symbols,
+            @JsonProperty("partitioning") PartitioningHandle partitioning,
+            @JsonProperty("partitionedSources") List<PlanNodeId> partitionedSources,
+            @JsonProperty("partitioningScheme") PartitioningScheme partitioningScheme,
+            @JsonProperty("estimatedRowCounts") Map<PlanNodeId, Long> estimatedRowCounts)
     {
         this.id = requireNonNull(id, "id is null");
         this.root = requireNonNull(root, "root is null");
@@ -81,6 +99,7 @@ public class PlanFragment
         this.remoteSourceNodes = remoteSourceNodes.build();
 
         this.partitioningScheme = requireNonNull(partitioningScheme, "partitioningScheme is null");
+        this.estimatedRowCounts = ImmutableMap.copyOf(requireNonNull(estimatedRowCounts, "estimatedRowCounts is null"));
     }
 
     @JsonProperty
@@ -124,6 +143,12 @@ public class PlanFragment
         return partitioningScheme;
     }
 
+    @JsonProperty
+    public Map<PlanNodeId, Long> getEstimatedRowCounts()
+    {
+        return estimatedRowCounts;
+    }
+
     public List<Type> getTypes()
     {
         return types;
@@ -175,7 +200,7 @@ public class PlanFragment
 
     public PlanFragment withBucketToPartition(Optional<int[]> bucketToPartition)
     {
-        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme.withBucketToPartition(bucketToPartition));
+        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme.withBucketToPartition(bucketToPartition), estimatedRowCounts);
     }
 
     @Override
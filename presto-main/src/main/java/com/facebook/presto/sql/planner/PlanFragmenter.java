@@ -14,6 +14,7 @@
 package com.facebook.presto.sql.planner;
 
 import com.facebook.presto.Session;
+import com.facebook.presto.cost.PlanNodeCost;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.TableLayout;
 import com.facebook.presto.metadata.TableLayout.NodePartitioning;
@@ -28,9 +29,11 @@ import com.facebook.presto.sql.planner.plan.PlanNode;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.sql.planner.plan.RemoteSourceNode;
 import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -43,11 +46,13 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.facebook.presto.SystemSessionProperties.getHashPartitionCount;
 import static com.facebook.presto.SystemSessionProperties.isForceSingleNodeOutput;
 import static com.facebook.presto.sql.planner.SchedulingOrderVisitor.scheduleOrder;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.COORDINATOR_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
 import static com.facebook.presto.sql.planner.plan.ExchangeNode.Scope.REMOTE;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -72,7 +77,7 @@ public class PlanFragmenter
 
     public static SubPlan createSubPlans(Session session, Metadata metadata, Plan plan, boolean forceSingleNode)
     {
-        Fragmenter fragmenter = new Fragmenter(session, metadata, plan.getTypes());
+        Fragmenter fragmenter = new Fragmenter(session, metadata, plan.getTypes(), plan.getPlanNodeCosts());
 
         FragmentProperties properties = new FragmentProperties(new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), plan.getRoot().getOutputSymbols()));
         if (forceSingleNode || isForceSingleNodeOutput(session)) {
@@ -87,6 +92,30 @@ public class PlanFragmenter
         return result;
     }
 
+    /**
+     * Returns the estimated number of rows produced by the nodes of a fragment in each of its tasks.
+     */
+    @VisibleForTesting
+    static Map<PlanNodeId, Long> estimateTaskRowCounts(PlanNode root, PartitioningHandle partitioning, Map<PlanNodeId, PlanNodeCost> planNodeCosts, int hashPartitionCount)
+    {
+        // the estimates are for the whole query, so they are spread over the tasks of hash partitioned fragments.
+        // Source distributed fragments only read a part of the data in each task as well, but what is built
+        // there (e.g. the build side of a broadcast join) is replicated, so the estimate is kept.
+        int taskCount = 1;
+        if (!partitioning.isSingleNode() && !partitioning.equals(SOURCE_DISTRIBUTION)) {
+            taskCount = hashPartitionCount;
+        }
+
+        ImmutableMap.Builder<PlanNodeId, Long> estimates = ImmutableMap.builder();
+        for (PlanNode node : searchFrom(root).findAll()) {
+            PlanNodeCost cost = planNodeCosts.get(node.getId());
+            if (cost != null && !cost.getOutputRowCount().isValueUnknown()) {
+                estimates.put(node.getId(), (long) (cost.getOutputRowCount().getValue() / taskCount));
+            }
+        }
+        return estimates.build();
+    }
+
     private static class Fragmenter
             extends SimplePlanRewriter<FragmentProperties>
     {
@@ -95,13 +124,15 @@ public class PlanFragmenter
         private final Session session;
         private final Metadata metadata;
         private final Map<Symbol, Type> types;
+        private final Map<PlanNodeId, PlanNodeCost> planNodeCosts;
         private int nextFragmentId = ROOT_FRAGMENT_ID + 1;
 
-        public Fragmenter(Session session, Metadata metadata, Map<Symbol, Type> types)
+        public Fragmenter(Session session, Metadata metadata, Map<Symbol, Type> types, Map<PlanNodeId, PlanNodeCost> planNodeCosts)
         {
             this.session = requireNonNull(session, "session is null");
             this.metadata = requireNonNull(metadata, "metadata is null");
             this.types = ImmutableMap.copyOf(requireNonNull(types, "types is null"));
+            this.planNodeCosts = ImmutableMap.copyOf(requireNonNull(planNodeCosts, "planNodeCosts is null"));
         }
 
         public SubPlan buildRootFragment(PlanNode root, FragmentProperties properties)
@@ -128,7 +159,8 @@ public class PlanFragmenter
                     Maps.filterKeys(types, in(dependencies)),
                     properties.getPartitioningHandle(),
                     schedulingOrder,
-                    properties.getPartitioningScheme());
+                    properties.getPartitioningScheme(),
+                    estimateTaskRowCounts(root, properties.getPartitioningHandle(), planNodeCosts, getHashPartitionCount(session)));
 
             return new SubPlan(fragment, properties.getChildren());
         }
@@ -157,6 +189,13 @@ public class PlanFragmenter
             return context.defaultRewrite(node, context.get());
         }
 
+        @Override
+        public PlanNode visitStatisticsWriter(StatisticsWriterNode node, RewriteContext<FragmentProperties> context)
+        {
+            context.get().setCoordinatorOnlyDistribution();
+            return context.defaultRewrite(node, context.get());
+        }
+
         @Override
         public PlanNode visitMetadataDelete(MetadataDeleteNode node, RewriteContext<FragmentProperties> context)
         {
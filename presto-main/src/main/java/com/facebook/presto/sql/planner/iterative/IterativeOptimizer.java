@@ -15,6 +15,8 @@ package com.facebook.presto.sql.planner.iterative;
 
 import com.facebook.presto.Session;
 import com.facebook.presto.SystemSessionProperties;
+import com.facebook.presto.cost.CostCalculator;
+import com.facebook.presto.cost.PlanNodeCost;
 import com.facebook.presto.matching.Match;
 import com.facebook.presto.matching.Matcher;
 import com.facebook.presto.spi.PrestoException;
@@ -25,12 +27,18 @@ import com.facebook.presto.sql.planner.Symbol;
 import com.facebook.presto.sql.planner.SymbolAllocator;
 import com.facebook.presto.sql.planner.optimizations.PlanOptimizer;
 import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.units.Duration;
 
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -38,27 +46,57 @@ import static com.facebook.presto.spi.StandardErrorCode.OPTIMIZER_TIMEOUT;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static java.lang.String.format;
-
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Applies rules to the plan until no more rules match. Results of regular rules replace
+ * the matched expression. Results of {@link Rule#isCostBased() cost based} rules are kept as
+ * alternatives in the {@link Memo}, and are chosen only when the cost calculator estimates
+ * them to be cheaper than the expression chosen so far. When the cost of either is unknown,
+ * e.g. without table statistics, the alternative is chosen like the result of a regular rule.
+ * <p>
+ * Only the children of the chosen expression of a group are explored. The groups referenced
+ * only by alternatives that were not chosen are left as they were when the alternative was
+ * added, so the cost of an alternative is estimated before its inputs are optimized.
+ */
 public class IterativeOptimizer
         implements PlanOptimizer
 {
+    // Bounds on the number of alternatives explored, so cost based rules producing each other's inputs terminate
+    private static final int MAX_ALTERNATIVES_PER_GROUP = 8;
+    private static final int MAX_ALTERNATIVES = 1_000;
+
     private final List<PlanOptimizer> legacyRules;
     private final RuleIndex ruleIndex;
     private final StatsRecorder stats;
+    private final Optional<CostCalculator> costCalculator;
 
     public IterativeOptimizer(StatsRecorder stats, Set<Rule<?>> rules)
     {
         this(stats, ImmutableList.of(), rules);
     }
 
+    public IterativeOptimizer(StatsRecorder stats, CostCalculator costCalculator, Set<Rule<?>> rules)
+    {
+        this(stats, Optional.of(requireNonNull(costCalculator, "costCalculator is null")), ImmutableList.of(), rules);
+    }
+
     public IterativeOptimizer(StatsRecorder stats, List<PlanOptimizer> legacyRules, Set<Rule<?>> newRules)
     {
+        this(stats, Optional.empty(), legacyRules, newRules);
+    }
+
+    private IterativeOptimizer(StatsRecorder stats, Optional<CostCalculator> costCalculator, List<PlanOptimizer> legacyRules, Set<Rule<?>> newRules)
+    {
+        checkArgument(costCalculator.isPresent() || newRules.stream().noneMatch(Rule::isCostBased), "Cost based rules require a cost calculator");
+
         this.legacyRules = ImmutableList.copyOf(legacyRules);
         this.ruleIndex = RuleIndex.builder()
                 .register(newRules)
                 .build();
 
         this.stats = stats;
+        this.costCalculator = costCalculator;
 
         stats.registerAll(newRules);
     }
@@ -127,6 +165,16 @@ public class IterativeOptimizer
                     continue;
                 }
 
+                if (rule.isCostBased()) {
+                    if (exploreAlternative(group, node, rule, context, matcher)) {
+                        node = context.getMemo().getNode(group);
+
+                        done = false;
+                        progress = true;
+                    }
+                    continue;
+                }
+
                 Rule.Result result = transform(node, rule, matcher, context);
 
                 if (result.getTransformedPlan().isPresent()) {
@@ -141,6 +189,63 @@ public class IterativeOptimizer
         return progress;
     }
 
+    /**
+     * Adds the result of the rule as an alternative of the group, and chooses it unless it is
+     * estimated to be at least as expensive as the current expression. Returns whether it was chosen.
+     */
+    private boolean exploreAlternative(int group, PlanNode node, Rule<?> rule, Context context, Matcher matcher)
+    {
+        if (context.isExplored(node, rule) || !hasExplorationBudget(group, context)) {
+            return false;
+        }
+
+        Rule.Result result = transform(node, rule, matcher, context);
+        if (!result.getTransformedPlan().isPresent()) {
+            return false;
+        }
+
+        context.markExplored(node, rule);
+        PlanNode alternative = context.getMemo().addAlternative(group, result.getTransformedPlan().get(), rule.getClass().getName());
+
+        OptionalDouble alternativeCost = estimateCumulativeCost(alternative, context);
+        OptionalDouble currentCost = estimateCumulativeCost(node, context);
+        if (!alternativeCost.isPresent() || !currentCost.isPresent() || alternativeCost.getAsDouble() < currentCost.getAsDouble()) {
+            context.getMemo().choose(group, alternative);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Exploration stops after half of the time limit, so the time left is available to the rules
+     * that have to be applied, and after a number of alternatives, so the search terminates.
+     */
+    private boolean hasExplorationBudget(int group, Context context)
+    {
+        return context.getAlternativeCount() < MAX_ALTERNATIVES &&
+                context.getMemo().getExpressions(group).size() < MAX_ALTERNATIVES_PER_GROUP &&
+                elapsedMilliseconds(context) < context.getTimeoutInMilliseconds() / 2;
+    }
+
+    /**
+     * Estimates the cost of an expression as the number of rows produced by all the nodes of the
+     * plan rooted at it, using the chosen expressions of the groups it references.
+     */
+    private OptionalDouble estimateCumulativeCost(PlanNode expression, Context context)
+    {
+        PlanNode plan = context.getMemo().extract(expression);
+        Map<PlanNodeId, PlanNodeCost> costs = costCalculator.get().calculateCostForPlan(context.getSession(), context.getSymbolAllocator().getTypes(), plan);
+
+        double cost = 0;
+        for (PlanNodeCost nodeCost : costs.values()) {
+            if (nodeCost.getOutputRowCount().isValueUnknown()) {
+                return OptionalDouble.empty();
+            }
+            cost += nodeCost.getOutputRowCount().getValue();
+        }
+        return OptionalDouble.of(cost);
+    }
+
     private <T> Rule.Result transform(PlanNode node, Rule<T> rule, Matcher matcher, Context context)
     {
         Rule.Result result;
@@ -168,7 +273,12 @@ public class IterativeOptimizer
 
     private boolean isTimeLimitExhausted(Context context)
     {
-        return ((System.nanoTime() - context.getStartTimeInNanos()) / 1_000_000) >= context.getTimeoutInMilliseconds();
+        return elapsedMilliseconds(context) >= context.getTimeoutInMilliseconds();
+    }
+
+    private static long elapsedMilliseconds(Context context)
+    {
+        return (System.nanoTime() - context.getStartTimeInNanos()) / 1_000_000;
     }
 
     private boolean exploreChildren(int group, Context context, Matcher matcher)
@@ -197,6 +307,9 @@ public class IterativeOptimizer
         private final long startTimeInNanos;
         private final long timeoutInMilliseconds;
         private final Session session;
+        // cost based rules already applied to an expression, so that the same alternative is not explored again
+        private final Map<PlanNode, Set<Rule<?>>> exploredRules = new IdentityHashMap<>();
+        private int alternativeCount;
 
         public Context(
                 Memo memo,
@@ -256,5 +369,21 @@ public class IterativeOptimizer
         {
             return session;
         }
+
+        public boolean isExplored(PlanNode expression, Rule<?> rule)
+        {
+            return exploredRules.getOrDefault(expression, ImmutableSet.of()).contains(rule);
+        }
+
+        public void markExplored(PlanNode expression, Rule<?> rule)
+        {
+            exploredRules.computeIfAbsent(expression, key -> new HashSet<>()).add(rule);
+            alternativeCount++;
+        }
+
+        public int getAlternativeCount()
+        {
+            return alternativeCount;
+        }
     }
 }
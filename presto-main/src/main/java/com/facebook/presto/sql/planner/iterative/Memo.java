@@ -15,9 +15,12 @@ package com.facebook.presto.sql.planner.iterative;
 
 import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
 import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -52,6 +55,11 @@ import static com.google.common.base.Preconditions.checkState;
  * </pre>
  * Groups are reference-counted, and groups that become unreachable from the root
  * due to mutations in a subtree get garbage-collected.
+ * <p>
+ * Besides the expression that is currently chosen for it, a group can hold alternative
+ * expressions that are equivalent to it. The chosen expression is the one that is
+ * extracted and matched by rules; alternatives keep the groups they reference alive,
+ * so that any of them can be chosen later on.
  */
 public class Memo
 {
@@ -60,6 +68,7 @@ public class Memo
 
     private final Map<Integer, PlanNode> membership = new HashMap<>();
     private final Map<Integer, Integer> referenceCounts = new HashMap<>();
+    private final Map<Integer, List<PlanNode>> alternatives = new HashMap<>();
 
     private int nextGroupId;
 
@@ -81,6 +90,17 @@ public class Memo
         return membership.get(group);
     }
 
+    /**
+     * Returns the expressions of the group, starting with the chosen one.
+     */
+    public List<PlanNode> getExpressions(int group)
+    {
+        return ImmutableList.<PlanNode>builder()
+                .add(getNode(group))
+                .addAll(alternatives.getOrDefault(group, ImmutableList.of()))
+                .build();
+    }
+
     public PlanNode resolve(GroupReference groupReference)
     {
         return getNode(groupReference.getGroupId());
@@ -91,7 +111,11 @@ public class Memo
         return extract(getNode(rootGroup));
     }
 
-    private PlanNode extract(PlanNode node)
+    /**
+     * Returns the plan rooted at the given expression, with the group references replaced
+     * by the expressions chosen for the referenced groups.
+     */
+    public PlanNode extract(PlanNode node)
     {
         return resolveGroupReferences(node, Lookup.from(planNode -> Stream.of(this.resolve(planNode))));
     }
@@ -100,10 +124,53 @@ public class Memo
     {
         PlanNode old = membership.get(group);
 
-        checkArgument(new HashSet<>(old.getOutputSymbols()).equals(new HashSet<>(node.getOutputSymbols())),
+        node = insertExpression(old, node, reason);
+        membership.put(group, node);
+        decrementReferenceCounts(old);
+
+        return node;
+    }
+
+    /**
+     * Adds an expression equivalent to the chosen expression of the group, without choosing it.
+     */
+    public PlanNode addAlternative(int group, PlanNode node, String reason)
+    {
+        node = insertExpression(getNode(group), node, reason);
+        alternatives.computeIfAbsent(group, key -> new ArrayList<>()).add(node);
+
+        return node;
+    }
+
+    /**
+     * Chooses one of the alternative expressions of the group. The previously chosen
+     * expression becomes an alternative.
+     */
+    public void choose(int group, PlanNode alternative)
+    {
+        List<PlanNode> groupAlternatives = alternatives.getOrDefault(group, ImmutableList.of());
+        int index = indexOfInstance(groupAlternatives, alternative);
+        checkArgument(index >= 0, "Expression is not an alternative of group %s", group);
+
+        groupAlternatives.set(index, membership.put(group, alternative));
+    }
+
+    private static int indexOfInstance(List<PlanNode> nodes, PlanNode node)
+    {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i) == node) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private PlanNode insertExpression(PlanNode current, PlanNode node, String reason)
+    {
+        checkArgument(new HashSet<>(current.getOutputSymbols()).equals(new HashSet<>(node.getOutputSymbols())),
                 "%s: transformed expression doesn't produce same outputs: %s vs %s",
                 reason,
-                old.getOutputSymbols(),
+                current.getOutputSymbols(),
                 node.getOutputSymbols());
 
         if (node instanceof GroupReference) {
@@ -114,9 +181,6 @@ public class Memo
         }
 
         incrementReferenceCounts(node);
-        membership.put(group, node);
-        decrementReferenceCounts(old);
-
         return node;
     }
 
@@ -139,8 +203,10 @@ public class Memo
 
             if (newCount == 0) {
                 PlanNode child = membership.get(group);
+                List<PlanNode> childAlternatives = alternatives.getOrDefault(group, ImmutableList.of());
                 deleteGroup(group);
                 decrementReferenceCounts(child);
+                childAlternatives.forEach(this::decrementReferenceCounts);
             }
         }
     }
@@ -157,6 +223,7 @@ public class Memo
     {
         membership.remove(group);
         referenceCounts.remove(group);
+        alternatives.remove(group);
     }
 
     private PlanNode insertChildrenAndRewrite(PlanNode node)
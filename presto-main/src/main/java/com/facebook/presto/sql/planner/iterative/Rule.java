@@ -36,6 +36,16 @@ public interface Rule<T>
         return true;
     }
 
+    /**
+     * Returns whether the results of this rule are alternatives that are only worth choosing
+     * when they are estimated to be cheaper than the matched plan, rather than improvements
+     * that are always applied.
+     */
+    default boolean isCostBased()
+    {
+        return false;
+    }
+
     Result apply(T node, Captures captures, Context context);
 
     interface Context
@@ -0,0 +1,229 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.matching.Captures;
+import com.facebook.presto.matching.Pattern;
+import com.facebook.presto.operator.scalar.JsonPathTokenizer;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.type.ArrayType;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.VarcharType;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolsExtractor;
+import com.facebook.presto.sql.planner.iterative.Rule;
+import com.facebook.presto.sql.planner.plan.Assignments;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.tree.Cast;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.ExpressionRewriter;
+import com.facebook.presto.sql.tree.ExpressionTreeRewriter;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.LambdaExpression;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.facebook.presto.sql.tree.StringLiteral;
+import com.facebook.presto.sql.tree.SubscriptExpression;
+import com.facebook.presto.sql.tree.SymbolReference;
+import com.facebook.presto.type.JsonPathType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.facebook.presto.SystemSessionProperties.isMergeJsonExtractScalarCalls;
+import static com.facebook.presto.operator.scalar.JsonExtractScalarsFunction.NAME;
+import static com.facebook.presto.operator.scalar.JsonExtractScalarsFunction.encodePaths;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.sql.planner.plan.Patterns.project;
+
+/**
+ * Replaces the json_extract_scalar calls of a projection that extract constant paths from the same
+ * varchar document with a single call extracting all the paths in one pass, which is computed in a
+ * new projection below:
+ * <pre>
+ * - Project (a := json_extract_scalar(x, '$.a'), b := json_extract_scalar(x, '$.b'))
+ * </pre>
+ * becomes
+ * <pre>
+ * - Project (a := values[1], b := values[2])
+ *     - Project (values := $internal$json_extract_scalars(x, '["$.a","$.b"]'))
+ * </pre>
+ * json_extract_scalar does not fail for a valid path, so extracting a path that the original projection
+ * would only have extracted conditionally does not change the results.
+ */
+public class MergeJsonExtractScalarCalls
+        implements Rule<ProjectNode>
+{
+    private static final QualifiedName JSON_EXTRACT_SCALAR = QualifiedName.of("json_extract_scalar");
+
+    private static final Pattern<ProjectNode> PATTERN = project();
+
+    @Override
+    public Pattern<ProjectNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    @Override
+    public boolean isEnabled(Session session)
+    {
+        return isMergeJsonExtractScalarCalls(session);
+    }
+
+    @Override
+    public Result apply(ProjectNode node, Captures captures, Context context)
+    {
+        Map<Symbol, Type> types = context.getSymbolAllocator().getTypes();
+        Set<Symbol> sourceSymbols = ImmutableSet.copyOf(node.getSource().getOutputSymbols());
+
+        // the distinct paths extracted from each document, which are only collected by this rewriter
+        Map<Symbol, List<String>> paths = new LinkedHashMap<>();
+        Map<Symbol, Integer> callCounts = new HashMap<>();
+        CallRewriter collector = new CallRewriter(sourceSymbols, types)
+        {
+            @Override
+            protected Expression rewriteCall(FunctionCall call, Symbol document, String path)
+            {
+                List<String> documentPaths = paths.computeIfAbsent(document, symbol -> new ArrayList<>());
+                if (!documentPaths.contains(path)) {
+                    documentPaths.add(path);
+                }
+                callCounts.merge(document, 1, Integer::sum);
+                return null;
+            }
+        };
+        for (Expression expression : node.getAssignments().getExpressions()) {
+            ExpressionTreeRewriter.rewriteWith(collector, expression);
+        }
+
+        Map<Symbol, Symbol> valuesSymbols = new HashMap<>();
+        Assignments.Builder valuesAssignments = Assignments.builder();
+        for (Map.Entry<Symbol, List<String>> entry : paths.entrySet()) {
+            if (callCounts.get(entry.getKey()) < 2) {
+                continue;
+            }
+            Symbol values = context.getSymbolAllocator().newSymbol("json_extract_scalars", new ArrayType(VARCHAR));
+            valuesSymbols.put(entry.getKey(), values);
+            valuesAssignments.put(values, new FunctionCall(
+                    QualifiedName.of(NAME),
+                    ImmutableList.of(entry.getKey().toSymbolReference(), new StringLiteral(encodePaths(entry.getValue())))));
+        }
+        if (valuesSymbols.isEmpty()) {
+            return Result.empty();
+        }
+
+        Assignments assignments = node.getAssignments().rewrite(new CallRewriter(sourceSymbols, types)
+        {
+            @Override
+            protected Expression rewriteCall(FunctionCall call, Symbol document, String path)
+            {
+                Symbol values = valuesSymbols.get(document);
+                if (values == null) {
+                    return null;
+                }
+                Expression value = new SubscriptExpression(
+                        values.toSymbolReference(),
+                        new LongLiteral(String.valueOf(paths.get(document).indexOf(path) + 1)));
+                Type type = types.get(document);
+                if (!type.equals(VARCHAR)) {
+                    // json_extract_scalar returns the bounded varchar type of the document
+                    value = new Cast(value, type.getTypeSignature().toString());
+                }
+                return value;
+            }
+        });
+
+        for (Symbol symbol : SymbolsExtractor.extractUnique(assignments.getExpressions())) {
+            if (sourceSymbols.contains(symbol)) {
+                valuesAssignments.putIdentity(symbol);
+            }
+        }
+
+        return Result.ofPlanNode(new ProjectNode(
+                node.getId(),
+                new ProjectNode(context.getIdAllocator().getNextId(), node.getSource(), valuesAssignments.build()),
+                assignments));
+    }
+
+    private abstract static class CallRewriter
+            extends ExpressionRewriter<Void>
+    {
+        private final Set<Symbol> sourceSymbols;
+        private final Map<Symbol, Type> types;
+
+        protected CallRewriter(Set<Symbol> sourceSymbols, Map<Symbol, Type> types)
+        {
+            this.sourceSymbols = sourceSymbols;
+            this.types = types;
+        }
+
+        /**
+         * Returns the replacement of a json_extract_scalar call extracting a constant path from a document
+         * produced by the source, or null to keep it.
+         */
+        protected abstract Expression rewriteCall(FunctionCall call, Symbol document, String path);
+
+        @Override
+        public Expression rewriteFunctionCall(FunctionCall node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+        {
+            if (node.getName().equals(JSON_EXTRACT_SCALAR) && !node.getWindow().isPresent() && !node.getFilter().isPresent() && node.getArguments().size() == 2) {
+                Expression document = node.getArguments().get(0);
+                Expression path = node.getArguments().get(1);
+                if (document instanceof SymbolReference && isConstantPath(path)) {
+                    Symbol symbol = Symbol.from(document);
+                    if (sourceSymbols.contains(symbol) && types.get(symbol) instanceof VarcharType) {
+                        Expression result = rewriteCall(node, symbol, ((StringLiteral) ((Cast) path).getExpression()).getValue());
+                        if (result != null) {
+                            return result;
+                        }
+                    }
+                }
+            }
+            return treeRewriter.defaultRewrite(node, context);
+        }
+
+        @Override
+        public Expression rewriteLambdaExpression(LambdaExpression node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+        {
+            // the document of a call in a lambda may be one of its arguments
+            return node;
+        }
+
+        private static boolean isConstantPath(Expression expression)
+        {
+            if (!(expression instanceof Cast)) {
+                return false;
+            }
+            Cast cast = (Cast) expression;
+            if (!cast.getType().equalsIgnoreCase(JsonPathType.NAME) || !(cast.getExpression() instanceof StringLiteral)) {
+                return false;
+            }
+            try {
+                // an invalid path fails the query, so it is only evaluated if the original projection does
+                ImmutableList.copyOf(new JsonPathTokenizer(((StringLiteral) cast.getExpression()).getValue()));
+                return true;
+            }
+            catch (PrestoException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -59,6 +59,13 @@ public class PushPartialAggregationThroughJoin
         return isPushAggregationThroughJoin(session);
     }
 
+    @Override
+    public boolean isCostBased()
+    {
+        // pushing the aggregation down pays off only when it reduces the input of the join more than the join multiplies it
+        return true;
+    }
+
     @Override
     public Result apply(AggregationNode aggregationNode, Captures captures, Context context)
     {
@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.matching.Captures;
+import com.facebook.presto.matching.Pattern;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.spi.type.TypeSignature;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.iterative.Rule;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.AggregationNode.Aggregation;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.facebook.presto.SystemSessionProperties.isUseTDigestForApproxPercentile;
+import static com.facebook.presto.metadata.FunctionKind.AGGREGATE;
+import static com.facebook.presto.operator.aggregation.TDigestDoublePercentileAggregations.NAME;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.SINGLE;
+import static com.facebook.presto.sql.planner.plan.Patterns.aggregation;
+
+/**
+ * Replaces approx_percentile of a single percentile with approx_percentile_tdigest, which has the
+ * same arguments but keeps a t-digest instead of a quantile digest per group.
+ */
+public class UseTDigestForApproximatePercentile
+        implements Rule<AggregationNode>
+{
+    private static final String APPROX_PERCENTILE = "approx_percentile";
+    private static final Set<TypeSignature> VALUE_TYPES = ImmutableSet.of(BIGINT.getTypeSignature(), DOUBLE.getTypeSignature(), REAL.getTypeSignature());
+
+    private static final Pattern<AggregationNode> PATTERN = aggregation()
+            .matching(aggregation -> aggregation.getStep() == SINGLE);
+
+    @Override
+    public Pattern<AggregationNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    @Override
+    public boolean isEnabled(Session session)
+    {
+        return isUseTDigestForApproxPercentile(session);
+    }
+
+    @Override
+    public Result apply(AggregationNode node, Captures captures, Context context)
+    {
+        boolean changed = false;
+        Map<Symbol, Aggregation> aggregations = new LinkedHashMap<>(node.getAggregations());
+        for (Map.Entry<Symbol, Aggregation> entry : node.getAggregations().entrySet()) {
+            Aggregation aggregation = entry.getValue();
+            Signature signature = aggregation.getSignature();
+            if (!signature.getName().equals(APPROX_PERCENTILE) || !hasSinglePercentile(signature)) {
+                continue;
+            }
+
+            FunctionCall call = aggregation.getCall();
+            aggregations.put(entry.getKey(), new Aggregation(
+                    new FunctionCall(QualifiedName.of(NAME), call.getWindow(), call.getFilter(), call.isDistinct(), call.getArguments()),
+                    new Signature(NAME, AGGREGATE, signature.getReturnType(), signature.getArgumentTypes()),
+                    aggregation.getMask()));
+            changed = true;
+        }
+
+        if (!changed) {
+            return Result.empty();
+        }
+
+        return Result.ofPlanNode(new AggregationNode(
+                node.getId(),
+                node.getSource(),
+                aggregations,
+                node.getGroupingSets(),
+                node.getStep(),
+                node.getHashSymbol(),
+                node.getGroupIdSymbol()));
+    }
+
+    private static boolean hasSinglePercentile(Signature signature)
+    {
+        // (value, percentile), (value, weight, percentile) or (value, weight, percentile, accuracy)
+        List<TypeSignature> arguments = signature.getArgumentTypes();
+        if (!VALUE_TYPES.contains(signature.getReturnType()) || !arguments.get(0).equals(signature.getReturnType())) {
+            return false;
+        }
+        switch (arguments.size()) {
+            case 2:
+                return arguments.get(1).equals(DOUBLE.getTypeSignature());
+            case 3:
+                return arguments.get(1).equals(BIGINT.getTypeSignature()) && arguments.get(2).equals(DOUBLE.getTypeSignature());
+            case 4:
+                return arguments.get(1).equals(BIGINT.getTypeSignature()) && arguments.get(2).equals(DOUBLE.getTypeSignature()) && arguments.get(3).equals(DOUBLE.getTypeSignature());
+            default:
+                return false;
+        }
+    }
+}
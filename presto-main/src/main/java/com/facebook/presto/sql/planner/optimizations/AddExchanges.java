@@ -58,6 +58,7 @@ import com.facebook.presto.sql.planner.plan.ProjectNode;
 import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -717,6 +718,17 @@ public class AddExchanges
 
         @Override
         public PlanWithProperties visitTableFinish(TableFinishNode node, Context context)
+        {
+            return planCoordinatorOnly(node, context);
+        }
+
+        @Override
+        public PlanWithProperties visitStatisticsWriter(StatisticsWriterNode node, Context context)
+        {
+            return planCoordinatorOnly(node, context);
+        }
+
+        private PlanWithProperties planCoordinatorOnly(PlanNode node, Context context)
         {
             PlanWithProperties child = planChild(node, context.withPreferredProperties(PreferredProperties.any()));
 
@@ -43,6 +43,7 @@ import com.facebook.presto.sql.planner.plan.PlanVisitor;
 import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
 import com.facebook.presto.sql.planner.plan.TopNNode;
@@ -181,6 +182,13 @@ public class AddLocalExchanges
             return planAndEnforceChildren(node, singleStream(), defaultParallelism(session));
         }
 
+        @Override
+        public PlanWithProperties visitStatisticsWriter(StatisticsWriterNode node, StreamPreferredProperties parentPreferences)
+        {
+            // statistics are written once, so all data must be in one stream
+            return planAndEnforceChildren(node, singleStream(), defaultParallelism(session));
+        }
+
         @Override
         public PlanWithProperties visitTopN(TopNNode node, StreamPreferredProperties parentPreferences)
         {
@@ -269,7 +277,31 @@ public class AddLocalExchanges
             preferredChildProperties = parentPreferences.withDefaultParallelism(session)
                     .withPartitioning(partitioningRequirement);
 
-            return planAndEnforceChildren(node, requiredProperties, preferredChildProperties);
+            PlanWithProperties child = planAndEnforce(
+                    node.getSource(),
+                    requiredProperties.constrainTo(node.getSource().getOutputSymbols()),
+                    preferredChildProperties.constrainTo(node.getSource().getOutputSymbols()));
+
+            // when every stream is already grouped on the grouping keys, the groups can be aggregated as they arrive
+            List<Symbol> preGroupedSymbols = ImmutableList.of();
+            if (node.getGroupingSets().size() == 1) {
+                List<LocalProperty<Symbol>> desiredProperties = ImmutableList.of(new GroupingProperty<>(node.getGroupingKeys()));
+                if (!LocalProperties.match(child.getProperties().getLocalProperties(), desiredProperties).get(0).isPresent()) {
+                    preGroupedSymbols = node.getGroupingKeys();
+                }
+            }
+
+            AggregationNode result = new AggregationNode(
+                    node.getId(),
+                    child.getNode(),
+                    node.getAggregations(),
+                    node.getGroupingSets(),
+                    node.getStep(),
+                    node.getHashSymbol(),
+                    node.getGroupIdSymbol(),
+                    preGroupedSymbols);
+
+            return deriveProperties(result, child.getProperties());
         }
 
         @Override
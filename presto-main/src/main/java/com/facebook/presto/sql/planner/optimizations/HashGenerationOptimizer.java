@@ -159,7 +159,8 @@ public class HashGenerationOptimizer
         public PlanWithProperties visitAggregation(AggregationNode node, HashComputationSet parentPreference)
         {
             Optional<HashComputation> groupByHash = Optional.empty();
-            if (!canSkipHashGeneration(node.getGroupingKeys())) {
+            // streaming aggregations compare adjacent rows instead of hashing them
+            if (!node.isStreamable() && !canSkipHashGeneration(node.getGroupingKeys())) {
                 groupByHash = computeHash(node.getGroupingKeys());
             }
 
@@ -177,7 +178,8 @@ public class HashGenerationOptimizer
                             node.getGroupingSets(),
                             node.getStep(),
                             hashSymbol,
-                            node.getGroupIdSymbol()),
+                            node.getGroupIdSymbol(),
+                            node.getPreGroupedSymbols()),
                     hashSymbol.isPresent() ? ImmutableMap.of(groupByHash.get(), hashSymbol.get()) : ImmutableMap.of());
         }
 
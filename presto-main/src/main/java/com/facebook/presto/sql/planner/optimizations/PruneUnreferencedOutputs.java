@@ -48,6 +48,7 @@ import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SetOperationNode;
 import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -636,6 +637,13 @@ public class PruneUnreferencedOutputs
             return new TableFinishNode(node.getId(), source, node.getTarget(), node.getOutputSymbols());
         }
 
+        @Override
+        public PlanNode visitStatisticsWriter(StatisticsWriterNode node, RewriteContext<Set<Symbol>> context)
+        {
+            PlanNode source = context.rewrite(node.getSource(), ImmutableSet.copyOf(node.getDescriptor().getAll()));
+            return new StatisticsWriterNode(node.getId(), source, node.getTarget(), node.getDescriptor(), node.getRowCountSymbol());
+        }
+
         @Override
         public PlanNode visitDelete(DeleteNode node, RewriteContext<Set<Symbol>> context)
         {
@@ -0,0 +1,257 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.operator.InterpretedHashGenerator;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.ValueFrequency;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.HotKeys;
+import com.facebook.presto.sql.planner.PartitioningScheme;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.SymbolReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.SystemSessionProperties.getHotJoinKeyMinFraction;
+import static com.facebook.presto.SystemSessionProperties.isSpreadHotJoinKeys;
+import static com.facebook.presto.cost.TableScanStatistics.getColumnStatistics;
+import static com.facebook.presto.spi.predicate.Utils.nativeValueToBlock;
+import static com.facebook.presto.sql.planner.Partitioning.ArgumentBinding.columnBinding;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.PARTIAL;
+import static com.facebook.presto.sql.planner.plan.ExchangeNode.Scope.LOCAL;
+import static com.facebook.presto.sql.planner.plan.ExchangeNode.Scope.REMOTE;
+import static com.facebook.presto.sql.planner.plan.ExchangeNode.Type.REPARTITION;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spreads the probe rows of the hot keys of a partitioned join round robin over all partitions,
+ * instead of sending them to the single partition their key hashes to, and replicates the build
+ * rows of the hot keys to every partition. The hot keys are the most common values of the probe
+ * column according to the table statistics.
+ * <p>
+ * A probe row still meets all build rows of its key, so this is only done for inner and left joins,
+ * where a build row does not produce output on its own. As the join output is no longer partitioned
+ * on the join key, this is also only done when no node up to the next remote exchange relies on it,
+ * which is why this optimizer must run after all other optimizers placing exchanges.
+ */
+public class SpreadHotJoinKeys
+        implements PlanOptimizer
+{
+    private final Metadata metadata;
+
+    public SpreadHotJoinKeys(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    @Override
+    public PlanNode optimize(PlanNode plan, Session session, Map<Symbol, Type> types, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+    {
+        if (!isSpreadHotJoinKeys(session)) {
+            return plan;
+        }
+        return SimplePlanRewriter.rewriteWith(new Rewriter(session, types, getHotJoinKeyMinFraction(session)), plan, false);
+    }
+
+    /**
+     * The context tells whether the partitioning of the output of the rewritten node may change.
+     */
+    private class Rewriter
+            extends SimplePlanRewriter<Boolean>
+    {
+        private final Session session;
+        private final Map<Symbol, Type> types;
+        private final double minFraction;
+
+        public Rewriter(Session session, Map<Symbol, Type> types, double minFraction)
+        {
+            this.session = requireNonNull(session, "session is null");
+            this.types = requireNonNull(types, "types is null");
+            this.minFraction = minFraction;
+        }
+
+        @Override
+        protected PlanNode visitPlan(PlanNode node, RewriteContext<Boolean> context)
+        {
+            return context.defaultRewrite(node, false);
+        }
+
+        @Override
+        public PlanNode visitProject(ProjectNode node, RewriteContext<Boolean> context)
+        {
+            return context.defaultRewrite(node, context.get());
+        }
+
+        @Override
+        public PlanNode visitFilter(FilterNode node, RewriteContext<Boolean> context)
+        {
+            return context.defaultRewrite(node, context.get());
+        }
+
+        @Override
+        public PlanNode visitAggregation(AggregationNode node, RewriteContext<Boolean> context)
+        {
+            return context.defaultRewrite(node, context.get() && node.getStep() == PARTIAL);
+        }
+
+        @Override
+        public PlanNode visitExchange(ExchangeNode node, RewriteContext<Boolean> context)
+        {
+            if (node.getScope() == REMOTE) {
+                return context.defaultRewrite(node, true);
+            }
+            return context.defaultRewrite(node, context.get());
+        }
+
+        @Override
+        public PlanNode visitJoin(JoinNode node, RewriteContext<Boolean> context)
+        {
+            JoinNode rewritten = (JoinNode) context.defaultRewrite(node, false);
+            if (!context.get() ||
+                    !rewritten.getDistributionType().equals(Optional.of(PARTITIONED)) ||
+                    (rewritten.getType() != INNER && rewritten.getType() != LEFT) ||
+                    rewritten.getCriteria().size() != 1 ||
+                    rewritten.getHotKeys().isPresent()) {
+                return rewritten;
+            }
+
+            JoinNode.EquiJoinClause clause = getOnlyElement(rewritten.getCriteria());
+            Type type = types.get(clause.getLeft());
+            if (!type.equals(types.get(clause.getRight()))) {
+                return rewritten;
+            }
+
+            Optional<ExchangeNode> probeExchange = findHashExchange(rewritten.getLeft(), clause.getLeft());
+            Optional<ExchangeNode> buildExchange = findHashExchange(rewritten.getRight(), clause.getRight());
+            if (!probeExchange.isPresent() || !buildExchange.isPresent()) {
+                return rewritten;
+            }
+
+            Optional<HotKeys> hotKeys = getHotKeys(probeExchange.get(), clause.getLeft(), type);
+            if (!hotKeys.isPresent()) {
+                return rewritten;
+            }
+
+            return new JoinNode(
+                    rewritten.getId(),
+                    rewritten.getType(),
+                    replaceExchange(rewritten.getLeft(), probeExchange.get(), hotKeys.get(), false),
+                    replaceExchange(rewritten.getRight(), buildExchange.get(), hotKeys.get(), true),
+                    rewritten.getCriteria(),
+                    rewritten.getOutputSymbols(),
+                    rewritten.getFilter(),
+                    rewritten.getLeftHashSymbol(),
+                    rewritten.getRightHashSymbol(),
+                    rewritten.getDistributionType(),
+                    hotKeys);
+        }
+
+        /**
+         * Finds the remote exchange hash partitioning the rows on the symbol, looking through local exchanges.
+         */
+        private Optional<ExchangeNode> findHashExchange(PlanNode node, Symbol symbol)
+        {
+            if (!(node instanceof ExchangeNode)) {
+                return Optional.empty();
+            }
+            ExchangeNode exchange = (ExchangeNode) node;
+            if (exchange.getScope() == LOCAL) {
+                if (exchange.getSources().size() != 1 || !exchange.getInputs().get(0).equals(exchange.getOutputSymbols())) {
+                    return Optional.empty();
+                }
+                return findHashExchange(exchange.getSources().get(0), symbol);
+            }
+
+            PartitioningScheme partitioningScheme = exchange.getPartitioningScheme();
+            if (exchange.getType() != REPARTITION ||
+                    !partitioningScheme.getPartitioning().getHandle().equals(FIXED_HASH_DISTRIBUTION) ||
+                    !partitioningScheme.getPartitioning().getArguments().equals(ImmutableList.of(columnBinding(symbol))) ||
+                    partitioningScheme.isReplicateNullsAndAny() ||
+                    partitioningScheme.getHotKeys().isPresent()) {
+                return Optional.empty();
+            }
+            return Optional.of(exchange);
+        }
+
+        private PlanNode replaceExchange(PlanNode node, ExchangeNode exchange, HotKeys hotKeys, boolean replicate)
+        {
+            if (node != exchange) {
+                return node.replaceChildren(ImmutableList.of(replaceExchange(getOnlyElement(node.getSources()), exchange, hotKeys, replicate)));
+            }
+            return new ExchangeNode(
+                    exchange.getId(),
+                    exchange.getType(),
+                    exchange.getScope(),
+                    exchange.getPartitioningScheme().withHotKeys(hotKeys, replicate),
+                    exchange.getSources(),
+                    exchange.getInputs());
+        }
+
+        private Optional<HotKeys> getHotKeys(ExchangeNode probeExchange, Symbol symbol, Type type)
+        {
+            if (probeExchange.getSources().size() != 1) {
+                return Optional.empty();
+            }
+            Symbol input = probeExchange.getInputs().get(0).get(probeExchange.getOutputSymbols().indexOf(symbol));
+            Optional<ColumnStatistics> columnStatistics = getColumnStatistics(metadata, session, types, probeExchange.getSources().get(0), input);
+            if (!columnStatistics.isPresent()) {
+                return Optional.empty();
+            }
+
+            // hash the values the same way as the partitioned output does, when the hash is not precomputed
+            InterpretedHashGenerator hashGenerator = new InterpretedHashGenerator(ImmutableList.of(type), new int[] {0});
+            ImmutableSet.Builder<Long> hashes = ImmutableSet.builder();
+            ImmutableList.Builder<String> values = ImmutableList.builder();
+            for (ValueFrequency valueFrequency : columnStatistics.get().getMostCommonValues()) {
+                if (valueFrequency.getFraction() < minFraction) {
+                    continue;
+                }
+                Block block = nativeValueToBlock(type, valueFrequency.getValue());
+                hashes.add(hashGenerator.hashPosition(0, new Page(block)));
+                values.add(String.valueOf(type.getObjectValue(session.toConnectorSession(), block, 0)));
+            }
+
+            List<String> hotValues = values.build();
+            if (hotValues.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new HotKeys(hashes.build(), hotValues));
+        }
+    }
+}
@@ -46,6 +46,7 @@ import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -358,6 +359,14 @@ final class StreamPropertyDerivations
             return properties.withUnspecifiedPartitioning();
         }
 
+        @Override
+        public StreamProperties visitStatisticsWriter(StatisticsWriterNode node, List<StreamProperties> inputProperties)
+        {
+            StreamProperties properties = Iterables.getOnlyElement(inputProperties);
+            // statistics writer only outputs the row count
+            return properties.withUnspecifiedPartitioning();
+        }
+
         @Override
         public StreamProperties visitDelete(DeleteNode node, List<StreamProperties> inputProperties)
         {
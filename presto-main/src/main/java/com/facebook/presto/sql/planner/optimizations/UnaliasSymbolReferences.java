@@ -51,6 +51,7 @@ import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SetOperationNode;
 import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -372,6 +373,13 @@ public class UnaliasSymbolReferences
             return context.defaultRewrite(node);
         }
 
+        @Override
+        public PlanNode visitStatisticsWriter(StatisticsWriterNode node, RewriteContext<Void> context)
+        {
+            PlanNode source = context.rewrite(node.getSource());
+            return new StatisticsWriterNode(node.getId(), source, node.getTarget(), node.getDescriptor().map(this::canonicalize), canonicalize(node.getRowCountSymbol()));
+        }
+
         @Override
         public PlanNode visitRowNumber(RowNumberNode node, RewriteContext<Void> context)
         {
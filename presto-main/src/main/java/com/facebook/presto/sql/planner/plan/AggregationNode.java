@@ -22,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
 import javax.annotation.concurrent.Immutable;
@@ -48,8 +49,21 @@ public class AggregationNode
     private final Step step;
     private final Optional<Symbol> hashSymbol;
     private final Optional<Symbol> groupIdSymbol;
+    private final List<Symbol> preGroupedSymbols;
     private final List<Symbol> outputs;
 
+    public AggregationNode(
+            PlanNodeId id,
+            PlanNode source,
+            Map<Symbol, Aggregation> aggregations,
+            List<List<Symbol>> groupingSets,
+            Step step,
+            Optional<Symbol> hashSymbol,
+            Optional<Symbol> groupIdSymbol)
+    {
+        this(id, source, aggregations, groupingSets, step, hashSymbol, groupIdSymbol, ImmutableList.of());
+    }
+
     @JsonCreator
     public AggregationNode(
             @JsonProperty("id") PlanNodeId id,
@@ -58,7 +72,8 @@ public class AggregationNode
             @JsonProperty("groupingSets") List<List<Symbol>> groupingSets,
             @JsonProperty("step") Step step,
             @JsonProperty("hashSymbol") Optional<Symbol> hashSymbol,
-            @JsonProperty("groupIdSymbol") Optional<Symbol> groupIdSymbol)
+            @JsonProperty("groupIdSymbol") Optional<Symbol> groupIdSymbol,
+            @JsonProperty("preGroupedSymbols") List<Symbol> preGroupedSymbols)
     {
         super(id);
 
@@ -70,6 +85,9 @@ public class AggregationNode
         this.step = step;
         this.hashSymbol = hashSymbol;
         this.groupIdSymbol = requireNonNull(groupIdSymbol);
+        requireNonNull(preGroupedSymbols, "preGroupedSymbols is null");
+        checkArgument(getGroupingKeys().containsAll(preGroupedSymbols), "preGroupedSymbols must be a subset of the grouping keys");
+        this.preGroupedSymbols = ImmutableList.copyOf(preGroupedSymbols);
 
         ImmutableList.Builder<Symbol> outputs = ImmutableList.builder();
         outputs.addAll(getGroupingKeys());
@@ -113,6 +131,18 @@ public class AggregationNode
         return groupingSets.stream().anyMatch(symbols -> !symbols.isEmpty());
     }
 
+    /**
+     * @return whether the input is grouped on all the grouping keys, so that the groups can be
+     * aggregated one at a time, as they arrive, instead of in a hash table.
+     */
+    public boolean isStreamable()
+    {
+        return !preGroupedSymbols.isEmpty()
+                && groupingSets.size() == 1
+                && !groupIdSymbol.isPresent()
+                && ImmutableSet.copyOf(preGroupedSymbols).equals(ImmutableSet.copyOf(getGroupingKeys()));
+    }
+
     @Override
     public List<PlanNode> getSources()
     {
@@ -161,6 +191,12 @@ public class AggregationNode
         return groupIdSymbol;
     }
 
+    @JsonProperty("preGroupedSymbols")
+    public List<Symbol> getPreGroupedSymbols()
+    {
+        return preGroupedSymbols;
+    }
+
     @Override
     public <R, C> R accept(PlanVisitor<R, C> visitor, C context)
     {
@@ -170,7 +206,7 @@ public class AggregationNode
     @Override
     public PlanNode replaceChildren(List<PlanNode> newChildren)
     {
-        return new AggregationNode(getId(), Iterables.getOnlyElement(newChildren), aggregations, groupingSets, step, hashSymbol, groupIdSymbol);
+        return new AggregationNode(getId(), Iterables.getOnlyElement(newChildren), aggregations, groupingSets, step, hashSymbol, groupIdSymbol, preGroupedSymbols);
     }
 
     public boolean isDecomposable(FunctionRegistry functionRegistry)
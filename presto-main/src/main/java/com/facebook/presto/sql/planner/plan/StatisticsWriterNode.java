@@ -0,0 +1,251 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.plan;
+
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.sql.planner.Symbol;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes the statistics computed by the source aggregation to the target table. Each row
+ * produced by the source holds the statistics of one group of the grouping columns.
+ */
+@Immutable
+public class StatisticsWriterNode
+        extends PlanNode
+{
+    private final PlanNode source;
+    private final TableHandle target;
+    private final StatisticsDescriptor<Symbol> descriptor;
+    private final Symbol rowCountSymbol;
+
+    @JsonCreator
+    public StatisticsWriterNode(
+            @JsonProperty("id") PlanNodeId id,
+            @JsonProperty("source") PlanNode source,
+            @JsonProperty("target") TableHandle target,
+            @JsonProperty("descriptor") StatisticsDescriptor<Symbol> descriptor,
+            @JsonProperty("rowCountSymbol") Symbol rowCountSymbol)
+    {
+        super(id);
+        this.source = requireNonNull(source, "source is null");
+        this.target = requireNonNull(target, "target is null");
+        this.descriptor = requireNonNull(descriptor, "descriptor is null");
+        this.rowCountSymbol = requireNonNull(rowCountSymbol, "rowCountSymbol is null");
+    }
+
+    @JsonProperty
+    public PlanNode getSource()
+    {
+        return source;
+    }
+
+    @JsonProperty
+    public TableHandle getTarget()
+    {
+        return target;
+    }
+
+    @JsonProperty
+    public StatisticsDescriptor<Symbol> getDescriptor()
+    {
+        return descriptor;
+    }
+
+    @JsonProperty
+    public Symbol getRowCountSymbol()
+    {
+        return rowCountSymbol;
+    }
+
+    @Override
+    public List<Symbol> getOutputSymbols()
+    {
+        return ImmutableList.of(rowCountSymbol);
+    }
+
+    @Override
+    public List<PlanNode> getSources()
+    {
+        return ImmutableList.of(source);
+    }
+
+    @Override
+    public <R, C> R accept(PlanVisitor<R, C> visitor, C context)
+    {
+        return visitor.visitStatisticsWriter(this, context);
+    }
+
+    @Override
+    public PlanNode replaceChildren(List<PlanNode> newChildren)
+    {
+        return new StatisticsWriterNode(getId(), Iterables.getOnlyElement(newChildren), target, descriptor, rowCountSymbol);
+    }
+
+    /**
+     * Maps the grouping columns and the computed statistics to the symbols (in the plan)
+     * or channels (in the operator) holding them.
+     */
+    public static class StatisticsDescriptor<T>
+    {
+        private final Map<String, T> grouping;
+        private final T rowCount;
+        private final Map<String, ColumnStatisticsDescriptor<T>> columnStatistics;
+
+        @JsonCreator
+        public StatisticsDescriptor(
+                @JsonProperty("grouping") Map<String, T> grouping,
+                @JsonProperty("rowCount") T rowCount,
+                @JsonProperty("columnStatistics") Map<String, ColumnStatisticsDescriptor<T>> columnStatistics)
+        {
+            this.grouping = ImmutableMap.copyOf(requireNonNull(grouping, "grouping is null"));
+            this.rowCount = requireNonNull(rowCount, "rowCount is null");
+            this.columnStatistics = ImmutableMap.copyOf(requireNonNull(columnStatistics, "columnStatistics is null"));
+        }
+
+        @JsonProperty
+        public Map<String, T> getGrouping()
+        {
+            return grouping;
+        }
+
+        @JsonProperty
+        public T getRowCount()
+        {
+            return rowCount;
+        }
+
+        @JsonProperty
+        public Map<String, ColumnStatisticsDescriptor<T>> getColumnStatistics()
+        {
+            return columnStatistics;
+        }
+
+        public List<T> getAll()
+        {
+            ImmutableList.Builder<T> result = ImmutableList.builder();
+            result.addAll(grouping.values());
+            result.add(rowCount);
+            columnStatistics.values().forEach(column -> result.addAll(column.getAll()));
+            return result.build();
+        }
+
+        public <R> StatisticsDescriptor<R> map(Function<T, R> mapper)
+        {
+            return new StatisticsDescriptor<>(
+                    ImmutableMap.copyOf(Maps.transformValues(grouping, mapper::apply)),
+                    mapper.apply(rowCount),
+                    ImmutableMap.copyOf(Maps.transformValues(columnStatistics, column -> column.map(mapper))));
+        }
+    }
+
+    public static class ColumnStatisticsDescriptor<T>
+    {
+        private final T nonNullsCount;
+        private final Optional<T> distinctValuesCount;
+        private final Optional<T> min;
+        private final Optional<T> max;
+        private final Optional<T> dataSize;
+        private final Optional<T> quantiles;
+
+        @JsonCreator
+        public ColumnStatisticsDescriptor(
+                @JsonProperty("nonNullsCount") T nonNullsCount,
+                @JsonProperty("distinctValuesCount") Optional<T> distinctValuesCount,
+                @JsonProperty("min") Optional<T> min,
+                @JsonProperty("max") Optional<T> max,
+                @JsonProperty("dataSize") Optional<T> dataSize,
+                @JsonProperty("quantiles") Optional<T> quantiles)
+        {
+            this.nonNullsCount = requireNonNull(nonNullsCount, "nonNullsCount is null");
+            this.distinctValuesCount = requireNonNull(distinctValuesCount, "distinctValuesCount is null");
+            this.min = requireNonNull(min, "min is null");
+            this.max = requireNonNull(max, "max is null");
+            this.dataSize = requireNonNull(dataSize, "dataSize is null");
+            this.quantiles = requireNonNull(quantiles, "quantiles is null");
+            checkArgument(min.isPresent() == max.isPresent(), "min and max must be both present or both absent");
+        }
+
+        @JsonProperty
+        public T getNonNullsCount()
+        {
+            return nonNullsCount;
+        }
+
+        @JsonProperty
+        public Optional<T> getDistinctValuesCount()
+        {
+            return distinctValuesCount;
+        }
+
+        @JsonProperty
+        public Optional<T> getMin()
+        {
+            return min;
+        }
+
+        @JsonProperty
+        public Optional<T> getMax()
+        {
+            return max;
+        }
+
+        @JsonProperty
+        public Optional<T> getDataSize()
+        {
+            return dataSize;
+        }
+
+        @JsonProperty
+        public Optional<T> getQuantiles()
+        {
+            return quantiles;
+        }
+
+        public List<T> getAll()
+        {
+            return ImmutableList.<Optional<T>>of(Optional.of(nonNullsCount), distinctValuesCount, min, max, dataSize, quantiles).stream()
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(toImmutableList());
+        }
+
+        public <R> ColumnStatisticsDescriptor<R> map(Function<T, R> mapper)
+        {
+            return new ColumnStatisticsDescriptor<>(
+                    mapper.apply(nonNullsCount),
+                    distinctValuesCount.map(mapper),
+                    min.map(mapper),
+                    max.map(mapper),
+                    dataSize.map(mapper),
+                    quantiles.map(mapper));
+        }
+    }
+}
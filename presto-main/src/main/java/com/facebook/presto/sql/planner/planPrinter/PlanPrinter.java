@@ -73,6 +73,7 @@ import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -278,16 +279,18 @@ public class PlanPrinter
                 .collect(toImmutableList());
         builder.append(indentString(1));
         if (replicateNullsAndAny) {
-            builder.append(format("Output partitioning: %s (replicate nulls and any) [%s]%s\n",
+            builder.append(format("Output partitioning: %s (replicate nulls and any) [%s]%s%s\n",
                     partitioningScheme.getPartitioning().getHandle(),
                     Joiner.on(", ").join(arguments),
-                    formatHash(partitioningScheme.getHashColumn())));
+                    formatHash(partitioningScheme.getHashColumn()),
+                    formatHotKeys(partitioningScheme)));
         }
         else {
-            builder.append(format("Output partitioning: %s [%s]%s\n",
+            builder.append(format("Output partitioning: %s [%s]%s%s\n",
                     partitioningScheme.getPartitioning().getHandle(),
                     Joiner.on(", ").join(arguments),
-                    formatHash(partitioningScheme.getHashColumn())));
+                    formatHash(partitioningScheme.getHashColumn()),
+                    formatHotKeys(partitioningScheme)));
         }
 
         if (stageInfo.isPresent()) {
@@ -555,6 +558,7 @@ public class PlanPrinter
             }
 
             node.getSortExpressionContext().ifPresent(context -> print(indent + 2, "SortExpression[%s]", context.getSortExpression()));
+            node.getHotKeys().ifPresent(hotKeys -> print(indent + 2, "HotKeys[%s]", Joiner.on(", ").join(hotKeys.getValues())));
             printCost(indent + 2, node);
             printStats(indent + 2, node.getId());
             node.getLeft().accept(this, indent + 1);
@@ -649,6 +653,9 @@ public class PlanPrinter
             if (!node.getGroupingKeys().isEmpty()) {
                 key = node.getGroupingKeys().toString();
             }
+            if (node.isStreamable()) {
+                key = format("(STREAMING)%s", key);
+            }
 
             print(indent, "- Aggregate%s%s%s => [%s]", type, key, formatHash(node.getHashSymbol()), formatOutputs(node.getOutputSymbols()));
             printCost(indent + 2, node);
@@ -1083,6 +1090,16 @@ public class PlanPrinter
             return processChildren(node, indent + 1);
         }
 
+        @Override
+        public Void visitStatisticsWriter(StatisticsWriterNode node, Integer indent)
+        {
+            print(indent, "- StatisticsWriter[%s] => [%s]", node.getTarget(), formatOutputs(node.getOutputSymbols()));
+            printCost(indent + 2, node);
+            printStats(indent + 2, node.getId());
+
+            return processChildren(node, indent + 1);
+        }
+
         @Override
         public Void visitSample(SampleNode node, Integer indent)
         {
@@ -1105,10 +1122,11 @@ public class PlanPrinter
                         formatOutputs(node.getOutputSymbols()));
             }
             else {
-                print(indent, "- %sExchange[%s%s]%s => %s",
+                print(indent, "- %sExchange[%s%s%s]%s => %s",
                         UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, node.getScope().toString()),
                         node.getType(),
                         node.getPartitioningScheme().isReplicateNullsAndAny() ? " - REPLICATE NULLS AND ANY" : "",
+                        node.getPartitioningScheme().getHotKeys().isPresent() ? (node.getPartitioningScheme().isReplicateHotKeys() ? " - REPLICATE HOT KEYS" : " - SPREAD HOT KEYS") : "",
                         formatHash(node.getPartitioningScheme().getHashColumn()),
                         formatOutputs(node.getOutputSymbols()));
             }
@@ -1307,6 +1325,14 @@ public class PlanPrinter
         }
     }
 
+    private static String formatHotKeys(PartitioningScheme partitioningScheme)
+    {
+        if (!partitioningScheme.getHotKeys().isPresent()) {
+            return "";
+        }
+        return partitioningScheme.isReplicateHotKeys() ? " (replicate hot keys)" : " (spread hot keys)";
+    }
+
     private static String formatHash(Optional<Symbol>... hashes)
     {
         List<Symbol> symbols = Arrays.stream(hashes)
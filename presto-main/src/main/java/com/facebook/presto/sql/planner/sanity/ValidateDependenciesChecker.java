@@ -49,6 +49,7 @@ import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SetOperationNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -488,6 +489,16 @@ public final class ValidateDependenciesChecker
             return null;
         }
 
+        @Override
+        public Void visitStatisticsWriter(StatisticsWriterNode node, Set<Symbol> boundSymbols)
+        {
+            node.getSource().accept(this, boundSymbols); // visit child
+
+            checkDependencies(node.getSource().getOutputSymbols(), node.getDescriptor().getAll(), "Invalid node. Statistics symbols (%s) not in source plan output (%s)", node.getDescriptor().getAll(), node.getSource().getOutputSymbols());
+
+            return null;
+        }
+
         @Override
         public Void visitUnion(UnionNode node, Set<Symbol> boundSymbols)
         {
@@ -0,0 +1,730 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Deterministic finite automaton over the UTF-8 bytes of a value, deciding whether the value contains
+ * a match of a regular expression. It supports the subset of the RE2 syntax that needs neither capturing
+ * nor look-around: literals, '.', character classes of ASCII characters, the Perl classes, groups,
+ * alternation, repetition, and '^' and '$' at the ends of the pattern. The automaton is built eagerly,
+ * so it is immutable and can be shared by all threads.
+ */
+final class ByteDfa
+{
+    public enum Result
+    {
+        MATCH,
+        NO_MATCH,
+        /**
+         * The value contains non-ASCII bytes, which the automaton cannot tell apart from invalid
+         * UTF-8 sequences that RE2 would match as U+FFFD.
+         */
+        UNDECIDED
+    }
+
+    private static final int MAX_REPETITION = 100;
+    private static final int MAX_NFA_STATES = 10_000;
+
+    private final int[] byteClasses;
+    private final int classCount;
+    private final int[] transitions;
+    private final boolean[] accepting;
+    private final int deadState;
+    private final boolean anchoredEnd;
+    private final boolean utf8Sensitive;
+
+    private ByteDfa(int[] byteClasses, int classCount, int[] transitions, boolean[] accepting, int deadState, boolean anchoredEnd, boolean utf8Sensitive)
+    {
+        this.byteClasses = requireNonNull(byteClasses, "byteClasses is null");
+        this.classCount = classCount;
+        this.transitions = requireNonNull(transitions, "transitions is null");
+        this.accepting = requireNonNull(accepting, "accepting is null");
+        this.deadState = deadState;
+        this.anchoredEnd = anchoredEnd;
+        this.utf8Sensitive = utf8Sensitive;
+    }
+
+    /**
+     * Returns an empty optional when the pattern uses syntax the automaton does not support, or when
+     * the automaton would need more than {@code maxStates} states.
+     */
+    public static Optional<ByteDfa> compile(String pattern, int maxStates)
+    {
+        checkArgument(maxStates > 0, "maxStates must be positive");
+        try {
+            Parser parser = new Parser(pattern);
+            Node root = parser.parse();
+            NfaBuilder nfa = new NfaBuilder();
+            int start = nfa.compile(root, NfaBuilder.MATCH_STATE);
+            return Optional.of(nfa.toDfa(start, parser.isAnchoredStart(), parser.isAnchoredEnd(), parser.isUtf8Sensitive(), maxStates));
+        }
+        catch (UnsupportedPatternException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Result match(Slice value)
+    {
+        // the initial state is 0
+        int state = 0;
+        if (!anchoredEnd && accepting[state]) {
+            return Result.MATCH;
+        }
+        int nonAscii = 0;
+        int length = value.length();
+        for (int i = 0; i < length && state != deadState; i++) {
+            byte current = value.getByte(i);
+            nonAscii |= current;
+            state = transitions[state * classCount + byteClasses[current & 0xFF]];
+            if (!anchoredEnd && accepting[state]) {
+                return Result.MATCH;
+            }
+        }
+        if (anchoredEnd && accepting[state]) {
+            return Result.MATCH;
+        }
+        if (utf8Sensitive && nonAscii < 0) {
+            return Result.UNDECIDED;
+        }
+        return Result.NO_MATCH;
+    }
+
+    private static class UnsupportedPatternException
+            extends RuntimeException
+    {
+        public UnsupportedPatternException()
+        {
+            super(null, null, false, false);
+        }
+    }
+
+    private interface Node {}
+
+    /**
+     * Fixed sequence of bytes, each taken from a set
+     */
+    private static class ByteSequence
+            implements Node
+    {
+        private final List<ByteSet> bytes;
+
+        public ByteSequence(List<ByteSet> bytes)
+        {
+            this.bytes = ImmutableList.copyOf(bytes);
+        }
+    }
+
+    private static class Concatenation
+            implements Node
+    {
+        private final List<Node> nodes;
+
+        public Concatenation(List<Node> nodes)
+        {
+            this.nodes = ImmutableList.copyOf(nodes);
+        }
+    }
+
+    private static class Alternation
+            implements Node
+    {
+        private final List<Node> nodes;
+
+        public Alternation(List<Node> nodes)
+        {
+            this.nodes = ImmutableList.copyOf(nodes);
+        }
+    }
+
+    private static class Repetition
+            implements Node
+    {
+        private final Node node;
+        private final int min;
+        // -1 for unbounded repetition
+        private final int max;
+
+        public Repetition(Node node, int min, int max)
+        {
+            this.node = requireNonNull(node, "node is null");
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private static class ByteSet
+    {
+        private final BitSet bytes = new BitSet(256);
+
+        public static ByteSet range(int from, int to)
+        {
+            ByteSet set = new ByteSet();
+            set.bytes.set(from, to + 1);
+            return set;
+        }
+
+        public boolean contains(int value)
+        {
+            return bytes.get(value);
+        }
+    }
+
+    /**
+     * Characters of the pattern: a set of ASCII characters, optionally together with all non-ASCII characters
+     */
+    private static class CharacterClass
+    {
+        private final BitSet ascii = new BitSet(128);
+        private boolean nonAscii;
+
+        public static CharacterClass of(String characters)
+        {
+            CharacterClass characterClass = new CharacterClass();
+            characters.chars().forEach(characterClass.ascii::set);
+            return characterClass;
+        }
+
+        public CharacterClass negate()
+        {
+            ascii.flip(0, 128);
+            nonAscii = !nonAscii;
+            return this;
+        }
+
+        public boolean isSingleCharacter()
+        {
+            return ascii.cardinality() == 1 && !nonAscii;
+        }
+
+        public void add(CharacterClass other)
+        {
+            ascii.or(other.ascii);
+            nonAscii |= other.nonAscii;
+        }
+    }
+
+    private static class Parser
+    {
+        // RE2 matches these in the Perl mode, which is ASCII only
+        private static final String DIGITS = "0123456789";
+        private static final String WORD_CHARACTERS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz_";
+        private static final String WHITESPACE = "\t\n\f\r ";
+
+        // byte sequences of the valid UTF-8 encodings of the non-ASCII code points
+        private static final List<ByteSequence> NON_ASCII_SEQUENCES = ImmutableList.of(
+                new ByteSequence(ImmutableList.of(ByteSet.range(0xC2, 0xDF), ByteSet.range(0x80, 0xBF))),
+                new ByteSequence(ImmutableList.of(ByteSet.range(0xE0, 0xE0), ByteSet.range(0xA0, 0xBF), ByteSet.range(0x80, 0xBF))),
+                new ByteSequence(ImmutableList.of(ByteSet.range(0xE1, 0xEC), ByteSet.range(0x80, 0xBF), ByteSet.range(0x80, 0xBF))),
+                new ByteSequence(ImmutableList.of(ByteSet.range(0xED, 0xED), ByteSet.range(0x80, 0x9F), ByteSet.range(0x80, 0xBF))),
+                new ByteSequence(ImmutableList.of(ByteSet.range(0xEE, 0xEF), ByteSet.range(0x80, 0xBF), ByteSet.range(0x80, 0xBF))),
+                new ByteSequence(ImmutableList.of(ByteSet.range(0xF0, 0xF0), ByteSet.range(0x90, 0xBF), ByteSet.range(0x80, 0xBF), ByteSet.range(0x80, 0xBF))),
+                new ByteSequence(ImmutableList.of(ByteSet.range(0xF1, 0xF3), ByteSet.range(0x80, 0xBF), ByteSet.range(0x80, 0xBF), ByteSet.range(0x80, 0xBF))),
+                new ByteSequence(ImmutableList.of(ByteSet.range(0xF4, 0xF4), ByteSet.range(0x80, 0x8F), ByteSet.range(0x80, 0xBF), ByteSet.range(0x80, 0xBF))));
+
+        private final int[] pattern;
+        private int position;
+        private int depth;
+        private boolean anchoredStart;
+        private boolean anchoredEnd;
+        private boolean utf8Sensitive;
+
+        public Parser(String pattern)
+        {
+            this.pattern = pattern.codePoints().toArray();
+        }
+
+        public boolean isAnchoredStart()
+        {
+            return anchoredStart;
+        }
+
+        public boolean isAnchoredEnd()
+        {
+            return anchoredEnd;
+        }
+
+        /**
+         * Whether the pattern matches non-ASCII characters other than literal ones
+         */
+        public boolean isUtf8Sensitive()
+        {
+            return utf8Sensitive;
+        }
+
+        public Node parse()
+        {
+            anchoredStart = tryConsume('^');
+            Alternation root = parseAlternation();
+            check(position == pattern.length);
+            // '^a|b' anchors only the first alternative
+            check(!(anchoredStart || anchoredEnd) || root.nodes.size() == 1);
+            return root;
+        }
+
+        private Alternation parseAlternation()
+        {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseConcatenation());
+            while (tryConsume('|')) {
+                alternatives.add(parseConcatenation());
+            }
+            return new Alternation(alternatives);
+        }
+
+        private Concatenation parseConcatenation()
+        {
+            List<Node> nodes = new ArrayList<>();
+            while (position < pattern.length && pattern[position] != '|' && pattern[position] != ')') {
+                if (pattern[position] == '$' && position == pattern.length - 1 && depth == 0) {
+                    anchoredEnd = true;
+                    position++;
+                    break;
+                }
+                nodes.add(parseRepetition(parseAtom()));
+            }
+            return new Concatenation(nodes);
+        }
+
+        private Node parseRepetition(Node atom)
+        {
+            if (position == pattern.length) {
+                return atom;
+            }
+            Node result;
+            switch (pattern[position]) {
+                case '*':
+                    position++;
+                    result = new Repetition(atom, 0, -1);
+                    break;
+                case '+':
+                    position++;
+                    result = new Repetition(atom, 1, -1);
+                    break;
+                case '?':
+                    position++;
+                    result = new Repetition(atom, 0, 1);
+                    break;
+                case '{':
+                    result = parseCountedRepetition(atom);
+                    break;
+                default:
+                    return atom;
+            }
+            // non-greedy repetition matches the same values
+            tryConsume('?');
+            check(position == pattern.length || (pattern[position] != '*' && pattern[position] != '+' && pattern[position] != '?' && pattern[position] != '{'));
+            return result;
+        }
+
+        private Node parseCountedRepetition(Node atom)
+        {
+            consume('{');
+            int min = parseNumber();
+            int max = min;
+            if (tryConsume(',')) {
+                max = (position < pattern.length && pattern[position] == '}') ? -1 : parseNumber();
+            }
+            consume('}');
+            check(max == -1 || min <= max);
+            return new Repetition(atom, min, max);
+        }
+
+        private int parseNumber()
+        {
+            int start = position;
+            int value = 0;
+            while (position < pattern.length && pattern[position] >= '0' && pattern[position] <= '9') {
+                value = value * 10 + pattern[position] - '0';
+                check(value <= MAX_REPETITION);
+                position++;
+            }
+            check(position > start);
+            return value;
+        }
+
+        private Node parseAtom()
+        {
+            int current = pattern[position];
+            switch (current) {
+                case '(':
+                    position++;
+                    if (tryConsume('?')) {
+                        // named capturing group, written as (?P<name>...) or (?<name>...)
+                        tryConsume('P');
+                        if (tryConsume('<')) {
+                            while (position < pattern.length && pattern[position] != '>') {
+                                position++;
+                            }
+                            consume('>');
+                        }
+                        else {
+                            // flags are not supported
+                            consume(':');
+                        }
+                    }
+                    depth++;
+                    Node group = parseAlternation();
+                    depth--;
+                    consume(')');
+                    return group;
+                case '[':
+                    position++;
+                    return toNode(parseCharacterClass());
+                case '.':
+                    position++;
+                    return toNode(CharacterClass.of("\n").negate());
+                case '\\':
+                    position++;
+                    return toNode(parseEscape());
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                case '^':
+                case '$':
+                    throw new UnsupportedPatternException();
+                default:
+                    position++;
+                    return literal(current);
+            }
+        }
+
+        private CharacterClass parseCharacterClass()
+        {
+            boolean negated = tryConsume('^');
+            CharacterClass result = new CharacterClass();
+            boolean first = true;
+            while (true) {
+                check(position < pattern.length);
+                int current = pattern[position];
+                if (current == ']' && !first) {
+                    position++;
+                    break;
+                }
+                first = false;
+                // POSIX classes are not supported
+                check(!(current == '[' && position + 1 < pattern.length && pattern[position + 1] == ':'));
+
+                int low = current;
+                position++;
+                if (current == '\\') {
+                    CharacterClass escape = parseEscape();
+                    if (!escape.isSingleCharacter()) {
+                        result.add(escape);
+                        continue;
+                    }
+                    low = escape.ascii.nextSetBit(0);
+                }
+                int high = low;
+                if (position + 1 < pattern.length && pattern[position] == '-' && pattern[position + 1] != ']') {
+                    position++;
+                    high = pattern[position];
+                    position++;
+                    if (high == '\\') {
+                        CharacterClass escape = parseEscape();
+                        check(escape.isSingleCharacter());
+                        high = escape.ascii.nextSetBit(0);
+                    }
+                }
+                check(low <= high && high < 128);
+                result.ascii.set(low, high + 1);
+            }
+            return negated ? result.negate() : result;
+        }
+
+        private CharacterClass parseEscape()
+        {
+            check(position < pattern.length);
+            int current = pattern[position];
+            position++;
+            switch (current) {
+                case 'd':
+                    return CharacterClass.of(DIGITS);
+                case 'D':
+                    return CharacterClass.of(DIGITS).negate();
+                case 'w':
+                    return CharacterClass.of(WORD_CHARACTERS);
+                case 'W':
+                    return CharacterClass.of(WORD_CHARACTERS).negate();
+                case 's':
+                    return CharacterClass.of(WHITESPACE);
+                case 'S':
+                    return CharacterClass.of(WHITESPACE).negate();
+                case 'a':
+                    return CharacterClass.of(String.valueOf((char) 0x07));
+                case 'f':
+                    return CharacterClass.of("\f");
+                case 'n':
+                    return CharacterClass.of("\n");
+                case 'r':
+                    return CharacterClass.of("\r");
+                case 't':
+                    return CharacterClass.of("\t");
+                case 'v':
+                    return CharacterClass.of(String.valueOf((char) 0x0B));
+                default:
+                    // escaped punctuation is literal, other escapes (\b, \x, \p, \Q, ...) are not supported
+                    check(current < 128 && !Character.isLetterOrDigit(current));
+                    return CharacterClass.of(String.valueOf((char) current));
+            }
+        }
+
+        private Node toNode(CharacterClass characterClass)
+        {
+            List<Node> alternatives = new ArrayList<>();
+            if (!characterClass.ascii.isEmpty()) {
+                ByteSet ascii = new ByteSet();
+                ascii.bytes.or(characterClass.ascii);
+                alternatives.add(new ByteSequence(ImmutableList.of(ascii)));
+            }
+            if (characterClass.nonAscii) {
+                utf8Sensitive = true;
+                alternatives.addAll(NON_ASCII_SEQUENCES);
+            }
+            return new Alternation(alternatives);
+        }
+
+        private static Node literal(int codePoint)
+        {
+            // RE2 matches invalid UTF-8 sequences as the replacement character
+            check(codePoint != 0xFFFD && (codePoint < Character.MIN_SURROGATE || codePoint > Character.MAX_SURROGATE));
+            ImmutableList.Builder<ByteSet> bytes = ImmutableList.builder();
+            for (byte value : new String(Character.toChars(codePoint)).getBytes(UTF_8)) {
+                bytes.add(ByteSet.range(value & 0xFF, value & 0xFF));
+            }
+            return new ByteSequence(bytes.build());
+        }
+
+        private boolean tryConsume(int expected)
+        {
+            if (position < pattern.length && pattern[position] == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void consume(int expected)
+        {
+            check(tryConsume(expected));
+        }
+
+        private static void check(boolean condition)
+        {
+            if (!condition) {
+                throw new UnsupportedPatternException();
+            }
+        }
+    }
+
+    /**
+     * Thompson construction of a non-deterministic automaton, built from the end of the pattern to its start
+     */
+    private static class NfaBuilder
+    {
+        public static final int MATCH_STATE = 0;
+
+        // null for the states with epsilon transitions only
+        private final List<ByteSet> byteSets = new ArrayList<>();
+        private final List<int[]> targets = new ArrayList<>();
+
+        public NfaBuilder()
+        {
+            addState(null, new int[0]);
+        }
+
+        public int compile(Node node, int next)
+        {
+            if (node instanceof ByteSequence) {
+                List<ByteSet> bytes = ((ByteSequence) node).bytes;
+                for (int i = bytes.size() - 1; i >= 0; i--) {
+                    next = addState(bytes.get(i), new int[] {next});
+                }
+                return next;
+            }
+            if (node instanceof Concatenation) {
+                List<Node> nodes = ((Concatenation) node).nodes;
+                for (int i = nodes.size() - 1; i >= 0; i--) {
+                    next = compile(nodes.get(i), next);
+                }
+                return next;
+            }
+            if (node instanceof Alternation) {
+                List<Node> nodes = ((Alternation) node).nodes;
+                int[] starts = new int[nodes.size()];
+                for (int i = 0; i < starts.length; i++) {
+                    starts[i] = compile(nodes.get(i), next);
+                }
+                return addState(null, starts);
+            }
+            Repetition repetition = (Repetition) node;
+            int result = next;
+            if (repetition.max == -1) {
+                int loop = addState(null, null);
+                targets.set(loop, new int[] {compile(repetition.node, loop), next});
+                result = loop;
+            }
+            else {
+                for (int i = repetition.min; i < repetition.max; i++) {
+                    result = addState(null, new int[] {compile(repetition.node, result), next});
+                }
+            }
+            for (int i = 0; i < repetition.min; i++) {
+                result = compile(repetition.node, result);
+            }
+            return result;
+        }
+
+        private int addState(ByteSet byteSet, int[] stateTargets)
+        {
+            if (byteSets.size() >= MAX_NFA_STATES) {
+                throw new UnsupportedPatternException();
+            }
+            byteSets.add(byteSet);
+            targets.add(stateTargets);
+            return byteSets.size() - 1;
+        }
+
+        public ByteDfa toDfa(int start, boolean anchoredStart, boolean anchoredEnd, boolean utf8Sensitive, int maxStates)
+        {
+            // bytes which no byte set tells apart share a class
+            int[] byteClasses = new int[256];
+            int classCount = 1;
+            Set<BitSet> distinctByteSets = new LinkedHashSet<>();
+            for (ByteSet byteSet : byteSets) {
+                if (byteSet != null) {
+                    distinctByteSets.add(byteSet.bytes);
+                }
+            }
+            for (BitSet byteSet : distinctByteSets) {
+                Map<Integer, Integer> refinedClasses = new HashMap<>();
+                for (int value = 0; value < 256; value++) {
+                    int key = byteClasses[value] * 2 + (byteSet.get(value) ? 1 : 0);
+                    byteClasses[value] = refinedClasses.computeIfAbsent(key, ignored -> refinedClasses.size());
+                }
+                classCount = refinedClasses.size();
+            }
+            int[] representatives = new int[classCount];
+            for (int value = 255; value >= 0; value--) {
+                representatives[byteClasses[value]] = value;
+            }
+
+            // subset construction, where each state of the deterministic automaton is a set of states of the non-deterministic one
+            BitSet startClosure = closure(singleton(start));
+            Map<BitSet, Integer> stateIds = new HashMap<>();
+            List<BitSet> states = new ArrayList<>();
+            List<int[]> stateTransitions = new ArrayList<>();
+            stateIds.put(startClosure, 0);
+            states.add(startClosure);
+            for (int state = 0; state < states.size(); state++) {
+                BitSet current = states.get(state);
+                int[] transitions = new int[classCount];
+                stateTransitions.add(transitions);
+                if (!anchoredEnd && current.get(MATCH_STATE)) {
+                    // matching stops at the first accepting state
+                    Arrays.fill(transitions, state);
+                    continue;
+                }
+                for (int byteClass = 0; byteClass < classCount; byteClass++) {
+                    BitSet next = new BitSet();
+                    for (int nfaState = current.nextSetBit(0); nfaState >= 0; nfaState = current.nextSetBit(nfaState + 1)) {
+                        ByteSet byteSet = byteSets.get(nfaState);
+                        if (byteSet != null && byteSet.contains(representatives[byteClass])) {
+                            next.set(targets.get(nfaState)[0]);
+                        }
+                    }
+                    next = closure(next);
+                    if (!anchoredStart) {
+                        // a match may start at any position
+                        next.or(startClosure);
+                    }
+                    Integer nextId = stateIds.get(next);
+                    if (nextId == null) {
+                        if (states.size() >= maxStates) {
+                            throw new UnsupportedPatternException();
+                        }
+                        nextId = states.size();
+                        stateIds.put(next, nextId);
+                        states.add(next);
+                    }
+                    transitions[byteClass] = nextId;
+                }
+            }
+
+            int[] transitions = new int[states.size() * classCount];
+            boolean[] accepting = new boolean[states.size()];
+            int deadState = -1;
+            for (int state = 0; state < states.size(); state++) {
+                System.arraycopy(stateTransitions.get(state), 0, transitions, state * classCount, classCount);
+                accepting[state] = states.get(state).get(MATCH_STATE);
+                if (states.get(state).isEmpty()) {
+                    deadState = state;
+                }
+            }
+            return new ByteDfa(byteClasses, classCount, transitions, accepting, deadState, anchoredEnd, utf8Sensitive);
+        }
+
+        /**
+         * Returns the states reachable through epsilon transitions, keeping only the states which consume a byte and the match state
+         */
+        private BitSet closure(BitSet states)
+        {
+            BitSet visited = new BitSet();
+            BitSet result = new BitSet();
+            IntArrayList stack = new IntArrayList();
+            states.stream().forEach(stack::add);
+            while (!stack.isEmpty()) {
+                int state = stack.popInt();
+                if (visited.get(state)) {
+                    continue;
+                }
+                visited.set(state);
+                if (state == MATCH_STATE || byteSets.get(state) != null) {
+                    result.set(state);
+                }
+                else {
+                    for (int target : targets.get(state)) {
+                        stack.add(target);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static BitSet singleton(int state)
+        {
+            BitSet result = new BitSet();
+            result.set(state);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import javax.annotation.Nullable;
+
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.type.ByteDfa.Result.MATCH;
+import static com.facebook.presto.type.ByteDfa.Result.NO_MATCH;
+import static com.facebook.presto.type.ByteDfa.Result.UNDECIDED;
+
+/**
+ * Regular expression compiled into a {@link ByteDfa} over the UTF-8 bytes of the values, when the
+ * pattern is supported by the automaton. The automaton decides whether a value contains a match,
+ * and the functions which need the matched text only use it to skip the values without a match.
+ * Everything else is delegated to {@link Re2JRegexp}, which also validates the pattern.
+ */
+public final class DfaRegexp
+{
+    private final Re2JRegexp re2JRegexp;
+    @Nullable
+    private final ByteDfa dfa;
+    private final int groupCount;
+
+    public DfaRegexp(int dfaStatesLimit, int re2JDfaStatesLimit, int re2JDfaRetries, Slice pattern)
+    {
+        this.re2JRegexp = new Re2JRegexp(re2JDfaStatesLimit, re2JDfaRetries, pattern);
+        this.dfa = ByteDfa.compile(pattern.toStringUtf8(), dfaStatesLimit).orElse(null);
+        this.groupCount = re2JRegexp.re2jPattern.matcher(Slices.EMPTY_SLICE).groupCount();
+    }
+
+    public boolean isAutomatonSupported()
+    {
+        return dfa != null;
+    }
+
+    public boolean matches(Slice source)
+    {
+        if (dfa != null) {
+            ByteDfa.Result result = dfa.match(source);
+            if (result != UNDECIDED) {
+                return result == MATCH;
+            }
+        }
+        return re2JRegexp.matches(source);
+    }
+
+    public Slice replace(Slice source, Slice replacement)
+    {
+        if (cannotMatch(source)) {
+            return source;
+        }
+        return re2JRegexp.replace(source, replacement);
+    }
+
+    public Block extractAll(Slice source, long groupIndex)
+    {
+        if (isValidGroup(groupIndex) && cannotMatch(source)) {
+            return VARCHAR.createBlockBuilder(new BlockBuilderStatus(), 0).build();
+        }
+        return re2JRegexp.extractAll(source, groupIndex);
+    }
+
+    public Slice extract(Slice source, long groupIndex)
+    {
+        if (isValidGroup(groupIndex) && cannotMatch(source)) {
+            return null;
+        }
+        return re2JRegexp.extract(source, groupIndex);
+    }
+
+    public Block split(Slice source)
+    {
+        if (cannotMatch(source)) {
+            BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(new BlockBuilderStatus(), 1);
+            VARCHAR.writeSlice(blockBuilder, source);
+            return blockBuilder.build();
+        }
+        return re2JRegexp.split(source);
+    }
+
+    private boolean cannotMatch(Slice source)
+    {
+        // only a certain absence of a match is answered by the automaton, the matched text needs RE2J
+        return dfa != null && dfa.match(source) == NO_MATCH;
+    }
+
+    private boolean isValidGroup(long groupIndex)
+    {
+        // invalid groups are reported by RE2J
+        return groupIndex >= 0 && groupIndex <= groupCount;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the patterns cast to {@link DfaRegexpType}, by whether the automaton supports them. The
+ * values matched with a supported pattern are answered by the automaton, the others by RE2J, so the
+ * counters are updated once per cast instead of once per value.
+ */
+@ThreadSafe
+public class DfaRegexpStats
+{
+    private final LongAdder compiledPatterns = new LongAdder();
+    private final LongAdder unsupportedPatterns = new LongAdder();
+
+    public void recordPattern(boolean supported)
+    {
+        if (supported) {
+            compiledPatterns.increment();
+        }
+        else {
+            unsupportedPatterns.increment();
+        }
+    }
+
+    @Managed
+    public long getCompiledPatterns()
+    {
+        return compiledPatterns.sum();
+    }
+
+    @Managed
+    public long getUnsupportedPatterns()
+    {
+        return unsupportedPatterns.sum();
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.jcodings.specific.NonStrictUTF8Encoding;
+import io.airlift.joni.Option;
+import io.airlift.joni.Regex;
+import io.airlift.joni.Syntax;
+import io.airlift.slice.Slice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static com.facebook.presto.util.Failures.checkCondition;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.joni.constants.MetaChar.INEFFECTIVE_META_CHAR;
+import static io.airlift.joni.constants.SyntaxProperties.OP_ASTERISK_ZERO_INF;
+import static io.airlift.joni.constants.SyntaxProperties.OP_DOT_ANYCHAR;
+import static io.airlift.joni.constants.SyntaxProperties.OP_LINE_ANCHOR;
+import static io.airlift.slice.SliceUtf8.lengthOfCodePointSafe;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compiled LIKE pattern. Patterns consisting of literal text and '%' wildcards (such as 'abc%',
+ * '%abc' or '%abc%') and patterns consisting of literal text and '_' wildcards are matched directly
+ * on the UTF-8 bytes of the value. All other patterns are matched with a regular expression.
+ */
+public abstract class LikeMatcher
+{
+    private static final Syntax SYNTAX = new Syntax(
+            OP_DOT_ANYCHAR | OP_ASTERISK_ZERO_INF | OP_LINE_ANCHOR,
+            0,
+            0,
+            Option.NONE,
+            new Syntax.MetaCharTable(
+                    '\\',                           /* esc */
+                    INEFFECTIVE_META_CHAR,          /* anychar '.' */
+                    INEFFECTIVE_META_CHAR,          /* anytime '*' */
+                    INEFFECTIVE_META_CHAR,          /* zero or one time '?' */
+                    INEFFECTIVE_META_CHAR,          /* one or more time '+' */
+                    INEFFECTIVE_META_CHAR));        /* anychar anytime */
+
+    public abstract boolean matches(Slice value);
+
+    public static LikeMatcher compile(String pattern, char escapeChar, boolean shouldEscape)
+    {
+        // split the pattern into the literal text between the unescaped wildcards
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean hasAnyString = false;
+        boolean hasAnyCharacter = false;
+        boolean escaped = false;
+        for (char currentChar : pattern.toCharArray()) {
+            checkEscape(!escaped || currentChar == '%' || currentChar == '_' || currentChar == escapeChar);
+            if (shouldEscape && !escaped && (currentChar == escapeChar)) {
+                escaped = true;
+            }
+            else if (!escaped && (currentChar == '%' || currentChar == '_')) {
+                hasAnyString |= currentChar == '%';
+                hasAnyCharacter |= currentChar == '_';
+                literals.add(literal.toString());
+                literal.setLength(0);
+            }
+            else {
+                literal.append(currentChar);
+                escaped = false;
+            }
+        }
+        checkEscape(!escaped);
+        literals.add(literal.toString());
+
+        if (hasAnyString && hasAnyCharacter) {
+            return new RegexMatcher(compileRegex(pattern, escapeChar, shouldEscape));
+        }
+        if (hasAnyCharacter) {
+            return new SingleCharacterWildcardMatcher(toLiterals(literals));
+        }
+
+        Literal prefix = new Literal(literals.get(0));
+        if (literals.size() == 1) {
+            return new ExactMatcher(prefix);
+        }
+        Literal suffix = new Literal(literals.get(literals.size() - 1));
+        // consecutive '%' wildcards are equivalent to a single one
+        List<Literal> middle = toLiterals(literals.subList(1, literals.size() - 1).stream()
+                .filter(text -> !text.isEmpty())
+                .collect(toImmutableList()));
+
+        if (middle.isEmpty() && suffix.length() == 0) {
+            return new PrefixMatcher(prefix);
+        }
+        if (middle.isEmpty() && prefix.length() == 0) {
+            return new SuffixMatcher(suffix);
+        }
+        if (middle.size() == 1 && prefix.length() == 0 && suffix.length() == 0) {
+            return new ContainsMatcher(middle.get(0));
+        }
+        return new MultipleLiteralsMatcher(prefix, middle, suffix);
+    }
+
+    private static List<Literal> toLiterals(List<String> literals)
+    {
+        return literals.stream()
+                .map(Literal::new)
+                .collect(toImmutableList());
+    }
+
+    private static void checkEscape(boolean condition)
+    {
+        checkCondition(condition, INVALID_FUNCTION_ARGUMENT, "Escape character must be followed by '%%', '_' or the escape character itself");
+    }
+
+    @SuppressWarnings("NestedSwitchStatement")
+    private static Regex compileRegex(String patternString, char escapeChar, boolean shouldEscape)
+    {
+        StringBuilder regex = new StringBuilder(patternString.length() * 2);
+
+        regex.append('^');
+        boolean escaped = false;
+        for (char currentChar : patternString.toCharArray()) {
+            checkEscape(!escaped || currentChar == '%' || currentChar == '_' || currentChar == escapeChar);
+            if (shouldEscape && !escaped && (currentChar == escapeChar)) {
+                escaped = true;
+            }
+            else {
+                switch (currentChar) {
+                    case '%':
+                        regex.append(escaped ? "%" : ".*");
+                        escaped = false;
+                        break;
+                    case '_':
+                        regex.append(escaped ? "_" : ".");
+                        escaped = false;
+                        break;
+                    default:
+                        // escape special regex characters
+                        switch (currentChar) {
+                            case '\\':
+                            case '^':
+                            case '$':
+                            case '.':
+                            case '*':
+                                regex.append('\\');
+                        }
+
+                        regex.append(currentChar);
+                        escaped = false;
+                }
+            }
+        }
+        checkEscape(!escaped);
+        regex.append('$');
+
+        byte[] bytes = regex.toString().getBytes(UTF_8);
+        return new Regex(bytes, 0, bytes.length, Option.MULTILINE, NonStrictUTF8Encoding.INSTANCE, SYNTAX);
+    }
+
+    private static final class ExactMatcher
+            extends LikeMatcher
+    {
+        private final Literal literal;
+
+        private ExactMatcher(Literal literal)
+        {
+            this.literal = requireNonNull(literal, "literal is null");
+        }
+
+        @Override
+        public boolean matches(Slice value)
+        {
+            return value.length() == literal.length() && literal.matchesAt(value, 0);
+        }
+    }
+
+    private static final class PrefixMatcher
+            extends LikeMatcher
+    {
+        private final Literal prefix;
+
+        private PrefixMatcher(Literal prefix)
+        {
+            this.prefix = requireNonNull(prefix, "prefix is null");
+        }
+
+        @Override
+        public boolean matches(Slice value)
+        {
+            return value.length() >= prefix.length() && prefix.matchesAt(value, 0);
+        }
+    }
+
+    private static final class SuffixMatcher
+            extends LikeMatcher
+    {
+        private final Literal suffix;
+
+        private SuffixMatcher(Literal suffix)
+        {
+            this.suffix = requireNonNull(suffix, "suffix is null");
+        }
+
+        @Override
+        public boolean matches(Slice value)
+        {
+            return value.length() >= suffix.length() && suffix.matchesAt(value, value.length() - suffix.length());
+        }
+    }
+
+    private static final class ContainsMatcher
+            extends LikeMatcher
+    {
+        private final Literal literal;
+
+        private ContainsMatcher(Literal literal)
+        {
+            this.literal = requireNonNull(literal, "literal is null");
+        }
+
+        @Override
+        public boolean matches(Slice value)
+        {
+            return literal.find(value, 0, value.length()) >= 0;
+        }
+    }
+
+    /**
+     * Matches patterns of the form 'prefix%middle1%middle2%...%suffix', where the prefix and the suffix may be empty.
+     * Matching the leftmost occurrence of each middle literal is sufficient, as it leaves the most room for the following ones.
+     */
+    private static final class MultipleLiteralsMatcher
+            extends LikeMatcher
+    {
+        private final Literal prefix;
+        private final List<Literal> middle;
+        private final Literal suffix;
+
+        private MultipleLiteralsMatcher(Literal prefix, List<Literal> middle, Literal suffix)
+        {
+            this.prefix = requireNonNull(prefix, "prefix is null");
+            this.middle = ImmutableList.copyOf(requireNonNull(middle, "middle is null"));
+            this.suffix = requireNonNull(suffix, "suffix is null");
+        }
+
+        @Override
+        public boolean matches(Slice value)
+        {
+            int start = prefix.length();
+            int end = value.length() - suffix.length();
+            if (start > end || !prefix.matchesAt(value, 0) || !suffix.matchesAt(value, end)) {
+                return false;
+            }
+            for (Literal literal : middle) {
+                int position = literal.find(value, start, end);
+                if (position < 0) {
+                    return false;
+                }
+                start = position + literal.length();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Matches patterns of the form 'literal0_literal1_..._literalN', where the literals may be empty.
+     */
+    private static final class SingleCharacterWildcardMatcher
+            extends LikeMatcher
+    {
+        private final List<Literal> literals;
+        private final int minLength;
+
+        private SingleCharacterWildcardMatcher(List<Literal> literals)
+        {
+            this.literals = ImmutableList.copyOf(requireNonNull(literals, "literals is null"));
+            this.minLength = literals.stream().mapToInt(Literal::length).sum() + literals.size() - 1;
+        }
+
+        @Override
+        public boolean matches(Slice value)
+        {
+            if (value.length() < minLength) {
+                return false;
+            }
+            int position = 0;
+            for (int i = 0; i < literals.size(); i++) {
+                Literal literal = literals.get(i);
+                if (position + literal.length() > value.length() || !literal.matchesAt(value, position)) {
+                    return false;
+                }
+                position += literal.length();
+                if (i < literals.size() - 1) {
+                    if (position >= value.length()) {
+                        return false;
+                    }
+                    // '_' matches a single character, which may span several bytes
+                    position += lengthOfCodePointSafe(value, position);
+                }
+            }
+            return position == value.length();
+        }
+    }
+
+    private static final class RegexMatcher
+            extends LikeMatcher
+    {
+        private final Regex regex;
+
+        private RegexMatcher(Regex regex)
+        {
+            this.regex = requireNonNull(regex, "regex is null");
+        }
+
+        @Override
+        public boolean matches(Slice value)
+        {
+            // Joni can infinite loop with UTF8Encoding when invalid UTF-8 is encountered.
+            // NonStrictUTF8Encoding must be used to avoid this issue.
+            byte[] bytes = value.getBytes();
+            return regex.matcher(bytes).match(0, bytes.length, Option.NONE) != -1;
+        }
+    }
+
+    /**
+     * The UTF-8 bytes of literal pattern text, with the Boyer-Moore-Horspool shift table for finding them in a value.
+     */
+    private static final class Literal
+    {
+        private final byte[] bytes;
+        private final int[] shifts;
+
+        private Literal(String text)
+        {
+            this.bytes = text.getBytes(UTF_8);
+            this.shifts = new int[256];
+            Arrays.fill(shifts, bytes.length);
+            for (int i = 0; i < bytes.length - 1; i++) {
+                shifts[bytes[i] & 0xFF] = bytes.length - 1 - i;
+            }
+        }
+
+        public int length()
+        {
+            return bytes.length;
+        }
+
+        /**
+         * The caller must ensure the literal fits in the value at the given position.
+         */
+        public boolean matchesAt(Slice value, int position)
+        {
+            for (int i = 0; i < bytes.length; i++) {
+                if (value.getByte(position + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the position of the first occurrence of the literal within [start, end) of the value, or -1.
+         */
+        public int find(Slice value, int start, int end)
+        {
+            int last = bytes.length - 1;
+            if (last < 0) {
+                return start;
+            }
+            int position = start;
+            while (position + last < end) {
+                byte lastByte = value.getByte(position + last);
+                if (lastByte == bytes[last] && matchesAt(value, position)) {
+                    return position;
+                }
+                position += shifts[lastByte & 0xFF];
+            }
+            return -1;
+        }
+    }
+}
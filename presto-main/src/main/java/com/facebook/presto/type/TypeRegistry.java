@@ -69,6 +69,7 @@ import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
 import static com.facebook.presto.type.ArrayParametricType.ARRAY;
 import static com.facebook.presto.type.CodePointsType.CODE_POINTS;
 import static com.facebook.presto.type.ColorType.COLOR;
+import static com.facebook.presto.type.DfaRegexpType.DFA_REGEXP;
 import static com.facebook.presto.type.FunctionParametricType.FUNCTION;
 import static com.facebook.presto.type.IntervalDayTimeType.INTERVAL_DAY_TIME;
 import static com.facebook.presto.type.IntervalYearMonthType.INTERVAL_YEAR_MONTH;
@@ -136,6 +137,7 @@ public final class TypeRegistry
         addType(P4_HYPER_LOG_LOG);
         addType(JONI_REGEXP);
         addType(RE2J_REGEXP);
+        addType(DFA_REGEXP);
         addType(LIKE_PATTERN);
         addType(JSON_PATH);
         addType(COLOR);
@@ -556,6 +558,8 @@ public final class TypeRegistry
                         return Optional.of(JONI_REGEXP);
                     case Re2JRegexpType.NAME:
                         return Optional.of(RE2J_REGEXP);
+                    case DfaRegexpType.NAME:
+                        return Optional.of(DFA_REGEXP);
                     case LikePatternType.NAME:
                         return Optional.of(LIKE_PATTERN);
                     case JsonPathType.NAME:
@@ -575,6 +579,8 @@ public final class TypeRegistry
                         return Optional.of(JONI_REGEXP);
                     case Re2JRegexpType.NAME:
                         return Optional.of(RE2J_REGEXP);
+                    case DfaRegexpType.NAME:
+                        return Optional.of(DFA_REGEXP);
                     case LikePatternType.NAME:
                         return Optional.of(LIKE_PATTERN);
                     case JsonPathType.NAME:
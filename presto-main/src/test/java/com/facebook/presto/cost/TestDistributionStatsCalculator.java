@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cost;
+
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.Histogram;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.OptionalDouble;
+
+import static com.facebook.presto.cost.DistributionStatsCalculator.estimateComparisonSelectivity;
+import static com.facebook.presto.cost.DistributionStatsCalculator.estimateEquiJoinSelectivity;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.sql.tree.ComparisonExpressionType.EQUAL;
+import static com.facebook.presto.sql.tree.ComparisonExpressionType.GREATER_THAN;
+import static com.facebook.presto.sql.tree.ComparisonExpressionType.LESS_THAN;
+import static com.facebook.presto.sql.tree.ComparisonExpressionType.LESS_THAN_OR_EQUAL;
+import static com.facebook.presto.sql.tree.ComparisonExpressionType.NOT_EQUAL;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TestDistributionStatsCalculator
+{
+    // 10% nulls, value 7 in 30% of the rows, and the other 60% spread over [0, 99] in two equi-height buckets
+    private static final ColumnStatistics SKEWED = ColumnStatistics.builder()
+            .setNullsFraction(new Estimate(0.1))
+            .addRange(range -> range
+                    .setFraction(new Estimate(0.9))
+                    .setDistinctValuesCount(new Estimate(61)))
+            .addMostCommonValue(7L, 0.3)
+            .setHistogram(new Histogram(ImmutableList.of(
+                    new Histogram.Bucket(0L, 10L, 0.3),
+                    new Histogram.Bucket(10L, 90L, 0.3))))
+            .build();
+
+    private static final ColumnStatistics UNIFORM = ColumnStatistics.builder()
+            .setNullsFraction(new Estimate(0))
+            .addRange(range -> range
+                    .setFraction(new Estimate(1))
+                    .setDistinctValuesCount(new Estimate(100)))
+            .build();
+
+    @Test
+    public void testEqual()
+    {
+        assertEstimate(estimateComparisonSelectivity(SKEWED, BIGINT, EQUAL, 7L), 0.3);
+        // the other values share the 60% of the rows that are neither null nor most common
+        assertEstimate(estimateComparisonSelectivity(SKEWED, BIGINT, EQUAL, 8L), 0.01);
+        assertEstimate(estimateComparisonSelectivity(SKEWED, BIGINT, NOT_EQUAL, 7L), 0.6);
+    }
+
+    @Test
+    public void testRange()
+    {
+        assertEstimate(estimateComparisonSelectivity(SKEWED, BIGINT, LESS_THAN, 7L), 0.21);
+        assertEstimate(estimateComparisonSelectivity(SKEWED, BIGINT, LESS_THAN_OR_EQUAL, 7L), 0.51);
+        assertEstimate(estimateComparisonSelectivity(SKEWED, BIGINT, LESS_THAN, 50L), 0.75);
+        assertEstimate(estimateComparisonSelectivity(SKEWED, BIGINT, GREATER_THAN, 50L), 0.15);
+        assertEstimate(estimateComparisonSelectivity(SKEWED, BIGINT, GREATER_THAN, 100L), 0);
+    }
+
+    @Test
+    public void testNoDistribution()
+    {
+        assertFalse(estimateComparisonSelectivity(UNIFORM, BIGINT, EQUAL, 7L).isPresent());
+        assertFalse(estimateEquiJoinSelectivity(UNIFORM, UNIFORM).isPresent());
+    }
+
+    @Test
+    public void testEquiJoin()
+    {
+        // the most common values match each other, and the other values match one of the 60 other values
+        assertEstimate(estimateEquiJoinSelectivity(SKEWED, SKEWED), 0.3 * 0.3 + 0.6 * 0.6 / 60);
+
+        // the most common value of the skewed side matches 1% of the uniform side
+        assertEstimate(estimateEquiJoinSelectivity(SKEWED, UNIFORM), 0.3 * 0.01 + 0.6 * 1.0 / 100);
+    }
+
+    private static void assertEstimate(OptionalDouble actual, double expected)
+    {
+        assertEquals(actual.getAsDouble(), expected, 1e-9);
+    }
+}
@@ -144,6 +144,8 @@ public class MockQueryExecution
 
                         new DataSize(28, BYTE),
                         29,
+                        new DataSize(30, BYTE),
+                        ImmutableList.of(),
                         ImmutableList.of()),
                 ImmutableMap.of(),
                 ImmutableSet.of(),
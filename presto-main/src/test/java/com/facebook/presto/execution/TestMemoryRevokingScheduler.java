@@ -51,6 +51,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.facebook.presto.execution.MemoryRevokingScheduler.getRevocationScore;
 import static com.facebook.presto.execution.TaskTestUtils.createTestingPlanner;
 import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
 import static com.facebook.presto.memory.LocalMemoryManager.SYSTEM_POOL;
@@ -153,33 +154,57 @@ public class TestMemoryRevokingScheduler
         operatorContext4.setRevocableMemoryReservation(7);
         assertEquals(-6, memoryPool.getFreeBytes());
         requestMemoryRevoking(scheduler);
-        // we need to revoke 3 and 6
-        assertMemoryRevokingRequestedFor(operatorContext1, operatorContext3);
+        // we need to revoke 6 bytes, which the largest operator can free alone
+        assertMemoryRevokingRequestedFor(operatorContext4);
+        assertEquals(taskContext1.getMemoryRevocations().size(), 0);
+        assertEquals(taskContext2.getMemoryRevocations().size(), 1);
+        assertEquals(taskContext2.getMemoryRevocations().get(0).getRevokedDataSize(), new DataSize(7, BYTE));
+        assertEquals(taskContext2.getMemoryRevocations().get(0).getOperators(), 1);
 
         // yet another revoking request should not change anything
         requestMemoryRevoking(scheduler);
-        assertMemoryRevokingRequestedFor(operatorContext1, operatorContext3);
+        assertMemoryRevokingRequestedFor(operatorContext4);
+        assertEquals(taskContext2.getMemoryRevocations().size(), 1);
 
         // lets revoke some bytes
-        operatorContext1.setRevocableMemoryReservation(0);
-        operatorContext1.resetMemoryRevokingRequested();
+        operatorContext4.setRevocableMemoryReservation(0);
+        operatorContext4.resetMemoryRevokingRequested();
         requestMemoryRevoking(scheduler);
-        assertMemoryRevokingRequestedFor(operatorContext3);
-        assertEquals(-3, memoryPool.getFreeBytes());
+        assertMemoryRevokingNotRequested();
+        assertEquals(1, memoryPool.getFreeBytes());
 
         // and allocate some more
         operatorContext5.setRevocableMemoryReservation(3);
-        assertEquals(-6, memoryPool.getFreeBytes());
+        assertEquals(-2, memoryPool.getFreeBytes());
         requestMemoryRevoking(scheduler);
-        // we are still good with just OC3 in process of revoking
+        // OC3 is the largest remaining operator
         assertMemoryRevokingRequestedFor(operatorContext3);
 
         // and allocate some more
         operatorContext5.setRevocableMemoryReservation(4);
+        assertEquals(-3, memoryPool.getFreeBytes());
+        requestMemoryRevoking(scheduler);
+        // we are still good with just OC3 in process of revoking
+        assertMemoryRevokingRequestedFor(operatorContext3);
+
+        // and allocate some more
+        operatorContext2.setRevocableMemoryReservation(4);
         assertEquals(-7, memoryPool.getFreeBytes());
         requestMemoryRevoking(scheduler);
-        // no we have to trigger revoking for OC4
-        assertMemoryRevokingRequestedFor(operatorContext3, operatorContext4);
+        // OC2 and OC5 are equally large, but OC2 belongs to the older task
+        assertMemoryRevokingRequestedFor(operatorContext2, operatorContext3);
+        assertEquals(taskContext1.getMemoryRevocations().size(), 2);
+    }
+
+    @Test
+    public void testRevocationScore()
+    {
+        long megabyte = new DataSize(1, MEGABYTE).toBytes();
+        // larger operators amortize the fixed cost of spilling
+        assertTrue(getRevocationScore(2 * megabyte, 0) > getRevocationScore(megabyte, 0));
+        // operators that were already revoked are penalized
+        assertTrue(getRevocationScore(2 * megabyte, 1) < getRevocationScore(megabyte, 0));
+        assertTrue(getRevocationScore(megabyte, 1) > getRevocationScore(megabyte, 2));
     }
 
     @Test
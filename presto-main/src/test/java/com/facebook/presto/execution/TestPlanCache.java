@@ -0,0 +1,149 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.execution.PlanCache.PlanCacheKey;
+import com.facebook.presto.metadata.DummyMetadata;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.metadata.TableLayoutHandle;
+import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.facebook.presto.sql.parser.SqlParser;
+import com.facebook.presto.sql.planner.Plan;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.facebook.presto.sql.tree.Statement;
+import com.facebook.presto.testing.TestingMetadata.TestingTableHandle;
+import com.facebook.presto.testing.TestingTransactionHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.execution.PlanCache.dependsOnQueryTime;
+import static com.facebook.presto.execution.PlanCache.isInvalidatedBy;
+import static com.facebook.presto.spi.resourceGroups.QueryType.DATA_DEFINITION;
+import static com.facebook.presto.spi.resourceGroups.QueryType.INSERT;
+import static com.facebook.presto.spi.resourceGroups.QueryType.SELECT;
+import static com.facebook.presto.testing.TestingHandle.INSTANCE;
+import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestPlanCache
+{
+    private static final SqlParser SQL_PARSER = new SqlParser();
+    private static final Session SESSION = testSessionBuilder().build();
+    private static final ConnectorId CONNECTOR_ID = new ConnectorId("test");
+
+    @Test
+    public void testParseStatement()
+    {
+        PlanCache planCache = new PlanCache(new PlanCacheConfig().setEnabled(true));
+        assertSame(planCache.parseStatement(SQL_PARSER, "SELECT 1"), planCache.parseStatement(SQL_PARSER, "SELECT 1"));
+
+        PlanCache disabledPlanCache = new PlanCache(new PlanCacheConfig());
+        assertNotSame(disabledPlanCache.parseStatement(SQL_PARSER, "SELECT 1"), disabledPlanCache.parseStatement(SQL_PARSER, "SELECT 1"));
+    }
+
+    @Test
+    public void testCreateKey()
+    {
+        PlanCache planCache = new PlanCache(new PlanCacheConfig().setEnabled(true));
+        List<Expression> parameters = ImmutableList.of(new LongLiteral("1"));
+
+        // the key does not depend on the formatting of the statement
+        PlanCacheKey key = createKey(planCache, SESSION, "SELECT * FROM t WHERE a = ?", parameters);
+        assertEquals(createKey(planCache, SESSION, "select *\nfrom t\nwhere a = ?", parameters), key);
+
+        assertNotEquals(createKey(planCache, SESSION, "SELECT * FROM t WHERE a = ?", ImmutableList.of(new LongLiteral("2"))), key);
+        assertNotEquals(createKey(planCache, testSessionBuilder().setCatalog("other").build(), "SELECT * FROM t WHERE a = ?", parameters), key);
+        assertNotEquals(createKey(planCache, testSessionBuilder().setSystemProperty("optimize_hash_generation", "false").build(), "SELECT * FROM t WHERE a = ?", parameters), key);
+
+        // only queries that do not depend on the time they are run at are cached
+        assertFalse(planCache.createKey(SESSION, SQL_PARSER.createStatement("CREATE TABLE t AS SELECT 1 a"), ImmutableList.of()).isPresent());
+        assertFalse(planCache.createKey(SESSION, SQL_PARSER.createStatement("SELECT * FROM t WHERE d = current_date"), ImmutableList.of()).isPresent());
+
+        assertFalse(new PlanCache(new PlanCacheConfig()).createKey(SESSION, SQL_PARSER.createStatement("SELECT 1"), ImmutableList.of()).isPresent());
+    }
+
+    @Test
+    public void testDependsOnQueryTime()
+    {
+        assertTrue(dependsOnQueryTime(SQL_PARSER.createStatement("SELECT current_timestamp")));
+        assertTrue(dependsOnQueryTime(SQL_PARSER.createStatement("SELECT * FROM t WHERE ts > now() - INTERVAL '1' DAY")));
+        assertTrue(dependsOnQueryTime(SQL_PARSER.createStatement("SELECT * FROM t WHERE a IN (SELECT b FROM u WHERE ts < localtimestamp)")));
+        assertFalse(dependsOnQueryTime(SQL_PARSER.createStatement("SELECT date_trunc('day', ts) FROM t")));
+    }
+
+    @Test
+    public void testPlanReuse()
+    {
+        PlanCache planCache = new PlanCache(new PlanCacheConfig().setEnabled(true));
+        PlanCacheKey key = createKey(planCache, SESSION, "SELECT * FROM t", ImmutableList.of());
+        assertFalse(planCache.getPlan(key, connectorId -> TestingTransactionHandle.create()).isPresent());
+
+        PlanBuilder planBuilder = new PlanBuilder(new PlanNodeIdAllocator(), new DummyMetadata());
+        TableScanNode tableScan = planBuilder.tableScan(
+                new TableHandle(CONNECTOR_ID, new TestingTableHandle()),
+                ImmutableList.of(),
+                ImmutableMap.of(),
+                null,
+                Optional.of(new TableLayoutHandle(CONNECTOR_ID, TestingTransactionHandle.create(), INSTANCE)));
+        planCache.putPlan(key, new Plan(tableScan, ImmutableMap.of(), ImmutableMap.of()));
+
+        // the cached plan is bound to the transaction of the query using it
+        ConnectorTransactionHandle transactionHandle = TestingTransactionHandle.create();
+        Optional<Plan> plan = planCache.getPlan(key, connectorId -> transactionHandle);
+        assertTrue(plan.isPresent());
+        TableScanNode cachedTableScan = (TableScanNode) plan.get().getRoot();
+        assertEquals(cachedTableScan.getId(), tableScan.getId());
+        assertEquals(cachedTableScan.getLayout().get().getTransactionHandle(), transactionHandle);
+        assertEquals(cachedTableScan.getLayout().get().getConnectorHandle(), INSTANCE);
+        assertEquals(planCache.getHits().getTotalCount(), 1);
+        assertEquals(planCache.getMisses().getTotalCount(), 1);
+
+        // plans created before an invalidation are not cached
+        PlanCacheKey staleKey = createKey(planCache, SESSION, "SELECT * FROM t", ImmutableList.of());
+        planCache.invalidateAll();
+        assertFalse(planCache.getPlan(key, connectorId -> transactionHandle).isPresent());
+        planCache.putPlan(staleKey, new Plan(tableScan, ImmutableMap.of(), ImmutableMap.of()));
+        assertEquals(planCache.getSize(), 0);
+    }
+
+    @Test
+    public void testInvalidatedBy()
+    {
+        assertFalse(isInvalidatedBy(SQL_PARSER.createStatement("SELECT 1"), Optional.of(SELECT)));
+        assertFalse(isInvalidatedBy(SQL_PARSER.createStatement("SET SESSION optimize_hash_generation = true"), Optional.of(DATA_DEFINITION)));
+        assertTrue(isInvalidatedBy(SQL_PARSER.createStatement("INSERT INTO t SELECT 1"), Optional.of(INSERT)));
+        assertTrue(isInvalidatedBy(SQL_PARSER.createStatement("DROP TABLE t"), Optional.of(DATA_DEFINITION)));
+    }
+
+    private static PlanCacheKey createKey(PlanCache planCache, Session session, String sql, List<Expression> parameters)
+    {
+        Statement statement = SQL_PARSER.createStatement(sql);
+        return planCache.createKey(session, statement, parameters).get();
+    }
+}
@@ -45,7 +45,9 @@ public class TestQueryManagerConfig
                 .setQueryMaxRunTime(new Duration(100, TimeUnit.DAYS))
                 .setQueryMaxCpuTime(new Duration(1_000_000_000, TimeUnit.DAYS))
                 .setInitializationRequiredWorkers(1)
-                .setInitializationTimeout(new Duration(5, TimeUnit.MINUTES)));
+                .setInitializationTimeout(new Duration(5, TimeUnit.MINUTES))
+                .setMemoryAdmissionEnabled(false)
+                .setMemoryAdmissionHistorySize(10_000));
     }
 
     @Test
@@ -71,6 +73,8 @@ public class TestQueryManagerConfig
                 .put("query.max-cpu-time", "2d")
                 .put("query-manager.initialization-required-workers", "200")
                 .put("query-manager.initialization-timeout", "1m")
+                .put("query.memory-admission.enabled", "true")
+                .put("query.memory-admission.history-size", "500")
                 .build();
 
         QueryManagerConfig expected = new QueryManagerConfig()
@@ -92,7 +96,9 @@ public class TestQueryManagerConfig
                 .setQueryMaxRunTime(new Duration(2, TimeUnit.HOURS))
                 .setQueryMaxCpuTime(new Duration(2, TimeUnit.DAYS))
                 .setInitializationRequiredWorkers(200)
-                .setInitializationTimeout(new Duration(1, TimeUnit.MINUTES));
+                .setInitializationTimeout(new Duration(1, TimeUnit.MINUTES))
+                .setMemoryAdmissionEnabled(true)
+                .setMemoryAdmissionHistorySize(500);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -64,6 +64,8 @@ public class TestQueryStats
                     succinctBytes(1L),
                     succinctBytes(1L),
                     succinctBytes(1L),
+                    succinctBytes(1L),
+                    1L,
                     Optional.empty(),
                     null),
             new OperatorStats(
@@ -93,6 +95,8 @@ public class TestQueryStats
                     succinctBytes(1L),
                     succinctBytes(1L),
                     succinctBytes(1L),
+                    succinctBytes(1L),
+                    1L,
                     Optional.empty(),
                     null),
             new OperatorStats(
@@ -122,6 +126,8 @@ public class TestQueryStats
                     succinctBytes(1L),
                     succinctBytes(1L),
                     succinctBytes(1L),
+                    succinctBytes(1L),
+                    1L,
                     Optional.empty(),
                     null));
 
@@ -168,6 +174,10 @@ public class TestQueryStats
 
             new DataSize(28, BYTE),
             29,
+
+            new DataSize(30, BYTE),
+            ImmutableList.of(),
+
             operatorSummaries);
 
     @Test
@@ -225,6 +235,9 @@ public class TestQueryStats
         assertEquals(actual.getOutputDataSize(), new DataSize(28, BYTE));
         assertEquals(actual.getOutputPositions(), 29);
 
+        assertEquals(actual.getSpilledDataSize(), new DataSize(30, BYTE));
+        assertEquals(actual.getMemoryRevocations(), ImmutableList.of());
+
         assertEquals(400L, actual.getWrittenPositions());
         assertEquals(1500L, actual.getWrittenDataSize().toBytes());
     }
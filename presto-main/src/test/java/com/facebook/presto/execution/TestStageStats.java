@@ -66,6 +66,8 @@ public class TestStageStats
             new DataSize(23, BYTE),
             new DataSize(24, BYTE),
             25,
+            new DataSize(26, BYTE),
+            ImmutableList.of(),
             ImmutableList.of());
 
     @Test
@@ -115,6 +117,9 @@ public class TestStageStats
         assertEquals(actual.getBufferedDataSize(), new DataSize(23, BYTE));
         assertEquals(actual.getOutputDataSize(), new DataSize(24, BYTE));
         assertEquals(actual.getOutputPositions(), 25);
+
+        assertEquals(actual.getSpilledDataSize(), new DataSize(26, BYTE));
+        assertEquals(actual.getMemoryRevocations(), ImmutableList.of());
     }
 
     private static DistributionSnapshot getTestDistribution(int count)
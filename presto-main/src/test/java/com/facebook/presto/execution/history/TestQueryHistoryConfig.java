@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.history;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.Duration;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class TestQueryHistoryConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(QueryHistoryConfig.class)
+                .setEnabled(false)
+                .setFile(new File("var/query-history.json"))
+                .setMaxEntries(100_000)
+                .setFlushInterval(new Duration(1, MINUTES)));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("query-history.enabled", "true")
+                .put("query-history.file", "/tmp/history.json")
+                .put("query-history.max-entries", "500")
+                .put("query-history.flush-interval", "30s")
+                .build();
+
+        QueryHistoryConfig expected = new QueryHistoryConfig()
+                .setEnabled(true)
+                .setFile(new File("/tmp/history.json"))
+                .setMaxEntries(500)
+                .setFlushInterval(new Duration(30, SECONDS));
+
+        assertFullMapping(properties, expected);
+    }
+}
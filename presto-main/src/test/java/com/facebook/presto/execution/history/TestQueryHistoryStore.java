@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.history;
+
+import com.google.common.io.Files;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Optional;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TestQueryHistoryStore
+{
+    private final File directory = Files.createTempDir();
+
+    @AfterMethod
+    public void tearDown()
+            throws Exception
+    {
+        deleteRecursively(directory.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testMergeStatistics()
+    {
+        HistoricalPlanNodeStatistics merged = new HistoricalPlanNodeStatistics(100, 1000, 10, 50, 1)
+                .mergeWith(new HistoricalPlanNodeStatistics(300, 3000, 30, 150, 1));
+        assertEquals(merged, new HistoricalPlanNodeStatistics(200, 2000, 20, 100, 2));
+
+        // old executions are weighted as at most 10 executions
+        merged = new HistoricalPlanNodeStatistics(100, 100, 100, 100, 1000)
+                .mergeWith(new HistoricalPlanNodeStatistics(1200, 1200, 1200, 1200, 1));
+        assertEquals(merged, new HistoricalPlanNodeStatistics(200, 200, 200, 200, 1001));
+    }
+
+    @Test
+    public void testPersistence()
+            throws Exception
+    {
+        QueryHistoryConfig config = new QueryHistoryConfig()
+                .setEnabled(true)
+                .setFile(new File(directory, "history/query-history.json"));
+
+        QueryHistoryStore store = new QueryHistoryStore(config);
+        store.start();
+        store.record("a", new HistoricalPlanNodeStatistics(100, 1000, 10, 50, 1));
+        store.record("a", new HistoricalPlanNodeStatistics(300, 3000, 30, 150, 1));
+        store.record("b", new HistoricalPlanNodeStatistics(1, 2, 3, 4, 1));
+        store.stop();
+
+        QueryHistoryStore restarted = new QueryHistoryStore(config);
+        restarted.start();
+        assertEquals(restarted.getEntries(), 2);
+        assertEquals(restarted.getStatistics("a"), Optional.of(new HistoricalPlanNodeStatistics(200, 2000, 20, 100, 2)));
+        assertEquals(restarted.getStatistics("b"), Optional.of(new HistoricalPlanNodeStatistics(1, 2, 3, 4, 1)));
+        assertFalse(restarted.getStatistics("c").isPresent());
+        assertEquals(restarted.getHits().getTotalCount(), 2);
+        assertEquals(restarted.getMisses().getTotalCount(), 1);
+        restarted.stop();
+    }
+
+    @Test
+    public void testDisabled()
+            throws Exception
+    {
+        QueryHistoryStore store = new QueryHistoryStore(new QueryHistoryConfig()
+                .setFile(new File(directory, "query-history.json")));
+        store.start();
+        store.record("a", new HistoricalPlanNodeStatistics(1, 2, 3, 4, 1));
+        assertFalse(store.getStatistics("a").isPresent());
+        store.stop();
+        assertFalse(new File(directory, "query-history.json").exists());
+    }
+}
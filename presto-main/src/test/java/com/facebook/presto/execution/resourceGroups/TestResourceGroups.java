@@ -17,7 +17,9 @@ import com.facebook.presto.execution.MockQueryExecution;
 import com.facebook.presto.execution.resourceGroups.InternalResourceGroup.RootInternalResourceGroup;
 import com.facebook.presto.server.QueryStateInfo;
 import com.facebook.presto.server.ResourceGroupStateInfo;
+import com.facebook.presto.spi.memory.MemoryPoolInfo;
 import com.facebook.presto.spi.resourceGroups.ResourceGroupInfo;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
@@ -73,6 +75,41 @@ public class TestResourceGroups
         assertEquals(query3.getFailureCause().getMessage(), "Too many queued queries for \"root\"");
     }
 
+    @Test(timeOut = 10_000)
+    public void testMemoryAdmission()
+    {
+        MemoryAdmissionController memoryAdmissionController = new MemoryAdmissionController(true, 100);
+        memoryAdmissionController.updateClusterMemory(new MemoryPoolInfo(100, 0, 0, ImmutableMap.of(), ImmutableMap.of()));
+        memoryAdmissionController.recordPeakMemory("SELECT 1", 60);
+
+        RootInternalResourceGroup root = new RootInternalResourceGroup("root", (group, export) -> {}, directExecutor(), memoryAdmissionController);
+        root.setSoftMemoryLimit(new DataSize(1, MEGABYTE));
+        root.setMaxQueuedQueries(10);
+        root.setMaxRunningQueries(10);
+        MockQueryExecution query1 = new MockQueryExecution(0, "query_id1", 1);
+        root.run(query1);
+        assertEquals(query1.getState(), RUNNING);
+        assertEquals(memoryAdmissionController.getUnreservedPredictedBytes(), 60);
+
+        // the second execution is predicted to need more memory than is left unclaimed
+        MockQueryExecution query2 = new MockQueryExecution(0, "query_id2", 1);
+        root.run(query2);
+        assertEquals(query2.getState(), QUEUED);
+        root.processQueuedQueries();
+        assertEquals(query2.getState(), QUEUED);
+
+        query1.complete();
+        root.processQueuedQueries();
+        assertEquals(query2.getState(), RUNNING);
+    }
+
+    @Test
+    public void testNormalizeQuery()
+    {
+        assertEquals(MemoryAdmissionController.normalizeQuery("SELECT *\n  FROM t WHERE x = 'it''s' AND y > 1.5e3"), "select * from t where x = ? and y > ?");
+        assertEquals(MemoryAdmissionController.normalizeQuery("select * from t1 where x = 10"), "select * from t1 where x = ?");
+    }
+
     @Test(timeOut = 10_000)
     public void testFairEligibility()
     {
@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.memory.LowMemoryKiller.QueryMemoryInfo;
+import com.facebook.presto.spi.QueryId;
+import com.facebook.presto.spi.memory.MemoryPoolInfo;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
+import static com.facebook.presto.memory.LocalMemoryManager.RESERVED_POOL;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static org.testng.Assert.assertEquals;
+
+public class TestLowMemoryKillers
+{
+    private static final QueryId SMALL = new QueryId("small");
+    private static final QueryId LARGE = new QueryId("large");
+    private static final QueryId RESERVED = new QueryId("reserved");
+
+    // LARGE holds most of its memory on an unblocked node, SMALL holds a lot of
+    // revocable memory on the blocked node, and RESERVED is in the reserved pool
+    private static final List<QueryMemoryInfo> QUERIES = ImmutableList.of(
+            new QueryMemoryInfo(SMALL, GENERAL_POOL, 60, 5),
+            new QueryMemoryInfo(LARGE, GENERAL_POOL, 110, 5),
+            new QueryMemoryInfo(RESERVED, RESERVED_POOL, 500, 1));
+
+    private static final List<MemoryInfo> NODES = ImmutableList.of(
+            node(100, 0, ImmutableMap.of(SMALL, 10L, LARGE, 30L), ImmutableMap.of(SMALL, 50L)),
+            node(100, 80, ImmutableMap.of(LARGE, 80L), ImmutableMap.of()));
+
+    @Test
+    public void testTotalReservation()
+    {
+        assertEquals(new TotalReservationLowMemoryKiller().chooseQueryToKill(QUERIES, NODES), Optional.of(LARGE));
+    }
+
+    @Test
+    public void testTotalReservationOnBlockedNodes()
+    {
+        assertEquals(new TotalReservationOnBlockedNodesLowMemoryKiller().chooseQueryToKill(QUERIES, NODES), Optional.of(SMALL));
+    }
+
+    @Test
+    public void testRevocableFirst()
+    {
+        assertEquals(new RevocableFirstLowMemoryKiller().chooseQueryToKill(QUERIES, NODES), Optional.of(LARGE));
+
+        // nothing is killed while only revocable memory is held on the blocked nodes
+        List<MemoryInfo> nodes = ImmutableList.of(node(100, 0, ImmutableMap.of(), ImmutableMap.of(SMALL, 50L)));
+        assertEquals(new RevocableFirstLowMemoryKiller().chooseQueryToKill(QUERIES, nodes), Optional.empty());
+    }
+
+    @Test
+    public void testQueryPriority()
+    {
+        List<QueryMemoryInfo> queries = ImmutableList.of(
+                new QueryMemoryInfo(SMALL, GENERAL_POOL, 60, 1),
+                new QueryMemoryInfo(LARGE, GENERAL_POOL, 110, 5),
+                new QueryMemoryInfo(RESERVED, RESERVED_POOL, 500, 1));
+        assertEquals(new QueryPriorityLowMemoryKiller().chooseQueryToKill(queries, NODES), Optional.of(SMALL));
+
+        // same priority falls back to the largest reservation
+        assertEquals(new QueryPriorityLowMemoryKiller().chooseQueryToKill(QUERIES, NODES), Optional.of(LARGE));
+    }
+
+    @Test
+    public void testNoQueries()
+    {
+        for (LowMemoryKiller killer : ImmutableList.of(
+                new TotalReservationLowMemoryKiller(),
+                new TotalReservationOnBlockedNodesLowMemoryKiller(),
+                new RevocableFirstLowMemoryKiller(),
+                new QueryPriorityLowMemoryKiller())) {
+            assertEquals(killer.chooseQueryToKill(ImmutableList.of(), NODES), Optional.empty());
+        }
+    }
+
+    private static MemoryInfo node(long maxBytes, long freeBytes, Map<QueryId, Long> reservations, Map<QueryId, Long> revocableReservations)
+    {
+        long revocableBytes = revocableReservations.values().stream().mapToLong(Long::longValue).sum();
+        MemoryPoolInfo generalPool = new MemoryPoolInfo(maxBytes, maxBytes - freeBytes - revocableBytes, revocableBytes, reservations, revocableReservations);
+        return new MemoryInfo(new DataSize(maxBytes, BYTE), ImmutableMap.of(GENERAL_POOL, generalPool));
+    }
+}
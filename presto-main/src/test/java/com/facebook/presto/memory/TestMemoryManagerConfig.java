@@ -21,6 +21,8 @@ import org.testng.annotations.Test;
 
 import java.util.Map;
 
+import static com.facebook.presto.memory.MemoryManagerConfig.QUERY_PRIORITY;
+import static com.facebook.presto.memory.MemoryManagerConfig.TOTAL_RESERVATION;
 import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
 import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
@@ -35,6 +37,8 @@ public class TestMemoryManagerConfig
         assertRecordedDefaults(ConfigAssertions.recordDefaults(MemoryManagerConfig.class)
                 .setKillOnOutOfMemory(false)
                 .setKillOnOutOfMemoryDelay(new Duration(5, MINUTES))
+                .setLowMemoryKillerPolicy(TOTAL_RESERVATION)
+                .setLowMemoryKillerDryRun(false)
                 .setMaxQueryMemory(new DataSize(20, GIGABYTE)));
     }
 
@@ -44,12 +48,16 @@ public class TestMemoryManagerConfig
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("query.low-memory-killer.enabled", "true")
                 .put("query.low-memory-killer.delay", "20s")
+                .put("query.low-memory-killer.policy", "query-priority")
+                .put("query.low-memory-killer.dry-run", "true")
                 .put("query.max-memory", "2GB")
                 .build();
 
         MemoryManagerConfig expected = new MemoryManagerConfig()
                 .setKillOnOutOfMemory(true)
                 .setKillOnOutOfMemoryDelay(new Duration(20, SECONDS))
+                .setLowMemoryKillerPolicy(QUERY_PRIORITY)
+                .setLowMemoryKillerDryRun(true)
                 .setMaxQueryMemory(new DataSize(2, GIGABYTE));
 
         assertFullMapping(properties, expected);
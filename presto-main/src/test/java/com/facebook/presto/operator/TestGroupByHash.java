@@ -18,6 +18,7 @@ import com.facebook.presto.block.BlockAssertions;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.gen.JoinCompiler;
 import com.facebook.presto.testing.TestingSession;
 import com.facebook.presto.type.TypeUtils;
@@ -233,4 +234,24 @@ public class TestGroupByHash
             assertTrue(groupByHash.contains(i, new Page(valuesBlock, hashBlock), CONTAINS_CHANNELS));
         }
     }
+
+    @Test
+    public void testRehashCount()
+            throws Exception
+    {
+        for (List<Type> types : ImmutableList.of(ImmutableList.<Type>of(BIGINT), ImmutableList.<Type>of(VARCHAR))) {
+            Block valuesBlock = types.get(0).equals(BIGINT) ? createLongSequenceBlock(0, 1000) : BlockAssertions.createStringSequenceBlock(0, 1000);
+            Page page = new Page(valuesBlock, getHashBlock(types, valuesBlock));
+
+            GroupByHash undersizedGroupByHash = createGroupByHash(TEST_SESSION, types, new int[] {0}, Optional.of(1), 100, JOIN_COMPILER);
+            undersizedGroupByHash.addPage(page);
+            assertTrue(undersizedGroupByHash.getRehashCount() > 0);
+
+            // a hash created for the expected number of groups is never grown
+            GroupByHash presizedGroupByHash = createGroupByHash(TEST_SESSION, types, new int[] {0}, Optional.of(1), 1000, JOIN_COMPILER);
+            presizedGroupByHash.addPage(page);
+            assertEquals(presizedGroupByHash.getRehashCount(), 0);
+            assertEquals(presizedGroupByHash.getGroupCount(), 1000);
+        }
+    }
 }
@@ -58,6 +58,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -69,6 +70,7 @@ import java.util.stream.IntStream;
 
 import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.block.BlockAssertions.createLongsBlock;
 import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEquals;
 import static com.facebook.presto.operator.OperatorAssertion.dropChannel;
 import static com.facebook.presto.operator.OperatorAssertion.without;
@@ -212,7 +214,8 @@ public class TestHashJoinOperator
                 getHashChannelAsInt(probePages),
                 Optional.empty(),
                 OptionalInt.of(1),
-                PARTITIONING_SPILLER_FACTORY);
+                PARTITIONING_SPILLER_FACTORY,
+                ImmutableSet.of());
 
         Operator operator = joinOperatorFactory.createOperator(driverContext);
         assertTrue(operator.needsInput());
@@ -241,6 +244,53 @@ public class TestHashJoinOperator
         assertEquals(output.getPositionCount(), entries);
     }
 
+    @Test
+    public void testHotKeyProbes()
+            throws Exception
+    {
+        TaskContext taskContext = createTaskContext();
+        DriverContext driverContext = taskContext.addPipelineContext(0, true, true).addDriverContext();
+
+        RowPagesBuilder buildPages = rowPagesBuilder(true, Ints.asList(0), ImmutableList.of(BIGINT))
+                .addSequencePage(10, 20);
+        LookupSourceFactory lookupSourceFactory = buildHash(true, taskContext, Ints.asList(0), buildPages, Optional.empty());
+
+        // values 20 and 25 are hot, and each is probed twice
+        RowPagesBuilder probePages = rowPagesBuilder(true, Ints.asList(0), ImmutableList.of(BIGINT));
+        List<Page> probeInput = probePages
+                .addSequencePage(100, 0)
+                .row(20L)
+                .row(25L)
+                .build();
+        HashGenerator hashGenerator = new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0});
+        Set<Long> hotKeyHashes = ImmutableSet.of(
+                hashGenerator.hashPosition(0, new Page(createLongsBlock(20L))),
+                hashGenerator.hashPosition(0, new Page(createLongsBlock(25L))));
+        OperatorFactory joinOperatorFactory = LOOKUP_JOIN_OPERATORS.innerJoin(
+                0,
+                new PlanNodeId("test"),
+                lookupSourceFactory,
+                probePages.getTypes(),
+                Ints.asList(0),
+                getHashChannelAsInt(probePages),
+                Optional.empty(),
+                OptionalInt.of(1),
+                PARTITIONING_SPILLER_FACTORY,
+                hotKeyHashes);
+
+        MaterializedResult expected = MaterializedResult.resultBuilder(taskContext.getSession(), concat(probePages.getTypesWithoutHash(), buildPages.getTypesWithoutHash()))
+                .rows(IntStream.range(20, 30)
+                        .mapToObj(value -> new Object[] {(long) value, (long) value})
+                        .toArray(Object[][]::new))
+                .row(20L, 20L)
+                .row(25L, 25L)
+                .build();
+        assertOperatorEquals(joinOperatorFactory, driverContext, probeInput, expected, true, getHashChannels(probePages, buildPages));
+
+        JoinOperatorInfo info = (JoinOperatorInfo) driverContext.getOperatorContexts().get(0).getOperatorStats().getInfo();
+        assertEquals(info.getHotKeyProbePositions(), 4);
+    }
+
     private enum WhenSpill
     {
         DURING_BUILD, AFTER_BUILD, DURING_USAGE, NEVER
@@ -994,7 +1044,8 @@ public class TestHashJoinOperator
                 getHashChannelAsInt(probePages),
                 Optional.empty(),
                 OptionalInt.of(1),
-                PARTITIONING_SPILLER_FACTORY);
+                PARTITIONING_SPILLER_FACTORY,
+                ImmutableSet.of());
     }
 
     private OperatorFactory innerJoinOperatorFactory(LookupSourceFactory lookupSourceFactory, RowPagesBuilder probePages, PartitioningSpillerFactory partitioningSpillerFactory)
@@ -1008,7 +1059,8 @@ public class TestHashJoinOperator
                 getHashChannelAsInt(probePages),
                 Optional.empty(),
                 OptionalInt.of(1),
-                partitioningSpillerFactory);
+                partitioningSpillerFactory,
+                ImmutableSet.of());
     }
 
     private LookupSourceFactory buildHash(
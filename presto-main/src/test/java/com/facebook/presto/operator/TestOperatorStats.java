@@ -29,7 +29,7 @@ import static org.testng.Assert.assertEquals;
 public class TestOperatorStats
 {
     private static final SplitOperatorInfo NON_MERGEABLE_INFO = new SplitOperatorInfo("some_info");
-    private static final PartitionedOutputInfo MERGEABLE_INFO = new PartitionedOutputInfo(1, 2);
+    private static final PartitionedOutputInfo MERGEABLE_INFO = new PartitionedOutputInfo(1, 2, 3);
 
     public static final OperatorStats EXPECTED = new OperatorStats(
             1,
@@ -64,6 +64,8 @@ public class TestOperatorStats
             new DataSize(20, BYTE),
             new DataSize(21, BYTE),
             new DataSize(22, BYTE),
+            new DataSize(23, BYTE),
+            24,
             Optional.empty(),
             NON_MERGEABLE_INFO);
 
@@ -100,6 +102,8 @@ public class TestOperatorStats
             new DataSize(20, BYTE),
             new DataSize(21, BYTE),
             new DataSize(22, BYTE),
+            new DataSize(23, BYTE),
+            24,
             Optional.empty(),
             MERGEABLE_INFO);
 
@@ -145,6 +149,8 @@ public class TestOperatorStats
         assertEquals(actual.getMemoryReservation(), new DataSize(20, BYTE));
         assertEquals(actual.getRevocableMemoryReservation(), new DataSize(21, BYTE));
         assertEquals(actual.getSystemMemoryReservation(), new DataSize(22, BYTE));
+        assertEquals(actual.getPeakMemoryReservation(), new DataSize(23, BYTE));
+        assertEquals(actual.getRehashCount(), 24);
         assertEquals(actual.getInfo().getClass(), SplitOperatorInfo.class);
         assertEquals(((SplitOperatorInfo) actual.getInfo()).getSplitInfo(), NON_MERGEABLE_INFO.getSplitInfo());
     }
@@ -182,6 +188,8 @@ public class TestOperatorStats
         assertEquals(actual.getMemoryReservation(), new DataSize(3 * 20, BYTE));
         assertEquals(actual.getRevocableMemoryReservation(), new DataSize(3 * 21, BYTE));
         assertEquals(actual.getSystemMemoryReservation(), new DataSize(3 * 22, BYTE));
+        assertEquals(actual.getPeakMemoryReservation(), new DataSize(3 * 23, BYTE));
+        assertEquals(actual.getRehashCount(), 3 * 24);
         assertEquals(actual.getInfo(), null);
     }
 
@@ -218,6 +226,8 @@ public class TestOperatorStats
         assertEquals(actual.getMemoryReservation(), new DataSize(3 * 20, BYTE));
         assertEquals(actual.getRevocableMemoryReservation(), new DataSize(3 * 21, BYTE));
         assertEquals(actual.getSystemMemoryReservation(), new DataSize(3 * 22, BYTE));
+        assertEquals(actual.getPeakMemoryReservation(), new DataSize(3 * 23, BYTE));
+        assertEquals(actual.getRehashCount(), 3 * 24);
         assertEquals(actual.getInfo().getClass(), PartitionedOutputInfo.class);
         assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPagesAdded(), 3 * MERGEABLE_INFO.getPagesAdded());
     }
@@ -0,0 +1,274 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.OutputBuffers;
+import com.facebook.presto.OutputBuffers.OutputBufferId;
+import com.facebook.presto.execution.StateMachine.StateChangeListener;
+import com.facebook.presto.execution.buffer.BufferResult;
+import com.facebook.presto.execution.buffer.BufferState;
+import com.facebook.presto.execution.buffer.OutputBuffer;
+import com.facebook.presto.execution.buffer.OutputBufferInfo;
+import com.facebook.presto.execution.buffer.PagesSerde;
+import com.facebook.presto.execution.buffer.SerializedPage;
+import com.facebook.presto.execution.buffer.TestingPagesSerdeFactory;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.predicate.NullableValue;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.block.BlockAssertions.createLongsBlock;
+import static com.facebook.presto.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class TestPartitionedOutputOperator
+{
+    private static final int PARTITION_COUNT = 4;
+    private static final int COLD_KEY_COUNT = 20;
+    private static final long HOT_KEY = 42;
+    private static final int HOT_KEY_ROW_COUNT = 100;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-executor-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testHotKeysAreSpread()
+    {
+        TestingOutputBuffer outputBuffer = partitionKeys(false);
+
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            List<Long> keys = outputBuffer.getKeys(partition);
+            assertEquals(keys.stream().filter(key -> key == HOT_KEY).count(), HOT_KEY_ROW_COUNT / PARTITION_COUNT);
+            assertColdKeys(keys, partition);
+        }
+    }
+
+    @Test
+    public void testHotKeysAreReplicated()
+    {
+        TestingOutputBuffer outputBuffer = partitionKeys(true);
+
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            List<Long> keys = outputBuffer.getKeys(partition);
+            assertEquals(keys.stream().filter(key -> key == HOT_KEY).count(), HOT_KEY_ROW_COUNT);
+            assertColdKeys(keys, partition);
+        }
+    }
+
+    private TestingOutputBuffer partitionKeys(boolean replicateHotKeys)
+    {
+        DriverContext driverContext = createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                .addPipelineContext(0, true, true)
+                .addDriverContext();
+
+        // hot keys are recognized by the raw hash of the key, as computed by the planner
+        HashGenerator hashGenerator = new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0});
+        HotKeyFilter hotKeyFilter = new HotKeyFilter(hashGenerator, ImmutableSet.of(hashGenerator.hashPosition(0, new Page(createLongsBlock(HOT_KEY)))));
+
+        TestingOutputBuffer outputBuffer = new TestingOutputBuffer();
+        PartitionedOutputOperator operator = new PartitionedOutputOperator(
+                driverContext.addOperatorContext(0, new PlanNodeId("test"), PartitionedOutputOperator.class.getSimpleName()),
+                ImmutableList.of(BIGINT),
+                Function.identity(),
+                new ModuloPartitionFunction(),
+                ImmutableList.of(0),
+                ImmutableList.of(Optional.<NullableValue>empty()),
+                false,
+                OptionalInt.empty(),
+                Optional.of(hotKeyFilter),
+                replicateHotKeys,
+                outputBuffer,
+                new TestingPagesSerdeFactory(),
+                new DataSize(1, MEGABYTE));
+
+        List<Long> keys = new ArrayList<>();
+        for (long key = 0; key < COLD_KEY_COUNT; key++) {
+            keys.add(key);
+        }
+        for (int i = 0; i < HOT_KEY_ROW_COUNT; i++) {
+            keys.add(HOT_KEY);
+        }
+        operator.addInput(new Page(createLongsBlock(keys)));
+        operator.finish();
+
+        assertTrue(operator.isFinished());
+        assertEquals(operator.getInfo().getHotKeyRowsAdded(), HOT_KEY_ROW_COUNT);
+        return outputBuffer;
+    }
+
+    // cold keys are still sent to the single partition they hash to
+    private static void assertColdKeys(List<Long> keys, int partition)
+    {
+        List<Long> expected = LongStream.range(0, COLD_KEY_COUNT)
+                .filter(key -> key % PARTITION_COUNT == partition)
+                .boxed()
+                .collect(toImmutableList());
+        assertEquals(keys.stream().filter(key -> key != HOT_KEY).collect(toImmutableList()), expected);
+    }
+
+    private static class ModuloPartitionFunction
+            implements PartitionFunction
+    {
+        @Override
+        public int getPartitionCount()
+        {
+            return PARTITION_COUNT;
+        }
+
+        @Override
+        public int getPartition(Page page, int position)
+        {
+            return toIntExact(BIGINT.getLong(page.getBlock(0), position) % PARTITION_COUNT);
+        }
+    }
+
+    private static class TestingOutputBuffer
+            implements OutputBuffer
+    {
+        private final PagesSerde serde = testingPagesSerde();
+        private final List<List<Long>> keys = new ArrayList<>();
+
+        public TestingOutputBuffer()
+        {
+            for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+                keys.add(new ArrayList<>());
+            }
+        }
+
+        public List<Long> getKeys(int partition)
+        {
+            return keys.get(partition);
+        }
+
+        @Override
+        public ListenableFuture<?> enqueue(int partition, List<SerializedPage> pages)
+        {
+            for (SerializedPage serializedPage : pages) {
+                Block block = serde.deserialize(serializedPage).getBlock(0);
+                for (int position = 0; position < block.getPositionCount(); position++) {
+                    keys.get(partition).add(BIGINT.getLong(block, position));
+                }
+            }
+            return Futures.immediateFuture(null);
+        }
+
+        @Override
+        public ListenableFuture<?> enqueue(List<SerializedPage> pages)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OutputBufferInfo getInfo()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isFinished()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public double getUtilization()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addStateChangeListener(StateChangeListener<BufferState> stateChangeListener)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setOutputBuffers(OutputBuffers newOutputBuffers)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ListenableFuture<BufferResult> get(OutputBufferId bufferId, long token, DataSize maxSize)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void abort(OutputBufferId bufferId)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setNoMorePages()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void destroy()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void fail()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
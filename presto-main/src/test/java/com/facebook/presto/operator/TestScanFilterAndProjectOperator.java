@@ -16,6 +16,7 @@ package com.facebook.presto.operator;
 import com.facebook.presto.SequencePageBuilder;
 import com.facebook.presto.block.BlockAssertions;
 import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.memory.MemoryPool;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.MetadataManager;
 import com.facebook.presto.metadata.Signature;
@@ -28,11 +29,14 @@ import com.facebook.presto.operator.project.TestPageProcessor.LazyPagePageProjec
 import com.facebook.presto.operator.project.TestPageProcessor.SelectAllFilter;
 import com.facebook.presto.operator.scalar.AbstractTestFunctions;
 import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.FixedPageSource;
+import com.facebook.presto.spi.HostAddress;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.RecordPageSource;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.LazyBlock;
+import com.facebook.presto.spi.memory.MemoryPoolId;
 import com.facebook.presto.sql.gen.ExpressionCompiler;
 import com.facebook.presto.sql.gen.PageFunctionCompiler;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
@@ -41,12 +45,14 @@ import com.facebook.presto.testing.MaterializedResult;
 import com.facebook.presto.testing.TestingSplit;
 import com.facebook.presto.testing.TestingTransactionHandle;
 import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
 import org.testng.annotations.Test;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
@@ -61,6 +67,7 @@ import static com.facebook.presto.sql.relational.Expressions.field;
 import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
 import static com.facebook.presto.testing.assertions.Assert.assertEquals;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -298,6 +305,55 @@ public class TestScanFilterAndProjectOperator
         assertEquals(toValues(BIGINT, output.getBlock(0)), toValues(BIGINT, input.getBlock(0)));
     }
 
+    @Test
+    public void testSplitResultCache()
+            throws Exception
+    {
+        Page input = SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 100, 0);
+        List<RowExpression> projections = ImmutableList.of(field(0, BIGINT));
+        SplitResultCache splitResultCache = new SplitResultCache(new SplitResultCacheConfig(), new MemoryPool(new MemoryPoolId("test"), new DataSize(1, GIGABYTE)));
+        AtomicInteger pageSourcesCreated = new AtomicInteger();
+
+        ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory factory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                new PlanNodeId("0"),
+                (session, split, columns) -> {
+                    pageSourcesCreated.incrementAndGet();
+                    return new FixedPageSource(ImmutableList.of(input));
+                },
+                expressionCompiler.compileCursorProcessor(Optional.empty(), projections, "key"),
+                expressionCompiler.compilePageProcessor(Optional.empty(), projections),
+                ImmutableList.of(),
+                ImmutableList.of(BIGINT),
+                Optional.of(splitResultCache.forScan(ImmutableList.of(), Optional.empty(), projections, TEST_SESSION.getTimeZoneKey())));
+        MaterializedResult expected = toMaterializedResult(TEST_SESSION, ImmutableList.of(BIGINT), ImmutableList.of(input));
+
+        // an operator that is finished before its split is exhausted does not populate the cache
+        SourceOperator operator = factory.createOperator(newDriverContext());
+        operator.addSplit(new Split(new ConnectorId("test"), TestingTransactionHandle.create(), new CacheableSplit()));
+        operator.noMoreSplits();
+        operator.finish();
+        assertEquals(splitResultCache.getEntryCount(), 0);
+
+        for (int i = 0; i < 2; i++) {
+            operator = factory.createOperator(newDriverContext());
+            operator.addSplit(new Split(new ConnectorId("test"), TestingTransactionHandle.create(), new CacheableSplit()));
+            operator.noMoreSplits();
+            assertEquals(toMaterializedResult(TEST_SESSION, ImmutableList.of(BIGINT), toPages(operator)), expected);
+            operator.close();
+        }
+
+        // the second scan is served from the cache
+        assertEquals(pageSourcesCreated.get(), 1);
+        assertEquals(splitResultCache.getEntryCount(), 1);
+        assertEquals(splitResultCache.getHitCount(), 1);
+        assertTrue(splitResultCache.getReservedBytes() > 0);
+
+        splitResultCache.flushCache();
+        assertEquals(splitResultCache.getReservedBytes(), 0);
+    }
+
     private static List<Page> toPages(Operator operator)
     {
         ImmutableList.Builder<Page> outputPages = ImmutableList.builder();
@@ -327,6 +383,34 @@ public class TestScanFilterAndProjectOperator
                 .addDriverContext();
     }
 
+    private static class CacheableSplit
+            implements ConnectorSplit
+    {
+        @Override
+        public boolean isRemotelyAccessible()
+        {
+            return true;
+        }
+
+        @Override
+        public List<HostAddress> getAddresses()
+        {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public Object getInfo()
+        {
+            return this;
+        }
+
+        @Override
+        public Optional<Object> getCacheIdentifier()
+        {
+            return Optional.of("cacheable");
+        }
+    }
+
     public class SinglePagePageSource
             implements ConnectorPageSource
     {
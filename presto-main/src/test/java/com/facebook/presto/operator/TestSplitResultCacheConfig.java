@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit;
+
+public class TestSplitResultCacheConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(SplitResultCacheConfig.class)
+                .setMaxSize(new DataSize(1, Unit.GIGABYTE))
+                .setMaxEntrySize(new DataSize(16, Unit.MEGABYTE))
+                .setTtl(new Duration(1, TimeUnit.HOURS)));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("split-result-cache.max-size", "4GB")
+                .put("split-result-cache.max-entry-size", "1MB")
+                .put("split-result-cache.ttl", "10m")
+                .build();
+
+        SplitResultCacheConfig expected = new SplitResultCacheConfig()
+                .setMaxSize(new DataSize(4, Unit.GIGABYTE))
+                .setMaxEntrySize(new DataSize(1, Unit.MEGABYTE))
+                .setTtl(new Duration(10, TimeUnit.MINUTES));
+
+        assertFullMapping(properties, expected);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.operator.StatisticsWriterOperator.StatisticsWriterOperatorFactory;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.statistics.ComputedColumnStatistics;
+import com.facebook.presto.spi.statistics.ComputedStatistics;
+import com.facebook.presto.spi.type.ArrayType;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode.ColumnStatisticsDescriptor;
+import com.facebook.presto.sql.planner.plan.StatisticsWriterNode.StatisticsDescriptor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestStatisticsWriterOperator
+{
+    private static final List<Type> SOURCE_TYPES = ImmutableList.of(VARCHAR, BIGINT, BIGINT, BIGINT, BIGINT, BIGINT, new ArrayType(DOUBLE));
+    private static final StatisticsDescriptor<Integer> DESCRIPTOR = new StatisticsDescriptor<>(
+            ImmutableMap.of("ds", 0),
+            1,
+            ImmutableMap.of("x", new ColumnStatisticsDescriptor<>(2, Optional.of(3), Optional.of(4), Optional.of(5), Optional.empty(), Optional.of(6))));
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-executor-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testWriteStatistics()
+    {
+        List<ComputedStatistics> written = new ArrayList<>();
+        StatisticsWriterOperatorFactory factory = new StatisticsWriterOperatorFactory(0, new PlanNodeId("test"), written::addAll, DESCRIPTOR, SOURCE_TYPES);
+        Operator operator = factory.createOperator(createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                .addPipelineContext(0, true, true)
+                .addDriverContext());
+
+        for (Page page : rowPagesBuilder(SOURCE_TYPES)
+                .row("p1", 10, 8, 5, -3, 42, ImmutableList.of(-3.0, 1.5, 42.0))
+                .row(null, 4, 0, 0, null, null, null)
+                .build()) {
+            operator.addInput(page);
+        }
+        assertNull(operator.getOutput());
+        assertTrue(written.isEmpty());
+
+        operator.finish();
+        assertPageEquals(operator.getTypes(), operator.getOutput(), rowPagesBuilder(BIGINT).row(14).build().get(0));
+        assertTrue(operator.isFinished());
+        assertFalse(operator.needsInput());
+
+        assertEquals(written.size(), 2);
+        ComputedStatistics first = written.get(0);
+        assertEquals(first.getGroupingColumns(), ImmutableList.of("ds"));
+        assertEquals(first.getGroupingValues(), ImmutableList.of(utf8Slice("p1")));
+        assertEquals(first.getRowCount(), 10);
+        ComputedColumnStatistics column = first.getColumnStatistics().get("x");
+        assertEquals(column.getNullsCount(), 2);
+        assertEquals(column.getDistinctValuesCount(), OptionalLong.of(5));
+        assertEquals(column.getMin(), Optional.of(-3L));
+        assertEquals(column.getMax(), Optional.of(42L));
+        assertEquals(column.getDataSize(), OptionalLong.empty());
+        assertEquals(column.getQuantiles(), Optional.of(ImmutableList.of(-3.0, 1.5, 42.0)));
+
+        ComputedStatistics second = written.get(1);
+        assertEquals(second.getGroupingValues().size(), 1);
+        assertNull(second.getGroupingValues().get(0));
+        assertEquals(second.getColumnStatistics().get("x").getNullsCount(), 4);
+        assertEquals(second.getColumnStatistics().get("x").getMin(), Optional.empty());
+        assertEquals(second.getColumnStatistics().get("x").getQuantiles(), Optional.empty());
+    }
+}
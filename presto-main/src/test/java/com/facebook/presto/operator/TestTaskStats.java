@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.presto.execution.TaskId;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.json.JsonCodec;
@@ -66,6 +67,9 @@ public class TestTaskStats
             new DataSize(23, BYTE),
             24,
 
+            new DataSize(25, BYTE),
+            ImmutableList.of(new MemoryRevocation(new TaskId("query", 1, 2), new DateTime(26), new DataSize(27, BYTE), 28)),
+
             ImmutableList.of(TestPipelineStats.EXPECTED));
 
     @Test
@@ -116,6 +120,14 @@ public class TestTaskStats
         assertEquals(actual.getOutputDataSize(), new DataSize(23, BYTE));
         assertEquals(actual.getOutputPositions(), 24);
 
+        assertEquals(actual.getSpilledDataSize(), new DataSize(25, BYTE));
+        assertEquals(actual.getMemoryRevocations().size(), 1);
+        MemoryRevocation memoryRevocation = actual.getMemoryRevocations().get(0);
+        assertEquals(memoryRevocation.getTaskId(), new TaskId("query", 1, 2));
+        assertEquals(memoryRevocation.getTime(), new DateTime(26, UTC));
+        assertEquals(memoryRevocation.getRevokedDataSize(), new DataSize(27, BYTE));
+        assertEquals(memoryRevocation.getOperators(), 28);
+
         assertEquals(actual.getPipelines().size(), 1);
         assertExpectedPipelineStats(actual.getPipelines().get(0));
     }
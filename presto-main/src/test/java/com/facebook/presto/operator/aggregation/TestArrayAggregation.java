@@ -15,12 +15,18 @@ package com.facebook.presto.operator.aggregation;
 
 import com.facebook.presto.metadata.MetadataManager;
 import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.operator.aggregation.state.ArrayAggregationState;
+import com.facebook.presto.operator.aggregation.state.ArrayAggregationStateFactory;
+import com.facebook.presto.spi.function.GroupedAccumulatorState;
 import com.facebook.presto.spi.type.SqlDate;
 import com.facebook.presto.spi.type.StandardTypes;
 import com.google.common.collect.ImmutableList;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
 
 import static com.facebook.presto.block.BlockAssertions.createArrayBigintBlock;
 import static com.facebook.presto.block.BlockAssertions.createBooleansBlock;
@@ -29,8 +35,12 @@ import static com.facebook.presto.block.BlockAssertions.createStringsBlock;
 import static com.facebook.presto.block.BlockAssertions.createTypedLongsBlock;
 import static com.facebook.presto.metadata.FunctionKind.AGGREGATE;
 import static com.facebook.presto.operator.aggregation.AggregationTestUtils.assertAggregation;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestArrayAggregation
 {
@@ -132,4 +142,33 @@ public class TestArrayAggregation
                 Arrays.asList(Arrays.asList(1L), Arrays.asList(1L, 2L), Arrays.asList(1L, 2L, 3L)),
                 createArrayBigintBlock(ImmutableList.of(ImmutableList.of(1L), ImmutableList.of(1L, 2L), ImmutableList.of(1L, 2L, 3L))));
     }
+
+    @Test
+    public void testGroupedState()
+    {
+        ArrayAggregationState state = new ArrayAggregationStateFactory(BIGINT).createGroupedState();
+        int groups = 100;
+        ((GroupedAccumulatorState) state).ensureCapacity(groups);
+        long initialSize = state.getEstimatedSize();
+
+        // interleave the groups, and add enough values for them to span several shared blocks
+        for (int value = 0; value < 3000; value++) {
+            for (int group = 0; group < groups; group++) {
+                if (value < group * 30) {
+                    ((GroupedAccumulatorState) state).setGroupId(group);
+                    state.add(createLongsBlock(group * 10_000L + value), 0);
+                }
+            }
+        }
+        assertTrue(state.getEstimatedSize() > initialSize + 150_000 * Long.BYTES);
+
+        for (int group = 0; group < groups; group++) {
+            ((GroupedAccumulatorState) state).setGroupId(group);
+            assertEquals(state.isEmpty(), group == 0);
+            List<Long> values = new ArrayList<>();
+            state.forEach((block, position) -> values.add(BIGINT.getLong(block, position)));
+            long firstValue = group * 10_000L;
+            assertEquals(values, LongStream.range(firstValue, firstValue + group * 30).boxed().collect(toList()));
+        }
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation;
+
+import com.facebook.presto.operator.aggregation.state.CompactHyperLogLogState;
+import com.facebook.presto.operator.aggregation.state.CompactHyperLogLogStateFactory;
+import com.facebook.presto.operator.aggregation.state.CompactHyperLogLogStateSerializer;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.function.GroupedAccumulatorState;
+import io.airlift.slice.Murmur3Hash128;
+import io.airlift.stats.cardinality.HyperLogLog;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.operator.aggregation.state.CompactHyperLogLogStateFactory.getMaxHashCount;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestCompactHyperLogLogState
+{
+    private static final int NUMBER_OF_BUCKETS = 1024;
+
+    @Test
+    public void testGroupedState()
+    {
+        CompactHyperLogLogStateFactory factory = new CompactHyperLogLogStateFactory();
+        CompactHyperLogLogState state = factory.createGroupedState();
+        int groups = 100;
+        ((GroupedAccumulatorState) state).ensureCapacity(groups);
+
+        HyperLogLog[] expected = new HyperLogLog[groups];
+        for (int group = 0; group < groups; group++) {
+            expected[group] = HyperLogLog.newInstance(NUMBER_OF_BUCKETS);
+        }
+        // interleave the groups, so the blocks of the groups are moved and reused while they grow
+        for (int value = 0; value < 1000; value++) {
+            for (int group = 0; group < groups; group++) {
+                if (value < group * 3) {
+                    ((GroupedAccumulatorState) state).setGroupId(group);
+                    state.addHash(hash(value % (group + 1)), NUMBER_OF_BUCKETS);
+                    expected[group].addHash(hash(value % (group + 1)));
+                }
+            }
+        }
+
+        for (int group = 0; group < groups; group++) {
+            ((GroupedAccumulatorState) state).setGroupId(group);
+            assertEquals(cardinality(state), expected[group].cardinality());
+            if (group + 1 > getMaxHashCount(NUMBER_OF_BUCKETS)) {
+                assertNotNull(state.getHyperLogLog());
+            }
+            else if (group > 0) {
+                assertNull(state.getHyperLogLog());
+                assertEquals(state.getHashCount(), group + 1);
+            }
+        }
+        ((GroupedAccumulatorState) state).setGroupId(0);
+        assertEquals(state.getNumberOfBuckets(), 0);
+    }
+
+    @Test
+    public void testSingleState()
+    {
+        CompactHyperLogLogState state = new CompactHyperLogLogStateFactory().createSingleState();
+        HyperLogLog expected = HyperLogLog.newInstance(NUMBER_OF_BUCKETS);
+        for (int value = 0; value < 1000; value++) {
+            state.addHash(hash(value % 500), NUMBER_OF_BUCKETS);
+            expected.addHash(hash(value % 500));
+            assertEquals(cardinality(state), expected.cardinality());
+        }
+        assertNotNull(state.getHyperLogLog());
+    }
+
+    @Test
+    public void testSerialization()
+    {
+        CompactHyperLogLogStateSerializer serializer = new CompactHyperLogLogStateSerializer();
+        CompactHyperLogLogStateFactory factory = new CompactHyperLogLogStateFactory();
+        CompactHyperLogLogState sparse = factory.createSingleState();
+        CompactHyperLogLogState dense = factory.createSingleState();
+        for (int value = 0; value < 10; value++) {
+            sparse.addHash(hash(value), NUMBER_OF_BUCKETS);
+        }
+        for (int value = 0; value < 1000; value++) {
+            dense.addHash(hash(value), NUMBER_OF_BUCKETS);
+        }
+
+        BlockBuilder builder = VARBINARY.createBlockBuilder(new BlockBuilderStatus(), 3);
+        serializer.serialize(factory.createSingleState(), builder);
+        serializer.serialize(sparse, builder);
+        serializer.serialize(dense, builder);
+        assertTrue(builder.isNull(0));
+        assertTrue(VARBINARY.getSlice(builder, 1).length() < dense.getHyperLogLog().serialize().length());
+
+        // deserialization replaces the contents of the state
+        CompactHyperLogLogState deserialized = factory.createSingleState();
+        serializer.deserialize(builder, 2, deserialized);
+        assertEquals(cardinality(deserialized), cardinality(dense));
+        serializer.deserialize(builder, 1, deserialized);
+        assertNull(deserialized.getHyperLogLog());
+        assertEquals(deserialized.getHashCount(), 10);
+        assertEquals(cardinality(deserialized), cardinality(sparse));
+    }
+
+    @Test
+    public void testMerge()
+    {
+        CompactHyperLogLogStateFactory factory = new CompactHyperLogLogStateFactory();
+        CompactHyperLogLogState state = factory.createGroupedState();
+        ((GroupedAccumulatorState) state).ensureCapacity(2);
+
+        HyperLogLog dense = HyperLogLog.newInstance(NUMBER_OF_BUCKETS);
+        HyperLogLog expected = HyperLogLog.newInstance(NUMBER_OF_BUCKETS);
+        for (int value = 0; value < 1000; value++) {
+            dense.addHash(hash(value));
+            expected.addHash(hash(value));
+        }
+        ((GroupedAccumulatorState) state).setGroupId(1);
+        for (int value = 990; value < 1010; value++) {
+            state.addHash(hash(value), NUMBER_OF_BUCKETS);
+            expected.addHash(hash(value));
+        }
+        state.mergeWith(dense, NUMBER_OF_BUCKETS);
+        assertEquals(cardinality(state), expected.cardinality());
+    }
+
+    private static long cardinality(CompactHyperLogLogState state)
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), 1);
+        ApproximateCountDistinctAggregations.evaluateFinal(state, builder);
+        return BIGINT.getLong(builder.build(), 0);
+    }
+
+    private static long hash(long value)
+    {
+        return Murmur3Hash128.hash64(value);
+    }
+}
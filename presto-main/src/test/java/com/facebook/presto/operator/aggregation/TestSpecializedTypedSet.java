@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation;
+
+import com.facebook.presto.spi.block.Block;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.block.BlockAssertions.createDoublesBlock;
+import static com.facebook.presto.block.BlockAssertions.createLongsBlock;
+import static com.facebook.presto.block.BlockAssertions.createStringsBlock;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestSpecializedTypedSet
+{
+    @Test
+    public void testSupportedTypes()
+    {
+        assertTrue(SpecializedTypedSet.isSupported(BIGINT));
+        assertTrue(SpecializedTypedSet.isSupported(DOUBLE));
+        assertTrue(SpecializedTypedSet.isSupported(VARCHAR));
+        assertTrue(SpecializedTypedSet.isSupported(createVarcharType(10)));
+        // the equality of these types is not the equality of their values
+        assertFalse(SpecializedTypedSet.isSupported(REAL));
+        assertFalse(SpecializedTypedSet.isSupported(TIMESTAMP_WITH_TIME_ZONE));
+    }
+
+    @Test
+    public void testLongs()
+    {
+        SpecializedTypedSet set = SpecializedTypedSet.create(BIGINT);
+        set.reset(7);
+        assertAddedPositions(set, createLongsBlock(1L, 2L, null, 1L, 3L, null, 2L), true, true, true, false, true, false, false);
+        assertEquals(set.size(), 4);
+
+        // the set is reused for the next row
+        Block block = createLongsBlock(3L, 4L, 3L);
+        set.reset(3);
+        assertAddedPositions(set, block, true, true, false);
+        assertEquals(set.size(), 2);
+        assertTrue(set.contains(block, 0));
+        assertFalse(set.contains(createLongsBlock(1L), 0));
+        assertFalse(set.contains(createLongsBlock((Long) null), 0));
+    }
+
+    @Test
+    public void testDoubles()
+    {
+        SpecializedTypedSet set = SpecializedTypedSet.create(DOUBLE);
+        set.reset(6);
+        // NaN is not equal to itself, as in DoubleType
+        assertAddedPositions(set, createDoublesBlock(1.0, Double.NaN, 1.0, Double.NaN, null, 2.5), true, true, false, true, true, true);
+        assertEquals(set.size(), 5);
+    }
+
+    @Test
+    public void testSlices()
+    {
+        SpecializedTypedSet set = SpecializedTypedSet.create(VARCHAR);
+        Block left = createStringsBlock("a", "bb", "a", null);
+        Block right = createStringsBlock("bb", "ccc", null, "");
+        set.reset(left.getPositionCount() + right.getPositionCount());
+        assertAddedPositions(set, left, true, true, false, true);
+        assertAddedPositions(set, right, false, true, false, true);
+        assertEquals(set.size(), 5);
+        assertTrue(set.contains(createStringsBlock("ccc"), 0));
+
+        set.reset(left.getPositionCount());
+        assertAddedPositions(set, left, true, true, false, true);
+        assertEquals(set.size(), 3);
+        assertFalse(set.contains(right, 1));
+    }
+
+    @Test
+    public void testManyElements()
+    {
+        SpecializedTypedSet set = SpecializedTypedSet.create(BIGINT);
+        for (int size : new int[] {1000, 10, 0, 100}) {
+            Long[] values = new Long[size * 2];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (long) (i % size) * 31;
+            }
+            Block block = createLongsBlock(values);
+            set.reset(values.length);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(set.add(block, i), i < size);
+            }
+            assertEquals(set.size(), size);
+        }
+    }
+
+    private static void assertAddedPositions(SpecializedTypedSet set, Block block, boolean... added)
+    {
+        assertEquals(block.getPositionCount(), added.length);
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            assertEquals(set.add(block, position), added[position], "position " + position);
+        }
+    }
+}
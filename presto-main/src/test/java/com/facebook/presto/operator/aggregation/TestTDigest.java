@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestTDigest
+{
+    private static final double[] QUANTILES = {0, 0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    public void testSmallInput()
+    {
+        TDigest digest = new TDigest(100);
+        assertTrue(Double.isNaN(digest.getQuantile(0.5)));
+
+        digest.add(5);
+        digest.add(1);
+        digest.add(3);
+        assertEquals(digest.getCount(), 3.0);
+        assertEquals(digest.getQuantile(0), 1.0);
+        assertEquals(digest.getQuantile(0.5), 3.0);
+        assertEquals(digest.getQuantile(1), 5.0);
+    }
+
+    @Test
+    public void testWeights()
+    {
+        TDigest digest = new TDigest(100);
+        digest.add(1, 10);
+        digest.add(2, 1);
+        assertEquals(digest.getCount(), 11.0);
+        assertEquals(digest.getQuantile(0.3), 1.0);
+        assertEquals(digest.getQuantile(1), 2.0);
+    }
+
+    @Test
+    public void testInfinity()
+    {
+        TDigest digest = new TDigest(100);
+        for (int i = 0; i < 1000; i++) {
+            digest.add(Double.POSITIVE_INFINITY);
+            digest.add(i);
+        }
+        assertEquals(digest.getQuantile(1), Double.POSITIVE_INFINITY);
+        assertEquals(digest.getQuantile(0.99), Double.POSITIVE_INFINITY);
+        assertTrue(digest.getQuantile(0.25) < 1000);
+    }
+
+    @Test
+    public void testAccuracy()
+    {
+        Random random = new Random(42);
+        double[] uniform = new double[100_000];
+        double[] normal = new double[uniform.length];
+        double[] skewed = new double[uniform.length];
+        double[] discrete = new double[uniform.length];
+        for (int i = 0; i < uniform.length; i++) {
+            uniform[i] = random.nextDouble();
+            normal[i] = random.nextGaussian();
+            skewed[i] = Math.exp(random.nextGaussian() * 3);
+            discrete[i] = random.nextInt(10);
+        }
+
+        for (double[] values : new double[][] {uniform, normal, skewed, discrete}) {
+            TDigest digest = new TDigest(100);
+            for (double value : values) {
+                digest.add(value);
+            }
+            assertAccurate(digest, values, 0.01);
+            assertTrue(digest.getCentroidCount() <= 101);
+        }
+    }
+
+    @Test
+    public void testMergeAndSerialize()
+    {
+        Random random = new Random(42);
+        double[] values = new double[100_000];
+        TDigest[] partials = new TDigest[16];
+        for (int i = 0; i < partials.length; i++) {
+            partials[i] = new TDigest(100);
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian();
+            partials[i % partials.length].add(values[i]);
+        }
+
+        TDigest merged = new TDigest(100);
+        for (TDigest partial : partials) {
+            TDigest deserialized = new TDigest(partial.serialize());
+            assertEquals(deserialized.getCount(), partial.getCount());
+            assertEquals(deserialized.getMin(), partial.getMin());
+            assertEquals(deserialized.getMax(), partial.getMax());
+            merged.mergeWith(deserialized);
+        }
+        assertEquals(merged.getCount(), (double) values.length);
+        assertAccurate(merged, values, 0.01);
+
+        // the serialized size is bounded by the compression, not the number of values
+        assertTrue(merged.serialize().length() < 2_000);
+    }
+
+    private static void assertAccurate(TDigest digest, double[] values, double maxRankError)
+    {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double quantile : QUANTILES) {
+            double estimate = digest.getQuantile(quantile);
+            // the range of ranks of the estimate among the values
+            int lowRank = lowerBound(sorted, estimate);
+            int highRank = upperBound(sorted, estimate);
+            double rank = quantile * sorted.length;
+            double error = Math.max(lowRank - rank, Math.max(rank - highRank, 0)) / sorted.length;
+            assertTrue(error <= maxRankError, "rank error of quantile " + quantile + " is " + error);
+        }
+    }
+
+    private static int lowerBound(double[] sorted, double value)
+    {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(double[] sorted, double value)
+    {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation;
+
+import com.facebook.presto.metadata.MetadataManager;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.TypeSignature;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.block.BlockAssertions.createBlockOfReals;
+import static com.facebook.presto.block.BlockAssertions.createDoubleSequenceBlock;
+import static com.facebook.presto.block.BlockAssertions.createDoublesBlock;
+import static com.facebook.presto.block.BlockAssertions.createLongRepeatBlock;
+import static com.facebook.presto.block.BlockAssertions.createLongSequenceBlock;
+import static com.facebook.presto.block.BlockAssertions.createLongsBlock;
+import static com.facebook.presto.metadata.FunctionKind.AGGREGATE;
+import static com.facebook.presto.operator.aggregation.AggregationTestUtils.assertAggregation;
+import static com.facebook.presto.operator.aggregation.TDigestDoublePercentileAggregations.NAME;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.RealType.REAL;
+
+public class TestTDigestPercentileAggregation
+{
+    private static final MetadataManager metadata = MetadataManager.createTestMetadataManager();
+
+    private static final InternalAggregationFunction LONG_PERCENTILE = getFunction(BIGINT, BIGINT, DOUBLE);
+    private static final InternalAggregationFunction LONG_WEIGHTED_PERCENTILE = getFunction(BIGINT, BIGINT, BIGINT, DOUBLE);
+    private static final InternalAggregationFunction DOUBLE_PERCENTILE = getFunction(DOUBLE, DOUBLE, DOUBLE);
+    private static final InternalAggregationFunction DOUBLE_WEIGHTED_PERCENTILE_WITH_ACCURACY = getFunction(DOUBLE, DOUBLE, BIGINT, DOUBLE, DOUBLE);
+    private static final InternalAggregationFunction REAL_PERCENTILE = getFunction(REAL, REAL, DOUBLE);
+
+    @Test
+    public void testLong()
+    {
+        assertAggregation(
+                LONG_PERCENTILE,
+                null,
+                createLongsBlock(null, null),
+                createRLEBlock(0.5, 2));
+
+        assertAggregation(
+                LONG_PERCENTILE,
+                2L,
+                createLongsBlock(null, 1L, 2L, 3L),
+                createRLEBlock(0.5, 4));
+
+        assertAggregation(
+                LONG_PERCENTILE,
+                3L,
+                createLongsBlock(1L, null, 2L, 2L, null, 2L, 2L, null, 2L, 2L, null, 3L, 3L, null, 3L, null, 3L, 4L, 5L, 6L, 7L),
+                createRLEBlock(0.5, 21));
+
+        assertAggregation(
+                LONG_WEIGHTED_PERCENTILE,
+                1L,
+                createLongsBlock(1L, 2L),
+                createLongsBlock(10L, 1L),
+                createRLEBlock(0.5, 2));
+
+        assertAggregation(
+                LONG_WEIGHTED_PERCENTILE,
+                3L,
+                createLongSequenceBlock(0, 5),
+                createLongRepeatBlock(3, 5),
+                createRLEBlock(0.7, 5));
+    }
+
+    @Test
+    public void testDouble()
+    {
+        assertAggregation(
+                DOUBLE_PERCENTILE,
+                null,
+                createDoublesBlock(null, null),
+                createRLEBlock(0.5, 2));
+
+        assertAggregation(
+                DOUBLE_PERCENTILE,
+                3.0,
+                createDoublesBlock(1.0, null, Double.NaN, 3.0, 5.0),
+                createRLEBlock(0.5, 5));
+
+        assertAggregation(
+                DOUBLE_PERCENTILE,
+                9.0,
+                createDoubleSequenceBlock(0, 10),
+                createRLEBlock(1.0, 10));
+
+        assertAggregation(
+                DOUBLE_WEIGHTED_PERCENTILE_WITH_ACCURACY,
+                1.0,
+                createDoublesBlock(1.0, 2.0, 3.0),
+                createLongsBlock(10L, 1L, 1L),
+                createRLEBlock(0.4, 3),
+                createRLEBlock(0.1, 3));
+    }
+
+    @Test
+    public void testReal()
+    {
+        assertAggregation(
+                REAL_PERCENTILE,
+                null,
+                createBlockOfReals(null, null),
+                createRLEBlock(0.5, 2));
+
+        assertAggregation(
+                REAL_PERCENTILE,
+                2.0f,
+                createBlockOfReals(1.0f, null, 2.0f, 3.0f),
+                createRLEBlock(0.5, 4));
+    }
+
+    private static InternalAggregationFunction getFunction(Type returnType, Type... argumentTypes)
+    {
+        ImmutableList.Builder<TypeSignature> arguments = ImmutableList.builder();
+        for (Type argumentType : argumentTypes) {
+            arguments.add(argumentType.getTypeSignature());
+        }
+        return metadata.getFunctionRegistry().getAggregateFunctionImplementation(new Signature(NAME, AGGREGATE, returnType.getTypeSignature(), arguments.build()));
+    }
+
+    private static RunLengthEncodedBlock createRLEBlock(double value, int positionCount)
+    {
+        BlockBuilder blockBuilder = DOUBLE.createBlockBuilder(new BlockBuilderStatus(), 1);
+        DOUBLE.writeDouble(blockBuilder, value);
+        return new RunLengthEncodedBlock(blockBuilder.build(), positionCount);
+    }
+}
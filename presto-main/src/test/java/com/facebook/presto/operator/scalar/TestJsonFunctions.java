@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.operator.scalar;
 
+import com.facebook.presto.spi.type.ArrayType;
 import org.testng.annotations.Test;
 
 import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
@@ -22,6 +23,7 @@ import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.type.JsonType.JSON;
 import static io.airlift.slice.Slices.utf8Slice;
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 
 public class TestJsonFunctions
         extends AbstractTestFunctions
@@ -40,6 +42,21 @@ public class TestJsonFunctions
         assertFunction("JSON_ARRAY_LENGTH(null)", BIGINT, null);
     }
 
+    @Test
+    public void testJsonExtractScalars()
+    {
+        assertFunction(
+                "\"$internal$json_extract_scalars\"('{\"a\": 1, \"b\": {\"c\": \"x\\u0079\"}, \"d\": [true, null]}', '[\"$.a\", \"$.b.c\", \"$.d[0]\", \"$.d[1]\", \"$.e\", \"$.b\"]')",
+                new ArrayType(VARCHAR),
+                asList("1", "xy", "true", null, null, null));
+        // the paths before the invalid value are still extracted
+        assertFunction(
+                "\"$internal$json_extract_scalars\"('{\"a\": 1, \"b\": tru, \"c\": 2}', '[\"$.a\", \"$.c\"]')",
+                new ArrayType(VARCHAR),
+                asList("1", null));
+        assertFunction("\"$internal$json_extract_scalars\"(null, '[\"$.a\"]')", new ArrayType(VARCHAR), null);
+    }
+
     @Test
     public void testJsonArrayContainsBoolean()
     {
@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.facebook.presto.operator.scalar.JsonExtract.generateExtractor;
+import static com.google.common.base.Strings.repeat;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static org.testng.Assert.assertEquals;
+
+public class TestJsonScalarPathExtractor
+{
+    private static final List<String> PATHS = ImmutableList.of(
+            "$",
+            "$.a",
+            "$.b",
+            "$.a.b",
+            "$.a.c",
+            "$[0]",
+            "$[1]",
+            "$[01]",
+            "$.a[0]",
+            "$.a[1].b",
+            "$[\"0\"]",
+            "$[\"a.b\"]",
+            "$.\u00e9",
+            "$[\"\u65e5\u672c\"]",
+            "$[\"a\\\"b\"]");
+
+    private static final List<String> DOCUMENTS = ImmutableList.of(
+            "",
+            "   ",
+            "1",
+            "-1.5e10 ",
+            "\"text\"",
+            "true",
+            "null",
+            "{}",
+            "[]",
+            "{\"a\": 1, \"b\": \"x\"}",
+            "{\"a\" : {\"b\" : 2, \"c\" : [3]} , \"b\" : null}",
+            "{\"a\": [\"x\", {\"b\": false}], \"b\": 0.25}",
+            "{\"a\": 1, \"a\": 2}",
+            "{\"a\": {\"b\": 1}, \"a\": {\"c\": 2}}",
+            "[10, [20, 21], {\"a\": 30}]",
+            "[\"x\", \"y\"]",
+            "{\"0\": \"zero\", \"a.b\": \"dot\"}",
+            "{\"\u00e9\": \"\u00e8\", \"\u65e5\u672c\": \"\ud83d\ude00\"}",
+            "{\"a\": \"\\u00e9\\n\\/\\\"\\\\\", \"b\": \"\\ud83d\\ude00\"}",
+            "{\"a\\\"b\": 1, \"a\": 2}",
+            "{\"a\": \"\\ud83d\"}",
+            // invalid documents
+            "{\"a\": 01}",
+            "{\"a\": 1, \"b\": tru}",
+            "{\"b\": [1, 2,], \"a\": 3}",
+            "{\"a\": 1 \"b\": 2}",
+            "{\"b\": {\"c\": 1}",
+            "{\"a\": [1, 2",
+            "{\"a\": \"unterminated",
+            "{\"a\": 1x}",
+            "{a: 1}",
+            "[1, 2] [3]",
+            "1 2",
+            "\ufeff{\"a\": 1}");
+
+    @Test
+    public void testSinglePath()
+    {
+        for (String path : PATHS) {
+            JsonScalarPathExtractor extractor = new JsonScalarPathExtractor(ImmutableList.of(path));
+            for (String document : DOCUMENTS) {
+                Slice json = utf8Slice(document);
+                assertEquals(extractor.extract(json), extractWithJackson(json, path), path + " of " + document);
+            }
+        }
+    }
+
+    @Test
+    public void testMultiplePaths()
+    {
+        assertExtract(PATHS);
+        assertExtract(ImmutableList.of("$.a.b", "$.a", "$.a.c", "$.b"));
+        assertExtract(ImmutableList.of("$.b", "$.b", "$[1]"));
+        assertExtract(ImmutableList.of("$.a[0]", "$.a[1].b", "$.a[2]"));
+    }
+
+    @Test
+    public void testInvalidEncoding()
+    {
+        assertExtract(wrappedBuffer("{\"a\": \"x\"}".getBytes(UTF_16LE)), "$.a");
+        assertExtract(wrappedBuffer(new byte[] {'{', '"', 'a', '"', ':', '"', (byte) 0xC3, '"', '}'}), "$.a");
+        assertExtract(wrappedBuffer(new byte[] {'{', '"', 'b', '"', ':', '"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"', ',', '"', 'a', '"', ':', '1', '}'}), "$.a");
+    }
+
+    @Test
+    public void testDeepNesting()
+    {
+        String nested = "{\"a\": " + repeat("[", 5000) + repeat("]", 5000) + ", \"b\": 1}";
+        assertExtract(utf8Slice(nested), "$.b");
+    }
+
+    private static void assertExtract(List<String> paths)
+    {
+        JsonScalarPathExtractor extractor = new JsonScalarPathExtractor(paths);
+        for (String document : DOCUMENTS) {
+            Slice json = utf8Slice(document);
+            Slice[] results = new Slice[paths.size()];
+            extractor.extract(json, results);
+            for (int i = 0; i < paths.size(); i++) {
+                assertEquals(results[i], extractWithJackson(json, paths.get(i)), paths.get(i) + " of " + document + " with " + paths);
+            }
+        }
+    }
+
+    private static void assertExtract(Slice json, String path)
+    {
+        assertEquals(new JsonScalarPathExtractor(ImmutableList.of(path)).extract(json), extractWithJackson(json, path));
+    }
+
+    private static Slice extractWithJackson(Slice json, String path)
+    {
+        return JsonExtract.extract(json, generateExtractor(path, new JsonExtract.ScalarValueJsonExtractor()));
+    }
+}
@@ -13,15 +13,27 @@
  */
 package com.facebook.presto.operator.window;
 
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.operator.PagesIndex;
+import com.facebook.presto.operator.aggregation.InternalAggregationFunction;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.testing.MaterializedResult;
+import com.google.common.collect.ImmutableList;
 import org.intellij.lang.annotations.Language;
 import org.testng.annotations.Test;
 
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.block.BlockAssertions.createLongSequenceBlock;
+import static com.facebook.presto.metadata.FunctionKind.AGGREGATE;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.IntegerType.INTEGER;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestAggregateWindowFunction
         extends AbstractTestWindowFunction
@@ -532,4 +544,80 @@ public class TestAggregateWindowFunction
                         .row(null, null, null)
                         .build());
     }
+
+    @Test
+    public void testLargeSlidingFrames()
+    {
+        // the frames are large enough to remove rows leaving the frame, or combine it from the segment tree,
+        // and the values from 50 to 120 are null, so that the frame of sum has no values for some rows
+        MaterializedResult actual = queryRunner.execute("" +
+                "SELECT x, " +
+                "sum(v) OVER (ORDER BY x ROWS 40 PRECEDING), " +
+                "count(v) OVER (ORDER BY x ROWS 40 PRECEDING), " +
+                "avg(v) OVER (ORDER BY x ROWS 40 PRECEDING), " +
+                "min(v) OVER (ORDER BY x ROWS BETWEEN 40 PRECEDING AND 10 FOLLOWING) " +
+                "FROM (SELECT x, IF(x % 7 = 0 OR x BETWEEN 50 AND 120, NULL, x) v FROM UNNEST(sequence(1, 300)) t(x)) " +
+                "ORDER BY x");
+
+        MaterializedResult.Builder expected = resultBuilder(TEST_SESSION, BIGINT, BIGINT, BIGINT, DOUBLE, BIGINT);
+        for (long x = 1; x <= 300; x++) {
+            long sum = 0;
+            long count = 0;
+            Long min = null;
+            for (long y = Math.max(1, x - 40); y <= Math.min(300, x + 10); y++) {
+                if (y % 7 == 0 || (y >= 50 && y <= 120)) {
+                    continue;
+                }
+                if (y <= x) {
+                    sum += y;
+                    count++;
+                }
+                min = (min == null) ? y : Math.min(min, y);
+            }
+            expected.row(x, count == 0 ? null : sum, count, count == 0 ? null : (double) sum / count, min);
+        }
+        assertEquals(actual.getMaterializedRows(), expected.build().getMaterializedRows());
+    }
+
+    @Test
+    public void testSlidingAverageOfLargeValues()
+    {
+        // avg(bigint) sums in floating point, so removing 2^60 from the sum would not restore the average of the other rows
+        MaterializedResult actual = queryRunner.execute("" +
+                "SELECT x, avg(v) OVER (ORDER BY x ROWS 2 PRECEDING) " +
+                "FROM (SELECT x, IF(x = 1, BIGINT '1152921504606846976', BIGINT '1') v FROM UNNEST(sequence(1, 100)) t(x)) " +
+                "ORDER BY x");
+
+        MaterializedResult.Builder expected = resultBuilder(TEST_SESSION, BIGINT, DOUBLE);
+        expected.row(1L, 1152921504606846976.0);
+        expected.row(2L, (1152921504606846976.0 + 1) / 2);
+        expected.row(3L, (1152921504606846976.0 + 2) / 3);
+        for (long x = 4; x <= 100; x++) {
+            expected.row(x, 1.0);
+        }
+        assertEquals(actual.getMaterializedRows(), expected.build().getMaterializedRows());
+    }
+
+    @Test
+    public void testSegmentTreeSize()
+    {
+        Signature signature = new Signature("sum", AGGREGATE, BIGINT.getTypeSignature(), BIGINT.getTypeSignature());
+        InternalAggregationFunction sum = queryRunner.getMetadata().getFunctionRegistry().getAggregateFunctionImplementation(signature);
+        AggregateWindowFunction function = (AggregateWindowFunction) AggregateWindowFunction.supplier(signature, sum).createWindowFunction(ImmutableList.of(0));
+
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory().newPagesIndex(ImmutableList.of(BIGINT), 100);
+        pagesIndex.addPage(new Page(createLongSequenceBlock(0, 100)));
+        function.reset(new PagesWindowIndex(pagesIndex, 0, 100));
+        BlockBuilder output = BIGINT.createBlockBuilder(new BlockBuilderStatus(), 2);
+
+        function.processRow(output, 0, 0, 0, 0);
+        assertEquals(function.getEstimatedSize(), 0);
+
+        // a large frame that cannot slide from the previous one is combined from the segment tree
+        function.processRow(output, 1, 1, 10, 98);
+        assertTrue(function.getEstimatedSize() > 0);
+
+        function.reset(new PagesWindowIndex(pagesIndex, 0, 100));
+        assertEquals(function.getEstimatedSize(), 0);
+    }
 }
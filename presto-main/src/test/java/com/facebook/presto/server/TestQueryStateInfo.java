@@ -259,6 +259,8 @@ public class TestQueryStateInfo
                         30,
                         DataSize.valueOf("31GB"),
                         32,
+                        DataSize.valueOf("33GB"),
+                        ImmutableList.of(),
                         ImmutableList.of()),
                 ImmutableMap.of(),
                 ImmutableSet.of(),
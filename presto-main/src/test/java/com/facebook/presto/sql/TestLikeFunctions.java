@@ -14,7 +14,7 @@
 package com.facebook.presto.sql;
 
 import com.facebook.presto.spi.PrestoException;
-import io.airlift.joni.Regex;
+import com.facebook.presto.type.LikeMatcher;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import org.testng.annotations.Test;
@@ -25,6 +25,7 @@ import static com.facebook.presto.type.LikeFunctions.like;
 import static com.facebook.presto.type.LikeFunctions.likePattern;
 import static com.facebook.presto.type.LikeFunctions.unescapeLiteralLikePattern;
 import static io.airlift.slice.Slices.utf8Slice;
+import static java.lang.String.format;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertThrows;
@@ -35,48 +36,114 @@ public class TestLikeFunctions
     @Test
     public void testLikeBasic()
     {
-        Regex regex = likePattern(utf8Slice("f%b__"));
-        assertTrue(like(utf8Slice("foobar"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("f%b__"));
+        assertTrue(like(utf8Slice("foobar"), matcher));
     }
 
     @Test
     public void testLikeSpacesInPattern()
     {
-        Regex regex = likePattern(utf8Slice("ala  "));
-        assertTrue(like(utf8Slice("ala  "), regex));
-        assertFalse(like(utf8Slice("ala"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("ala  "));
+        assertTrue(like(utf8Slice("ala  "), matcher));
+        assertFalse(like(utf8Slice("ala"), matcher));
 
-        regex = castCharToLikePattern(5L, utf8Slice("ala"));
-        assertTrue(like(utf8Slice("ala  "), regex));
-        assertFalse(like(utf8Slice("ala"), regex));
+        matcher = castCharToLikePattern(5L, utf8Slice("ala"));
+        assertTrue(like(utf8Slice("ala  "), matcher));
+        assertFalse(like(utf8Slice("ala"), matcher));
     }
 
     @Test
     public void testLikeNewlineInPattern()
     {
-        Regex regex = likePattern(utf8Slice("%o\nbar"));
-        assertTrue(like(utf8Slice("foo\nbar"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("%o\nbar"));
+        assertTrue(like(utf8Slice("foo\nbar"), matcher));
     }
 
     @Test
     public void testLikeNewlineBeforeMatch()
     {
-        Regex regex = likePattern(utf8Slice("%b%"));
-        assertTrue(like(utf8Slice("foo\nbar"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("%b%"));
+        assertTrue(like(utf8Slice("foo\nbar"), matcher));
     }
 
     @Test
     public void testLikeNewlineInMatch()
     {
-        Regex regex = likePattern(utf8Slice("f%b%"));
-        assertTrue(like(utf8Slice("foo\nbar"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("f%b%"));
+        assertTrue(like(utf8Slice("foo\nbar"), matcher));
+    }
+
+    @Test
+    public void testLikeLiteralPatterns()
+    {
+        assertLike("", "", true);
+        assertLike("", "a", false);
+        assertLike("abc", "abc", true);
+        assertLike("abc", "abcd", false);
+        assertLike("abc", "ab", false);
+        assertLike("abc", "abc\nabc", false);
+
+        assertLike("%", "", true);
+        assertLike("%%", "abc", true);
+        assertLike("abc%", "abc", true);
+        assertLike("abc%", "abcdef", true);
+        assertLike("abc%", "xabc", false);
+        assertLike("abc%%", "abcdef", true);
+        assertLike("%abc", "abc", true);
+        assertLike("%abc", "xyzabc", true);
+        assertLike("%abc", "abcx", false);
+        assertLike("%abc%", "xxabcxx", true);
+        assertLike("%abc%", "ababab", false);
+        assertLike("%abc%", "ab", false);
+        assertLike("%%abc%%", "aabcc", true);
+
+        assertLike("a%b%c", "abc", true);
+        assertLike("a%b%c", "axxbxxc", true);
+        assertLike("a%b%c", "acb", false);
+        assertLike("ab%ba", "aba", false);
+        assertLike("ab%ba", "abba", true);
+        assertLike("%ab%cd%", "xxcdabcd", true);
+        assertLike("%ab%cd%", "xxcdab", false);
+        assertLike("x%ab%cd", "xabcd", true);
+        assertLike("x%ab%cd", "xabcdcd", true);
+        assertLike("x%ab%cd", "xcdab", false);
+        assertLike("%\u540d%\u8a89", "\u540d\u540d\u8a89", true);
+    }
+
+    @Test
+    public void testLikeSingleCharacterWildcardPatterns()
+    {
+        assertLike("_", "", false);
+        assertLike("_", "a", true);
+        assertLike("_", "ab", false);
+        assertLike("__", "ab", true);
+        assertLike("a_c", "abc", true);
+        assertLike("a_c", "abbc", false);
+        assertLike("a_c", "ac", false);
+        assertLike("_b_", "abc", true);
+        assertLike("_b_", "xbyz", false);
+        assertLike("a_c", "a\u540dc", true);
+        assertLike("a__c", "a\u540dc", false);
+        assertLike("_\u540d", "\u8a89\u540d", true);
+        assertLike("a_c", "a\nc", true);
+
+        // patterns with both wildcards
+        assertLike("a_%", "ab", true);
+        assertLike("a_%", "a", false);
+        assertLike("%_c", "abc", true);
+        assertLike("%_c", "c", false);
+    }
+
+    private static void assertLike(String pattern, String value, boolean expected)
+    {
+        assertEquals(like(utf8Slice(value), likePattern(utf8Slice(pattern))), expected, format("'%s' LIKE '%s'", value, pattern));
     }
 
     @Test(timeOut = 1000)
     public void testLikeUtf8Pattern()
     {
-        Regex regex = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
-        assertFalse(like(utf8Slice("foo"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
+        assertFalse(like(utf8Slice("foo"), matcher));
     }
 
     @SuppressWarnings("NumericCastThatLosesPrecision")
@@ -84,32 +151,32 @@ public class TestLikeFunctions
     public void testLikeInvalidUtf8Value()
     {
         Slice value = Slices.wrappedBuffer(new byte[] {'a', 'b', 'c', (byte) 0xFF, 'x', 'y'});
-        Regex regex = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
-        assertTrue(like(value, regex));
+        LikeMatcher matcher = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
+        assertTrue(like(value, matcher));
     }
 
     @Test
     public void testBackslashesNoSpecialTreatment()
             throws Exception
     {
-        Regex regex = likePattern(utf8Slice("\\abc\\/\\\\"));
-        assertTrue(like(utf8Slice("\\abc\\/\\\\"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("\\abc\\/\\\\"));
+        assertTrue(like(utf8Slice("\\abc\\/\\\\"), matcher));
     }
 
     @Test
     public void testSelfEscaping()
             throws Exception
     {
-        Regex regex = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
-        assertTrue(like(utf8Slice("\\abc%"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
+        assertTrue(like(utf8Slice("\\abc%"), matcher));
     }
 
     @Test
     public void testAlternateEscapedCharacters()
             throws Exception
     {
-        Regex regex = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
-        assertTrue(like(utf8Slice("x%_abcx"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
+        assertTrue(like(utf8Slice("x%_abcx"), matcher));
     }
 
     @Test
@@ -1370,6 +1370,14 @@ public class TestAnalyzer
         assertFails(INVALID_PARAMETER_USAGE, "line 1:39: Expected a lambda that takes 2 argument\\(s\\) but got 3", "SELECT zip_with(ARRAY[1], ARRAY['a'], (x, y, z) -> (x, y, z))");
     }
 
+    @Test
+    public void testInvalidAnalyze()
+            throws Exception
+    {
+        assertFails(MISSING_TABLE, "ANALYZE foo");
+        assertFails(NOT_SUPPORTED, "ANALYZE v1");
+    }
+
     @Test
     public void testInvalidDelete()
             throws Exception
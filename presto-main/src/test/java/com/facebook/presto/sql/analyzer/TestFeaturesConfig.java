@@ -50,6 +50,7 @@ public class TestFeaturesConfig
                 .setLegacyArrayAgg(false)
                 .setLegacyMapSubscript(false)
                 .setRegexLibrary(JONI)
+                .setDfaRegexStatesLimit(1000)
                 .setRe2JDfaStatesLimit(Integer.MAX_VALUE)
                 .setRe2JDfaRetries(5)
                 .setSpillEnabled(false)
@@ -66,7 +67,12 @@ public class TestFeaturesConfig
                 .setExchangeCompressionEnabled(false)
                 .setEnableIntermediateAggregations(false)
                 .setPushAggregationThroughJoin(true)
-                .setForceSingleNodeOutput(false));
+                .setForceSingleNodeOutput(false)
+                .setSplitResultCacheEnabled(false)
+                .setSpreadHotJoinKeys(false)
+                .setHotJoinKeyMinFraction(0.1)
+                .setMergeJsonExtractScalarCalls(true)
+                .setUseTDigestForApproxPercentile(false));
     }
 
     @Test
@@ -93,6 +99,7 @@ public class TestFeaturesConfig
                 .put("optimizer.dictionary-aggregation", "true")
                 .put("optimizer.push-aggregation-through-join", "false")
                 .put("regex-library", "RE2J")
+                .put("dfa-regex.states-limit", "42")
                 .put("re2j.dfa-states-limit", "42")
                 .put("re2j.dfa-retries", "42")
                 .put("experimental.spill-enabled", "true")
@@ -105,6 +112,11 @@ public class TestFeaturesConfig
                 .put("exchange.compression-enabled", "true")
                 .put("optimizer.enable-intermediate-aggregations", "true")
                 .put("optimizer.force-single-node-output", "true")
+                .put("experimental.split-result-cache-enabled", "true")
+                .put("optimizer.spread-hot-join-keys", "true")
+                .put("optimizer.hot-join-key-min-fraction", "0.2")
+                .put("optimizer.merge-json-extract-scalar-calls", "false")
+                .put("optimizer.use-tdigest-for-approx-percentile", "true")
                 .build();
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("experimental.resource-groups-enabled", "true")
@@ -127,6 +139,7 @@ public class TestFeaturesConfig
                 .put("optimizer.dictionary-aggregation", "true")
                 .put("optimizer.push-aggregation-through-join", "false")
                 .put("regex-library", "RE2J")
+                .put("dfa-regex.states-limit", "42")
                 .put("re2j.dfa-states-limit", "42")
                 .put("re2j.dfa-retries", "42")
                 .put("experimental.spill-enabled", "true")
@@ -139,6 +152,11 @@ public class TestFeaturesConfig
                 .put("exchange.compression-enabled", "true")
                 .put("optimizer.enable-intermediate-aggregations", "true")
                 .put("optimizer.force-single-node-output", "true")
+                .put("experimental.split-result-cache-enabled", "true")
+                .put("optimizer.spread-hot-join-keys", "true")
+                .put("optimizer.hot-join-key-min-fraction", "0.2")
+                .put("optimizer.merge-json-extract-scalar-calls", "false")
+                .put("optimizer.use-tdigest-for-approx-percentile", "true")
                 .build();
 
         FeaturesConfig expected = new FeaturesConfig()
@@ -161,6 +179,7 @@ public class TestFeaturesConfig
                 .setLegacyArrayAgg(true)
                 .setLegacyMapSubscript(true)
                 .setRegexLibrary(RE2J)
+                .setDfaRegexStatesLimit(42)
                 .setRe2JDfaStatesLimit(42)
                 .setRe2JDfaRetries(42)
                 .setSpillEnabled(true)
@@ -173,7 +192,12 @@ public class TestFeaturesConfig
                 .setLegacyOrderBy(true)
                 .setExchangeCompressionEnabled(true)
                 .setEnableIntermediateAggregations(true)
-                .setForceSingleNodeOutput(true);
+                .setForceSingleNodeOutput(true)
+                .setSplitResultCacheEnabled(true)
+                .setSpreadHotJoinKeys(true)
+                .setHotJoinKeyMinFraction(0.2)
+                .setMergeJsonExtractScalarCalls(false)
+                .setUseTDigestForApproxPercentile(true);
 
         assertFullMapping(properties, expected);
         assertDeprecatedEquivalence(FeaturesConfig.class, properties, propertiesLegacy);
@@ -0,0 +1,163 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.facebook.presto.metadata.DummyMetadata;
+import com.facebook.presto.metadata.FunctionKind;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder;
+import com.facebook.presto.sql.planner.plan.DistinctLimitNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
+import com.facebook.presto.sql.planner.plan.IndexJoinNode;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.sql.planner.plan.RowNumberNode;
+import com.facebook.presto.sql.planner.plan.SampleNode;
+import com.facebook.presto.sql.planner.plan.TableWriterNode;
+import com.facebook.presto.sql.planner.plan.TopNRowNumberNode;
+import com.facebook.presto.sql.planner.plan.UnnestNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.planner.plan.WindowNode;
+import com.facebook.presto.sql.tree.FrameBound;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.facebook.presto.sql.tree.WindowFrame;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.sql.planner.CanonicalPlanHasher.hashPlan;
+import static com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestCanonicalPlanHasher
+{
+    private static final PlanNodeId NODE_ID = new PlanNodeId("node");
+
+    @Test
+    public void testIndependentOfPlanNodeIds()
+    {
+        PlanNodeIdAllocator shiftedIdAllocator = new PlanNodeIdAllocator();
+        shiftedIdAllocator.getNextId();
+        shiftedIdAllocator.getNextId();
+
+        FilterNode plan = filterValues(new PlanNodeIdAllocator(), "x > 1");
+        FilterNode shiftedPlan = filterValues(shiftedIdAllocator, "x > 1");
+        assertNotEquals(plan.getId(), shiftedPlan.getId());
+
+        Map<PlanNodeId, String> hashes = hashPlan(plan);
+        Map<PlanNodeId, String> shiftedHashes = hashPlan(shiftedPlan);
+        assertEquals(hashes.size(), 2);
+        assertEquals(hashes.get(plan.getId()), shiftedHashes.get(shiftedPlan.getId()));
+        assertEquals(hashes.get(plan.getSource().getId()), shiftedHashes.get(shiftedPlan.getSource().getId()));
+    }
+
+    @Test
+    public void testDifferentComputations()
+    {
+        FilterNode plan = filterValues(new PlanNodeIdAllocator(), "x > 1");
+        FilterNode otherPlan = filterValues(new PlanNodeIdAllocator(), "x > 2");
+
+        Map<PlanNodeId, String> hashes = hashPlan(plan);
+        Map<PlanNodeId, String> otherHashes = hashPlan(otherPlan);
+        assertNotEquals(hashes.get(plan.getId()), otherHashes.get(otherPlan.getId()));
+        assertEquals(hashes.get(plan.getSource().getId()), otherHashes.get(otherPlan.getSource().getId()));
+    }
+
+    @Test
+    public void testNodeParameters()
+    {
+        assertHashDependsOn((p, limit) -> new DistinctLimitNode(NODE_ID, p.values(p.symbol("x")), limit, false, ImmutableList.of(p.symbol("x")), Optional.empty()), 1L, 2L);
+        assertHashDependsOn((p, ratio) -> p.sample(ratio, SampleNode.Type.BERNOULLI, p.values(p.symbol("x"))), 0.1, 0.2);
+        assertHashDependsOn((p, maxRowCount) -> new RowNumberNode(NODE_ID, p.values(p.symbol("x")), ImmutableList.of(p.symbol("x")), p.symbol("rn"), maxRowCount, Optional.empty()), Optional.of(1), Optional.of(2));
+        assertHashDependsOn((p, maxRowCount) -> new TopNRowNumberNode(NODE_ID, p.values(p.symbol("x")), specification(p.symbol("x")), p.symbol("rn"), maxRowCount, false, Optional.empty()), 1, 2);
+        assertHashDependsOn((p, unnested) -> new UnnestNode(NODE_ID, p.values(p.symbol("x"), p.symbol("y")), ImmutableList.of(), ImmutableMap.<Symbol, List<Symbol>>of(p.symbol(unnested), ImmutableList.of(p.symbol("u"))), Optional.empty()), "x", "y");
+        assertHashDependsOn((p, groupingSets) -> new GroupIdNode(NODE_ID, p.values(p.symbol("x")), groupingSets, ImmutableMap.of(p.symbol("x"), p.symbol("x")), ImmutableMap.of(), p.symbol("gid")), ImmutableList.<List<Symbol>>of(ImmutableList.of(new Symbol("x"))), ImmutableList.<List<Symbol>>of(ImmutableList.of(new Symbol("x")), ImmutableList.of()));
+        assertHashDependsOn((p, distinct) -> p.markDistinct(p.symbol("m"), ImmutableList.of(p.symbol(distinct)), p.values(p.symbol("x"), p.symbol("y"))), "x", "y");
+        assertHashDependsOn((p, endType) -> p.window(specification(p.symbol("x")), ImmutableMap.of(p.symbol("s"), sum(p.symbol("x"), endType)), p.values(p.symbol("x"))), FrameBound.Type.CURRENT_ROW, FrameBound.Type.UNBOUNDED_FOLLOWING);
+        assertHashDependsOn((p, partitionBy) -> p.window(specification(p.symbol(partitionBy)), ImmutableMap.of(p.symbol("s"), sum(p.symbol("x"), FrameBound.Type.CURRENT_ROW)), p.values(p.symbol("x"), p.symbol("y"))), "x", "y");
+        assertHashDependsOn((p, joinSymbol) -> p.semiJoin(p.symbol(joinSymbol), p.symbol("f"), p.symbol("match"), Optional.empty(), Optional.empty(), p.values(p.symbol("x"), p.symbol("y")), p.values(p.symbol("f"))), "x", "y");
+        assertHashDependsOn((p, probeSymbol) -> new IndexJoinNode(
+                NODE_ID,
+                IndexJoinNode.Type.INNER,
+                p.values(p.symbol("x"), p.symbol("y")),
+                p.values(p.symbol("i")),
+                ImmutableList.of(new IndexJoinNode.EquiJoinClause(p.symbol(probeSymbol), p.symbol("i"))),
+                Optional.empty(),
+                Optional.empty()), "x", "y");
+    }
+
+    @Test
+    public void testUndescribedNodesAreNotHashed()
+    {
+        PlanBuilder p = new PlanBuilder(new PlanNodeIdAllocator(), new DummyMetadata());
+        ValuesNode values = p.values(p.symbol("x"));
+        TableWriterNode writer = p.tableWriter(ImmutableList.of(p.symbol("x")), ImmutableList.of("x"), values);
+        LimitNode limit = p.limit(1, writer);
+
+        Map<PlanNodeId, String> hashes = hashPlan(limit);
+        assertTrue(hashes.containsKey(values.getId()));
+        assertFalse(hashes.containsKey(writer.getId()));
+        assertFalse(hashes.containsKey(limit.getId()));
+    }
+
+    private static <T> void assertHashDependsOn(BiFunction<PlanBuilder, T, PlanNode> planFactory, T parameter, T otherParameter)
+    {
+        PlanNode plan = planFactory.apply(new PlanBuilder(new PlanNodeIdAllocator(), new DummyMetadata()), parameter);
+        PlanNode samePlan = planFactory.apply(new PlanBuilder(new PlanNodeIdAllocator(), new DummyMetadata()), parameter);
+        PlanNode otherPlan = planFactory.apply(new PlanBuilder(new PlanNodeIdAllocator(), new DummyMetadata()), otherParameter);
+
+        String hash = hashPlan(plan).get(plan.getId());
+        assertNotNull(hash, plan.getClass().getSimpleName());
+        assertEquals(hashPlan(samePlan).get(samePlan.getId()), hash, plan.getClass().getSimpleName());
+        assertNotEquals(hashPlan(otherPlan).get(otherPlan.getId()), hash, plan.getClass().getSimpleName());
+    }
+
+    private static WindowNode.Specification specification(Symbol partitionBy)
+    {
+        return new WindowNode.Specification(ImmutableList.of(partitionBy), ImmutableList.of(), ImmutableMap.of());
+    }
+
+    private static WindowNode.Function sum(Symbol argument, FrameBound.Type endType)
+    {
+        Signature signature = new Signature(
+                "sum",
+                FunctionKind.AGGREGATE,
+                ImmutableList.of(),
+                ImmutableList.of(),
+                BIGINT.getTypeSignature(),
+                ImmutableList.of(BIGINT.getTypeSignature()),
+                false);
+        WindowNode.Frame frame = new WindowNode.Frame(WindowFrame.Type.ROWS, FrameBound.Type.UNBOUNDED_PRECEDING, Optional.empty(), endType, Optional.empty());
+        return new WindowNode.Function(new FunctionCall(QualifiedName.of("sum"), ImmutableList.of(argument.toSymbolReference())), signature, frame);
+    }
+
+    private static FilterNode filterValues(PlanNodeIdAllocator idAllocator, String predicate)
+    {
+        PlanBuilder planBuilder = new PlanBuilder(idAllocator, new DummyMetadata());
+        return planBuilder.filter(expression(predicate), planBuilder.values(planBuilder.symbol("x")));
+    }
+}
@@ -15,8 +15,10 @@ package com.facebook.presto.sql.planner;
 
 import com.facebook.presto.spi.ErrorCodeSupplier;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.testing.LocalQueryRunner;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableMap;
 import org.intellij.lang.annotations.Language;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -24,6 +26,9 @@ import org.testng.annotations.Test;
 
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
 import static com.facebook.presto.spi.StandardErrorCode.COMPILER_ERROR;
+import static com.facebook.presto.sql.planner.LocalExecutionPlanner.DEFAULT_EXPECTED_POSITIONS;
+import static com.facebook.presto.sql.planner.LocalExecutionPlanner.MAX_EXPECTED_POSITIONS;
+import static com.facebook.presto.sql.planner.LocalExecutionPlanner.getExpectedPositions;
 import static io.airlift.testing.Closeables.closeAllRuntimeException;
 import static java.util.Collections.nCopies;
 import static org.testng.Assert.assertEquals;
@@ -55,6 +60,22 @@ public class TestLocalExecutionPlanner
         assertFails("SELECT " + outer, COMPILER_ERROR);
     }
 
+    @Test
+    public void testExpectedPositions()
+    {
+        PlanNodeId planNodeId = new PlanNodeId("aggregation");
+
+        assertEquals(getExpectedPositions(ImmutableMap.of(), planNodeId, 1), DEFAULT_EXPECTED_POSITIONS);
+
+        // the estimated rows are spread over the drivers
+        assertEquals(getExpectedPositions(ImmutableMap.of(planNodeId, 400_000L), planNodeId, 4), 100_000);
+
+        // the estimate never makes a hash table smaller than the default, or larger than the maximum
+        assertEquals(getExpectedPositions(ImmutableMap.of(planNodeId, 100L), planNodeId, 1), DEFAULT_EXPECTED_POSITIONS);
+        assertEquals(getExpectedPositions(ImmutableMap.of(planNodeId, 400_000L), planNodeId, 100), DEFAULT_EXPECTED_POSITIONS);
+        assertEquals(getExpectedPositions(ImmutableMap.of(planNodeId, 50_000_000_000L), planNodeId, 4), MAX_EXPECTED_POSITIONS);
+    }
+
     private void assertFails(@Language("SQL") String sql, ErrorCodeSupplier supplier)
     {
         try {
@@ -283,6 +283,41 @@ public class TestLogicalPlanner
                 2);
     }
 
+    @Test
+    public void testStreamingAggregationOfPreGroupedInput()
+    {
+        // lineitem is sorted on orderkey within every split, and its splits are partitioned on orderkey
+        assertEquals(
+                countOfMatchingNodes(
+                        plan("SELECT orderkey, count(*) FROM lineitem GROUP BY orderkey"),
+                        TestLogicalPlanner::isStreamingAggregation),
+                1);
+        assertEquals(
+                countOfMatchingNodes(
+                        plan("SELECT orderkey, linenumber, count(*) FROM lineitem GROUP BY orderkey, linenumber"),
+                        TestLogicalPlanner::isStreamingAggregation),
+                1);
+
+        // the input is not grouped on partkey
+        assertEquals(
+                countOfMatchingNodes(
+                        plan("SELECT partkey, count(*) FROM lineitem GROUP BY partkey"),
+                        TestLogicalPlanner::isStreamingAggregation),
+                0);
+
+        // the local exchange combining the inputs of the union does not preserve their grouping
+        assertEquals(
+                countOfMatchingNodes(
+                        plan("SELECT orderkey, count(*) FROM (SELECT orderkey FROM lineitem UNION ALL SELECT orderkey FROM orders) GROUP BY orderkey"),
+                        TestLogicalPlanner::isStreamingAggregation),
+                0);
+    }
+
+    private static boolean isStreamingAggregation(PlanNode node)
+    {
+        return node instanceof AggregationNode && ((AggregationNode) node).isStreamable();
+    }
+
     private static int countOfMatchingNodes(Plan plan, Predicate<PlanNode> predicate)
     {
         return searchFrom(plan.getRoot()).where(predicate).count();
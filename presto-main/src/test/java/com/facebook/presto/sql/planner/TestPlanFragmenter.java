@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.facebook.presto.cost.PlanNodeCost;
+import com.facebook.presto.metadata.DummyMetadata;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static com.facebook.presto.cost.PlanNodeCost.UNKNOWN_COST;
+import static com.facebook.presto.sql.planner.PlanFragmenter.estimateTaskRowCounts;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
+import static org.testng.Assert.assertEquals;
+
+public class TestPlanFragmenter
+{
+    @Test
+    public void testEstimateTaskRowCounts()
+    {
+        PlanBuilder planBuilder = new PlanBuilder(new PlanNodeIdAllocator(), new DummyMetadata());
+        ValuesNode values = planBuilder.values(planBuilder.symbol("x"));
+        PlanNode limit = planBuilder.limit(10, values);
+        Map<PlanNodeId, PlanNodeCost> costs = ImmutableMap.of(
+                values.getId(), PlanNodeCost.builder()
+                        .setOutputRowCount(new Estimate(1000))
+                        .build(),
+                limit.getId(), UNKNOWN_COST);
+
+        // nodes with unknown row counts have no estimate
+        assertEquals(estimateTaskRowCounts(limit, SINGLE_DISTRIBUTION, costs, 4), ImmutableMap.of(values.getId(), 1000L));
+
+        // every task of a source distributed fragment may build all the rows, e.g. for a broadcast join
+        assertEquals(estimateTaskRowCounts(limit, SOURCE_DISTRIBUTION, costs, 4), ImmutableMap.of(values.getId(), 1000L));
+
+        // the rows of a hash partitioned fragment are spread over its tasks
+        assertEquals(estimateTaskRowCounts(limit, FIXED_HASH_DISTRIBUTION, costs, 4), ImmutableMap.of(values.getId(), 250L));
+    }
+}
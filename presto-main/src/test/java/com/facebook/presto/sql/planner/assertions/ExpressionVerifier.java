@@ -35,6 +35,7 @@ import com.facebook.presto.sql.tree.NotExpression;
 import com.facebook.presto.sql.tree.NullLiteral;
 import com.facebook.presto.sql.tree.SimpleCaseExpression;
 import com.facebook.presto.sql.tree.StringLiteral;
+import com.facebook.presto.sql.tree.SubscriptExpression;
 import com.facebook.presto.sql.tree.SymbolReference;
 import com.facebook.presto.sql.tree.TryExpression;
 import com.facebook.presto.sql.tree.WhenClause;
@@ -380,6 +381,17 @@ final class ExpressionVerifier
         return true;
     }
 
+    @Override
+    protected Boolean visitSubscriptExpression(SubscriptExpression actual, Node expected)
+    {
+        if (!(expected instanceof SubscriptExpression)) {
+            return false;
+        }
+
+        SubscriptExpression expectedSubscript = (SubscriptExpression) expected;
+        return process(actual.getBase(), expectedSubscript.getBase()) && process(actual.getIndex(), expectedSubscript.getIndex());
+    }
+
     @Override
     protected Boolean visitNullLiteral(NullLiteral node, Node expected)
     {
@@ -14,14 +14,33 @@
 package com.facebook.presto.sql.planner.iterative;
 
 import com.facebook.presto.Session;
+import com.facebook.presto.cost.CoefficientBasedCostCalculator;
+import com.facebook.presto.cost.CostCalculator;
+import com.facebook.presto.cost.PlanNodeCost;
 import com.facebook.presto.matching.Captures;
 import com.facebook.presto.matching.Pattern;
+import com.facebook.presto.metadata.DummyMetadata;
+import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
 import com.facebook.presto.sql.planner.StatsRecorder;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.iterative.rule.PushPartialAggregationThroughJoin;
+import com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder;
 import com.facebook.presto.sql.planner.optimizations.PlanOptimizer;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
 import com.facebook.presto.sql.planner.plan.Assignments;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.LimitNode;
 import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.LongLiteral;
 import com.facebook.presto.testing.LocalQueryRunner;
 import com.facebook.presto.tpch.TpchConnectorFactory;
 import com.google.common.collect.ImmutableList;
@@ -31,10 +50,23 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.SystemSessionProperties.PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN;
+import static com.facebook.presto.cost.PlanNodeCost.UNKNOWN_COST;
+import static com.facebook.presto.metadata.MetadataManager.createTestMetadataManager;
 import static com.facebook.presto.spi.StandardErrorCode.OPTIMIZER_TIMEOUT;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.PARTIAL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.Patterns.limit;
 import static com.facebook.presto.sql.planner.plan.Patterns.project;
 import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static java.util.Collections.nCopies;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 public class TestIterativeOptimizer
@@ -83,6 +115,151 @@ public class TestIterativeOptimizer
         }
     }
 
+    @Test
+    public void testCostBasedRuleChoosesCheaperAlternative()
+    {
+        PlanNode plan = optimizeLimit(100, new LimitCostCalculator());
+
+        // the cheaper alternative is chosen, and the more expensive one proposed for it is not
+        assertEquals(((LimitNode) plan).getCount(), 10);
+    }
+
+    @Test
+    public void testCostBasedRuleAppliesAlternativeWithUnknownCost()
+    {
+        PlanNode plan = optimizeLimit(100, (session, types, planNode) -> ImmutableMap.of(planNode.getId(), UNKNOWN_COST));
+
+        // the alternatives are chosen like results of a regular rule, until the alternatives of the group are exhausted
+        assertEquals(((LimitNode) plan).getCount(), 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Cost based rules require a cost calculator")
+    public void testCostBasedRuleRequiresCostCalculator()
+    {
+        new IterativeOptimizer(new StatsRecorder(), ImmutableSet.of(new ChangeLimitCount()));
+    }
+
+    @Test
+    public void testPartialAggregationIsPushedThroughJoinWhenCheaper()
+    {
+        // the aggregation halves the larger side of the join, so the join produces fewer rows
+        PlanNode plan = optimizePartialAggregationOverJoin(4, 1, new CoefficientBasedCostCalculator(createTestMetadataManager()));
+
+        assertTrue(plan instanceof ProjectNode);
+        JoinNode join = (JoinNode) ((ProjectNode) plan).getSource();
+        assertTrue(join.getLeft() instanceof AggregationNode);
+    }
+
+    @Test
+    public void testPartialAggregationIsKeptAboveJoinWhenCheaper()
+    {
+        // the aggregation only halves the smaller side of the join, which does not reduce the rows produced by the join
+        PlanNode plan = optimizePartialAggregationOverJoin(4, 4, new CoefficientBasedCostCalculator(createTestMetadataManager()));
+
+        assertTrue(plan instanceof AggregationNode);
+        assertTrue(((AggregationNode) plan).getSource() instanceof JoinNode);
+    }
+
+    private static PlanNode optimizeLimit(long count, CostCalculator costCalculator)
+    {
+        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+        PlanBuilder planBuilder = new PlanBuilder(idAllocator, new DummyMetadata());
+        PlanNode plan = planBuilder.limit(count, planBuilder.values(planBuilder.symbol("x")));
+
+        PlanOptimizer optimizer = new IterativeOptimizer(new StatsRecorder(), costCalculator, ImmutableSet.of(new ChangeLimitCount()));
+        SymbolAllocator symbolAllocator = new SymbolAllocator(planBuilder.getSymbols());
+        return optimizer.optimize(plan, testSessionBuilder().build(), symbolAllocator.getTypes(), symbolAllocator, idAllocator);
+    }
+
+    @Test
+    public void testPartialAggregationIsPushedThroughJoinWithoutStatistics()
+    {
+        // without estimates the rule is applied as when it was not cost based
+        PlanNode plan = optimizePartialAggregationOverJoin(4, 4, (session, types, planNode) -> ImmutableMap.of(planNode.getId(), UNKNOWN_COST));
+
+        assertTrue(plan instanceof ProjectNode);
+        JoinNode join = (JoinNode) ((ProjectNode) plan).getSource();
+        assertTrue(join.getLeft() instanceof AggregationNode);
+    }
+
+    private static PlanNode optimizePartialAggregationOverJoin(int leftRowCount, int rightRowCount, CostCalculator costCalculator)
+    {
+        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+        Metadata metadata = createTestMetadataManager();
+        PlanBuilder planBuilder = new PlanBuilder(idAllocator, metadata);
+        Symbol leftKey = planBuilder.symbol("left_key");
+        Symbol leftValue = planBuilder.symbol("left_value");
+        Symbol rightKey = planBuilder.symbol("right_key");
+        PlanNode plan = planBuilder.aggregation(aggregation -> aggregation
+                .source(planBuilder.join(
+                        INNER,
+                        values(planBuilder, leftRowCount, leftKey, leftValue),
+                        values(planBuilder, rightRowCount, rightKey),
+                        new JoinNode.EquiJoinClause(leftKey, rightKey)))
+                .addAggregation(planBuilder.symbol("sum"), expression("sum(left_value)"), ImmutableList.of(BIGINT))
+                .addGroupingSet(rightKey)
+                .step(PARTIAL));
+
+        Session session = testSessionBuilder()
+                .setSystemProperty(PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN, "true")
+                .build();
+        PlanOptimizer optimizer = new IterativeOptimizer(new StatsRecorder(), costCalculator, ImmutableSet.of(new PushPartialAggregationThroughJoin()));
+        SymbolAllocator symbolAllocator = new SymbolAllocator(planBuilder.getSymbols());
+        return optimizer.optimize(plan, session, symbolAllocator.getTypes(), symbolAllocator, idAllocator);
+    }
+
+    private static ValuesNode values(PlanBuilder planBuilder, int rowCount, Symbol... columns)
+    {
+        List<Expression> row = nCopies(columns.length, new LongLiteral("1"));
+        return planBuilder.values(ImmutableList.copyOf(columns), nCopies(rowCount, row));
+    }
+
+    // Proposes a limit of 10 rows for any other limit, and of 1000 rows for a limit of 10 rows
+    private static class ChangeLimitCount
+            implements Rule<LimitNode>
+    {
+        @Override
+        public Pattern<LimitNode> getPattern()
+        {
+            return limit();
+        }
+
+        @Override
+        public boolean isCostBased()
+        {
+            return true;
+        }
+
+        @Override
+        public Result apply(LimitNode limit, Captures captures, Context context)
+        {
+            long count = limit.getCount() == 10 ? 1000 : 10;
+            return Result.ofPlanNode(new LimitNode(context.getIdAllocator().getNextId(), limit.getSource(), count, limit.isPartial()));
+        }
+    }
+
+    // Estimates a limit to produce as many rows as its count, and any other node to produce 100 rows
+    private static class LimitCostCalculator
+            implements CostCalculator
+    {
+        @Override
+        public Map<PlanNodeId, PlanNodeCost> calculateCostForPlan(Session session, Map<Symbol, Type> types, PlanNode planNode)
+        {
+            ImmutableMap.Builder<PlanNodeId, PlanNodeCost> costs = ImmutableMap.builder();
+            addCosts(planNode, costs);
+            return costs.build();
+        }
+
+        private static void addCosts(PlanNode node, ImmutableMap.Builder<PlanNodeId, PlanNodeCost> costs)
+        {
+            long rowCount = node instanceof LimitNode ? ((LimitNode) node).getCount() : 100;
+            costs.put(node.getId(), PlanNodeCost.builder()
+                    .setOutputRowCount(new Estimate(rowCount))
+                    .build());
+            node.getSources().forEach(source -> addCosts(source, costs));
+        }
+    }
+
     private static class NonConvergingRule
             implements Rule<ProjectNode>
     {
@@ -184,6 +184,40 @@ public class TestMemo
                         node(y2.getId(), node(z.getId()))));
     }
 
+    /*
+      From: X -> Y -> Z
+      To:   X -> Y -> Z
+                 Y' -> W   (alternative)
+     */
+    @Test
+    public void testAlternatives()
+            throws Exception
+    {
+        PlanNode z = node();
+        PlanNode y = node(z);
+        PlanNode x = node(y);
+
+        Memo memo = new Memo(idAllocator, x);
+        int yGroup = getChildGroup(memo, memo.getRootGroup());
+
+        PlanNode w = node();
+        PlanNode alternativeY = node(w);
+        PlanNode alternative = memo.addAlternative(yGroup, alternativeY, "rule");
+        assertEquals(memo.getGroupCount(), 4);
+        assertEquals(memo.getExpressions(yGroup).size(), 2);
+        assertMatchesStructure(memo.extract(), node(x.getId(), node(y.getId(), node(z.getId()))));
+        assertMatchesStructure(memo.extract(alternative), node(alternativeY.getId(), node(w.getId())));
+
+        memo.choose(yGroup, alternative);
+        assertEquals(memo.getGroupCount(), 4);
+        assertEquals(memo.getExpressions(yGroup).get(0), alternative);
+        assertMatchesStructure(memo.extract(), node(x.getId(), node(alternativeY.getId(), node(w.getId()))));
+
+        // groups referenced only by alternatives are collected together with the group holding them
+        memo.replace(memo.getRootGroup(), node(), "rule");
+        assertEquals(memo.getGroupCount(), 1);
+    }
+
     private static void assertMatchesStructure(PlanNode actual, PlanNode expected)
     {
         assertEquals(actual.getClass(), expected.getClass());
@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.sql.planner.assertions.PlanMatchPattern;
+import com.facebook.presto.sql.planner.iterative.rule.test.BaseRuleTest;
+import com.facebook.presto.sql.planner.plan.Assignments;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.operator.scalar.JsonExtractScalarsFunction.encodePaths;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.project;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.values;
+import static com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static java.lang.String.format;
+
+public class TestMergeJsonExtractScalarCalls
+        extends BaseRuleTest
+{
+    @Test
+    public void testMergeCalls()
+    {
+        tester().assertThat(new MergeJsonExtractScalarCalls())
+                .on(p -> p.project(
+                        Assignments.builder()
+                                .put(p.symbol("a", VARCHAR), expression("json_extract_scalar(x, CAST('$.a' AS JsonPath))"))
+                                .put(p.symbol("b"), expression("CAST(json_extract_scalar(x, CAST('$.b' AS JsonPath)) AS bigint) + y"))
+                                .put(p.symbol("c", VARCHAR), expression("coalesce(json_extract_scalar(x, CAST('$.a' AS JsonPath)), 'none')"))
+                                .build(),
+                        p.values(p.symbol("x", VARCHAR), p.symbol("y"))))
+                .matches(
+                        project(
+                                ImmutableMap.of(
+                                        "a", PlanMatchPattern.expression("extracted[1]"),
+                                        "b", PlanMatchPattern.expression("CAST(extracted[2] AS bigint) + y"),
+                                        "c", PlanMatchPattern.expression("coalesce(extracted[1], 'none')")),
+                                project(
+                                        ImmutableMap.of(
+                                                "extracted", PlanMatchPattern.expression(extractScalars("x", "$.a", "$.b")),
+                                                "y", PlanMatchPattern.expression("y")),
+                                        values(ImmutableMap.of("x", 0, "y", 1)))));
+    }
+
+    @Test
+    public void testBoundedVarchar()
+    {
+        tester().assertThat(new MergeJsonExtractScalarCalls())
+                .on(p -> p.project(
+                        Assignments.of(
+                                p.symbol("a", createVarcharType(100)), expression("json_extract_scalar(x, CAST('$.a' AS JsonPath))"),
+                                p.symbol("b", createVarcharType(100)), expression("json_extract_scalar(x, CAST('$[\"b\"][0]' AS JsonPath))")),
+                        p.values(p.symbol("x", createVarcharType(100)))))
+                .matches(
+                        project(
+                                ImmutableMap.of(
+                                        "a", PlanMatchPattern.expression("CAST(extracted[1] AS varchar(100))"),
+                                        "b", PlanMatchPattern.expression("CAST(extracted[2] AS varchar(100))")),
+                                project(
+                                        ImmutableMap.of("extracted", PlanMatchPattern.expression(extractScalars("x", "$.a", "$[\"b\"][0]"))),
+                                        values(ImmutableMap.of("x", 0)))));
+    }
+
+    @Test
+    public void testDoesNotFire()
+    {
+        // a single call
+        tester().assertThat(new MergeJsonExtractScalarCalls())
+                .on(p -> p.project(
+                        Assignments.of(p.symbol("a", VARCHAR), expression("json_extract_scalar(x, CAST('$.a' AS JsonPath))")),
+                        p.values(p.symbol("x", VARCHAR))))
+                .doesNotFire();
+
+        // calls on different documents
+        tester().assertThat(new MergeJsonExtractScalarCalls())
+                .on(p -> p.project(
+                        Assignments.of(
+                                p.symbol("a", VARCHAR), expression("json_extract_scalar(x, CAST('$.a' AS JsonPath))"),
+                                p.symbol("b", VARCHAR), expression("json_extract_scalar(y, CAST('$.a' AS JsonPath))")),
+                        p.values(p.symbol("x", VARCHAR), p.symbol("y", VARCHAR))))
+                .doesNotFire();
+
+        // paths that are not constant or not valid
+        tester().assertThat(new MergeJsonExtractScalarCalls())
+                .on(p -> p.project(
+                        Assignments.of(
+                                p.symbol("a", VARCHAR), expression("json_extract_scalar(x, CAST(y AS JsonPath))"),
+                                p.symbol("b", VARCHAR), expression("json_extract_scalar(x, CAST('$.a[' AS JsonPath))")),
+                        p.values(p.symbol("x", VARCHAR), p.symbol("y", VARCHAR))))
+                .doesNotFire();
+    }
+
+    private static String extractScalars(String document, String... paths)
+    {
+        return format("\"$internal$json_extract_scalars\"(%s, '%s')", document, encodePaths(ImmutableList.copyOf(paths)));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.spi.type.ArrayType;
+import com.facebook.presto.sql.planner.iterative.rule.test.BaseRuleTest;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.SystemSessionProperties.USE_TDIGEST_FOR_APPROX_PERCENTILE;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.aggregation;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.functionCall;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.values;
+import static com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder.expression;
+
+public class TestUseTDigestForApproximatePercentile
+        extends BaseRuleTest
+{
+    @Test
+    public void testReplacesSinglePercentile()
+    {
+        tester().assertThat(new UseTDigestForApproximatePercentile())
+                .setSystemProperty(USE_TDIGEST_FOR_APPROX_PERCENTILE, "true")
+                .on(p -> p.aggregation(a -> a
+                        .globalGrouping()
+                        .addAggregation(p.symbol("median", DOUBLE), expression("approx_percentile(x, p)"), ImmutableList.of(DOUBLE, DOUBLE))
+                        .addAggregation(p.symbol("weighted", BIGINT), expression("approx_percentile(y, w, p)"), ImmutableList.of(BIGINT, BIGINT, DOUBLE))
+                        .source(p.values(p.symbol("x", DOUBLE), p.symbol("y", BIGINT), p.symbol("w", BIGINT), p.symbol("p", DOUBLE)))))
+                .matches(
+                        aggregation(
+                                ImmutableMap.of(
+                                        "median", functionCall("approx_percentile_tdigest", ImmutableList.of("x", "p")),
+                                        "weighted", functionCall("approx_percentile_tdigest", ImmutableList.of("y", "w", "p"))),
+                                values(ImmutableMap.of("x", 0, "y", 1, "w", 2, "p", 3))));
+    }
+
+    @Test
+    public void testDoesNotFire()
+    {
+        // disabled
+        tester().assertThat(new UseTDigestForApproximatePercentile())
+                .on(p -> p.aggregation(a -> a
+                        .globalGrouping()
+                        .addAggregation(p.symbol("median", DOUBLE), expression("approx_percentile(x, p)"), ImmutableList.of(DOUBLE, DOUBLE))
+                        .source(p.values(p.symbol("x", DOUBLE), p.symbol("p", DOUBLE)))))
+                .doesNotFire();
+
+        // array of percentiles
+        tester().assertThat(new UseTDigestForApproximatePercentile())
+                .setSystemProperty(USE_TDIGEST_FOR_APPROX_PERCENTILE, "true")
+                .on(p -> p.aggregation(a -> a
+                        .globalGrouping()
+                        .addAggregation(p.symbol("quartiles", new ArrayType(DOUBLE)), expression("approx_percentile(x, p)"), ImmutableList.of(DOUBLE, new ArrayType(DOUBLE)))
+                        .source(p.values(p.symbol("x", DOUBLE), p.symbol("p", new ArrayType(DOUBLE))))))
+                .doesNotFire();
+    }
+}
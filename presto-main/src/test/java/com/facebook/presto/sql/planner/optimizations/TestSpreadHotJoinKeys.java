@@ -0,0 +1,194 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.metadata.DummyMetadata;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.TableStatistics;
+import com.facebook.presto.sql.planner.HotKeys;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.testing.TestingMetadata.TestingColumnHandle;
+import com.facebook.presto.testing.TestingMetadata.TestingTableHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import static com.facebook.presto.SystemSessionProperties.HOT_JOIN_KEY_MIN_FRACTION;
+import static com.facebook.presto.SystemSessionProperties.SPREAD_HOT_JOIN_KEYS;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.sql.planner.plan.ExchangeNode.Scope.REMOTE;
+import static com.facebook.presto.sql.planner.plan.ExchangeNode.Type.REPARTITION;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
+import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestSpreadHotJoinKeys
+{
+    private static final ColumnHandle PROBE_COLUMN = new TestingColumnHandle("probe_key");
+    private static final ColumnHandle BUILD_COLUMN = new TestingColumnHandle("build_key");
+    private static final TupleDomain<ColumnHandle> PROBE_CONSTRAINT = TupleDomain.withColumnDomains(ImmutableMap.of(PROBE_COLUMN, Domain.notNull(BIGINT)));
+
+    @Test
+    public void testSpreadsHotKeys()
+    {
+        JoinNode join = getJoin(optimize(INNER, "0.1", TestSpreadHotJoinKeys::gather));
+
+        HotKeys hotKeys = join.getHotKeys().get();
+        assertEquals(hotKeys.getValues(), ImmutableList.of("42"));
+        assertEquals(hotKeys.getHashes().size(), 1);
+
+        ExchangeNode probeExchange = (ExchangeNode) join.getLeft();
+        assertEquals(probeExchange.getPartitioningScheme().getHotKeys(), Optional.of(hotKeys));
+        assertFalse(probeExchange.getPartitioningScheme().isReplicateHotKeys());
+
+        ExchangeNode buildExchange = (ExchangeNode) join.getRight();
+        assertEquals(buildExchange.getPartitioningScheme().getHotKeys(), Optional.of(hotKeys));
+        assertTrue(buildExchange.getPartitioningScheme().isReplicateHotKeys());
+    }
+
+    @Test
+    public void testKeysBelowMinFractionAreNotSpread()
+    {
+        assertNotSpread(optimize(INNER, "0.6", TestSpreadHotJoinKeys::gather));
+    }
+
+    @Test
+    public void testJoinsProducingUnmatchedBuildRowsAreNotSpread()
+    {
+        assertNotSpread(optimize(RIGHT, "0.1", TestSpreadHotJoinKeys::gather));
+    }
+
+    @Test
+    public void testJoinsWithPartitionedOutputAreNotSpread()
+    {
+        // the aggregation relies on the join output being partitioned on the key
+        assertNotSpread(optimize(INNER, "0.1", (planBuilder, join) -> gather(
+                planBuilder,
+                planBuilder.aggregation(aggregation -> aggregation
+                        .source(join)
+                        .addGroupingSet(join.getCriteria().get(0).getLeft())))));
+    }
+
+    private static PlanNode optimize(JoinNode.Type joinType, String minFraction, BiFunction<PlanBuilder, JoinNode, PlanNode> parent)
+    {
+        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+        PlanBuilder planBuilder = new PlanBuilder(idAllocator, new StatisticsMetadata());
+        Symbol probeKey = planBuilder.symbol("probe_key");
+        Symbol buildKey = planBuilder.symbol("build_key");
+        JoinNode join = new JoinNode(
+                idAllocator.getNextId(),
+                joinType,
+                partitionedExchange(planBuilder, probeScan(idAllocator, probeKey), probeKey),
+                partitionedExchange(planBuilder, planBuilder.tableScan(ImmutableList.of(buildKey), ImmutableMap.of(buildKey, BUILD_COLUMN)), buildKey),
+                ImmutableList.of(new JoinNode.EquiJoinClause(probeKey, buildKey)),
+                ImmutableList.of(probeKey, buildKey),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(PARTITIONED));
+        PlanNode plan = parent.apply(planBuilder, join);
+
+        Session session = testSessionBuilder()
+                .setSystemProperty(SPREAD_HOT_JOIN_KEYS, "true")
+                .setSystemProperty(HOT_JOIN_KEY_MIN_FRACTION, minFraction)
+                .build();
+        SymbolAllocator symbolAllocator = new SymbolAllocator(planBuilder.getSymbols());
+        return new SpreadHotJoinKeys(new StatisticsMetadata()).optimize(plan, session, symbolAllocator.getTypes(), symbolAllocator, idAllocator);
+    }
+
+    private static TableScanNode probeScan(PlanNodeIdAllocator idAllocator, Symbol probeKey)
+    {
+        return new TableScanNode(
+                idAllocator.getNextId(),
+                new TableHandle(new ConnectorId("testConnector"), new TestingTableHandle()),
+                ImmutableList.of(probeKey),
+                ImmutableMap.of(probeKey, PROBE_COLUMN),
+                Optional.empty(),
+                PROBE_CONSTRAINT,
+                null);
+    }
+
+    private static PlanNode gather(PlanBuilder planBuilder, PlanNode source)
+    {
+        return planBuilder.gatheringExchange(REMOTE, source);
+    }
+
+    private static ExchangeNode partitionedExchange(PlanBuilder planBuilder, PlanNode source, Symbol key)
+    {
+        return planBuilder.exchange(exchange -> exchange
+                .type(REPARTITION)
+                .fixedHashDistributionParitioningScheme(ImmutableList.of(key), ImmutableList.of(key))
+                .addSource(source)
+                .addInputsSet(key));
+    }
+
+    private static void assertNotSpread(PlanNode plan)
+    {
+        JoinNode join = getJoin(plan);
+        assertFalse(join.getHotKeys().isPresent());
+        assertFalse(((ExchangeNode) join.getLeft()).getPartitioningScheme().getHotKeys().isPresent());
+        assertFalse(((ExchangeNode) join.getRight()).getPartitioningScheme().getHotKeys().isPresent());
+    }
+
+    private static JoinNode getJoin(PlanNode plan)
+    {
+        PlanNode node = plan;
+        while (!(node instanceof JoinNode)) {
+            node = node.getSources().get(0);
+        }
+        return (JoinNode) node;
+    }
+
+    // Half of the probe rows read by the probe scan have the key 42, and 1% the key 7; other rows have no statistics
+    private static class StatisticsMetadata
+            extends DummyMetadata
+    {
+        @Override
+        public TableStatistics getTableStatistics(Session session, TableHandle tableHandle, Constraint<ColumnHandle> constraint)
+        {
+            if (!constraint.getSummary().equals(PROBE_CONSTRAINT)) {
+                return TableStatistics.EMPTY_STATISTICS;
+            }
+            return TableStatistics.builder()
+                    .setRowCount(new Estimate(1000))
+                    .setColumnStatistics(PROBE_COLUMN, ColumnStatistics.builder()
+                            .addMostCommonValue(42L, 0.5)
+                            .addMostCommonValue(7L, 0.01)
+                            .build())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.facebook.presto.spi.block.Block;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.type.ByteDfa.Result.MATCH;
+import static com.facebook.presto.type.ByteDfa.Result.NO_MATCH;
+import static com.facebook.presto.type.ByteDfa.Result.UNDECIDED;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.lang.String.format;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestDfaRegexp
+{
+    private static final List<String> PATTERNS = ImmutableList.of(
+            "",
+            "abc",
+            "^abc",
+            "abc$",
+            "^abc$",
+            "a.c",
+            "a.*c",
+            "a.+?c",
+            "^a?b*c+$",
+            "(ab|cd)+e",
+            "(?:ab){2,3}",
+            "(?P<first>a)(?<second>b)",
+            "x{2}y{1,}z{0,1}",
+            "[a-c]+[^a-c]",
+            "[\\d.-]+",
+            "\\d+\\.\\d*",
+            "\\w+@\\w+\\.com",
+            "\\s\\S\\W",
+            "\\(\\)\\[\\]",
+            "a\\tb\\nc",
+            "naïve",
+            "^.$",
+            "[^x]$",
+            "GET /[a-z/]+ HTTP/1\\.[01]");
+
+    private static final List<String> VALUES = ImmutableList.of(
+            "",
+            "abc",
+            "xabcx",
+            "ab\nc",
+            "a\nc",
+            "aXc",
+            "abcc",
+            "abababe",
+            "cdabe",
+            "ababab",
+            "abab",
+            "ab",
+            "xxyz",
+            "xxyyy",
+            "abd",
+            "]",
+            "1.5-2",
+            "12.",
+            "john@example.com",
+            " x!",
+            "()[]",
+            "a\tb\nc",
+            "naïve",
+            "ï",
+            "x",
+            "ïy",
+            "GET /index/page HTTP/1.1");
+
+    @Test
+    public void testMatchesLikeRe2J()
+    {
+        for (String pattern : PATTERNS) {
+            DfaRegexp dfaRegexp = new DfaRegexp(1000, Integer.MAX_VALUE, 5, utf8Slice(pattern));
+            assertTrue(dfaRegexp.isAutomatonSupported(), pattern);
+            Re2JRegexp re2JRegexp = new Re2JRegexp(Integer.MAX_VALUE, 5, utf8Slice(pattern));
+            for (String value : VALUES) {
+                Slice source = utf8Slice(value);
+                String message = format("pattern '%s' on '%s'", pattern, value);
+                assertEquals(dfaRegexp.matches(source), re2JRegexp.matches(source), message);
+                assertEquals(dfaRegexp.extract(source, 0), re2JRegexp.extract(source, 0), message);
+                assertEquals(dfaRegexp.replace(source, utf8Slice("-")), re2JRegexp.replace(source, utf8Slice("-")), message);
+                assertBlockEquals(dfaRegexp.extractAll(source, 0), re2JRegexp.extractAll(source, 0), message);
+                assertBlockEquals(dfaRegexp.split(source), re2JRegexp.split(source), message);
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedPatterns()
+    {
+        for (String pattern : ImmutableList.of("(?i)abc", "\\bword\\b", "a{,3}", "[[:alpha:]]", "[é]", "\\x41", "\\pL", "a|b$", "a{1000}")) {
+            DfaRegexp regexp = new DfaRegexp(1000, Integer.MAX_VALUE, 5, utf8Slice(pattern));
+            assertFalse(regexp.isAutomatonSupported(), pattern);
+        }
+        // the automaton of ".{20}x" needs more than 10 states
+        assertFalse(ByteDfa.compile(".{20}x", 10).isPresent());
+        assertTrue(ByteDfa.compile(".{20}x", 1000).isPresent());
+
+        DfaRegexp regexp = new DfaRegexp(1000, Integer.MAX_VALUE, 5, utf8Slice("(?i)abc"));
+        assertTrue(regexp.matches(utf8Slice("xABCx")));
+        assertNull(regexp.extract(utf8Slice("xyz"), 0));
+    }
+
+    @Test
+    public void testInvalidUtf8()
+    {
+        ByteDfa dfa = ByteDfa.compile("a.b", 1000).get();
+        Slice invalid = Slices.wrappedBuffer(new byte[] {'a', (byte) 0xFF, 'b'});
+        // RE2J matches the invalid byte as U+FFFD, so the automaton leaves the decision to it
+        assertEquals(dfa.match(invalid), UNDECIDED);
+        assertEquals(dfa.match(utf8Slice("aéb")), MATCH);
+        assertEquals(dfa.match(utf8Slice("ab")), NO_MATCH);
+        assertTrue(new DfaRegexp(1000, Integer.MAX_VALUE, 5, utf8Slice("a.b")).matches(invalid));
+
+        // literal text only matches the same bytes
+        ByteDfa literal = ByteDfa.compile("aé", 1000).get();
+        assertEquals(literal.match(invalid), NO_MATCH);
+    }
+
+    private static void assertBlockEquals(Block actual, Block expected, String message)
+    {
+        assertEquals(actual.getPositionCount(), expected.getPositionCount(), message);
+        for (int position = 0; position < actual.getPositionCount(); position++) {
+            assertEquals(VARCHAR.getObjectValue(null, actual, position), VARCHAR.getObjectValue(null, expected, position), message);
+        }
+    }
+}
@@ -45,6 +45,7 @@ import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.spi.type.VarcharType.createUnboundedVarcharType;
 import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
+import static com.facebook.presto.type.DfaRegexpType.DFA_REGEXP;
 import static com.facebook.presto.type.JoniRegexpType.JONI_REGEXP;
 import static com.facebook.presto.type.JsonPathType.JSON_PATH;
 import static com.facebook.presto.type.LikePatternType.LIKE_PATTERN;
@@ -113,6 +114,7 @@ public class TestTypeRegistry
         assertTrue(typeRegistry.canCoerce(TIMESTAMP, TIMESTAMP_WITH_TIME_ZONE));
         assertTrue(typeRegistry.canCoerce(VARCHAR, JONI_REGEXP));
         assertTrue(typeRegistry.canCoerce(VARCHAR, RE2J_REGEXP));
+        assertTrue(typeRegistry.canCoerce(VARCHAR, DFA_REGEXP));
         assertTrue(typeRegistry.canCoerce(VARCHAR, LIKE_PATTERN));
         assertTrue(typeRegistry.canCoerce(VARCHAR, JSON_PATH));
 
@@ -159,6 +161,7 @@ public class TestTypeRegistry
 
         assertTrue(typeRegistry.canCoerce(createType("char(42)"), JONI_REGEXP));
         assertTrue(typeRegistry.canCoerce(createType("char(42)"), RE2J_REGEXP));
+        assertTrue(typeRegistry.canCoerce(createType("char(42)"), DFA_REGEXP));
         assertTrue(typeRegistry.canCoerce(createType("char(42)"), LIKE_PATTERN));
         assertTrue(typeRegistry.canCoerce(createType("char(42)"), JSON_PATH));
 
@@ -202,6 +205,7 @@ public class TestTypeRegistry
         assertCommonSuperType(TIMESTAMP, TIMESTAMP_WITH_TIME_ZONE, TIMESTAMP_WITH_TIME_ZONE);
         assertCommonSuperType(VARCHAR, JONI_REGEXP, JONI_REGEXP);
         assertCommonSuperType(VARCHAR, RE2J_REGEXP, RE2J_REGEXP);
+        assertCommonSuperType(VARCHAR, DFA_REGEXP, DFA_REGEXP);
         assertCommonSuperType(VARCHAR, LIKE_PATTERN, LIKE_PATTERN);
         assertCommonSuperType(VARCHAR, JSON_PATH, JSON_PATH);
 
@@ -18,6 +18,7 @@ import com.facebook.presto.sql.parser.SqlBaseParser.PropertyContext;
 import com.facebook.presto.sql.tree.AddColumn;
 import com.facebook.presto.sql.tree.AliasedRelation;
 import com.facebook.presto.sql.tree.AllColumns;
+import com.facebook.presto.sql.tree.Analyze;
 import com.facebook.presto.sql.tree.ArithmeticBinaryExpression;
 import com.facebook.presto.sql.tree.ArithmeticUnaryExpression;
 import com.facebook.presto.sql.tree.ArrayConstructor;
@@ -323,6 +324,12 @@ class AstBuilder
                 visitIfPresent(context.booleanExpression(), Expression.class));
     }
 
+    @Override
+    public Node visitAnalyze(SqlBaseParser.AnalyzeContext context)
+    {
+        return new Analyze(getLocation(context), getQualifiedName(context.qualifiedName()));
+    }
+
     @Override
     public Node visitRenameTable(SqlBaseParser.RenameTableContext context)
     {
@@ -16,6 +16,7 @@ package com.facebook.presto.sql.parser;
 import com.facebook.presto.sql.tree.AddColumn;
 import com.facebook.presto.sql.tree.AliasedRelation;
 import com.facebook.presto.sql.tree.AllColumns;
+import com.facebook.presto.sql.tree.Analyze;
 import com.facebook.presto.sql.tree.ArithmeticBinaryExpression;
 import com.facebook.presto.sql.tree.ArrayConstructor;
 import com.facebook.presto.sql.tree.AtTimeZone;
@@ -1517,6 +1518,13 @@ public class TestSqlParser
                         new Identifier("b")))));
     }
 
+    @Test
+    public void testAnalyze()
+    {
+        assertStatement("ANALYZE foo", new Analyze(QualifiedName.of("foo")));
+        assertStatement("ANALYZE c.s.\"awesome table\"", new Analyze(QualifiedName.of("c", "s", "awesome table")));
+    }
+
     @Test
     public void testRenameTable()
             throws Exception
@@ -162,6 +162,8 @@ public class TestStatementBuilder
         printStatement("delete from foo");
         printStatement("delete from foo where a = b");
 
+        printStatement("analyze foo");
+
         printStatement("values ('a', 1, 2.2), ('b', 2, 3.3)");
 
         printStatement("table foo");
@@ -14,6 +14,7 @@
 package com.facebook.presto.spi;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ConnectorSplit
 {
@@ -22,4 +23,14 @@ public interface ConnectorSplit
     List<HostAddress> getAddresses();
 
     Object getInfo();
+
+    /**
+     * Returns a value identifying the data read by this split, if that data never changes
+     * while the identifier stays the same. The value must implement {@code equals} and
+     * {@code hashCode}. Workers may use it to cache the processed output of the split.
+     */
+    default Optional<Object> getCacheIdentifier()
+    {
+        return Optional.empty();
+    }
 }
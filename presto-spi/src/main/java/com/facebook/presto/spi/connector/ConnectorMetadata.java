@@ -35,7 +35,9 @@ import com.facebook.presto.spi.TableIdentity;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.GrantInfo;
 import com.facebook.presto.spi.security.Privilege;
+import com.facebook.presto.spi.statistics.ComputedStatistics;
 import com.facebook.presto.spi.statistics.TableStatistics;
+import com.facebook.presto.spi.statistics.TableStatisticsMetadata;
 import io.airlift.slice.Slice;
 
 import java.util.Collection;
@@ -136,6 +138,23 @@ public interface ConnectorMetadata
         return EMPTY_STATISTICS;
     }
 
+    /**
+     * Describes the statistics to collect for the specified table when it is analyzed.
+     */
+    default TableStatisticsMetadata getStatisticsCollectionMetadata(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        throw new PrestoException(NOT_SUPPORTED, "This connector does not support collecting statistics");
+    }
+
+    /**
+     * Stores the statistics computed for the specified table, one entry per group of the grouping
+     * columns returned by {@link #getStatisticsCollectionMetadata}.
+     */
+    default void finishStatisticsCollection(ConnectorSession session, ConnectorTableHandle tableHandle, Collection<ComputedStatistics> computedStatistics)
+    {
+        throw new PrestoException(NOT_SUPPORTED, "This connector does not support collecting statistics");
+    }
+
     /**
      * Creates a schema.
      */
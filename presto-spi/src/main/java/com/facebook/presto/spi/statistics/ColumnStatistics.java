@@ -16,6 +16,7 @@ package com.facebook.presto.spi.statistics;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import static com.facebook.presto.spi.statistics.Estimate.unknownValue;
@@ -29,8 +30,10 @@ public final class ColumnStatistics
 
     private final Estimate nullsFraction;
     private final List<RangeColumnStatistics> rangeColumnStatistics;
+    private final List<ValueFrequency> mostCommonValues;
+    private final Optional<Histogram> histogram;
 
-    private ColumnStatistics(Estimate nullsFraction, List<RangeColumnStatistics> rangeColumnStatistics)
+    private ColumnStatistics(Estimate nullsFraction, List<RangeColumnStatistics> rangeColumnStatistics, List<ValueFrequency> mostCommonValues, Optional<Histogram> histogram)
     {
         this.nullsFraction = requireNonNull(nullsFraction, "nullsFraction can not be null");
         requireNonNull(rangeColumnStatistics, "rangeColumnStatistics can not be null");
@@ -49,6 +52,13 @@ public final class ColumnStatistics
         }
 
         this.rangeColumnStatistics = unmodifiableList(new ArrayList<>(rangeColumnStatistics));
+
+        requireNonNull(mostCommonValues, "mostCommonValues can not be null");
+        if (!mostCommonValues.stream().allMatch(Objects::nonNull)) {
+            throw new NullPointerException("elements of mostCommonValues can not be null");
+        }
+        this.mostCommonValues = unmodifiableList(new ArrayList<>(mostCommonValues));
+        this.histogram = requireNonNull(histogram, "histogram can not be null");
     }
 
     public Estimate getNullsFraction()
@@ -61,6 +71,22 @@ public final class ColumnStatistics
         return rangeColumnStatistics.get(0);
     }
 
+    /**
+     * Returns the most frequent values of the column, if known, in no particular order.
+     */
+    public List<ValueFrequency> getMostCommonValues()
+    {
+        return mostCommonValues;
+    }
+
+    /**
+     * Returns the distribution of the values of the column other than the most common values, if known.
+     */
+    public Optional<Histogram> getHistogram()
+    {
+        return histogram;
+    }
+
     public static Builder builder()
     {
         return new Builder();
@@ -70,6 +96,8 @@ public final class ColumnStatistics
     {
         private Estimate nullsFraction = unknownValue();
         private List<RangeColumnStatistics> rangeColumnStatistics = new ArrayList<>();
+        private List<ValueFrequency> mostCommonValues = new ArrayList<>();
+        private Optional<Histogram> histogram = Optional.empty();
 
         public Builder setNullsFraction(Estimate nullsFraction)
         {
@@ -91,9 +119,21 @@ public final class ColumnStatistics
             return this;
         }
 
+        public Builder addMostCommonValue(Object value, double fraction)
+        {
+            this.mostCommonValues.add(new ValueFrequency(value, fraction));
+            return this;
+        }
+
+        public Builder setHistogram(Histogram histogram)
+        {
+            this.histogram = Optional.of(histogram);
+            return this;
+        }
+
         public ColumnStatistics build()
         {
-            return new ColumnStatistics(nullsFraction, rangeColumnStatistics);
+            return new ColumnStatistics(nullsFraction, rangeColumnStatistics, mostCommonValues, histogram);
         }
     }
 }
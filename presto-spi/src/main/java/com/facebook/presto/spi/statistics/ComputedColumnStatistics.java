@@ -0,0 +1,95 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Statistics of a single column computed by {@code ANALYZE}. Values of {@code min} and {@code max}
+ * are in the native stack representation of the column type. Quantiles of numeric and date columns
+ * are the values, as doubles (days for dates), below which evenly spaced fractions of the non-null
+ * values fall, from the lowest to the highest value. Statistics that were not computed for the column
+ * type, or for a group without non-null values, are absent.
+ */
+public final class ComputedColumnStatistics
+{
+    private final long nullsCount;
+    private final OptionalLong distinctValuesCount;
+    private final Optional<Object> min;
+    private final Optional<Object> max;
+    private final OptionalLong dataSize;
+    private final Optional<List<Double>> quantiles;
+
+    public ComputedColumnStatistics(long nullsCount, OptionalLong distinctValuesCount, Optional<Object> min, Optional<Object> max, OptionalLong dataSize, Optional<List<Double>> quantiles)
+    {
+        if (nullsCount < 0) {
+            throw new IllegalArgumentException("nullsCount is negative");
+        }
+        this.nullsCount = nullsCount;
+        this.distinctValuesCount = requireNonNull(distinctValuesCount, "distinctValuesCount is null");
+        this.min = requireNonNull(min, "min is null");
+        this.max = requireNonNull(max, "max is null");
+        this.dataSize = requireNonNull(dataSize, "dataSize is null");
+        this.quantiles = requireNonNull(quantiles, "quantiles is null").map(values -> unmodifiableList(new ArrayList<>(values)));
+    }
+
+    public long getNullsCount()
+    {
+        return nullsCount;
+    }
+
+    public OptionalLong getDistinctValuesCount()
+    {
+        return distinctValuesCount;
+    }
+
+    public Optional<Object> getMin()
+    {
+        return min;
+    }
+
+    public Optional<Object> getMax()
+    {
+        return max;
+    }
+
+    public OptionalLong getDataSize()
+    {
+        return dataSize;
+    }
+
+    public Optional<List<Double>> getQuantiles()
+    {
+        return quantiles;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ComputedColumnStatistics{" +
+                "nullsCount=" + nullsCount +
+                ", distinctValuesCount=" + distinctValuesCount +
+                ", min=" + min +
+                ", max=" + max +
+                ", dataSize=" + dataSize +
+                ", quantiles=" + quantiles +
+                "}";
+    }
+}
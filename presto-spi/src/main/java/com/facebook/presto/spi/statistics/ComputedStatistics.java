@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.statistics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Statistics computed by {@code ANALYZE} for one group of rows, identified by the values of the
+ * grouping columns requested in {@link TableStatisticsMetadata}. Grouping values are in the native
+ * stack representation of the column types and may be {@code null}.
+ */
+public final class ComputedStatistics
+{
+    private final List<String> groupingColumns;
+    private final List<Object> groupingValues;
+    private final long rowCount;
+    private final Map<String, ComputedColumnStatistics> columnStatistics;
+
+    public ComputedStatistics(List<String> groupingColumns, List<Object> groupingValues, long rowCount, Map<String, ComputedColumnStatistics> columnStatistics)
+    {
+        requireNonNull(groupingColumns, "groupingColumns is null");
+        requireNonNull(groupingValues, "groupingValues is null");
+        if (groupingColumns.size() != groupingValues.size()) {
+            throw new IllegalArgumentException("groupingColumns and groupingValues have different sizes");
+        }
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("rowCount is negative");
+        }
+        this.groupingColumns = unmodifiableList(new ArrayList<>(groupingColumns));
+        this.groupingValues = unmodifiableList(new ArrayList<>(groupingValues));
+        this.rowCount = rowCount;
+        this.columnStatistics = unmodifiableMap(new LinkedHashMap<>(requireNonNull(columnStatistics, "columnStatistics is null")));
+    }
+
+    public List<String> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    public List<Object> getGroupingValues()
+    {
+        return groupingValues;
+    }
+
+    public long getRowCount()
+    {
+        return rowCount;
+    }
+
+    public Map<String, ComputedColumnStatistics> getColumnStatistics()
+    {
+        return columnStatistics;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ComputedStatistics{" +
+                "groupingColumns=" + groupingColumns +
+                ", groupingValues=" + groupingValues +
+                ", rowCount=" + rowCount +
+                ", columnStatistics=" + columnStatistics +
+                "}";
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Distribution of the values of a column, as buckets of values between a low and a high value (both inclusive).
+ * Values are in the native representation of the column type, and are assumed to be spread uniformly within a bucket.
+ * <p>
+ * The fraction of a bucket is the fraction of all rows of the table having a value in the bucket, excluding
+ * the rows having one of the {@link ColumnStatistics#getMostCommonValues() most common values} of the column.
+ * In an equi-height histogram all buckets have the same fraction. Buckets may overlap, e.g. when the histograms
+ * of multiple partitions are combined.
+ */
+public final class Histogram
+{
+    private final List<Bucket> buckets;
+
+    public Histogram(List<Bucket> buckets)
+    {
+        requireNonNull(buckets, "buckets can not be null");
+        if (!buckets.stream().allMatch(Objects::nonNull)) {
+            throw new NullPointerException("elements of buckets can not be null");
+        }
+        this.buckets = unmodifiableList(new ArrayList<>(buckets));
+    }
+
+    public List<Bucket> getBuckets()
+    {
+        return buckets;
+    }
+
+    public static final class Bucket
+    {
+        private final Object lowValue;
+        private final Object highValue;
+        private final double fraction;
+
+        public Bucket(Object lowValue, Object highValue, double fraction)
+        {
+            this.lowValue = requireNonNull(lowValue, "lowValue can not be null");
+            this.highValue = requireNonNull(highValue, "highValue can not be null");
+            if (!(fraction >= 0 && fraction <= 1)) {
+                throw new IllegalArgumentException("fraction must be between 0 and 1: " + fraction);
+            }
+            this.fraction = fraction;
+        }
+
+        public Object getLowValue()
+        {
+            return lowValue;
+        }
+
+        public Object getHighValue()
+        {
+            return highValue;
+        }
+
+        public double getFraction()
+        {
+            return fraction;
+        }
+    }
+}
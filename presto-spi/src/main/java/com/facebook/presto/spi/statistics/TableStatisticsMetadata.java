@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.statistics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Describes the statistics a connector collects for a table: the columns for which column statistics
+ * are computed, and the columns by which the statistics are grouped (e.g. partition keys).
+ */
+public final class TableStatisticsMetadata
+{
+    private final Set<String> columns;
+    private final List<String> groupingColumns;
+
+    public TableStatisticsMetadata(Set<String> columns, List<String> groupingColumns)
+    {
+        this.columns = unmodifiableSet(new LinkedHashSet<>(requireNonNull(columns, "columns is null")));
+        this.groupingColumns = unmodifiableList(new ArrayList<>(requireNonNull(groupingColumns, "groupingColumns is null")));
+        for (String groupingColumn : groupingColumns) {
+            if (columns.contains(groupingColumn)) {
+                throw new IllegalArgumentException("Grouping column is also a statistics column: " + groupingColumn);
+            }
+        }
+    }
+
+    public Set<String> getColumns()
+    {
+        return columns;
+    }
+
+    public List<String> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TableStatisticsMetadata that = (TableStatisticsMetadata) o;
+        return Objects.equals(columns, that.columns) &&
+                Objects.equals(groupingColumns, that.groupingColumns);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(columns, groupingColumns);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TableStatisticsMetadata{columns=" + columns + ", groupingColumns=" + groupingColumns + "}";
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.statistics;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A value of a column, in the native representation of the column type, together with the fraction
+ * of all rows of the table having that value.
+ */
+public final class ValueFrequency
+{
+    private final Object value;
+    private final double fraction;
+
+    public ValueFrequency(Object value, double fraction)
+    {
+        this.value = requireNonNull(value, "value can not be null");
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("fraction must be between 0 and 1: " + fraction);
+        }
+        this.fraction = fraction;
+    }
+
+    public Object getValue()
+    {
+        return value;
+    }
+
+    public double getFraction()
+    {
+        return fraction;
+    }
+}
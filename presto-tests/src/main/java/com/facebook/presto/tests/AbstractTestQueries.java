@@ -814,6 +814,23 @@ public abstract class AbstractTestQueries
         assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
     }
 
+    @Test
+    public void testApproximateCountDistinctGroupByVarchar()
+    {
+        // approx_distinct with a standard error of 0.0163 uses the 4096 buckets of approx_set, so the estimates must be the same,
+        // both for small groups, whose distinct hashes are kept, and for large groups, which use a HyperLogLog
+        for (String grouping : ImmutableList.of("custkey % 100", "orderstatus")) {
+            assertQuery("" +
+                            "SELECT count_if(a <> c OR b <> c) FROM (" +
+                            "SELECT " +
+                            "approx_distinct(CAST(custkey AS VARCHAR), 0.0163) a, " +
+                            "approx_distinct(to_utf8(CAST(custkey AS VARCHAR)), 0.0163) b, " +
+                            "cardinality(approx_set(CAST(custkey AS VARCHAR))) c " +
+                            "FROM orders GROUP BY " + grouping + ")",
+                    "SELECT 0");
+        }
+    }
+
     @Test
     public void testCountBoolean()
     {
@@ -1474,6 +1491,15 @@ public abstract class AbstractTestQueries
                 "SELECT orderstatus, CAST(COUNT(*) AS INTEGER) FROM orders GROUP BY orderstatus");
     }
 
+    @Test
+    public void testGroupByPreGroupedInput()
+    {
+        // lineitem of tpch is sorted on orderkey and linenumber within every split, so these groups are aggregated as they arrive
+        assertQuery("SELECT orderkey, COUNT(*), SUM(quantity), MAX(shipdate) FROM lineitem GROUP BY orderkey");
+        assertQuery("SELECT orderkey, linenumber, SUM(extendedprice) FROM lineitem GROUP BY orderkey, linenumber");
+        assertQuery("SELECT orderkey, COUNT(*) FROM lineitem WHERE linenumber > 2 GROUP BY orderkey");
+    }
+
     @Test
     public void testGroupByMultipleFields()
     {